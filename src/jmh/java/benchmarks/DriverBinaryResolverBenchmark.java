@@ -0,0 +1,60 @@
+package benchmarks;
+
+import driver.DriverBinaryResolver;
+import driver.DriverType;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the driver binary resolution overhead paid by every {@code DriverFactory.createDriver} call.
+ * <p>
+ * {@code setupPerCall} is the previous behavior, calling {@link WebDriverManager#setup()} for every driver.
+ * {@code resolveCached} is the current behavior through {@link DriverBinaryResolver}.
+ * The first benchmark needs network access or a populated WebDriverManager cache.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverBinaryResolverBenchmark {
+
+    /**
+     * Resolves the binary once, so the cached benchmark measures the steady state.
+     */
+    @Setup
+    public void resolveOnce() {
+        DriverBinaryResolver.resolve(DriverType.CHROME);
+    }
+
+    /**
+     * The per-create cost before caching.
+     */
+    @Benchmark
+    public void setupPerCall() {
+        WebDriverManager.chromedriver().setup();
+    }
+
+    /**
+     * The per-create cost with the memoized resolution.
+     *
+     * @return the resolved path, returned so the call is not optimized away.
+     */
+    @Benchmark
+    public String resolveCached() {
+        return DriverBinaryResolver.resolve(DriverType.CHROME);
+    }
+}
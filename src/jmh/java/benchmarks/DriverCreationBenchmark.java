@@ -0,0 +1,93 @@
+package benchmarks;
+
+import driver.DriverOptionsFactory;
+import driver.DriverPoolSettings;
+import driver.DriverSessionPool;
+import driver.DriverType;
+import driver.FakeWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the framework's share of {@code DriverFactory.createDriver}: dispatching on the browser name and
+ * building the configured options, and handing out a pooled session instead.
+ * <p>
+ * Launching the browser itself is not measured; the pool creates
+ * {@link FakeWebDriver#inMemory(int) in-memory FakeWebDriver} sessions. Binary resolution is covered by
+ * {@link DriverBinaryResolverBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverCreationBenchmark {
+
+    /**
+     * The browser name, as passed to {@code DriverFactory.createDriver}.
+     */
+    @Param({"chrome", "firefox"})
+    public String browserName;
+
+    private DriverType type;
+    private DriverSessionPool pool;
+
+    /**
+     * Creates a pool of in-memory sessions with one warm session.
+     */
+    @Setup
+    public void createPool() {
+        type = DriverType.valueOf(browserName.toUpperCase());
+        pool = new DriverSessionPool(
+                new DriverPoolSettings(0, 4, Duration.ofMinutes(5), Duration.ofSeconds(10)),
+                driverType -> FakeWebDriver.inMemory(0), driver -> true);
+        pool.warmUp(type);
+    }
+
+    /**
+     * Closes the pool.
+     */
+    @TearDown
+    public void closePool() {
+        pool.close();
+    }
+
+    /**
+     * Resolving the browser name and building its options from the configuration.
+     *
+     * @return the options.
+     */
+    @Benchmark
+    public MutableCapabilities dispatchAndBuildOptions() {
+        return DriverOptionsFactory.createOptions(DriverType.valueOf(browserName.toUpperCase()));
+    }
+
+    /**
+     * Borrowing a warm session and handing it back, including the reset between tests.
+     *
+     * @return the borrowed session.
+     */
+    @Benchmark
+    public WebDriver pooledAcquireRelease() {
+        WebDriver driver = pool.acquire(type);
+        pool.release(driver);
+        return driver;
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import driver.DriverStoreManager;
+import driver.FakeWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DriverStoreManager} under contention: eight threads register, look up and unregister their own
+ * drivers while the store already holds drivers of other tests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class DriverStoreManagerBenchmark {
+
+    private static final int OTHER_DRIVERS = 64;
+
+    /**
+     * Fills the store with the drivers of other tests.
+     */
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Setup(Level.Trial)
+        public void fill() {
+            for (int i = 0; i < OTHER_DRIVERS; i++) {
+                DriverStoreManager.registerDriver("otherDriver#" + i, FakeWebDriver.inMemory(0));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            DriverStoreManager.clearDriversMap();
+        }
+    }
+
+    /**
+     * The driver of one benchmark thread, registered under that thread's key.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        private WebDriver driver;
+        private String key;
+
+        @Setup(Level.Trial)
+        public void create() {
+            driver = FakeWebDriver.inMemory(0);
+            key = DriverStoreManager.threadScopedKey("chromeDriver");
+        }
+    }
+
+    /**
+     * The per-test cost of the store: register at setup, look up during the test, unregister at teardown.
+     *
+     * @param store   the shared store.
+     * @param session the thread's driver.
+     * @return the looked-up driver.
+     */
+    @Benchmark
+    public WebDriver registerLookupUnregister(Store store, Session session) {
+        DriverStoreManager.registerDriver(session.key, session.driver);
+        WebDriver found = DriverStoreManager.getDriverFromDriversMap(session.key);
+        DriverStoreManager.unregisterDriver(session.key, session.driver);
+        return found;
+    }
+
+    /**
+     * Setting and reading the current driver of the thread, as the extensions do.
+     *
+     * @param store   the shared store.
+     * @param session the thread's driver.
+     * @return the current driver.
+     */
+    @Benchmark
+    public WebDriver currentDriver(Store store, Session session) {
+        DriverStoreManager.setCurrentDriver(session.driver);
+        return DriverStoreManager.getCurrentDriver();
+    }
+}
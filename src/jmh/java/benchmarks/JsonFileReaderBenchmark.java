@@ -0,0 +1,66 @@
+package benchmarks;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.JsonFileReader;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a configuration value from the cached {@link utils.JsonConfig} snapshot against the
+ * previous read-and-parse-per-call implementation of {@link JsonFileReader#getValue(String, String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonFileReaderBenchmark {
+
+    /**
+     * The previous implementation: read the resource file and parse it on every call.
+     *
+     * @return the configured base URL.
+     * @throws Exception if the file cannot be read.
+     */
+    @Benchmark
+    public String readPerCall() throws Exception {
+        String content = new String(Files.readAllBytes(
+                Paths.get(JsonFileReader.class.getClassLoader().getResource("config.json").toURI())
+        ));
+        JsonObject json = JsonParser.parseString(content).getAsJsonObject();
+        return json.get("url").getAsString();
+    }
+
+    /**
+     * The current implementation, served from the parsed snapshot.
+     *
+     * @return the configured base URL.
+     */
+    @Benchmark
+    public String cachedSnapshot() {
+        return JsonFileReader.getValue("config.json", "url");
+    }
+
+    /**
+     * A typed, nested lookup on the snapshot.
+     *
+     * @return the configured maximum pool size.
+     */
+    @Benchmark
+    public int typedNestedValue() {
+        return JsonFileReader.getConfig("config.json").getInt("pool.maxTotal", 4);
+    }
+}
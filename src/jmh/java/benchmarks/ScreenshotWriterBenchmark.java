@@ -0,0 +1,111 @@
+package benchmarks;
+
+import driver.FakeWebDriver;
+import extensions.ScreenshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time a failing test spends on its screenshot, the write path of
+ * {@link extensions.ScreenshotExtension}.
+ * <p>
+ * {@code writeOnTestThread} is the previous behavior, writing the file before the test can continue.
+ * {@code queueForWriter} is the current behavior: the test thread only captures the bytes and queues them for
+ * {@link ScreenshotWriter}. Files go to a temporary directory that is deleted after each iteration.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScreenshotWriterBenchmark {
+
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    /**
+     * The size of a screenshot in bytes.
+     */
+    @Param({"65536", "524288"})
+    public int screenshotSize;
+
+    private final AtomicLong counter = new AtomicLong();
+    private TakesScreenshot driver;
+    private Path directory;
+    private ScreenshotWriter writer;
+
+    /**
+     * Creates the session and a fresh writer for each iteration.
+     *
+     * @throws IOException if the temporary directory cannot be created.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        driver = FakeWebDriver.inMemory(screenshotSize);
+        directory = Files.createTempDirectory("screenshot-benchmark");
+        writer = new ScreenshotWriter(directory, 1024, false);
+    }
+
+    /**
+     * Waits for pending screenshots and deletes them.
+     *
+     * @throws IOException if the files cannot be deleted.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        writer.flush(Duration.ofMinutes(1));
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * The previous write path: capture and write on the test thread.
+     *
+     * @return the written file.
+     * @throws IOException if the file cannot be written.
+     */
+    @Benchmark
+    public Path writeOnTestThread() throws IOException {
+        byte[] png = driver.getScreenshotAs(OutputType.BYTES);
+        String formattedDate = LocalDateTime.now().format(FILE_DATE_FORMAT);
+        Path destination = directory.resolve("test" + counter.incrementAndGet() + "_" + formattedDate + ".png");
+        Files.createDirectories(destination.getParent());
+        return Files.write(destination, png);
+    }
+
+    /**
+     * The current write path: capture on the test thread, write in the background.
+     *
+     * @throws InterruptedException if interrupted while waiting for queue space.
+     */
+    @Benchmark
+    public void queueForWriter() throws InterruptedException {
+        writer.submit("test" + counter.incrementAndGet(), driver.getScreenshotAs(OutputType.BYTES));
+    }
+}
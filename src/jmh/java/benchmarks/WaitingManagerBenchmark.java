@@ -0,0 +1,142 @@
+package benchmarks;
+
+import driver.FakeWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import waiting.SmartWait;
+import waiting.WaitingManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the overhead of {@link WaitingManager} against an
+ * {@link FakeWebDriver#inMemory(int) in-memory FakeWebDriver}.
+ * <p>
+ * The {@code immediate*} benchmarks wait for conditions that already hold, so they measure the fixed cost of a
+ * wait: the previous {@link WebDriverWait} construction against the shared {@link SmartWait} engine, with
+ * per-call-site statistics as configured ({@code -Dconfig.waits.statistics=true} includes them).
+ * {@link DelayedCondition} measures how long a wait overshoots a condition that becomes true 120 ms after the wait
+ * starts, which depends on the polling interval.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitingManagerBenchmark {
+
+    private static final By LOCATOR = By.id("search");
+
+    private WebDriver driver;
+    private WebElement element;
+
+    /**
+     * Creates the in-memory session.
+     */
+    @Setup
+    public void createSession() {
+        driver = FakeWebDriver.inMemory(0);
+        element = driver.findElement(LOCATOR);
+    }
+
+    /**
+     * The previous implementation: a new {@link WebDriverWait} for every call.
+     *
+     * @return the element.
+     */
+    @Benchmark
+    public WebElement immediateWebDriverWait() {
+        return new WebDriverWait(driver, Duration.ofSeconds(10))
+                .until(ExpectedConditions.presenceOfElementLocated(LOCATOR));
+    }
+
+    /**
+     * The current implementation of a presence wait.
+     */
+    @Benchmark
+    public void immediatePresence() {
+        WaitingManager.waitForElementToBePresent(driver, LOCATOR, 10);
+    }
+
+    /**
+     * The current implementation of a clickability wait.
+     */
+    @Benchmark
+    public void immediateClickable() {
+        WaitingManager.waitForElementToBeClickable(driver, element, 10);
+    }
+
+    /**
+     * The in-browser page load wait, one script call.
+     */
+    @Benchmark
+    public void immediatePageLoad() {
+        WaitingManager.waitForPageToLoad(driver, 10);
+    }
+
+    /**
+     * A condition that becomes true 120 ms after the wait starts.
+     */
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1, time = 2)
+    @Measurement(iterations = 3, time = 3)
+    @Fork(1)
+    @State(Scope.Thread)
+    public static class DelayedCondition {
+
+        private static final long DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(120);
+
+        private WebDriver driver;
+
+        /**
+         * Creates the in-memory session.
+         */
+        @Setup
+        public void createSession() {
+            driver = FakeWebDriver.inMemory(0);
+        }
+
+        /**
+         * Fixed 500 ms polling of {@link WebDriverWait}.
+         *
+         * @return the condition's result.
+         */
+        @Benchmark
+        public Boolean webDriverWait() {
+            return new WebDriverWait(driver, Duration.ofSeconds(10)).until(readyAfterDelay());
+        }
+
+        /**
+         * Adaptive polling of {@link SmartWait}.
+         *
+         * @return the condition's result.
+         */
+        @Benchmark
+        public Boolean smartWait() {
+            return SmartWait.getDefault().until(driver, readyAfterDelay(), Duration.ofSeconds(10));
+        }
+
+        private static Function<WebDriver, Boolean> readyAfterDelay() {
+            long readyAt = System.nanoTime() + DELAY_NANOS;
+            return d -> System.nanoTime() >= readyAt;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import actions.WebElementActions;
+import driver.FakeWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead the {@link WebElementActions} wrappers add on top of the WebDriver calls they make,
+ * against an {@link FakeWebDriver#inMemory(int) in-memory FakeWebDriver}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WebElementActionsBenchmark {
+
+    private WebDriver driver;
+    private WebElement element;
+
+    /**
+     * Creates the in-memory session and looks up the element once.
+     */
+    @Setup
+    public void createSession() {
+        driver = FakeWebDriver.inMemory(0);
+        element = driver.findElement(By.id("search"));
+    }
+
+    /**
+     * A plain click.
+     */
+    @Benchmark
+    public void click() {
+        WebElementActions.click(driver, element);
+    }
+
+    /**
+     * Clearing a field and typing into it.
+     */
+    @Benchmark
+    public void sendKeys() {
+        WebElementActions.sendKeys(driver, element, "selenium");
+    }
+
+    /**
+     * Reading the text of an element.
+     *
+     * @return the text.
+     */
+    @Benchmark
+    public String getElementText() {
+        return WebElementActions.getElementText(driver, element);
+    }
+
+    /**
+     * A check implemented with a JavaScript call.
+     *
+     * @return whether the element is in the viewport.
+     */
+    @Benchmark
+    public boolean isElementInViewport() {
+        return WebElementActions.isElementInViewport(driver, element);
+    }
+
+    /**
+     * A check implemented with a text comparison.
+     *
+     * @return whether the element contains the text.
+     */
+    @Benchmark
+    public boolean containsText() {
+        return WebElementActions.containsText(driver, element, "search");
+    }
+}
@@ -1,23 +1,39 @@
+import driver.DriverHealthMonitor;
+import driver.DriverOptionsFactory;
 import driver.DriverProvider;
 import driver.DriverStoreManager;
+import driver.DriverType;
+import driver.LazyWebDriver;
 import driver.StandardDriverManager;
+import driver.VirtualThreadSessionExecutor;
+import driver.VirtualThreadSessionExecutor.SessionResult;
+import driver.VirtualThreadSessionExecutor.SessionTask;
 import extensions.LoggerExtension;
+import extensions.RetryExtension;
 import extensions.ScreenshotExtension;
+import extensions.TestPhase;
+import extensions.TimingExtension;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.WebDriver;
 import utils.JsonFileReader;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * BaseTest serves as a foundation for all test classes, providing a consistent setup and tear down process
  * for managing WebDriver instances. It integrates extensions for logging and screenshot capturing to enhance
- * debugging and traceability.
+ * debugging and traceability, and for timing the phases of each test.
  *
  * <p>
  * This class ensures:
  * <ul>
  *     <li>Each test starts with a properly initialized WebDriver instance.</li>
  *     <li>Logging and screenshot capturing features are integrated for better debugging.</li>
+ *     <li>Tests failing for transient reasons are retried in the same session, and chronically flaky tests are
+ *     quarantined (see {@link RetryExtension}). The extension is registered last, since it runs the retries itself
+ *     and would skip any interceptor registered after it.</li>
  *     <li>Proper cleanup is performed to terminate the WebDriver session after each test.</li>
  * </ul>
  * </p>
@@ -33,7 +49,7 @@ import utils.JsonFileReader;
  *
  * @author Shevy Kossovsky
  */
-@ExtendWith({LoggerExtension.class, ScreenshotExtension.class})
+@ExtendWith({LoggerExtension.class, ScreenshotExtension.class, TimingExtension.class, RetryExtension.class})
 public class BaseTest {
 
     /**
@@ -52,6 +68,11 @@ public class BaseTest {
      */
     private final String baseUrl;
 
+    /**
+     * The key under which the WebDriver instance of this test is registered in {@link DriverStoreManager}.
+     */
+    private String driverKey;
+
     /**
      * Constructs a BaseTest instance with the specified driver manager and provider.
      * Reads configuration values (base URL and driver name) from a JSON file.
@@ -73,9 +94,12 @@ public class BaseTest {
     /**
      * Sets up the WebDriver environment before each test.
      * <ul>
-     *     <li>Initializes the WebDriver instance using the driver provider.</li>
-     *     <li>Adds the WebDriver instance to a shared map for global access.</li>
-     *     <li>Maximizes the browser window for consistent test execution.</li>
+     *     <li>Initializes the WebDriver instance using the driver provider. With {@code "lazyDriver": true} in
+     *     {@code config.json}, the instance is a {@link LazyWebDriver}: the browser is launched by the first
+     *     command of the test, and the window and navigation steps below run right after the launch.</li>
+     *     <li>Adds the WebDriver instance to a shared map for global access, under a thread-scoped key.</li>
+     *     <li>Maximizes the browser window for consistent test execution, unless a fixed window size is
+     *     configured in the {@code options} section of {@code config.json}.</li>
      *     <li>Navigates to the specified base URL to prepare the application for testing.</li>
      * </ul>
      *
@@ -83,41 +107,145 @@ public class BaseTest {
      * @param driverProvider the provider used to create and configure the WebDriver instance.
      */
     public void initializeDriver(StandardDriverManager driverManager, DriverProvider driverProvider) {
+        // A retried attempt (see RetryExtension) starts over in a new session; quit the one of the failed attempt
+        tearDown();
+
+        // Initialize the WebDriver instance using the specified driver provider, launching the browser on first use
+        // if so configured
+        DriverProvider provider = JsonFileReader.getConfig("config.json").getBoolean("lazyDriver", false)
+                ? LazyWebDriver.provider(driverProvider,
+                        launch -> TimingExtension.measure(TestPhase.DRIVER_CREATION, launch))
+                : driverProvider;
+        TimingExtension.measure(TestPhase.DRIVER_CREATION, () -> driverManager.setDriver(provider));
+
+        initializeDriver(driverManager);
+    }
+
+    /**
+     * Sets up the test with a driver manager whose WebDriver instance is already initialized, such as the one
+     * resolved for a {@link extensions.CrossBrowserTest} run.
+     * <ul>
+     *     <li>Adds the WebDriver instance to a shared map for global access, under a thread-scoped key.</li>
+     *     <li>Maximizes the browser window for consistent test execution, unless a fixed window size is
+     *     configured in the {@code options} section of {@code config.json}.</li>
+     *     <li>Navigates to the specified base URL to prepare the application for testing.</li>
+     * </ul>
+     *
+     * @param driverManager the manager holding an initialized WebDriver instance.
+     */
+    public void initializeDriver(StandardDriverManager driverManager) {
+        // A retried attempt (see RetryExtension) reuses the session it was given again, and quits any other session
+        // the failed attempt set up
+        if (this.driverManager != null) {
+            if (this.driverManager == driverManager && driver == driverManager.getDriver()) {
+                DriverStoreManager.unregisterDriver(driverKey, driver);
+            } else {
+                tearDown();
+            }
+        }
+
         // Assign the driver manager to the class field
         this.driverManager = driverManager;
-
-        // Initialize the WebDriver instance using the specified driver provider
-        driverManager.setDriver(driverProvider);
         driver = driverManager.getDriver();
 
-        // Store the WebDriver instance in a shared map for global access
-        DriverStoreManager.addDriverToDriversMap(driverProvider.getBrowserName().toLowerCase() + "Driver", driver);
+        // Store the WebDriver instance in a shared map for global access, scoped to this test thread
+        driverKey = DriverStoreManager.threadScopedKey(driverManager.getCurrentBrowser().toLowerCase() + "Driver");
+        DriverStoreManager.addDriverToDriversMap(driverKey, driver);
+        // Watch the registered sessions for crashed browsers, if healthMonitor.enabled is set
+        DriverHealthMonitor.startDefault();
 
-        // Set the current driver for use in tests
+        // Set the current driver of this thread for use in tests and extensions
         DriverStoreManager.setCurrentDriver(driver);
 
-        // Maximize the browser window for consistent test execution
-        driverManager.maximizeWindow();
+        prepareBrowser(driverManager);
+    }
+
+    /**
+     * Runs the given body once per provider, each in its own browser session on its own virtual thread, and waits
+     * for all of them. Each session is registered in {@link DriverStoreManager} as the current driver of its thread,
+     * prepared like {@link #initializeDriver(StandardDriverManager)} and torn down when its body finishes.
+     * <p>
+     * The number of sessions holding a browser at the same time is capped by the {@code virtualSessions} section
+     * of {@code config.json}; see {@link VirtualThreadSessionExecutor}.
+     * </p>
+     *
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     * runConcurrentSessions(List.of(new EnumDriverProvider(DriverType.CHROME),
+     *         new EnumDriverProvider(DriverType.FIREFOX)), manager -> {
+     *     WebDriver driver = manager.getDriver();
+     *     WebElementActions.sendKeys(driver, WebElementActions.find(driver, By.name("q")), "Testing");
+     *     ...
+     * });
+     * }</pre>
+     * </p>
+     *
+     * @param providers the browser of each session.
+     * @param task      the body of each session.
+     * @return the result of each session, in the order of the providers.
+     * @throws AssertionError       if at least one session failed; the session failures are attached as suppressed.
+     * @throws InterruptedException if the test thread is interrupted while waiting for the sessions.
+     */
+    protected List<SessionResult> runConcurrentSessions(Collection<? extends DriverProvider> providers,
+                                                        SessionTask task) throws InterruptedException {
+        return VirtualThreadSessionExecutor.fromConfig().runAll(providers, sessionManager -> {
+            prepareBrowser(sessionManager);
+            task.run(sessionManager);
+        });
+    }
+
+    /**
+     * Brings a new session to the starting point of a test. For a {@link LazyWebDriver} that has not launched its
+     * browser yet, the steps are deferred to the launch, and the navigation is skipped if the test opens a page first.
+     */
+    private void prepareBrowser(StandardDriverManager driverManager) {
+        // Maximize the browser window for consistent test execution, unless a fixed size or a maximized window was
+        // applied at startup
+        DriverType type = DriverType.fromBrowserName(driverManager.getCurrentBrowser());
+        boolean maximize = DriverOptionsFactory.windowSize(type) == null
+                && !DriverOptionsFactory.maximizesAtStartup(type);
+
+        if (driverManager.getDriver() instanceof LazyWebDriver lazy && !lazy.isStarted()) {
+            lazy.deferStartup(started -> {
+                if (maximize) {
+                    TimingExtension.measure(TestPhase.MAXIMIZE_WINDOW, () -> started.manage().window().maximize());
+                }
+            }, baseUrl);
+            return;
+        }
+
+        if (maximize) {
+            TimingExtension.measure(TestPhase.MAXIMIZE_WINDOW, driverManager::maximizeWindow);
+        }
 
         // Navigate to the base URL to prepare the application for testing
-        driverManager.navigateTo(baseUrl);
+        TimingExtension.measure(TestPhase.FIRST_NAVIGATION, () -> driverManager.navigateTo(baseUrl));
     }
 
     /**
-     * Cleans up the WebDriver environment after each test by quitting the WebDriver instance.
+     * Cleans up the WebDriver environment after each test by closing the session through the driver manager.
      * This ensures resources are released, preventing memory leaks and freeing up the WebDriver
      * for subsequent tests.
      *
      * <p>
      * The `tearDown()` method is called automatically after each test method execution to ensure
-     * that the WebDriver instance is properly disposed of.
+     * that the WebDriver instance is properly disposed of. When the driver manager is backed by a
+     * {@link driver.PooledDriverSessionManager}, the session is handed back to the pool instead of being quit.
+     * When it is the shared session of a {@link extensions.SharedSession} class, the session stays open for the
+     * next test of the class and is quit after the last one.
      * </p>
      */
     @AfterEach
     public void tearDown() {
-        // Quit the driver to clean up resources
+        // Close the session to clean up resources
         if (driverManager != null) {
-            driver.quit();
+            DriverStoreManager.unregisterDriver(driverKey, driver);
+            DriverStoreManager.removeCurrentDriver();
+            TimingExtension.measure(TestPhase.TEARDOWN, driverManager::quitDriver);
+            driverManager = null;
+            driver = null;
+            driverKey = null;
         }
     }
 }
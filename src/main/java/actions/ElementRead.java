@@ -0,0 +1,76 @@
+package actions;
+
+import java.util.Objects;
+
+/**
+ * A property of an element that {@link WebElementActions#readAll(org.openqa.selenium.WebDriver, java.util.List,
+ * ElementRead...)} reads in the browser.
+ * <p>
+ * The reads follow the corresponding WebDriver commands as closely as a script can:
+ * <ul>
+ *     <li>{@link #TEXT} - the rendered text ({@code innerText}), trimmed, or an empty string when the element
+ *     is not displayed, like {@link org.openqa.selenium.WebElement#getText()}.</li>
+ *     <li>{@link #VALUE} - the {@code value} property, like {@code getAttribute("value")}.</li>
+ *     <li>{@link #DISPLAYED} - whether the element takes up space and is not hidden by {@code visibility} or
+ *     {@code opacity}, like {@link org.openqa.selenium.WebElement#isDisplayed()}.</li>
+ *     <li>{@link #attribute(String)} - the raw DOM attribute.</li>
+ * </ul>
+ * </p>
+ */
+public final class ElementRead {
+
+    /**
+     * The rendered text of the element.
+     */
+    public static final ElementRead TEXT = new ElementRead("text");
+
+    /**
+     * The {@code value} property of the element.
+     */
+    public static final ElementRead VALUE = new ElementRead("value");
+
+    /**
+     * Whether the element is displayed.
+     */
+    public static final ElementRead DISPLAYED = new ElementRead("displayed");
+
+    private static final String ATTRIBUTE_PREFIX = "attribute:";
+
+    private final String key;
+
+    private ElementRead(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Reads a DOM attribute of the element.
+     *
+     * @param name the attribute name.
+     * @return the read.
+     */
+    public static ElementRead attribute(String name) {
+        return new ElementRead(ATTRIBUTE_PREFIX + name);
+    }
+
+    /**
+     * @return the key of the read, used in the script and in the {@link ElementSnapshot}.
+     */
+    String getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ElementRead && key.equals(((ElementRead) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key);
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
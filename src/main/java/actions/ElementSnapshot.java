@@ -0,0 +1,73 @@
+package actions;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The properties of one element, read in a single batch by
+ * {@link WebElementActions#readAll(org.openqa.selenium.WebDriver, java.util.List, ElementRead...)}.
+ * <p>
+ * Only the properties that were requested are available; asking for another one throws
+ * {@link IllegalStateException}.
+ * </p>
+ */
+public final class ElementSnapshot {
+
+    private final Map<String, Object> values;
+
+    ElementSnapshot(Map<String, Object> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * @return the rendered text of the element.
+     * @throws IllegalStateException if {@link ElementRead#TEXT} was not read.
+     */
+    public String getText() {
+        return (String) get(ElementRead.TEXT);
+    }
+
+    /**
+     * @return the value of the element.
+     * @throws IllegalStateException if {@link ElementRead#VALUE} was not read.
+     */
+    public String getValue() {
+        return (String) get(ElementRead.VALUE);
+    }
+
+    /**
+     * @return whether the element is displayed.
+     * @throws IllegalStateException if {@link ElementRead#DISPLAYED} was not read.
+     */
+    public boolean isDisplayed() {
+        return Boolean.TRUE.equals(get(ElementRead.DISPLAYED));
+    }
+
+    /**
+     * @param name the attribute name.
+     * @return the attribute value, or {@code null} if the element does not have the attribute.
+     * @throws IllegalStateException if {@link ElementRead#attribute(String)} was not read for this name.
+     */
+    public String getAttribute(String name) {
+        return (String) get(ElementRead.attribute(name));
+    }
+
+    /**
+     * Returns a read value as returned by the browser.
+     *
+     * @param read the read.
+     * @return the value.
+     * @throws IllegalStateException if the read was not requested.
+     */
+    public Object get(ElementRead read) {
+        if (!values.containsKey(read.getKey())) {
+            throw new IllegalStateException("Not read in this batch: " + read);
+        }
+        return values.get(read.getKey());
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
@@ -1,17 +1,67 @@
 package actions;
 
+import driver.LocatorCache;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static java.awt.SystemColor.text;
 
 /**
  * This class contains various static utility methods to perform actions on web elements.
  * These methods are used to interact with elements on the web page in a variety of ways,
  * including clicking, double-clicking, sending keys, dragging and dropping, scrolling, and more.
+ * <p>
+ * Every single-element method is one WebDriver command. To read or fill many elements, use
+ * {@link #readAll(WebDriver, List, ElementRead...)} and {@link #fillForm(WebDriver, Map)}, which do the work in a
+ * single JavaScript call.
+ * </p>
  */
 public class WebElementActions {
 
+    private static final String READ_ALL_SCRIPT =
+            "var elements = arguments[0], keys = arguments[1];"
+                    + "function displayed(el) {"
+                    + "  if (el.checkVisibility) {"
+                    + "    return el.checkVisibility({opacityProperty: true, visibilityProperty: true,"
+                    + "        checkOpacity: true, checkVisibilityCSS: true});"
+                    + "  }"
+                    + "  var style = window.getComputedStyle(el);"
+                    + "  return el.getClientRects().length > 0 && style.visibility !== 'hidden'"
+                    + "      && style.opacity !== '0';"
+                    + "}"
+                    + "return elements.map(function (el) {"
+                    + "  var result = {};"
+                    + "  keys.forEach(function (key) {"
+                    + "    if (key === 'text') { result[key] = displayed(el) ? (el.innerText || '').trim() : ''; }"
+                    + "    else if (key === 'value') {"
+                    + "      result[key] = el.value === undefined ? null : String(el.value);"
+                    + "    }"
+                    + "    else if (key === 'displayed') { result[key] = displayed(el); }"
+                    + "    else { result[key] = el.getAttribute(key.substring('attribute:'.length)); }"
+                    + "  });"
+                    + "  return result;"
+                    + "});";
+
+    private static final String FILL_FORM_SCRIPT =
+            "var elements = arguments[0], values = arguments[1];"
+                    + "elements.forEach(function (el, i) {"
+                    + "  var value = values[i];"
+                    + "  if (el.type === 'checkbox' || el.type === 'radio') {"
+                    + "    el.checked = value === 'true';"
+                    + "  } else {"
+                    // Use the native setter, so frameworks that track the value property notice the change
+                    + "    var descriptor = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(el), 'value');"
+                    + "    if (descriptor && descriptor.set) { descriptor.set.call(el, value); }"
+                    + "    else { el.value = value; }"
+                    + "  }"
+                    + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+                    + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+                    + "});";
+
     /**
      * Clicks on the given web element.
      *
@@ -151,8 +201,22 @@ public class WebElementActions {
         return element.getText().contains(text);
     }
 
+    /**
+     * Finds an element through the session's {@link LocatorCache}: an element located before with the same locator
+     * is returned without querying the DOM, and re-locates itself if the page changed under it.
+     *
+     * @param driver The WebDriver instance used for interacting with the web page.
+     * @param by     The locator of the element.
+     * @return The cached WebElement.
+     * @throws NoSuchElementException if the element is not cached and cannot be found.
+     */
+    public static WebElement find(WebDriver driver, By by) {
+        return LocatorCache.forDriver(driver).find(by);
+    }
+
     /**
      * Finds an element that contains the specified text, regardless of its tag.
+     * The element is looked up through the session's {@link LocatorCache}.
      *
      * @param driver The WebDriver instance used for interacting with the web page.
      * @param text   The text to search for within the element.
@@ -160,10 +224,84 @@ public class WebElementActions {
      */
     public WebElement findElementByText(WebDriver driver, String text) {
         try {
-            return driver.findElement(By.xpath("//*[contains(text(),'" + text + "')]"));
+            return find(driver, By.xpath("//*[contains(text(),'" + text + "')]"));
         } catch (NoSuchElementException e) {
             return null; // Return null if no matching element is found
         }
     }
-}
 
+    /**
+     * Reads the given properties of many elements with a single JavaScript call, instead of one WebDriver command
+     * per element and property. Reading the text and value of the cells of a 50-row table this way costs one
+     * round-trip instead of a hundred or more.
+     *
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     * List<WebElement> cells = driver.findElements(By.cssSelector("#orders td.total"));
+     * List<ElementSnapshot> totals = WebElementActions.readAll(driver, cells,
+     *         ElementRead.TEXT, ElementRead.DISPLAYED);
+     * String firstTotal = totals.get(0).getText();
+     * }</pre>
+     * </p>
+     *
+     * @param driver   The WebDriver instance used for interacting with the web page.
+     * @param elements The WebElements to read.
+     * @param reads    The properties to read of every element.
+     * @return One snapshot per element, in the order of the elements.
+     * @throws IllegalArgumentException if no property is requested.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ElementSnapshot> readAll(WebDriver driver, List<WebElement> elements, ElementRead... reads) {
+        if (reads.length == 0) {
+            throw new IllegalArgumentException("At least one property must be read");
+        }
+        if (elements.isEmpty()) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>(reads.length);
+        for (ElementRead read : reads) {
+            keys.add(read.getKey());
+        }
+        List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                .executeScript(READ_ALL_SCRIPT, elements, keys);
+        List<ElementSnapshot> snapshots = new ArrayList<>(results.size());
+        for (Map<String, Object> result : results) {
+            snapshots.add(new ElementSnapshot(result));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Reads the given properties of one element with a single JavaScript call.
+     *
+     * @param driver  The WebDriver instance used for interacting with the web page.
+     * @param element The WebElement to read.
+     * @param reads   The properties to read.
+     * @return The snapshot of the element.
+     * @throws IllegalArgumentException if no property is requested.
+     */
+    public static ElementSnapshot read(WebDriver driver, WebElement element, ElementRead... reads) {
+        return readAll(driver, List.of(element), reads).get(0);
+    }
+
+    /**
+     * Sets the values of many form fields with a single JavaScript call.
+     * <p>
+     * Text fields, text areas and selects get the value; checkboxes and radio buttons are checked when the value
+     * is {@code "true"}. Each field then receives {@code input} and {@code change} events, so frameworks that
+     * listen to them see the new value. No key events are sent; use {@link #sendKeys(WebDriver, WebElement, String)}
+     * for fields that react to individual keystrokes.
+     * </p>
+     *
+     * @param driver The WebDriver instance used for interacting with the web page.
+     * @param values The value of each field, applied in iteration order.
+     */
+    public static void fillForm(WebDriver driver, Map<WebElement, String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        ((JavascriptExecutor) driver).executeScript(FILL_FORM_SCRIPT,
+                new ArrayList<>(values.keySet()), new ArrayList<>(values.values()));
+    }
+}
@@ -0,0 +1,259 @@
+package driver;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The client-side state of a browser session on one origin: its cookies, {@code localStorage} and
+ * {@code sessionStorage}.
+ * <p>
+ * A state captured after a setup flow, such as logging in, can be restored into another session to skip the flow.
+ * Restoring needs a page of the captured origin to be loaded, since browsers only accept cookies and storage for the
+ * current page; if the session is elsewhere, the root of the origin is loaded first.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BrowserState loggedIn = BrowserState.capture(driver);
+ * ...
+ * loggedIn.restore(otherDriver, "https://example.com/account");
+ * }</pre>
+ * </p>
+ */
+public final class BrowserState {
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "function read(storage) {"
+                    + "  var items = {};"
+                    + "  for (var i = 0; i < storage.length; i++) {"
+                    + "    var key = storage.key(i);"
+                    + "    items[key] = storage.getItem(key);"
+                    + "  }"
+                    + "  return items;"
+                    + "}"
+                    + "return {local: read(window.localStorage), session: read(window.sessionStorage)};";
+
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "function write(storage, items) {"
+                    + "  for (var key in items) {"
+                    + "    storage.setItem(key, items[key]);"
+                    + "  }"
+                    + "}"
+                    + "write(window.localStorage, arguments[0]);"
+                    + "write(window.sessionStorage, arguments[1]);";
+
+    private final String url;
+    private final List<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final Instant capturedAt;
+
+    /**
+     * @param url            the URL the state was captured on.
+     * @param cookies        the cookies of the session.
+     * @param localStorage   the {@code localStorage} items of the origin.
+     * @param sessionStorage the {@code sessionStorage} items of the origin.
+     * @param capturedAt     the time the state was captured.
+     */
+    public BrowserState(String url, List<Cookie> cookies, Map<String, String> localStorage,
+                        Map<String, String> sessionStorage, Instant capturedAt) {
+        this.url = url;
+        this.cookies = List.copyOf(cookies);
+        this.localStorage = Collections.unmodifiableMap(new LinkedHashMap<>(localStorage));
+        this.sessionStorage = Collections.unmodifiableMap(new LinkedHashMap<>(sessionStorage));
+        this.capturedAt = capturedAt;
+    }
+
+    /**
+     * Captures the state of the page currently loaded in the given session.
+     *
+     * @param driver the WebDriver instance of the session.
+     * @return the captured state.
+     * @throws IllegalArgumentException if the driver cannot execute JavaScript.
+     */
+    public static BrowserState capture(WebDriver driver) {
+        Map<?, ?> storage = (Map<?, ?>) javascript(driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        return new BrowserState(driver.getCurrentUrl(), new ArrayList<>(driver.manage().getCookies()),
+                toStrings((Map<?, ?>) storage.get("local")), toStrings((Map<?, ?>) storage.get("session")),
+                Instant.now());
+    }
+
+    /**
+     * Restores the state into the given session and loads the page it was captured on.
+     *
+     * @param driver the WebDriver instance of the session.
+     */
+    public void restore(WebDriver driver) {
+        restore(driver, url);
+    }
+
+    /**
+     * Restores the state into the given session and loads the given page.
+     *
+     * @param driver    the WebDriver instance of the session.
+     * @param targetUrl the page to load once the state is restored.
+     * @throws IllegalArgumentException if the driver cannot execute JavaScript.
+     */
+    public void restore(WebDriver driver, String targetUrl) {
+        String origin = originOf(url);
+        if (!origin.equals(originOf(driver.getCurrentUrl()))) {
+            driver.get(origin + "/");
+        }
+        WebDriver.Options options = driver.manage();
+        for (Cookie cookie : cookies) {
+            options.addCookie(forCurrentPage(cookie));
+        }
+        javascript(driver).executeScript(RESTORE_STORAGE_SCRIPT, localStorage, sessionStorage);
+        LocatorCache.invalidate(driver);
+        driver.get(targetUrl);
+    }
+
+    /**
+     * Host-only cookies were set for the host they were captured on; adding them without a domain sets them for the
+     * same host and avoids the browsers rejecting hosts without a dot, such as {@code localhost}.
+     */
+    private static Cookie forCurrentPage(Cookie cookie) {
+        if (cookie.getDomain() == null || cookie.getDomain().startsWith(".")) {
+            return cookie;
+        }
+        Cookie.Builder builder = new Cookie.Builder(cookie.getName(), cookie.getValue())
+                .path(cookie.getPath())
+                .expiresOn(cookie.getExpiry())
+                .isSecure(cookie.isSecure())
+                .isHttpOnly(cookie.isHttpOnly());
+        if (cookie.getSameSite() != null) {
+            builder.sameSite(cookie.getSameSite());
+        }
+        return builder.build();
+    }
+
+    private static JavascriptExecutor javascript(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            throw new IllegalArgumentException("Driver does not support JavaScript: " + driver.getClass().getName());
+        }
+        return (JavascriptExecutor) driver;
+    }
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return "";
+        }
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+    }
+
+    private static Map<String, String> toStrings(Map<?, ?> items) {
+        Map<String, String> strings = new LinkedHashMap<>();
+        if (items != null) {
+            items.forEach((key, value) -> strings.put(String.valueOf(key), String.valueOf(value)));
+        }
+        return strings;
+    }
+
+    /**
+     * @return the URL the state was captured on.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the cookies of the session.
+     */
+    public List<Cookie> getCookies() {
+        return cookies;
+    }
+
+    /**
+     * @return the {@code localStorage} items of the origin.
+     */
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    /**
+     * @return the {@code sessionStorage} items of the origin.
+     */
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    /**
+     * @return the time the state was captured.
+     */
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * @return the state as JSON, as stored on disk by {@link BrowserStateCache}.
+     */
+    public JSONObject toJson() {
+        JSONArray cookiesJson = new JSONArray();
+        for (Cookie cookie : cookies) {
+            JSONObject cookieJson = new JSONObject();
+            cookieJson.put("name", cookie.getName());
+            cookieJson.put("value", cookie.getValue());
+            cookieJson.putOpt("domain", cookie.getDomain());
+            cookieJson.putOpt("path", cookie.getPath());
+            if (cookie.getExpiry() != null) {
+                cookieJson.put("expiry", cookie.getExpiry().getTime());
+            }
+            cookieJson.put("secure", cookie.isSecure());
+            cookieJson.put("httpOnly", cookie.isHttpOnly());
+            cookieJson.putOpt("sameSite", cookie.getSameSite());
+            cookiesJson.put(cookieJson);
+        }
+        JSONObject json = new JSONObject();
+        json.put("url", url);
+        json.put("capturedAt", capturedAt.toString());
+        json.put("cookies", cookiesJson);
+        json.put("localStorage", new JSONObject(localStorage));
+        json.put("sessionStorage", new JSONObject(sessionStorage));
+        return json;
+    }
+
+    /**
+     * Reads a state written by {@link #toJson()}.
+     *
+     * @param json the JSON representation of the state.
+     * @return the state.
+     * @throws org.json.JSONException if the JSON is not a valid state.
+     */
+    public static BrowserState fromJson(JSONObject json) {
+        List<Cookie> cookies = new ArrayList<>();
+        JSONArray cookiesJson = json.getJSONArray("cookies");
+        for (int i = 0; i < cookiesJson.length(); i++) {
+            JSONObject cookieJson = cookiesJson.getJSONObject(i);
+            Cookie.Builder builder = new Cookie.Builder(cookieJson.getString("name"), cookieJson.getString("value"))
+                    .domain(cookieJson.optString("domain", null))
+                    .path(cookieJson.optString("path", null))
+                    .isSecure(cookieJson.optBoolean("secure"))
+                    .isHttpOnly(cookieJson.optBoolean("httpOnly"));
+            if (cookieJson.has("expiry")) {
+                builder.expiresOn(new Date(cookieJson.getLong("expiry")));
+            }
+            if (cookieJson.has("sameSite")) {
+                builder.sameSite(cookieJson.getString("sameSite"));
+            }
+            cookies.add(builder.build());
+        }
+        return new BrowserState(json.getString("url"), cookies,
+                toStrings(json.getJSONObject("localStorage").toMap()),
+                toStrings(json.getJSONObject("sessionStorage").toMap()),
+                Instant.parse(json.getString("capturedAt")));
+    }
+}
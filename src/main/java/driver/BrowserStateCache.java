@@ -0,0 +1,245 @@
+package driver;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Caches {@link BrowserState}s by name, so a setup flow such as logging in runs once and later sessions start from
+ * its result.
+ * <p>
+ * States are kept in memory and, when a directory is configured, also written to it as JSON so they survive across
+ * runs. A state expires a fixed time after it was captured; expired states are evicted when they are looked up and
+ * whenever a new state is stored.
+ * </p>
+ *
+ * <p>
+ * The default cache is configured by the {@code stateCache} section of {@code config.json}:
+ * <pre>{@code
+ * "stateCache": {"ttl": "30m", "directory": "target/browser-state"}
+ * }</pre>
+ * An empty directory keeps the states in memory only.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BrowserStateCache.getDefault().restoreOrCapture(driver, "loggedInUser",
+ *         session -> new LoginPage(session).logIn(USER));
+ * }</pre>
+ * </p>
+ */
+public final class BrowserStateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserStateCache.class);
+
+    private static volatile BrowserStateCache defaultCache;
+
+    private final Duration ttl;
+    private final Path directory;
+    private final Clock clock;
+    private final Map<String, BrowserState> states = new ConcurrentHashMap<>();
+    // Serializes the setup flows of each name, so concurrent tests wait for the first capture instead of repeating it.
+    private final Map<String, Object> setupLocks = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl       how long a state stays valid after it was captured.
+     * @param directory the directory states are also written to, or {@code null} to keep them in memory only.
+     */
+    public BrowserStateCache(Duration ttl, Path directory) {
+        this(ttl, directory, Clock.systemUTC());
+    }
+
+    BrowserStateCache(Duration ttl, Path directory, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        this.ttl = ttl;
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cache configured by the {@code stateCache} section of {@code config.json}, creating it on first
+     * use.
+     *
+     * @return the default cache.
+     */
+    public static BrowserStateCache getDefault() {
+        BrowserStateCache cache = defaultCache;
+        if (cache == null) {
+            synchronized (BrowserStateCache.class) {
+                cache = defaultCache;
+                if (cache == null) {
+                    JsonConfig config = JsonFileReader.getConfig("config.json").getSection("stateCache");
+                    String directory = config.getString("directory", "");
+                    cache = new BrowserStateCache(config.getDuration("ttl", Duration.ofMinutes(30)),
+                            directory.isEmpty() ? null : Paths.get(directory));
+                    defaultCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Restores the state cached under the given name into the session and loads the page it was captured on. If no
+     * valid state is cached, runs the setup flow in the session instead and caches the state it leaves behind.
+     *
+     * @param driver the WebDriver instance of the session.
+     * @param name   the name of the state.
+     * @param setup  the setup flow producing the state, e.g. logging in.
+     */
+    public void restoreOrCapture(WebDriver driver, String name, Consumer<WebDriver> setup) {
+        restoreOrCapture(driver, name, setup, null);
+    }
+
+    /**
+     * Like {@link #restoreOrCapture(WebDriver, String, Consumer)}, landing on the given page in both cases.
+     *
+     * @param driver    the WebDriver instance of the session.
+     * @param name      the name of the state.
+     * @param setup     the setup flow producing the state, e.g. logging in.
+     * @param targetUrl the page to load afterwards, or {@code null} to stay on the page the state was captured on.
+     */
+    public void restoreOrCapture(WebDriver driver, String name, Consumer<WebDriver> setup, String targetUrl) {
+        Optional<BrowserState> cached = get(name);
+        if (cached.isEmpty()) {
+            synchronized (setupLocks.computeIfAbsent(name, key -> new Object())) {
+                cached = get(name);
+                if (cached.isEmpty()) {
+                    setup.accept(driver);
+                    put(name, BrowserState.capture(driver));
+                    if (targetUrl != null) {
+                        driver.get(targetUrl);
+                    }
+                    return;
+                }
+            }
+        }
+        BrowserState state = cached.get();
+        state.restore(driver, targetUrl != null ? targetUrl : state.getUrl());
+    }
+
+    /**
+     * Returns the valid state cached under the given name, reading it from the directory if it is not in memory.
+     *
+     * @param name the name of the state.
+     * @return the state, or empty if none is cached or it expired.
+     */
+    public Optional<BrowserState> get(String name) {
+        BrowserState state = states.get(name);
+        if (state == null) {
+            state = read(name);
+            if (state != null) {
+                states.putIfAbsent(name, state);
+            }
+        }
+        if (state != null && isExpired(state)) {
+            // Only the expired state is evicted; a state cached under the name meanwhile is kept with its file.
+            if (states.remove(name, state)) {
+                deleteFile(name);
+            }
+            return Optional.empty();
+        }
+        return Optional.ofNullable(state);
+    }
+
+    /**
+     * Caches a state under the given name, replacing any state cached under it, and evicts expired states.
+     *
+     * @param name  the name of the state.
+     * @param state the state.
+     */
+    public void put(String name, BrowserState state) {
+        states.entrySet().removeIf(entry -> isExpired(entry.getValue()));
+        states.put(name, state);
+        write(name, state);
+    }
+
+    /**
+     * Removes the state cached under the given name.
+     *
+     * @param name the name of the state.
+     */
+    public void evict(String name) {
+        states.remove(name);
+        deleteFile(name);
+    }
+
+    private void deleteFile(String name) {
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(fileOf(name));
+            } catch (IOException e) {
+                logger.warn("Failed to delete browser state '{}'", name, e);
+            }
+        }
+    }
+
+    /**
+     * Removes all states from memory. States written to the directory are kept.
+     */
+    public void clear() {
+        states.clear();
+    }
+
+    /**
+     * @return the number of states held in memory, including expired ones not evicted yet.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    private boolean isExpired(BrowserState state) {
+        return !state.getCapturedAt().plus(ttl).isAfter(clock.instant());
+    }
+
+    private Path fileOf(String name) {
+        return directory.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    private BrowserState read(String name) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileOf(name);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return BrowserState.fromJson(new JSONObject(Files.readString(file, StandardCharsets.UTF_8)));
+        } catch (IOException | JSONException e) {
+            logger.warn("Ignoring unreadable browser state '{}' in {}", name, file, e);
+            return null;
+        }
+    }
+
+    private void write(String name, BrowserState state) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(fileOf(name), state.toJson().toString(2), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write browser state '{}' to {}", name, directory, e);
+        }
+    }
+}
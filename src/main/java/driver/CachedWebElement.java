@@ -0,0 +1,211 @@
+package driver;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An element handed out by {@link LocatorCache} that survives page changes.
+ * <p>
+ * Every command goes to the element located last. If the browser reports it stale, the element is located again
+ * with its original {@link By} and the command is retried once. The current element is available through
+ * {@link #getWrappedElement()}, so the element can be passed to scripts and actions like any other.
+ * </p>
+ */
+public class CachedWebElement implements WebElement, WrapsElement {
+
+    private final LocatorCache cache;
+    private final By by;
+    private volatile WebElement element;
+
+    CachedWebElement(LocatorCache cache, By by, WebElement element) {
+        this.cache = cache;
+        this.by = by;
+        this.element = element;
+    }
+
+    /**
+     * @return the locator the element was found by.
+     */
+    public By getBy() {
+        return by;
+    }
+
+    /**
+     * @return the element located last.
+     */
+    @Override
+    public WebElement getWrappedElement() {
+        return element;
+    }
+
+    private <T> T call(Function<WebElement, T> command) {
+        WebElement current = element;
+        try {
+            return command.apply(current);
+        } catch (StaleElementReferenceException e) {
+            element = cache.relocate(this);
+            return command.apply(element);
+        }
+    }
+
+    private void run(Consumer<WebElement> command) {
+        call(current -> {
+            command.accept(current);
+            return null;
+        });
+    }
+
+    @Override
+    public void click() {
+        run(WebElement::click);
+    }
+
+    @Override
+    public void submit() {
+        run(WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run(current -> current.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return call(current -> current.getDomProperty(name));
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        return call(current -> current.getDomAttribute(name));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public String getAttribute(String name) {
+        return call(current -> current.getAttribute(name));
+    }
+
+    @Override
+    public String getAriaRole() {
+        return call(WebElement::getAriaRole);
+    }
+
+    @Override
+    public String getAccessibleName() {
+        return call(WebElement::getAccessibleName);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(current -> current.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call(current -> current.findElement(by));
+    }
+
+    @Override
+    public SearchContext getShadowRoot() {
+        return call(WebElement::getShadowRoot);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(current -> current.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return call(current -> current.getScreenshotAs(target));
+    }
+
+    /**
+     * Two cached elements are equal if they refer to the same element in the browser. A cached element never equals
+     * the element it wraps, which could not return the favour.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CachedWebElement)) {
+            return false;
+        }
+        CachedWebElement other = (CachedWebElement) o;
+        return by.equals(other.by) && cache.sameSession(other.cache);
+    }
+
+    /**
+     * Based on the locator and the session rather than the current element, so the hash code does not change when
+     * the element is located again and the element can be used as a map key, e.g. with
+     * {@link actions.WebElementActions#fillForm(org.openqa.selenium.WebDriver, java.util.Map)}.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * cache.sessionHash() + by.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Cached [" + by + "] -> " + element;
+    }
+}
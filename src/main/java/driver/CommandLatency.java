@@ -0,0 +1,358 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the latency of every WebDriver command, per browser and command, and the time each test spent in
+ * WebDriver calls.
+ * <p>
+ * Drivers created by {@link DriverFactory} are wrapped by {@link #instrument(WebDriver, DriverType)} with a
+ * {@link CommandLatencyListener}. Every sample is counted in a {@link LatencyHistogram} of its browser and
+ * {@link Command}, and against the test running on the calling thread, set through {@link #startTest(String)}
+ * by {@code extensions.LoggerExtension}. Histograms and per-test counters are allocated before the first command,
+ * so recording a sample builds no strings and allocates nothing.
+ * </p>
+ *
+ * <p>
+ * The summary is logged at JVM shutdown. Instrumentation is on by default and can be turned off with
+ * {@code "instrumentation": {"commandLatency": false}} in {@code config.json}.
+ * </p>
+ */
+public final class CommandLatency {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandLatency.class);
+
+    private static final int SLOWEST_TESTS = 10;
+    private static final DriverType[] BROWSERS = DriverType.values();
+    private static final Command[] COMMANDS = Command.values();
+
+    private static final LatencyHistogram[] histograms = new LatencyHistogram[BROWSERS.length * COMMANDS.length];
+    private static final Map<Method, Command> commandsByMethod = new ConcurrentHashMap<>();
+    private static final Queue<TestTag> tests = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<TestTag> currentTest = new ThreadLocal<>();
+    // The listener of each instrumented driver, keyed by the driver it decorates; weak, so quit sessions are dropped.
+    private static final Map<WebDriver, CommandLatencyListener> listeners =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+    private static volatile Boolean enabled;
+
+    static {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    private CommandLatency() {
+    }
+
+    /**
+     * The WebDriver commands latencies are grouped by. Commands not listed are counted as {@link #OTHER}.
+     */
+    public enum Command {
+        GET, FIND_ELEMENT, FIND_ELEMENTS, CLICK, SEND_KEYS, GET_TEXT, GET_ATTRIBUTE, EXECUTE_SCRIPT,
+        SCREENSHOT, OTHER;
+
+        static Command of(Method method) {
+            switch (method.getName()) {
+                case "get":
+                case "to":
+                    return GET;
+                case "findElement":
+                    return FIND_ELEMENT;
+                case "findElements":
+                    return FIND_ELEMENTS;
+                case "click":
+                    return CLICK;
+                case "sendKeys":
+                    return SEND_KEYS;
+                case "getText":
+                    return GET_TEXT;
+                case "getAttribute":
+                case "getDomAttribute":
+                case "getDomProperty":
+                    return GET_ATTRIBUTE;
+                case "executeScript":
+                case "executeAsyncScript":
+                    return EXECUTE_SCRIPT;
+                case "getScreenshotAs":
+                    return SCREENSHOT;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+
+    /**
+     * Wraps a driver so that the latency of its commands is recorded, unless instrumentation is turned off.
+     *
+     * @param driver the driver to wrap.
+     * @param type   the browser of the driver.
+     * @return the wrapped driver, or the driver itself if instrumentation is off.
+     */
+    public static WebDriver instrument(WebDriver driver, DriverType type) {
+        if (!isEnabled()) {
+            return driver;
+        }
+        if (shutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(CommandLatency::logSummary, "command-latency"));
+        }
+        CommandLatencyListener listener = new CommandLatencyListener(type);
+        listeners.put(driver, listener);
+        return new EventFiringDecorator<>(listener).decorate(driver);
+    }
+
+    /**
+     * Checks whether a command sent through an instrumented driver is still waiting for the browser.
+     *
+     * @param driver the driver, decorated or not.
+     * @return {@code true} if a command is in flight; {@code false} if none is or the driver is not instrumented.
+     */
+    public static boolean hasCommandInFlight(WebDriver driver) {
+        WebDriver target = driver;
+        while (target instanceof WrapsDriver) {
+            target = ((WrapsDriver) target).getWrappedDriver();
+        }
+        CommandLatencyListener listener = listeners.get(target);
+        return listener != null && listener.getCallsInFlight() > 0;
+    }
+
+    private static boolean isEnabled() {
+        if (enabled == null) {
+            JsonConfig instrumentation = JsonFileReader.getConfig("config.json").getSection("instrumentation");
+            enabled = instrumentation.getBoolean("commandLatency", true);
+        }
+        return enabled;
+    }
+
+    /**
+     * Tags the commands sent from the current thread with the given test, until {@link #endTest()}.
+     *
+     * @param name the name of the test.
+     * @return the tag of the test.
+     */
+    public static TestTag startTest(String name) {
+        TestTag tag = new TestTag(name);
+        tests.add(tag);
+        currentTest.set(tag);
+        return tag;
+    }
+
+    /**
+     * @return the tag of the test running on the current thread, or {@code null} if there is none.
+     */
+    public static TestTag currentTest() {
+        return currentTest.get();
+    }
+
+    /**
+     * Tags the commands sent from the current thread with a test started on another thread, such as the test that
+     * spawned a concurrent browser session.
+     *
+     * @param tag the tag of the test, or {@code null} to remove the tag.
+     */
+    public static void setCurrentTest(TestTag tag) {
+        if (tag == null) {
+            currentTest.remove();
+        } else {
+            currentTest.set(tag);
+        }
+    }
+
+    /**
+     * Stops tagging the commands sent from the current thread.
+     */
+    public static void endTest() {
+        currentTest.remove();
+    }
+
+    static Command commandOf(Method method) {
+        return commandsByMethod.computeIfAbsent(method, Command::of);
+    }
+
+    static void record(DriverType browser, Command command, long nanos, boolean failed) {
+        int index = browser.ordinal() * COMMANDS.length + command.ordinal();
+        if (failed) {
+            histograms[index].recordError(nanos);
+        } else {
+            histograms[index].record(nanos);
+        }
+        TestTag test = currentTest.get();
+        if (test != null) {
+            test.record(index, nanos);
+        }
+    }
+
+    /**
+     * Returns the latencies of one command on one browser, across all tests.
+     *
+     * @param browser the browser.
+     * @param command the command.
+     * @return the histogram of the latencies.
+     */
+    public static LatencyHistogram getHistogram(DriverType browser, Command command) {
+        return histograms[browser.ordinal() * COMMANDS.length + command.ordinal()];
+    }
+
+    /**
+     * Returns the recorded tests, the most time spent in WebDriver calls first.
+     *
+     * @return a snapshot of the tests.
+     */
+    public static List<TestTag> slowestTests() {
+        List<TestTag> snapshot = new ArrayList<>(tests);
+        snapshot.sort(Comparator.comparing((TestTag test) -> test.getTotal()).reversed());
+        return snapshot;
+    }
+
+    /**
+     * Discards all recorded latencies.
+     */
+    public static void reset() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        tests.clear();
+    }
+
+    /**
+     * Logs the latency percentiles of every command and browser, and the tests that spent the most time in
+     * WebDriver calls.
+     */
+    public static void logSummary() {
+        StringBuilder summary = new StringBuilder("WebDriver command latency:");
+        boolean recorded = false;
+        for (DriverType browser : BROWSERS) {
+            for (Command command : COMMANDS) {
+                LatencyHistogram histogram = getHistogram(browser, command);
+                long count = histogram.getCount();
+                if (count == 0) {
+                    continue;
+                }
+                recorded = true;
+                summary.append(System.lineSeparator()).append(String.format(
+                        "  %-7s %-14s count=%d p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms total=%d ms errors=%d",
+                        browser.name().toLowerCase(), command.name().toLowerCase(), count,
+                        millis(histogram.getPercentile(50)), millis(histogram.getPercentile(90)),
+                        millis(histogram.getPercentile(99)), millis(histogram.getMax()),
+                        histogram.getTotal().toMillis(), histogram.getErrors()));
+            }
+        }
+        if (!recorded) {
+            return;
+        }
+        List<TestTag> slowest = slowestTests();
+        if (!slowest.isEmpty()) {
+            summary.append(System.lineSeparator()).append("Tests with the most time in WebDriver calls:");
+            for (TestTag test : slowest.subList(0, Math.min(SLOWEST_TESTS, slowest.size()))) {
+                summary.append(System.lineSeparator()).append("  ").append(test);
+            }
+        }
+        logger.info(summary.toString());
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    /**
+     * The WebDriver time of one test, per browser and command.
+     */
+    public static final class TestTag {
+        private final String name;
+        private final AtomicLongArray counts = new AtomicLongArray(histograms.length);
+        private final AtomicLongArray nanos = new AtomicLongArray(histograms.length);
+
+        private TestTag(String name) {
+            this.name = name;
+        }
+
+        private void record(int index, long elapsed) {
+            counts.incrementAndGet(index);
+            nanos.addAndGet(index, elapsed);
+        }
+
+        /**
+         * @return the name of the test.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the number of commands the test sent.
+         */
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        /**
+         * @param browser the browser.
+         * @param command the command.
+         * @return the number of times the test sent the command to the browser.
+         */
+        public long getCount(DriverType browser, Command command) {
+            return counts.get(browser.ordinal() * COMMANDS.length + command.ordinal());
+        }
+
+        /**
+         * @return the total time the test spent in WebDriver calls.
+         */
+        public Duration getTotal() {
+            long total = 0;
+            for (int i = 0; i < nanos.length(); i++) {
+                total += nanos.get(i);
+            }
+            return Duration.ofNanos(total);
+        }
+
+        /**
+         * @param browser the browser.
+         * @param command the command.
+         * @return the time the test spent sending the command to the browser.
+         */
+        public Duration getTotal(DriverType browser, Command command) {
+            return Duration.ofNanos(nanos.get(browser.ordinal() * COMMANDS.length + command.ordinal()));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder breakdown = new StringBuilder();
+            for (int i = 0; i < nanos.length(); i++) {
+                if (counts.get(i) == 0) {
+                    continue;
+                }
+                breakdown.append(breakdown.length() == 0 ? "" : ", ")
+                        .append(BROWSERS[i / COMMANDS.length].name().toLowerCase()).append(' ')
+                        .append(COMMANDS[i % COMMANDS.length].name().toLowerCase()).append(' ')
+                        .append(counts.get(i)).append("x ")
+                        .append(nanos.get(i) / 1_000_000).append(" ms");
+            }
+            return String.format("%s total=%d ms commands=%d (%s)", name, getTotal().toMillis(), getCount(),
+                    breakdown);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package driver;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every call made through a driver decorated by {@link CommandLatency#instrument}, including calls on the
+ * elements, navigation and options it returns, and reports them to {@link CommandLatency}.
+ * <p>
+ * Start times are kept on a per-thread stack of primitive longs, so timing a call allocates nothing. The listener
+ * also counts the calls in progress on any thread, which {@link DriverHealthMonitor} checks before it takes an
+ * unanswered ping for a hung browser.
+ * </p>
+ */
+public class CommandLatencyListener implements WebDriverListener {
+
+    private static final ThreadLocal<StartTimes> startTimes = ThreadLocal.withInitial(StartTimes::new);
+
+    private final DriverType browser;
+    private final AtomicInteger callsInFlight = new AtomicInteger();
+
+    /**
+     * @param browser the browser of the decorated driver.
+     */
+    public CommandLatencyListener(DriverType browser) {
+        this.browser = browser;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        callsInFlight.incrementAndGet();
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method, true);
+    }
+
+    /**
+     * @return the number of calls through the decorated driver that have not returned yet.
+     */
+    public int getCallsInFlight() {
+        return callsInFlight.get();
+    }
+
+    private void finish(Method method, boolean failed) {
+        callsInFlight.decrementAndGet();
+        StartTimes times = startTimes.get();
+        if (times.depth == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - times.pop();
+        CommandLatency.record(browser, CommandLatency.commandOf(method), elapsed, failed);
+    }
+
+    /**
+     * The start times of the calls in progress on one thread. Calls nest when a listener or decorated object
+     * calls back into the driver.
+     */
+    private static final class StartTimes {
+        private long[] times = new long[8];
+        private int depth;
+
+        private void push(long time) {
+            if (depth == times.length) {
+                times = Arrays.copyOf(times, depth * 2);
+            }
+            times[depth++] = time;
+        }
+
+        private long pop() {
+            return times[--depth];
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package driver;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import utils.JsonFileReader;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the driver binary (chromedriver, msedgedriver, geckodriver, ...) of each browser type once per JVM.
+ * <p>
+ * {@link WebDriverManager#setup()} performs browser version detection and cache lookups every time it is called.
+ * This class runs that resolution only for the first driver of each {@link DriverType}; concurrent callers for
+ * the same type wait for that single resolution and share its result. The resolution runs under a lock of its
+ * own type, outside the map, so a slow download does not block lookups of other browser types. The resolved path
+ * is exported in the Selenium system property of the browser (for example {@code webdriver.chrome.driver}).
+ * </p>
+ *
+ * <p>
+ * Offline mode: when a path is set for the browser under {@code driverPaths} in {@code config.json}, or the
+ * Selenium system property is already set, that path is used as is and WebDriverManager is not called at all,
+ * so creating a driver is a plain process spawn.
+ * </p>
+ * <pre>
+ * "driverPaths": {
+ *   "chrome": "/opt/drivers/chromedriver"
+ * }
+ * </pre>
+ */
+public final class DriverBinaryResolver {
+
+    private static final String CONFIG_FILE = "config.json";
+
+    private static final Map<DriverType, Optional<String>> resolvedPaths = new ConcurrentHashMap<>();
+    private static final Map<DriverType, Object> resolveLocks = new ConcurrentHashMap<>();
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Returns the driver binary path of the given browser type, resolving it on the first call.
+     *
+     * @param type the browser type.
+     * @return the path of the driver binary, or {@code null} if the browser does not need one (e.g. Safari).
+     */
+    public static String resolve(DriverType type) {
+        Optional<String> path = resolvedPaths.get(type);
+        if (path == null) {
+            synchronized (resolveLocks.computeIfAbsent(type, key -> new Object())) {
+                path = resolvedPaths.get(type);
+                if (path == null) {
+                    Optional<String> resolved = lookup(type);
+                    path = Objects.requireNonNullElse(resolvedPaths.putIfAbsent(type, resolved), resolved);
+                }
+            }
+        }
+        return path.orElse(null);
+    }
+
+    /**
+     * Forgets all resolved paths, so the next {@link #resolve(DriverType)} call resolves again.
+     */
+    public static void clear() {
+        resolvedPaths.clear();
+    }
+
+    private static Optional<String> lookup(DriverType type) {
+        String property = systemProperty(type);
+        String preset = System.getProperty(property);
+        if (preset != null && !preset.isBlank()) {
+            return Optional.of(preset);
+        }
+
+        String configured = JsonFileReader.getOptionalValue(CONFIG_FILE, "driverPaths", type.name().toLowerCase());
+        if (configured != null && !configured.isBlank()) {
+            System.setProperty(property, configured);
+            return Optional.of(configured);
+        }
+
+        WebDriverManager manager = WebDriverManager.getInstance(managerType(type));
+        manager.setup();
+        return Optional.ofNullable(manager.getDownloadedDriverPath());
+    }
+
+    private static DriverManagerType managerType(DriverType type) {
+        switch (type) {
+            case CHROME:
+                return DriverManagerType.CHROME;
+            case EDGE:
+                return DriverManagerType.EDGE;
+            case FIREFOX:
+                return DriverManagerType.FIREFOX;
+            case IE:
+                return DriverManagerType.IEXPLORER;
+            case SAFARI:
+                return DriverManagerType.SAFARI;
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + type);
+        }
+    }
+
+    private static String systemProperty(DriverType type) {
+        switch (type) {
+            case CHROME:
+                return "webdriver.chrome.driver";
+            case EDGE:
+                return "webdriver.edge.driver";
+            case FIREFOX:
+                return "webdriver.gecko.driver";
+            case IE:
+                return "webdriver.ie.driver";
+            case SAFARI:
+                return "webdriver.safari.driver";
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + type);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package driver;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.ie.InternetExplorerDriver;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
 
+import java.util.function.Supplier;
+
 /**
  * Factory class responsible for creating WebDriver instances for various browsers.
  * <p>
@@ -27,8 +32,18 @@ import org.openqa.selenium.safari.SafariDriver;
  * - IE: Internet Explorer
  * - SAFARI: Safari (Mac only)
  * <p>
+ * Browser options (headless mode, page load strategy, window size, extra arguments) are built by
+ * {@link DriverOptionsFactory} from the {@code options} section of {@code config.json}.
+ * <p>
+ * Chrome, Edge and Firefox sessions are opened against the long-lived driver services of {@link DriverServicePool}
+ * instead of starting a driver process per session.
+ * <p>
+ * Created drivers block the requests configured for {@link NetworkBlocker} and are wrapped by
+ * {@link CommandLatency#instrument(WebDriver, DriverType)}, which records the latency of every command they send.
+ * <p>
  * Dependency:
- * This class uses WebDriverManager for automatic setup of browser drivers.
+ * This class uses WebDriverManager for automatic setup of browser drivers, through {@link DriverBinaryResolver}
+ * so the driver binary of each browser is resolved only once per JVM.
  * Ensure that WebDriverManager is properly included in your project dependencies.
  * <p>
  * * @author Shevy Kossovsky
@@ -46,30 +61,72 @@ public class DriverFactory {
         // Retrieve the browser name from the provider and convert it to uppercase.
         String browserName = driverName.toUpperCase();
         // Determine the appropriate WebDriver based on the browser name.
+        WebDriver driver;
+        DriverType type;
         switch (browserName) {
             case "CHROME":
-                WebDriverManager.chromedriver().setup();
-                return new ChromeDriver();
+                type = DriverType.CHROME;
+                DriverBinaryResolver.resolve(type);
+                ChromeDriverService chromeService = DriverServicePool.chrome();
+                driver = startSession(chromeService,
+                        () -> new ChromeDriver(chromeService, DriverOptionsFactory.chromeOptions()));
+                break;
 
             case "EDGE":
-                WebDriverManager.edgedriver().setup();
-                return new EdgeDriver();
+                type = DriverType.EDGE;
+                DriverBinaryResolver.resolve(type);
+                EdgeDriverService edgeService = DriverServicePool.edge();
+                driver = startSession(edgeService,
+                        () -> new EdgeDriver(edgeService, DriverOptionsFactory.edgeOptions()));
+                break;
 
             case "FIREFOX":
-                WebDriverManager.firefoxdriver().setup();
-                return new FirefoxDriver();
+                type = DriverType.FIREFOX;
+                DriverBinaryResolver.resolve(type);
+                GeckoDriverService firefoxService = DriverServicePool.firefox();
+                driver = startSession(firefoxService,
+                        () -> new FirefoxDriver(firefoxService, DriverOptionsFactory.firefoxOptions()));
+                break;
 
             case "IE":
-                WebDriverManager.iedriver().setup();
-                return new InternetExplorerDriver();
+                type = DriverType.IE;
+                DriverBinaryResolver.resolve(type);
+                driver = new InternetExplorerDriver(DriverOptionsFactory.internetExplorerOptions());
+                break;
 
             case "SAFARI":
-                WebDriverManager.safaridriver().setup();
-                return new SafariDriver();
+                type = DriverType.SAFARI;
+                DriverBinaryResolver.resolve(type);
+                driver = new SafariDriver(DriverOptionsFactory.safariOptions());
+                break;
 
             default:
                 // Throw an exception if the browser name is not supported.
                 throw new IllegalArgumentException("Unsupported browser: " + browserName);
         }
+        // Request blocking needs the browser's own driver; instrumentation wraps it.
+        NetworkBlocker.getDefault().attach(driver);
+        return CommandLatency.instrument(driver, type);
+    }
+
+    /**
+     * Starts a session against the given service. If the session cannot be started, the service is stopped, which
+     * returns a shared service to {@link DriverServicePool} for the next session.
+     *
+     * @param service the service the session is opened against.
+     * @param session starts the session.
+     * @return the WebDriver instance of the session.
+     */
+    static WebDriver startSession(DriverService service, Supplier<WebDriver> session) {
+        try {
+            return session.get();
+        } catch (RuntimeException | Error e) {
+            try {
+                service.stop();
+            } catch (RuntimeException stopFailure) {
+                e.addSuppressed(stopFailure);
+            }
+            throw e;
+        }
     }
 }
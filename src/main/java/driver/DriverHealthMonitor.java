@@ -0,0 +1,290 @@
+package driver;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Watches the browser sessions registered in {@link DriverStoreManager} in the background and recovers the ones that
+ * crashed or hung, so a dead browser fails the test using it quickly instead of costing it a full timeout.
+ * <p>
+ * Every {@code interval} each registered session is pinged with a cheap command (a window handle request), all of
+ * them in parallel, each with a deadline of {@code pingTimeout}. The ping bypasses the {@link CommandLatency}
+ * instrumentation, so it is neither timed nor taken for a command of the test. A session is dead when
+ * <ul>
+ *   <li>the ping reports that the session or the driver is gone, or</li>
+ *   <li>{@code failureThreshold} pings in a row failed or missed their deadline while the test had no command in
+ *   flight. The browser answers one command of a session at a time, so a ping sent while the test waits for a
+ *   slow command is not answered either; such a miss is not counted. Without instrumentation the monitor cannot
+ *   tell, and every miss counts.</li>
+ * </ul>
+ * A dead session is marked ({@link #isMarkedDead(WebDriver)}, which {@link DriverSessionManager#isBrowserActive()}
+ * checks), removed from {@link DriverStoreManager}, evicted from the {@link DriverSessionPool} holding it, which
+ * pre-launches a replacement, and quit in the background.
+ * </p>
+ *
+ * <p>
+ * The default monitor is configured by the {@code healthMonitor} section of {@code config.json}, and is off unless
+ * enabled there:
+ * <pre>{@code
+ * "healthMonitor": {
+ *   "enabled": true,
+ *   "interval": "5s",
+ *   "pingTimeout": "2s",
+ *   "failureThreshold": 3
+ * }
+ * }</pre>
+ * </p>
+ */
+public class DriverHealthMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverHealthMonitor.class);
+
+    private static volatile DriverHealthMonitor defaultMonitor;
+    // Sessions found dead by any monitor; weak, so quit sessions are not kept alive by the mark.
+    private static final Set<WebDriver> deadSessions = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Duration interval;
+    private final Duration pingTimeout;
+    private final int failureThreshold;
+    private final Predicate<WebDriver> ping;
+    private final Map<WebDriver, Health> health = new IdentityHashMap<>();
+    private final ExecutorService pinger = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a monitor that pings sessions with a window handle request.
+     *
+     * @param interval         the time between two rounds of pings.
+     * @param pingTimeout      how long a ping may take before it counts as failed.
+     * @param failureThreshold the number of failed pings in a row that make a session dead.
+     */
+    public DriverHealthMonitor(Duration interval, Duration pingTimeout, int failureThreshold) {
+        this(interval, pingTimeout, failureThreshold, DriverHealthMonitor::pingUninstrumented);
+    }
+
+    /**
+     * Constructs a monitor with a custom ping, which is how the monitor is tested without launching browsers.
+     *
+     * @param interval         the time between two rounds of pings.
+     * @param pingTimeout      how long a ping may take before it counts as failed.
+     * @param failureThreshold the number of failed pings in a row that make a session dead.
+     * @param ping             returns {@code true} if a session answers.
+     * @throws IllegalArgumentException if a duration is not positive or the threshold is less than one.
+     */
+    public DriverHealthMonitor(Duration interval, Duration pingTimeout, int failureThreshold,
+                               Predicate<WebDriver> ping) {
+        if (interval.isNegative() || interval.isZero() || pingTimeout.isNegative() || pingTimeout.isZero()
+                || failureThreshold < 1) {
+            throw new IllegalArgumentException("Invalid health monitor settings: interval=" + interval
+                    + ", pingTimeout=" + pingTimeout + ", failureThreshold=" + failureThreshold);
+        }
+        this.interval = interval;
+        this.pingTimeout = pingTimeout;
+        this.failureThreshold = failureThreshold;
+        this.ping = ping;
+    }
+
+    /**
+     * Starts the monitor configured by the {@code healthMonitor} section of {@code config.json} if it is enabled there
+     * and not running yet. The monitor stops when the JVM shuts down.
+     */
+    public static void startDefault() {
+        if (defaultMonitor == null) {
+            synchronized (DriverHealthMonitor.class) {
+                if (defaultMonitor == null) {
+                    JsonConfig config = JsonFileReader.getConfig("config.json").getSection("healthMonitor");
+                    if (!config.getBoolean("enabled", false)) {
+                        return;
+                    }
+                    DriverHealthMonitor monitor = new DriverHealthMonitor(
+                            config.getDuration("interval", Duration.ofSeconds(5)),
+                            config.getDuration("pingTimeout", Duration.ofSeconds(2)),
+                            config.getInt("failureThreshold", 3));
+                    monitor.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(monitor::close, "driver-health-shutdown"));
+                    defaultMonitor = monitor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a health monitor found the given session dead.
+     *
+     * @param driver the WebDriver instance to check.
+     * @return {@code true} if the session was found dead and must not be used anymore.
+     */
+    public static boolean isMarkedDead(WebDriver driver) {
+        return driver != null && deadSessions.contains(driver);
+    }
+
+    /**
+     * Starts pinging the registered sessions every {@code interval} on a background thread.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "driver-health-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkNow();
+            } catch (RuntimeException e) {
+                logger.warn("Driver health check failed", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pings every session registered in {@link DriverStoreManager} once and recovers the ones found dead.
+     * The call returns after at most {@code pingTimeout}.
+     *
+     * @return the number of sessions found dead in this round.
+     */
+    public synchronized int checkNow() {
+        Map<String, WebDriver> drivers = new HashMap<>(DriverStoreManager.getAllDrivers());
+        Set<WebDriver> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+        registered.addAll(drivers.values());
+        health.keySet().retainAll(registered);
+        // Lazy sessions that have not launched their browser yet have nothing to ping.
+        drivers.values().removeIf(driver -> driver instanceof LazyWebDriver lazy && !lazy.isStarted());
+        for (WebDriver driver : drivers.values()) {
+            Health state = health.computeIfAbsent(driver, key -> new Health());
+            // A ping still waiting from an earlier round is not repeated; it counts as failed again below.
+            if (state.pending == null || state.pending.isDone()) {
+                state.pending = pinger.submit(() -> ping.test(driver));
+            }
+        }
+
+        long deadline = System.nanoTime() + pingTimeout.toNanos();
+        int dead = 0;
+        for (Map.Entry<String, WebDriver> entry : drivers.entrySet()) {
+            Health state = health.get(entry.getValue());
+            if (state == null) {
+                // The same session registered under another key was already recovered in this round.
+                continue;
+            }
+            String reason = state.await(deadline);
+            if (reason == null) {
+                state.failures = 0;
+                continue;
+            }
+            if (!reason.startsWith("gone") && CommandLatency.hasCommandInFlight(entry.getValue())) {
+                logger.debug("Session {} missed a health check while running a command: {}", entry.getKey(), reason);
+                continue;
+            }
+            if (!reason.startsWith("gone") && ++state.failures < failureThreshold) {
+                logger.debug("Session {} missed a health check ({} of {}): {}", entry.getKey(), state.failures,
+                        failureThreshold, reason);
+                continue;
+            }
+            health.remove(entry.getValue());
+            recover(entry.getKey(), entry.getValue(), reason);
+            dead++;
+        }
+        return dead;
+    }
+
+    /**
+     * Stops pinging. Sessions already marked dead stay marked.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        pinger.shutdownNow();
+    }
+
+    private static boolean pingUninstrumented(WebDriver driver) {
+        WebDriver target = driver;
+        while (target instanceof WrapsDriver) {
+            target = ((WrapsDriver) target).getWrappedDriver();
+        }
+        return target.getWindowHandle() != null;
+    }
+
+    private void recover(String key, WebDriver driver, String reason) {
+        logger.error("Browser session {} is dead ({}); evicting it", key, reason);
+        deadSessions.add(driver);
+        DriverStoreManager.unregisterDriver(key, driver);
+        for (DriverSessionPool pool : DriverSessionPool.openPools()) {
+            if (pool.replace(driver)) {
+                return;
+            }
+        }
+        LocatorCache.discard(driver);
+        // A hung browser may not answer the quit command either, so nobody waits for it.
+        pinger.execute(() -> {
+            try {
+                driver.quit();
+            } catch (RuntimeException e) {
+                logger.debug("Failed to quit dead session {}", key, e);
+            }
+        });
+    }
+
+    /**
+     * The health of one session: its outstanding ping and the number of failed pings in a row.
+     */
+    private static final class Health {
+        private Future<Boolean> pending;
+        private int failures;
+
+        /**
+         * Waits for the ping until the deadline. Returns {@code null} if the session answered, otherwise why not;
+         * reasons starting with {@code gone} mean the session cannot come back.
+         */
+        private String await(long deadline) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                return Boolean.TRUE.equals(pending.get(remaining, TimeUnit.NANOSECONDS)) ? null : "no window";
+            } catch (TimeoutException e) {
+                return "no answer";
+            } catch (ExecutionException e) {
+                return isGone(e.getCause()) ? "gone: " + e.getCause().getClass().getSimpleName()
+                        : "failed: " + e.getCause().getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "interrupted";
+            }
+        }
+
+        private static boolean isGone(Throwable failure) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof NoSuchSessionException || cause instanceof ConnectException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
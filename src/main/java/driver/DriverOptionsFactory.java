@@ -0,0 +1,241 @@
+package driver;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.ie.InternetExplorerOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.safari.SafariOptions;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the browser options used by {@link DriverFactory}, keyed by {@link DriverType} and loaded from the
+ * {@code options} section of {@code config.json}.
+ * <p>
+ * Every setting is looked up in the browser's own section first (e.g. {@code options.chrome}) and then in
+ * {@code options.default}. Without any settings, browsers start with a visible window and the normal page load
+ * strategy.
+ * </p>
+ *
+ * <p>
+ * Supported settings:
+ * <ul>
+ *   <li>{@code headless} - run without a visible window (default {@code false})</li>
+ *   <li>{@code disableImages} - do not load images</li>
+ *   <li>{@code disableExtensions} - do not load browser extensions (Chromium)</li>
+ *   <li>{@code disableGpu} - disable GPU acceleration (Chromium)</li>
+ *   <li>{@code pageLoadStrategy} - {@code normal}, {@code eager} or {@code none}</li>
+ *   <li>{@code windowSize} - fixed window size such as {@code "1920x1080"}, applied at startup
+ *   instead of maximizing the window; without it, visible Chromium windows start maximized</li>
+ *   <li>{@code args} - additional command line arguments</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Example configuration:
+ * <pre>
+ * "options": {
+ *   "default": { "headless": true, "pageLoadStrategy": "eager", "windowSize": "1920x1080" },
+ *   "chrome": { "disableImages": true, "args": ["--no-sandbox"] }
+ * }
+ * </pre>
+ * Headless runs and the eager strategy, which returns from navigation before images and stylesheets finish
+ * loading, are opt-in. A CI run can turn them on without editing the file, through a system property or an
+ * environment variable (see {@link JsonConfig}):
+ * <pre>
+ * mvn test -Dconfig.options.default.headless=true -Dconfig.options.default.pageLoadStrategy=eager
+ * CONFIG_OPTIONS_DEFAULT_HEADLESS=true mvn test
+ * </pre>
+ * </p>
+ */
+public final class DriverOptionsFactory {
+
+    private static final String CONFIG_FILE = "config.json";
+
+    private DriverOptionsFactory() {
+    }
+
+    /**
+     * Builds the options for the given browser type.
+     *
+     * @param type the browser type.
+     * @return the configured options.
+     */
+    public static AbstractDriverOptions<?> createOptions(DriverType type) {
+        switch (type) {
+            case CHROME:
+                return chromeOptions();
+            case EDGE:
+                return edgeOptions();
+            case FIREFOX:
+                return firefoxOptions();
+            case IE:
+                return internetExplorerOptions();
+            case SAFARI:
+                return safariOptions();
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + type);
+        }
+    }
+
+    /**
+     * @return the configured Chrome options.
+     */
+    public static ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        applyChromium(options, DriverType.CHROME);
+        return options;
+    }
+
+    /**
+     * @return the configured Edge options.
+     */
+    public static EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        applyChromium(options, DriverType.EDGE);
+        return options;
+    }
+
+    /**
+     * @return the configured Firefox options.
+     */
+    public static FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        Setting setting = new Setting(DriverType.FIREFOX);
+        applyCommon(options, setting);
+        if (setting.getBoolean("headless", false)) {
+            options.addArguments("-headless");
+        }
+        Dimension windowSize = windowSize(DriverType.FIREFOX);
+        if (windowSize != null) {
+            options.addArguments("--width=" + windowSize.getWidth(), "--height=" + windowSize.getHeight());
+        }
+        if (setting.getBoolean("disableImages", false)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (NetworkBlocker.getDefault().isEnabled()) {
+            // Request blocking intercepts Firefox traffic through WebDriver BiDi.
+            options.setCapability("webSocketUrl", true);
+        }
+        options.addArguments(setting.getStringList("args"));
+        return options;
+    }
+
+    /**
+     * @return the configured Internet Explorer options.
+     */
+    public static InternetExplorerOptions internetExplorerOptions() {
+        InternetExplorerOptions options = new InternetExplorerOptions();
+        applyCommon(options, new Setting(DriverType.IE));
+        return options;
+    }
+
+    /**
+     * @return the configured Safari options. Safari has no headless mode, so only common settings apply.
+     */
+    public static SafariOptions safariOptions() {
+        SafariOptions options = new SafariOptions();
+        applyCommon(options, new Setting(DriverType.SAFARI));
+        return options;
+    }
+
+    /**
+     * Returns the fixed window size configured for the browser type.
+     *
+     * @param type the browser type.
+     * @return the window size, or {@code null} if the window should be maximized instead.
+     * @throws IllegalArgumentException if the configured value is not of the form {@code WIDTHxHEIGHT}.
+     */
+    public static Dimension windowSize(DriverType type) {
+        String value = new Setting(type).getString("windowSize");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.toLowerCase().split("[x,]");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid window size: " + value);
+        }
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    /**
+     * Tells whether the browser window is maximized by its startup options, so it needs no maximize command. This is
+     * the case for visible Chromium windows without a fixed {@code windowSize}; a headless window has no screen to
+     * fill and keeps its default size.
+     *
+     * @param type the browser type.
+     * @return {@code true} if the window starts maximized.
+     */
+    public static boolean maximizesAtStartup(DriverType type) {
+        return (type == DriverType.CHROME || type == DriverType.EDGE) && windowSize(type) == null
+                && !new Setting(type).getBoolean("headless", false);
+    }
+
+    private static void applyChromium(ChromiumOptions<?> options, DriverType type) {
+        Setting setting = new Setting(type);
+        applyCommon(options, setting);
+        if (setting.getBoolean("headless", false)) {
+            options.addArguments("--headless=new");
+        }
+        Dimension windowSize = windowSize(type);
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight());
+        } else if (maximizesAtStartup(type)) {
+            options.addArguments("--start-maximized");
+        }
+        if (setting.getBoolean("disableExtensions", false)) {
+            options.addArguments("--disable-extensions");
+        }
+        if (setting.getBoolean("disableGpu", false)) {
+            options.addArguments("--disable-gpu");
+        }
+        if (setting.getBoolean("disableImages", false)) {
+            options.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+        }
+        options.addArguments(setting.getStringList("args"));
+    }
+
+    private static void applyCommon(AbstractDriverOptions<?> options, Setting setting) {
+        String pageLoadStrategy = setting.getString("pageLoadStrategy");
+        if (pageLoadStrategy != null && !pageLoadStrategy.isBlank()) {
+            PageLoadStrategy strategy = PageLoadStrategy.fromString(pageLoadStrategy.toLowerCase());
+            if (strategy == null) {
+                throw new IllegalArgumentException("Invalid page load strategy: " + pageLoadStrategy);
+            }
+            options.setPageLoadStrategy(strategy);
+        }
+    }
+
+    /**
+     * Looks up a setting in the browser's section, then in the default section.
+     */
+    private static final class Setting {
+        private final JsonConfig browser;
+        private final JsonConfig defaults;
+
+        private Setting(DriverType type) {
+            JsonConfig options = JsonFileReader.getConfig(CONFIG_FILE).getSection("options");
+            this.browser = options.getSection(type.name().toLowerCase());
+            this.defaults = options.getSection("default");
+        }
+
+        private String getString(String key) {
+            return browser.has(key) ? browser.getString(key) : defaults.getString(key, null);
+        }
+
+        private boolean getBoolean(String key, boolean defaultValue) {
+            return browser.has(key) ? browser.getBoolean(key, defaultValue) : defaults.getBoolean(key, defaultValue);
+        }
+
+        private List<String> getStringList(String key) {
+            return browser.has(key) ? browser.getStringList(key) : defaults.getStringList(key);
+        }
+    }
+}
@@ -20,12 +20,13 @@ public class DriverPageManager implements DriverPageService {
     }
 
     /**
-     * Refreshes the current page if a valid WebDriver instance exists.
+     * Refreshes the current page if a valid WebDriver instance exists, clearing the session's {@link LocatorCache}.
      * This method is an implementation of the BrowserPageService interface.
      */
     @Override
     public void refreshPage() {
         if (driver != null) {
+            LocatorCache.invalidate(driver);
             driver.navigate().refresh();
         }
     }
@@ -0,0 +1,102 @@
+package driver;
+
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.time.Duration;
+
+/**
+ * Holds the sizing and timing settings of a {@link DriverSessionPool}.
+ * <p>
+ * The settings apply to every {@link DriverType} handled by the pool, so a pool configured with
+ * a maximum of four sessions may hold up to four Chrome sessions and four Edge sessions at the same time.
+ * </p>
+ */
+public class DriverPoolSettings {
+
+    private final int minIdle;
+    private final int maxTotal;
+    private final Duration idleTimeout;
+    private final Duration acquireTimeout;
+
+    /**
+     * Constructs pool settings with the specified limits.
+     *
+     * @param minIdle        the number of idle sessions kept warm per browser type, even past the idle timeout.
+     * @param maxTotal       the maximum number of sessions (idle and leased) per browser type.
+     * @param idleTimeout    how long an idle session may stay in the pool before it is evicted.
+     * @param acquireTimeout how long {@link DriverSessionPool#acquire(DriverType)} waits for a free session.
+     * @throws IllegalArgumentException if the sizes are negative or {@code minIdle} exceeds {@code maxTotal}.
+     */
+    public DriverPoolSettings(int minIdle, int maxTotal, Duration idleTimeout, Duration acquireTimeout) {
+        if (minIdle < 0 || maxTotal < 1 || minIdle > maxTotal) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + minIdle + ", maxTotal=" + maxTotal);
+        }
+        this.minIdle = minIdle;
+        this.maxTotal = maxTotal;
+        this.idleTimeout = idleTimeout;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Returns the default settings: no warm sessions, four sessions per browser type,
+     * five minutes of idle time and one minute to acquire a session.
+     *
+     * @return the default pool settings.
+     */
+    public static DriverPoolSettings defaults() {
+        return new DriverPoolSettings(0, 4, Duration.ofMinutes(5), Duration.ofMinutes(1));
+    }
+
+    /**
+     * Reads the settings from the {@code pool} section of {@code config.json}, falling back to
+     * {@link #defaults()} for every value that is not set.
+     * <pre>
+     * "pool": {
+     *   "minIdle": 1,
+     *   "maxTotal": 4,
+     *   "idleTimeout": "5m",
+     *   "acquireTimeout": "60s"
+     * }
+     * </pre>
+     *
+     * @return the configured pool settings.
+     */
+    public static DriverPoolSettings fromConfig() {
+        DriverPoolSettings defaults = defaults();
+        JsonConfig pool = JsonFileReader.getConfig("config.json").getSection("pool");
+        return new DriverPoolSettings(
+                pool.getInt("minIdle", defaults.getMinIdle()),
+                pool.getInt("maxTotal", defaults.getMaxTotal()),
+                pool.getDuration("idleTimeout", defaults.getIdleTimeout()),
+                pool.getDuration("acquireTimeout", defaults.getAcquireTimeout()));
+    }
+
+    /**
+     * @return the number of idle sessions kept warm per browser type.
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * @return the maximum number of sessions per browser type.
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * @return how long an idle session may stay in the pool.
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @return how long an acquire call waits for a free session.
+     */
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+}
@@ -1,7 +1,12 @@
 package driver;
 
+import org.openqa.selenium.WebDriver;
+
 /**
  * Provides an interface for retrieving the name of a browser.
+ * <p>
+ * Providers also create the WebDriver of a session; by default a local browser through {@link DriverFactory}.
+ * </p>
  */
 public interface DriverProvider {
     /**
@@ -10,4 +15,17 @@ public interface DriverProvider {
      * @return A String representing the name of the browser.
      */
     String getBrowserName();
-}
\ No newline at end of file
+
+    /**
+     * Creates the WebDriver instance of a new session.
+     * <p>
+     * The default implementation starts a local browser named by {@link #getBrowserName()} through
+     * {@link DriverFactory}; providers of remote sessions override it.
+     * </p>
+     *
+     * @return the WebDriver instance.
+     */
+    default WebDriver createDriver() {
+        return DriverFactory.createDriver(getBrowserName());
+    }
+}
@@ -0,0 +1,349 @@
+package driver;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonFileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the driver service processes (chromedriver, msedgedriver, geckodriver) alive across sessions, so a new
+ * session is opened against a running service instead of spawning a process and negotiating a port every time.
+ * <p>
+ * Chromedriver and msedgedriver serve any number of sessions, so one service per browser type is shared by all of
+ * them. Geckodriver serves a single session at a time, so Firefox services are pooled instead: a service is lent to
+ * one session and reused by the next session once that one quits.
+ * </p>
+ *
+ * <p>
+ * Selenium stops the service of a driver when the driver quits. The services handed out here treat that stop as the
+ * end of one session and keep running; a service whose process died is replaced on the next request. All services
+ * are stopped by a JVM shutdown hook, or by {@link #shutdown()}.
+ * </p>
+ *
+ * <p>
+ * Sharing is switched off by the {@code driverServices} section of {@code config.json}, in which case every call
+ * returns a new default service as Selenium would create it:
+ * <pre>{@code
+ * "driverServices": {"shared": false}
+ * }</pre>
+ * </p>
+ */
+public final class DriverServicePool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverServicePool.class);
+
+    private static final String CONFIG_FILE = "config.json";
+
+    private static final Map<DriverType, List<Slot>> slots = new EnumMap<>(DriverType.class);
+
+    private static volatile Boolean shared;
+    private static boolean shutdownHookRegistered;
+    private static int servicesStarted;
+
+    private DriverServicePool() {
+    }
+
+    /**
+     * @return the chromedriver service to open the next Chrome session against.
+     */
+    public static ChromeDriverService chrome() {
+        return (ChromeDriverService) acquire(DriverType.CHROME);
+    }
+
+    /**
+     * @return the msedgedriver service to open the next Edge session against.
+     */
+    public static EdgeDriverService edge() {
+        return (EdgeDriverService) acquire(DriverType.EDGE);
+    }
+
+    /**
+     * @return the geckodriver service to open the next Firefox session against.
+     */
+    public static GeckoDriverService firefox() {
+        return (GeckoDriverService) acquire(DriverType.FIREFOX);
+    }
+
+    /**
+     * @return whether services are shared across sessions, as configured by {@code driverServices.shared}.
+     */
+    public static boolean isShared() {
+        Boolean value = shared;
+        if (value == null) {
+            value = JsonFileReader.getConfig(CONFIG_FILE).getSection("driverServices").getBoolean("shared", true);
+            shared = value;
+        }
+        return value;
+    }
+
+    /**
+     * @param type the browser type.
+     * @return the number of services of the given type currently held, running or not.
+     */
+    public static synchronized int getServiceCount(DriverType type) {
+        List<Slot> pool = slots.get(type);
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * @return the number of services started since the JVM started.
+     */
+    public static synchronized int getServicesStarted() {
+        return servicesStarted;
+    }
+
+    /**
+     * Stops every service. Sessions still open against them lose their driver; the next request starts a new
+     * service.
+     */
+    public static synchronized void shutdown() {
+        int stopped = 0;
+        for (List<Slot> pool : slots.values()) {
+            for (Slot slot : pool) {
+                slot.terminate();
+                stopped++;
+            }
+        }
+        slots.clear();
+        if (stopped > 0) {
+            logger.info("Stopped {} shared driver service(s)", stopped);
+        }
+    }
+
+    private static DriverService acquire(DriverType type) {
+        String executable = DriverBinaryResolver.resolve(type);
+        if (!isShared() || executable == null) {
+            return defaultService(type);
+        }
+        return acquire(type, new File(executable), DriverServicePool::build);
+    }
+
+    /**
+     * Lends a running service of the given type to a new session, starting one if none has room for it. Stopping the
+     * returned service ends the session and returns the service to the pool.
+     *
+     * @param type       the browser type.
+     * @param executable the driver binary.
+     * @param builder    builds a new service.
+     * @return the service to open the session against.
+     */
+    static synchronized DriverService acquire(DriverType type, File executable, ServiceBuilder builder) {
+        registerShutdownHook();
+        List<Slot> pool = slots.computeIfAbsent(type, key -> new ArrayList<>());
+        pool.removeIf(slot -> {
+            if (slot.sessions == 0 && !slot.service.isRunning()) {
+                logger.warn("Replacing {} driver service at {}: its process is no longer running", type,
+                        slot.service.getUrl());
+                slot.terminate();
+                return true;
+            }
+            return false;
+        });
+        for (Slot slot : pool) {
+            if (slot.sessions < slot.capacity && slot.service.isRunning()) {
+                slot.sessions++;
+                return slot.service;
+            }
+        }
+
+        // Geckodriver accepts a single session per process; the Chromium drivers accept any number.
+        Slot slot = new Slot(type == DriverType.FIREFOX ? 1 : Integer.MAX_VALUE);
+        try {
+            slot.service = builder.build(type, executable, () -> release(slot));
+            slot.service.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start the " + type + " driver service", e);
+        }
+        servicesStarted++;
+        slot.sessions = 1;
+        pool.add(slot);
+        logger.debug("Started shared {} driver service at {}", type, slot.service.getUrl());
+        return slot.service;
+    }
+
+    private static synchronized void release(Slot slot) {
+        if (slot.sessions > 0) {
+            slot.sessions--;
+        }
+    }
+
+    private static void registerShutdownHook() {
+        if (!shutdownHookRegistered) {
+            shutdownHookRegistered = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverServicePool::shutdown, "driver-services-shutdown"));
+        }
+    }
+
+    private static DriverService defaultService(DriverType type) {
+        switch (type) {
+            case CHROME:
+                return ChromeDriverService.createDefaultService();
+            case EDGE:
+                return EdgeDriverService.createDefaultService();
+            case FIREFOX:
+                return GeckoDriverService.createDefaultService();
+            default:
+                throw new IllegalArgumentException("No driver service for browser: " + type);
+        }
+    }
+
+    private static DriverService build(DriverType type, File executable, Runnable release) {
+        switch (type) {
+            case CHROME:
+                return new ChromeDriverService.Builder() {
+                    @Override
+                    protected ChromeDriverService createDriverService(File exe, int port, Duration timeout,
+                                                                      List<String> args, Map<String, String> env) {
+                        try {
+                            return new SharedChromeDriverService(release, exe, port, timeout, args, env);
+                        } catch (IOException e) {
+                            throw new WebDriverException(e);
+                        }
+                    }
+                }.usingDriverExecutable(executable).usingAnyFreePort().build();
+            case EDGE:
+                return new EdgeDriverService.Builder() {
+                    @Override
+                    protected EdgeDriverService createDriverService(File exe, int port, Duration timeout,
+                                                                    List<String> args, Map<String, String> env) {
+                        try {
+                            return new SharedEdgeDriverService(release, exe, port, timeout, args, env);
+                        } catch (IOException e) {
+                            throw new WebDriverException(e);
+                        }
+                    }
+                }.usingDriverExecutable(executable).usingAnyFreePort().build();
+            case FIREFOX:
+                return new GeckoDriverService.Builder() {
+                    @Override
+                    protected GeckoDriverService createDriverService(File exe, int port, Duration timeout,
+                                                                     List<String> args, Map<String, String> env) {
+                        try {
+                            return new SharedGeckoDriverService(release, exe, port, timeout, args, env);
+                        } catch (IOException e) {
+                            throw new WebDriverException(e);
+                        }
+                    }
+                }.usingDriverExecutable(executable).usingAnyFreePort().build();
+            default:
+                throw new IllegalArgumentException("No driver service for browser: " + type);
+        }
+    }
+
+    /**
+     * Builds a service that is shared across sessions.
+     */
+    @FunctionalInterface
+    interface ServiceBuilder {
+
+        /**
+         * @param type       the browser type.
+         * @param executable the driver binary.
+         * @param release    returns the service to the pool; called by {@link DriverService#stop()}.
+         * @return a {@link SharedService} that is not started yet.
+         * @throws IOException if the service cannot be built.
+         */
+        DriverService build(DriverType type, File executable, Runnable release) throws IOException;
+    }
+
+    /**
+     * A service whose {@link DriverService#stop()} ends one session instead of stopping the process.
+     */
+    interface SharedService {
+
+        /**
+         * Stops the service process.
+         */
+        void terminate();
+    }
+
+    private static final class Slot {
+        private final int capacity;
+        private DriverService service;
+        private int sessions;
+
+        private Slot(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void terminate() {
+            try {
+                ((SharedService) service).terminate();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to stop driver service at {}", service.getUrl(), e);
+            }
+        }
+    }
+
+    private static final class SharedChromeDriverService extends ChromeDriverService implements SharedService {
+        private final Runnable release;
+
+        private SharedChromeDriverService(Runnable release, File exe, int port, Duration timeout, List<String> args,
+                                          Map<String, String> env) throws IOException {
+            super(exe, port, timeout, args, env);
+            this.release = release;
+        }
+
+        @Override
+        public void stop() {
+            release.run();
+        }
+
+        @Override
+        public void terminate() {
+            super.stop();
+        }
+    }
+
+    private static final class SharedEdgeDriverService extends EdgeDriverService implements SharedService {
+        private final Runnable release;
+
+        private SharedEdgeDriverService(Runnable release, File exe, int port, Duration timeout, List<String> args,
+                                        Map<String, String> env) throws IOException {
+            super(exe, port, timeout, args, env);
+            this.release = release;
+        }
+
+        @Override
+        public void stop() {
+            release.run();
+        }
+
+        @Override
+        public void terminate() {
+            super.stop();
+        }
+    }
+
+    private static final class SharedGeckoDriverService extends GeckoDriverService implements SharedService {
+        private final Runnable release;
+
+        private SharedGeckoDriverService(Runnable release, File exe, int port, Duration timeout, List<String> args,
+                                         Map<String, String> env) throws IOException {
+            super(exe, port, timeout, args, env);
+            this.release = release;
+        }
+
+        @Override
+        public void stop() {
+            release.run();
+        }
+
+        @Override
+        public void terminate() {
+            super.stop();
+        }
+    }
+}
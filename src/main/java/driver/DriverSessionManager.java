@@ -1,6 +1,10 @@
 package driver;
 
+import org.openqa.selenium.HasCapabilities;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.Locale;
 
 /**
  * Manages browser sessions within a web automation framework.
@@ -73,8 +77,8 @@ public class DriverSessionManager implements DriverSessionService {
     /**
      * Sets up and initializes a WebDriver instance based on the specified browser provider.
      * <p>
-     * This method uses the {@link DriverFactory} to create a WebDriver instance corresponding
-     * to the browser type provided by the {@link DriverProvider}.
+     * This method lets the {@link DriverProvider} create the WebDriver instance: a local browser through the
+     * {@link DriverFactory} by default, or a remote session for providers such as {@link RemoteDriverProvider}.
      * </p>
      *
      * @param driverProvider the {@link DriverProvider} implementation specifying the desired browser type.
@@ -82,11 +86,30 @@ public class DriverSessionManager implements DriverSessionService {
      */
     @Override
     public WebDriver setDriver(DriverProvider driverProvider) {
-        String driverName = driverProvider.getBrowserName();
-        driver = DriverFactory.createDriver(driverName);
+        driver = driverProvider.createDriver();
         return driver;
     }
 
+    /**
+     * Sets the WebDriver instance of this manager, for subclasses that obtain their sessions elsewhere.
+     *
+     * @param driver the WebDriver instance managing the browser session.
+     */
+    protected void setDriverInstance(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Forgets the WebDriver instance of this manager without quitting it.
+     *
+     * @return the WebDriver instance that was set, or {@code null} if none was set.
+     */
+    protected WebDriver clearDriver() {
+        WebDriver current = driver;
+        driver = null;
+        return current;
+    }
+
     /**
      * Closes the current WebDriver session and releases associated resources.
      * <p>
@@ -99,6 +122,7 @@ public class DriverSessionManager implements DriverSessionService {
     @Override
     public void quitDriver(WebDriver driver) {
         if (driver != null) {
+            LocatorCache.discard(driver);
             driver.quit();
             this.driver = null;
         }
@@ -107,19 +131,21 @@ public class DriverSessionManager implements DriverSessionService {
     /**
      * Checks whether the browser is currently active.
      * <p>
-     * A browser is considered active if the WebDriver instance is not null.
+     * A browser is considered active if the WebDriver instance is not null and the {@link DriverHealthMonitor}
+     * has not found its session crashed or hung.
      * </p>
      *
      * @return {@code true} if the browser is active, {@code false} otherwise.
      */
     @Override
     public boolean isBrowserActive() {
-        return driver != null;
+        return driver != null && !DriverHealthMonitor.isMarkedDead(driver);
     }
 
     /**
      * Navigates to the specified URL in the current browser session.
      * <p>
+     * The session's {@link LocatorCache} is cleared, since the elements of the previous page are gone.
      * If the WebDriver is not initialized, an {@link IllegalStateException} is thrown.
      * </p>
      *
@@ -129,6 +155,7 @@ public class DriverSessionManager implements DriverSessionService {
     @Override
     public void navigateTo(String url) {
         if (driver != null) {
+            LocatorCache.invalidate(driver);
             driver.get(url);
         } else {
             throw new IllegalStateException("Driver is not initialized. Unable to navigate.");
@@ -138,8 +165,11 @@ public class DriverSessionManager implements DriverSessionService {
     /**
      * Retrieves the name of the currently active browser.
      * <p>
-     * The browser name is derived from the class name of the WebDriver instance (e.g., "ChromeDriver" becomes "Chrome").
-     * If the WebDriver is not initialized, an {@link IllegalStateException} is thrown.
+     * The browser name is read from the capabilities of the session and given in the form of the WebDriver class
+     * (e.g., "chrome" becomes "Chrome", "MicrosoftEdge" becomes "Edge"), so remote sessions report the browser they
+     * run rather than "RemoteWeb". Decorated drivers, such as the ones instrumented by {@link CommandLatency}, are
+     * unwrapped first; a {@link LazyWebDriver} that has not launched its browser yet reports the browser it will
+     * launch. If the WebDriver is not initialized, an {@link IllegalStateException} is thrown.
      * </p>
      *
      * @return the name of the currently active browser.
@@ -148,10 +178,50 @@ public class DriverSessionManager implements DriverSessionService {
     @Override
     public String getCurrentBrowser() {
         if (driver != null) {
-            String driverName = driver.getClass().getSimpleName();
-            return driverName.replace("Driver", "");
+            return browserNameOf(driver);
         } else {
             throw new IllegalStateException("Driver is not initialized.");
         }
     }
+
+    /**
+     * Returns the name of the browser of the given session, as {@link #getCurrentBrowser()} does.
+     *
+     * @param driver the WebDriver instance of the session.
+     * @return the name of the browser, e.g. "Chrome".
+     */
+    public static String browserNameOf(WebDriver driver) {
+        if (driver instanceof LazyWebDriver lazy && !lazy.isStarted()) {
+            return displayName(lazy.getBrowserName());
+        }
+        WebDriver target = driver;
+        while (target instanceof WrapsDriver) {
+            target = ((WrapsDriver) target).getWrappedDriver();
+        }
+        if (target instanceof HasCapabilities) {
+            String name = ((HasCapabilities) target).getCapabilities().getBrowserName();
+            if (name != null && !name.isEmpty()) {
+                return displayName(name);
+            }
+        }
+        return target.getClass().getSimpleName().replace("Driver", "");
+    }
+
+    /**
+     * @param browserName a browser name as given by the capabilities of a session or a {@link DriverProvider}.
+     * @return the name in the form of the WebDriver class, e.g. "Chrome", "Edge" or "InternetExplorer".
+     */
+    static String displayName(String browserName) {
+        String name = browserName.replace(" ", "").toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "msedge":
+            case "microsoftedge":
+                return "Edge";
+            case "ie":
+            case "internetexplorer":
+                return "InternetExplorer";
+            default:
+                return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+        }
+    }
 }
@@ -0,0 +1,563 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Keeps pre-launched browser sessions per {@link DriverType} and hands them out to tests.
+ * <p>
+ * Launching and quitting a browser is the most expensive step of a UI test. The pool removes it from
+ * the per-test cost: a released session is reset with {@link DriverSessionReset} and handed to the next
+ * test that asks for the same browser type. Sessions that fail the health check or the reset are quit
+ * and replaced.
+ * </p>
+ *
+ * <p>
+ * Responsibilities include:
+ * <ul>
+ *   <li>Bounding the number of sessions per browser type ({@link DriverPoolSettings#getMaxTotal()})</li>
+ *   <li>Keeping a number of warm sessions ready ({@link DriverPoolSettings#getMinIdle()})</li>
+ *   <li>Evicting sessions that stay idle longer than {@link DriverPoolSettings#getIdleTimeout()}</li>
+ *   <li>Health-checking sessions before handing them out</li>
+ *   <li>Replacing sessions that {@link DriverHealthMonitor} found dead with pre-launched ones</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DriverSessionPool pool = new DriverSessionPool(DriverPoolSettings.defaults());
+ * WebDriver driver = pool.acquire(DriverType.CHROME);
+ * driver.get("https://example.com");
+ * pool.release(driver);
+ * }</pre>
+ * </p>
+ */
+public final class DriverSessionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverSessionPool.class);
+
+    private static volatile DriverSessionPool defaultPool;
+    private static final Set<DriverSessionPool> openPools = ConcurrentHashMap.newKeySet();
+
+    private final DriverPoolSettings settings;
+    private final Function<DriverType, WebDriver> driverCreator;
+    private final Predicate<WebDriver> healthCheck;
+    private final Map<DriverType, TypePool> pools = new ConcurrentHashMap<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a pool that launches real browsers through {@link DriverFactory}.
+     *
+     * @param settings the sizing and timing settings of the pool.
+     */
+    public DriverSessionPool(DriverPoolSettings settings) {
+        this(settings, type -> DriverFactory.createDriver(type.name()), DriverSessionPool::respondsToCommands);
+    }
+
+    /**
+     * Constructs a pool with a custom session creator and health check.
+     * <p>
+     * This constructor allows the pool to be driven by stand-in WebDriver implementations, which is how
+     * the pool is tested without launching browsers.
+     * </p>
+     *
+     * @param settings      the sizing and timing settings of the pool.
+     * @param driverCreator creates a new session for the given browser type.
+     * @param healthCheck   returns {@code true} if a session can still be used.
+     */
+    public DriverSessionPool(DriverPoolSettings settings,
+                             Function<DriverType, WebDriver> driverCreator,
+                             Predicate<WebDriver> healthCheck) {
+        this.settings = settings;
+        this.driverCreator = driverCreator;
+        this.healthCheck = healthCheck;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, settings.getIdleTimeout().toMillis() / 2);
+        evictor.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+        openPools.add(this);
+    }
+
+    /**
+     * @return the pools that are not closed yet, so a dead session can be evicted from whichever pool holds it.
+     */
+    static Set<DriverSessionPool> openPools() {
+        return Collections.unmodifiableSet(openPools);
+    }
+
+    /**
+     * Returns the process-wide pool used by {@link PooledDriverSessionManager}.
+     * <p>
+     * The pool is created on first use with {@link DriverPoolSettings#fromConfig()} and closed when the JVM
+     * shuts down.
+     * </p>
+     *
+     * @return the shared pool instance.
+     */
+    public static DriverSessionPool getDefault() {
+        if (defaultPool == null) {
+            synchronized (DriverSessionPool.class) {
+                if (defaultPool == null) {
+                    DriverSessionPool pool = new DriverSessionPool(DriverPoolSettings.fromConfig());
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "driver-pool-shutdown"));
+                    defaultPool = pool;
+                }
+            }
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Hands out a session of the given browser type, launching a new one if no idle session is available.
+     * <p>
+     * If the pool already holds the maximum number of sessions for the type, the call waits until one
+     * is released or the acquire timeout expires.
+     * </p>
+     *
+     * @param type the browser type of the session.
+     * @return a healthy WebDriver instance that must be given back with {@link #release(WebDriver)}.
+     * @throws IllegalStateException if the pool is closed or no session becomes available in time.
+     */
+    public WebDriver acquire(DriverType type) {
+        if (closed) {
+            throw new IllegalStateException("The driver session pool is closed.");
+        }
+        TypePool pool = poolFor(type);
+        long deadline = System.nanoTime() + settings.getAcquireTimeout().toNanos();
+        while (true) {
+            PooledSession session = pool.take(deadline);
+            if (session == null) {
+                session = launch(type, pool);
+            } else if (!isHealthy(session.driver)) {
+                logger.warn("Discarding unhealthy {} session from the pool", type);
+                pool.discard(session);
+                continue;
+            }
+            leased.put(session.driver, session);
+            return session.driver;
+        }
+    }
+
+    /**
+     * Gives a session back to the pool.
+     * <p>
+     * The session is reset and kept for the next test. If the reset fails, the session is quit instead.
+     * Releasing a driver that is not leased from this pool has no effect, so a session can safely be
+     * released more than once.
+     * </p>
+     *
+     * @param driver the WebDriver instance obtained from {@link #acquire(DriverType)}.
+     */
+    public void release(WebDriver driver) {
+        PooledSession session = driver == null ? null : leased.remove(driver);
+        if (session == null) {
+            return;
+        }
+        TypePool pool = poolFor(session.type);
+        if (closed) {
+            pool.discard(session);
+            return;
+        }
+        try {
+            DriverSessionReset.reset(session.driver, session.primaryHandle);
+            pool.giveBack(session);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reset {} session, it will be quit", session.type, e);
+            pool.discard(session);
+        }
+    }
+
+    /**
+     * Removes a session from the pool and quits it, whether it is leased or idle.
+     *
+     * @param driver the WebDriver instance to remove.
+     */
+    public void invalidate(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session != null) {
+            poolFor(session.type).discard(session);
+            return;
+        }
+        for (TypePool pool : pools.values()) {
+            PooledSession idle = pool.removeIdle(driver);
+            if (idle != null) {
+                pool.discard(idle);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Evicts a dead session, whether it is leased or idle, and pre-launches a replacement of the same browser type
+     * in the background, so the next test does not pay for the launch.
+     * <p>
+     * Unlike {@link #invalidate(WebDriver)}, the call does not wait for the session to quit, since a hung browser may
+     * not answer the quit command either. The test holding a leased session may still release it; that has no effect.
+     * </p>
+     *
+     * @param driver the WebDriver instance to replace.
+     * @return {@code true} if the session belonged to this pool, {@code false} otherwise.
+     */
+    public boolean replace(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            for (TypePool pool : pools.values()) {
+                session = pool.removeIdle(driver);
+                if (session != null) {
+                    break;
+                }
+            }
+        }
+        if (session == null) {
+            return false;
+        }
+        TypePool pool = poolFor(session.type);
+        pool.cancelLaunch();
+        PooledSession dead = session;
+        Thread.ofVirtual().name("driver-pool-quit").start(() -> quitQuietly(dead));
+        if (!closed) {
+            evictor.execute(() -> prelaunch(dead.type, pool));
+        }
+        return true;
+    }
+
+    /**
+     * Launches sessions for the given browser type until the pool holds the configured minimum of idle sessions.
+     *
+     * @param type the browser type to warm up.
+     */
+    public void warmUp(DriverType type) {
+        TypePool pool = poolFor(type);
+        while (!closed && pool.needsWarmSession()) {
+            try {
+                pool.giveBack(launch(type, pool));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to pre-launch a {} session", type, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quits idle sessions that exceeded the idle timeout, keeping the configured minimum of idle sessions.
+     */
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - settings.getIdleTimeout().toNanos();
+        for (TypePool pool : pools.values()) {
+            for (PooledSession session : pool.expired(cutoff)) {
+                pool.discard(session);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle sessions held for the given browser type.
+     *
+     * @param type the browser type.
+     * @return the number of idle sessions.
+     */
+    public int idleCount(DriverType type) {
+        return poolFor(type).idleCount();
+    }
+
+    /**
+     * Returns the number of sessions (idle and leased) held for the given browser type.
+     *
+     * @param type the browser type.
+     * @return the number of sessions.
+     */
+    public int totalCount(DriverType type) {
+        return poolFor(type).totalCount();
+    }
+
+    /**
+     * Returns the settings of this pool.
+     *
+     * @return the pool settings.
+     */
+    public DriverPoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Quits all idle sessions and stops the eviction thread. Leased sessions are quit when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        openPools.remove(this);
+        evictor.shutdownNow();
+        for (TypePool pool : pools.values()) {
+            for (PooledSession session : pool.drain()) {
+                pool.discard(session);
+            }
+        }
+    }
+
+    /**
+     * The default health check: a session is healthy if the browser answers a window handle request.
+     */
+    private static boolean respondsToCommands(WebDriver driver) {
+        try {
+            return driver.getWindowHandle() != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            return healthCheck.test(driver);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private PooledSession launch(DriverType type, TypePool pool) {
+        WebDriver driver;
+        try {
+            driver = driverCreator.apply(type);
+        } catch (RuntimeException e) {
+            pool.cancelLaunch();
+            throw e;
+        }
+        try {
+            return new PooledSession(type, driver, driver.getWindowHandle());
+        } catch (RuntimeException e) {
+            // The browser is up but does not answer, so quit it rather than leave an unreachable process behind.
+            pool.discard(new PooledSession(type, driver, null));
+            throw e;
+        }
+    }
+
+    private void prelaunch(DriverType type, TypePool pool) {
+        if (closed || !pool.reserve()) {
+            return;
+        }
+        try {
+            pool.giveBack(launch(type, pool));
+            logger.info("Pre-launched a replacement {} session", type);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to pre-launch a replacement {} session", type, e);
+        }
+    }
+
+    private static void quitQuietly(PooledSession session) {
+        LocatorCache.discard(session.driver);
+        try {
+            session.driver.quit();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to quit discarded {} session", session.type, e);
+        }
+    }
+
+    private TypePool poolFor(DriverType type) {
+        return pools.computeIfAbsent(type, key -> new TypePool());
+    }
+
+    private void maintain() {
+        try {
+            evictIdle();
+            for (DriverType type : pools.keySet()) {
+                warmUp(type);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Driver pool maintenance failed", e);
+        }
+    }
+
+    /**
+     * A pooled browser session together with the bookkeeping the pool needs.
+     */
+    private static final class PooledSession {
+        private final DriverType type;
+        private final WebDriver driver;
+        private final String primaryHandle;
+        private long idleSince;
+
+        private PooledSession(DriverType type, WebDriver driver, String primaryHandle) {
+            this.type = type;
+            this.driver = driver;
+            this.primaryHandle = primaryHandle;
+        }
+    }
+
+    /**
+     * The idle sessions and the session count of a single browser type.
+     */
+    private final class TypePool {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final Deque<PooledSession> idle = new ArrayDeque<>();
+        private int total;
+
+        /**
+         * Takes an idle session, or reserves room for a new one and returns {@code null}.
+         */
+        private PooledSession take(long deadline) {
+            lock.lock();
+            try {
+                while (true) {
+                    PooledSession session = idle.pollFirst();
+                    if (session != null) {
+                        return session;
+                    }
+                    if (total < settings.getMaxTotal()) {
+                        total++;
+                        return null;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Timed out waiting for a free browser session after "
+                                + settings.getAcquireTimeout().toMillis() + " ms.");
+                    }
+                    changed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session.", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean needsWarmSession() {
+            lock.lock();
+            try {
+                if (idle.size() < settings.getMinIdle() && total < settings.getMaxTotal()) {
+                    total++;
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Reserves room for a new session if the pool is below its maximum size.
+         */
+        private boolean reserve() {
+            lock.lock();
+            try {
+                if (total < settings.getMaxTotal()) {
+                    total++;
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void giveBack(PooledSession session) {
+            lock.lock();
+            try {
+                session.idleSince = System.nanoTime();
+                idle.addFirst(session);
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void cancelLaunch() {
+            lock.lock();
+            try {
+                total--;
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void discard(PooledSession session) {
+            cancelLaunch();
+            quitQuietly(session);
+        }
+
+        private PooledSession removeIdle(WebDriver driver) {
+            lock.lock();
+            try {
+                Iterator<PooledSession> iterator = idle.iterator();
+                while (iterator.hasNext()) {
+                    PooledSession session = iterator.next();
+                    if (session.driver == driver) {
+                        iterator.remove();
+                        return session;
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<PooledSession> expired(long cutoff) {
+            lock.lock();
+            try {
+                List<PooledSession> expired = new ArrayList<>();
+                // The oldest sessions sit at the tail because released sessions are pushed to the head.
+                while (idle.size() > settings.getMinIdle() && idle.peekLast().idleSince < cutoff) {
+                    expired.add(idle.pollLast());
+                }
+                return expired;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<PooledSession> drain() {
+            lock.lock();
+            try {
+                List<PooledSession> all = new ArrayList<>(idle);
+                idle.clear();
+                return all;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int idleCount() {
+            lock.lock();
+            try {
+                return idle.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int totalCount() {
+            lock.lock();
+            try {
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Restores a used browser session to a clean state so it can be handed to the next test.
+ * <p>
+ * Resetting a session is much cheaper than quitting the browser and launching a new one. The reset:
+ * <ul>
+ *   <li>closes every window except the primary one and switches back to it,</li>
+ *   <li>deletes the cookies of the current page,</li>
+ *   <li>clears {@code localStorage} and {@code sessionStorage} of the current origin,</li>
+ *   <li>clears the session's {@link LocatorCache} and navigates to {@code about:blank}.</li>
+ * </ul>
+ * </p>
+ */
+public final class DriverSessionReset {
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}"
+                    + " try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private DriverSessionReset() {
+    }
+
+    /**
+     * Resets the given session.
+     *
+     * @param driver        the WebDriver instance to reset.
+     * @param primaryHandle the handle of the window to keep, or {@code null} to keep the current window.
+     * @throws org.openqa.selenium.WebDriverException if the browser does not respond to the reset commands.
+     */
+    public static void reset(WebDriver driver, String primaryHandle) {
+        String keep = primaryHandle != null ? primaryHandle : driver.getWindowHandle();
+        for (String handle : driver.getWindowHandles()) {
+            if (!handle.equals(keep)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(keep);
+
+        driver.manage().deleteAllCookies();
+        if (driver instanceof JavascriptExecutor) {
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        }
+        LocatorCache.invalidate(driver);
+        driver.get("about:blank");
+    }
+}
@@ -2,15 +2,29 @@ package driver;
 
 import org.openqa.selenium.WebDriver;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The DriverStoreManager class is a singleton implementation that manages a central store
  * for storing and retrieving key-value pairs of WebDriver objects. This class is designed to be used in scenarios
  * where WebDriver instances or other objects need to be stored and retrieved globally throughout the execution flow.
- * The class implements a thread-safe mechanism to ensure that the map can be accessed by different threads, ensuring
- * efficient storage and retrieval of WebDriver objects associated with specific keys.
+ * The store is backed by a {@link ConcurrentHashMap}, so lookups are lock-free and registering or removing a driver
+ * is atomic, which allows tests to run in parallel.
+ * <p>
+ * The current driver is scoped to the calling thread: each test thread sees only the driver it set itself,
+ * so extensions such as {@code ScreenshotExtension} never pick up another test's browser when JUnit runs
+ * tests in parallel.
+ * </p>
+ * <p>
+ * {@code BaseTest} registers its drivers under keys built by {@link #threadScopedKey(String)}, such as
+ * {@code "chromeDriver#31"}, so parallel tests do not overwrite each other. Lookups by the plain name, such as
+ * {@code getDriverFromDriversMap("chromeDriver")}, still work: when no driver is registered under the plain name,
+ * {@link #getDriverFromDriversMap(String)}, {@link #containsDriverInDriversMap(String)} and
+ * {@link #removeDriverFromDriversMap(String)} fall back to the calling thread's key. From another thread,
+ * use the thread-scoped key or {@link #getAllDrivers()}.
+ * </p>
  * <p>
  * The DriverStoreManager ensures that only one instance of the store exists throughout the lifecycle of the application or test execution.
  * </p>
@@ -20,8 +34,9 @@ import java.util.Map;
 public class DriverStoreManager {
 
     // A map that holds key-value pairs where keys are Strings and values are WebDriver objects.
-    private static final Map<String, WebDriver> driversMap = new HashMap<>();
-    private static WebDriver currentDriver;
+    private static final Map<String, WebDriver> driversMap = new ConcurrentHashMap<>();
+    // The driver of the test running on the current thread.
+    private static final ThreadLocal<WebDriver> currentDriver = new ThreadLocal<>();
 
     /**
      * Private constructor to prevent external instantiation of the class.
@@ -36,6 +51,9 @@ public class DriverStoreManager {
      * The key is a String that uniquely identifies the WebDriver instance, and the value is the WebDriver itself.
      * <p>
      * This method is static, so it can be called without needing an instance of the class.
+     * The store cannot hold {@code null} values: passing {@code null} removes the entry for the key, so
+     * {@link #containsDriverInDriversMap(String)} returns false for it afterwards, where the former
+     * {@code HashMap}-backed store kept a {@code null} entry.
      * </p>
      *
      * @param key   the key to associate with the WebDriver instance, must not be null
@@ -46,14 +64,62 @@ public class DriverStoreManager {
         if (key == null) {
             throw new IllegalArgumentException("Key must not be null");
         }
-        driversMap.put(key, value);
+        if (value == null) {
+            driversMap.remove(key);
+        } else {
+            driversMap.put(key, value);
+        }
+    }
+
+    /**
+     * Atomically registers a WebDriver instance under the given key if no driver is registered for it yet.
+     *
+     * @param key    the key to associate with the WebDriver instance, must not be null
+     * @param driver the WebDriver instance to be stored, must not be null
+     * @return true if the driver was registered, false if another driver is already registered under the key
+     * @throws IllegalArgumentException if the key or the driver is null
+     */
+    public static boolean registerDriver(String key, WebDriver driver) {
+        if (key == null || driver == null) {
+            throw new IllegalArgumentException("Key and driver must not be null");
+        }
+        return driversMap.putIfAbsent(key, driver) == null;
+    }
+
+    /**
+     * Atomically removes the entry for the given key, but only if it still maps to the given WebDriver instance.
+     * This keeps a test from removing a driver that another test registered under the same key.
+     *
+     * @param key    the key whose entry is to be removed
+     * @param driver the WebDriver instance expected under the key
+     * @return true if the entry was removed, false otherwise
+     * @throws IllegalArgumentException if the key is null
+     */
+    public static boolean unregisterDriver(String key, WebDriver driver) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        return driver != null && driversMap.remove(key, driver);
+    }
+
+    /**
+     * Builds a key that is unique to the calling thread, so tests running in parallel can register
+     * drivers of the same browser type without overwriting each other.
+     *
+     * @param name the base name of the key, such as {@code "chromeDriver"}
+     * @return the base name qualified with the id of the calling thread
+     */
+    public static String threadScopedKey(String name) {
+        return name + "#" + Thread.currentThread().threadId();
     }
 
     /**
      * Retrieves the WebDriver instance associated with the given key from the internal map.
      * The key is used to look up the value stored in the map.
      * <p>
-     * This method returns null if no WebDriver instance is associated with the key.
+     * If no driver is registered under the key itself, the driver registered under the
+     * {@link #threadScopedKey(String) thread-scoped key} of the calling thread is returned.
+     * This method returns null if no WebDriver instance is associated with either key.
      * </p>
      *
      * @param key the key whose associated WebDriver instance is to be returned, must not be null
@@ -64,23 +130,42 @@ public class DriverStoreManager {
         if (key == null) {
             throw new IllegalArgumentException("Key must not be null");
         }
-        return driversMap.get(key);
+        WebDriver driver = driversMap.get(key);
+        return driver != null ? driver : driversMap.get(threadScopedKey(key));
     }
 
+    /**
+     * Sets the current driver of the calling thread.
+     *
+     * @param driver the WebDriver instance used by the test running on this thread
+     */
     public static void setCurrentDriver(WebDriver driver) {
-        currentDriver = driver;
+        if (driver == null) {
+            currentDriver.remove();
+        } else {
+            currentDriver.set(driver);
+        }
     }
 
+    /**
+     * Retrieves the current driver of the calling thread.
+     *
+     * @return the WebDriver instance set by this thread, or null if none is set
+     */
     public static WebDriver getCurrentDriver() {
-        return currentDriver;
+        return currentDriver.get();
     }
 
+    /**
+     * Clears the current driver of the calling thread.
+     */
     public static void removeCurrentDriver() {
-        currentDriver = null;
+        currentDriver.remove();
     }
 
     /**
-     * Removes the WebDriver instance associated with the given key from the internal map.
+     * Removes the WebDriver instance associated with the given key from the internal map, or, if there is none,
+     * the one registered under the {@link #threadScopedKey(String) thread-scoped key} of the calling thread.
      *
      * @param key the key whose associated WebDriver instance is to be removed
      * @throws IllegalArgumentException if the key is null
@@ -89,11 +174,14 @@ public class DriverStoreManager {
         if (key == null) {
             throw new IllegalArgumentException("Key must not be null");
         }
-        driversMap.remove(key);
+        if (driversMap.remove(key) == null) {
+            driversMap.remove(threadScopedKey(key));
+        }
     }
 
     /**
-     * Checks if the map contains an entry for the given key.
+     * Checks if the map contains an entry for the given key, or for the
+     * {@link #threadScopedKey(String) thread-scoped key} of the calling thread.
      *
      * @param key the key to check for in the map
      * @return true if the map contains an entry for the key, false otherwise
@@ -103,7 +191,7 @@ public class DriverStoreManager {
         if (key == null) {
             throw new IllegalArgumentException("Key must not be null");
         }
-        return driversMap.containsKey(key);
+        return driversMap.containsKey(key) || driversMap.containsKey(threadScopedKey(key));
     }
 
     /**
@@ -125,10 +213,14 @@ public class DriverStoreManager {
 
     /**
      * Retrieves all WebDriver instances stored in the internal map.
+     * <p>
+     * The returned map is a read-only live view: it reflects drivers registered or removed after the call
+     * and can be iterated while other threads modify the store.
+     * </p>
      *
      * @return a Map containing all keys and corresponding WebDriver instances
      */
     public static Map<String, WebDriver> getAllDrivers() {
-        return driversMap;
+        return Collections.unmodifiableMap(driversMap);
     }
 }
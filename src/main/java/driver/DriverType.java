@@ -24,5 +24,21 @@ public enum DriverType {
     /**
      * Microsoft Edge browser
      */
-    EDGE
+    EDGE;
+
+    /**
+     * Returns the type matching a browser name, such as the one returned by
+     * {@link DriverManager#getCurrentBrowser()} ("Chrome", "InternetExplorer").
+     *
+     * @param browserName the browser name, case-insensitive.
+     * @return the matching browser type.
+     * @throws IllegalArgumentException if the name does not match a supported browser.
+     */
+    public static DriverType fromBrowserName(String browserName) {
+        String name = browserName.trim().toUpperCase();
+        if (name.equals("INTERNETEXPLORER")) {
+            return IE;
+        }
+        return valueOf(name);
+    }
 }
@@ -0,0 +1,263 @@
+package driver;
+
+import extensions.TestPhase;
+import extensions.TimingExtension;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A WebDriver that launches its browser only when the first command is sent to it.
+ * <p>
+ * Tests that never touch the browser, or that fail before they do, pay nothing for it. The preparation every test
+ * gets, such as sizing the window and opening the start page, can be deferred with
+ * {@link #deferStartup(Consumer, String)}: it runs right after the launch, and the start page is skipped when the
+ * first command opens a page itself, which saves a page load. If the startup fails, the launched browser is quit
+ * and the driver stays unstarted.
+ * </p>
+ *
+ * <p>
+ * Until the browser is launched, {@link #quit()} and {@link #close()} do nothing, and {@link #isStarted()} lets
+ * observers such as screenshot or health checks leave the session alone instead of launching it. The driver does
+ * not implement {@code HasDevTools} or {@code HasBiDi}; code casting to them has to unwrap it with
+ * {@link #getWrappedDriver()} first, which is why {@code "lazyDriver"} is off by default in {@code config.json}.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * LazyWebDriver driver = new LazyWebDriver("chrome", () -> DriverFactory.createDriver("chrome"));
+ * driver.deferStartup(started -> started.manage().window().maximize(), "https://example.com");
+ * driver.get("https://example.com/login");  // launches Chrome and opens only the login page
+ * }</pre>
+ * </p>
+ */
+public final class LazyWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot, HasCapabilities,
+        Interactive, WrapsDriver {
+
+    private final String browserName;
+    private final Supplier<WebDriver> launcher;
+    private Consumer<WebDriver> startup;
+    private String startUrl;
+    private volatile WebDriver delegate;
+    private volatile boolean quit;
+
+    /**
+     * @param browserName the name of the browser the launcher starts, such as {@code "chrome"}.
+     * @param launcher    starts the browser on the first command.
+     */
+    public LazyWebDriver(String browserName, Supplier<WebDriver> launcher) {
+        this.browserName = browserName;
+        this.launcher = launcher;
+    }
+
+    /**
+     * Wraps a provider so that the drivers it creates launch their browser on first use.
+     *
+     * @param provider the provider that launches the browser.
+     * @param launch   runs the launch, for example to time it; {@code Supplier::get} to just run it.
+     * @return a provider creating {@link LazyWebDriver} instances.
+     */
+    public static DriverProvider provider(DriverProvider provider, Function<Supplier<WebDriver>, WebDriver> launch) {
+        return new DriverProvider() {
+            @Override
+            public String getBrowserName() {
+                return provider.getBrowserName();
+            }
+
+            @Override
+            public WebDriver createDriver() {
+                return new LazyWebDriver(provider.getBrowserName(), () -> launch.apply(provider::createDriver));
+            }
+        };
+    }
+
+    /**
+     * Sets what happens right after the browser is launched.
+     *
+     * @param startup  prepares the launched browser, such as sizing its window; may be {@code null}.
+     * @param startUrl the page opened after the startup, unless the first command opens a page itself; may be
+     *                 {@code null}.
+     * @throws IllegalStateException if the browser is already launched.
+     */
+    public synchronized void deferStartup(Consumer<WebDriver> startup, String startUrl) {
+        if (delegate != null) {
+            throw new IllegalStateException("The browser is already launched.");
+        }
+        this.startup = startup;
+        this.startUrl = startUrl;
+    }
+
+    /**
+     * @return whether the browser has been launched.
+     */
+    public boolean isStarted() {
+        return delegate != null;
+    }
+
+    /**
+     * @return the name of the browser, known without launching it.
+     */
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    /**
+     * Returns the launched driver, launching the browser if needed.
+     */
+    @Override
+    public WebDriver getWrappedDriver() {
+        return started(null);
+    }
+
+    private WebDriver started(String firstUrl) {
+        WebDriver current = delegate;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (delegate == null) {
+                if (quit) {
+                    throw new NoSuchSessionException("The " + browserName + " session was quit.");
+                }
+                WebDriver launched = launcher.get();
+                try {
+                    if (startup != null) {
+                        startup.accept(launched);
+                    }
+                    if (startUrl != null && firstUrl == null) {
+                        TimingExtension.measure(TestPhase.FIRST_NAVIGATION, () -> launched.get(startUrl));
+                    }
+                } catch (RuntimeException e) {
+                    // Not started after all; the next command launches a new browser
+                    launched.quit();
+                    throw e;
+                }
+                delegate = launched;
+            }
+            return delegate;
+        }
+    }
+
+    @Override
+    public void get(String url) {
+        started(url).get(url);
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return started(null).getCurrentUrl();
+    }
+
+    @Override
+    public String getTitle() {
+        return started(null).getTitle();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return started(null).findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return started(null).findElement(by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return started(null).getPageSource();
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+    @Override
+    public synchronized void quit() {
+        quit = true;
+        if (delegate != null) {
+            delegate.quit();
+        }
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return started(null).getWindowHandles();
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return started(null).getWindowHandle();
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return started(null).switchTo();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return started(null).navigate();
+    }
+
+    @Override
+    public Options manage() {
+        return started(null).manage();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return ((JavascriptExecutor) started(null)).executeScript(script, args);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return ((JavascriptExecutor) started(null)).executeAsyncScript(script, args);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return ((TakesScreenshot) started(null)).getScreenshotAs(target);
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return ((HasCapabilities) started(null)).getCapabilities();
+    }
+
+    @Override
+    public void perform(Collection<Sequence> actions) {
+        ((Interactive) started(null)).perform(actions);
+    }
+
+    @Override
+    public void resetInputState() {
+        ((Interactive) started(null)).resetInputState();
+    }
+
+    @Override
+    public String toString() {
+        WebDriver current = delegate;
+        return "LazyWebDriver(" + browserName + ", " + (current != null ? current : "not started") + ")";
+    }
+}
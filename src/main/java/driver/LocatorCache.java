@@ -0,0 +1,250 @@
+package driver;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the elements a browser session has already located, so repeated lookups of the same {@link By} do not
+ * query the DOM again.
+ * <p>
+ * {@link #find(By)} returns a {@link CachedWebElement}. When the page changes under it and the browser reports a
+ * {@link org.openqa.selenium.StaleElementReferenceException}, the element locates itself again with the same
+ * locator and retries the command, so tests never see the stale reference.
+ * </p>
+ *
+ * <h2>Invalidation:</h2>
+ * <ul>
+ *     <li>on navigation through {@link DriverSessionManager#navigateTo(String)} and
+ *     {@link DriverPageManager#refreshPage()},</li>
+ *     <li>when a session is reset for reuse or quit,</li>
+ *     <li>whenever a cached element turns out to be stale, since the rest of the page has likely changed too.</li>
+ * </ul>
+ *
+ * <p>
+ * The caches are keyed weakly by their session, and the cache of a session quit without going through
+ * {@link #discard(WebDriver)} is dropped the next time a cache is created. That second step is needed because the
+ * cached elements of a remote session refer back to its driver, which keeps a weak key reachable.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * WebElement search = LocatorCache.forDriver(driver).find(By.name("q"));
+ * }</pre>
+ * </p>
+ */
+public final class LocatorCache {
+
+    private static final Map<WebDriver, LocatorCache> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final LongAdder totalHits = new LongAdder();
+    private static final LongAdder totalMisses = new LongAdder();
+    private static final LongAdder totalStaleRecoveries = new LongAdder();
+
+    private final WeakReference<WebDriver> driver;
+    private final int driverIdentity;
+    private final Map<By, CachedWebElement> elements = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleRecoveries = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private LocatorCache(WebDriver driver) {
+        this.driver = new WeakReference<>(driver);
+        this.driverIdentity = System.identityHashCode(driver);
+    }
+
+    /**
+     * Returns the cache of the given session, creating it on first use.
+     *
+     * @param driver the WebDriver instance of the session.
+     * @return the cache of the session.
+     */
+    public static LocatorCache forDriver(WebDriver driver) {
+        LocatorCache cache = caches.get(driver);
+        if (cache != null) {
+            return cache;
+        }
+        synchronized (caches) {
+            caches.keySet().removeIf(LocatorCache::isQuit);
+            return caches.computeIfAbsent(driver, LocatorCache::new);
+        }
+    }
+
+    /**
+     * @return the number of sessions that have a cache.
+     */
+    static int sessionCount() {
+        return caches.size();
+    }
+
+    /**
+     * Clears the cache of the given session, if it has one. Called when the session navigates.
+     *
+     * @param driver the WebDriver instance of the session.
+     */
+    public static void invalidate(WebDriver driver) {
+        LocatorCache cache = caches.get(driver);
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
+    /**
+     * Drops the cache of the given session. Called when the session is quit.
+     *
+     * @param driver the WebDriver instance of the session.
+     */
+    public static void discard(WebDriver driver) {
+        caches.remove(driver);
+    }
+
+    /**
+     * Returns the element located by the given locator, from the cache if it was located before.
+     *
+     * @param by the locator.
+     * @return the cached element.
+     * @throws org.openqa.selenium.NoSuchElementException if the element is not cached and cannot be found.
+     */
+    public WebElement find(By by) {
+        CachedWebElement cached = elements.get(by);
+        if (cached != null) {
+            hits.increment();
+            totalHits.increment();
+            return cached;
+        }
+        misses.increment();
+        totalMisses.increment();
+        CachedWebElement element = new CachedWebElement(this, by, driver().findElement(by));
+        elements.put(by, element);
+        return element;
+    }
+
+    /**
+     * Clears the cache. Elements already handed out stay usable and locate themselves again when needed.
+     */
+    public void invalidate() {
+        if (!elements.isEmpty()) {
+            elements.clear();
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Locates a stale element again and records the recovery. Called by {@link CachedWebElement}.
+     */
+    WebElement relocate(CachedWebElement element) {
+        staleRecoveries.increment();
+        totalStaleRecoveries.increment();
+        invalidate();
+        WebElement fresh = driver().findElement(element.getBy());
+        elements.put(element.getBy(), element);
+        return fresh;
+    }
+
+    /**
+     * @return {@code true} if both caches belong to the same session.
+     */
+    boolean sameSession(LocatorCache other) {
+        return other == this || (driverIdentity == other.driverIdentity && driver.get() == other.driver.get());
+    }
+
+    /**
+     * @return the identity hash code of the session's driver, stable for the life of the cache.
+     */
+    int sessionHash() {
+        return driverIdentity;
+    }
+
+    private WebDriver driver() {
+        WebDriver current = driver.get();
+        if (current == null) {
+            throw new NoSuchSessionException("The session of this locator cache is gone.");
+        }
+        return current;
+    }
+
+    /**
+     * A remote session that was quit has no session id any more.
+     */
+    private static boolean isQuit(WebDriver driver) {
+        WebDriver target = driver;
+        while (target instanceof WrapsDriver) {
+            target = ((WrapsDriver) target).getWrappedDriver();
+        }
+        return target instanceof RemoteWebDriver && ((RemoteWebDriver) target).getSessionId() == null;
+    }
+
+    /**
+     * @return the number of lookups served from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that queried the DOM.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of times a stale element was located again.
+     */
+    public long getStaleRecoveries() {
+        return staleRecoveries.sum();
+    }
+
+    /**
+     * @return the number of times the cache was cleared.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return the number of cached locators.
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * @return the number of lookups served from the caches of all sessions.
+     */
+    public static long getTotalHits() {
+        return totalHits.sum();
+    }
+
+    /**
+     * @return the number of lookups that queried the DOM, across all sessions.
+     */
+    public static long getTotalMisses() {
+        return totalMisses.sum();
+    }
+
+    /**
+     * @return the number of stale elements located again, across all sessions.
+     */
+    public static long getTotalStaleRecoveries() {
+        return totalStaleRecoveries.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LocatorCache[size=%d, hits=%d, misses=%d, staleRecoveries=%d, invalidations=%d]",
+                size(), getHits(), getMisses(), getStaleRecoveries(), getInvalidations());
+    }
+}
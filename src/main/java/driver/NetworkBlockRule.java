@@ -0,0 +1,110 @@
+package driver;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * One entry of the {@link NetworkBlocker} blocklist: a resource type and a URL pattern.
+ * <p>
+ * Rules are written as {@code <type>=<pattern>}, for example:
+ * <ul>
+ *     <li>{@code image=glob:*} blocks every image,</li>
+ *     <li>{@code font=glob:*.woff2} blocks WOFF2 fonts,</li>
+ *     <li>{@code *=regex:(google-analytics|googletagmanager|doubleclick)\.} blocks any request to those hosts.</li>
+ * </ul>
+ * The type is a resource type as reported by the browser ({@code image}, {@code font}, {@code stylesheet},
+ * {@code script}, {@code media}, {@code xhr}, {@code fetch}, ...), or {@code *} for any type. A {@code glob:} pattern
+ * must match the whole URL, with {@code *} matching any characters and {@code ?} a single one; a {@code regex:}
+ * pattern must match anywhere in the URL. A pattern without a prefix is a glob.
+ * </p>
+ */
+public final class NetworkBlockRule {
+
+    private static final String GLOB_PREFIX = "glob:";
+    private static final String REGEX_PREFIX = "regex:";
+    private static final String ANY_TYPE = "*";
+
+    private final String type;
+    private final String pattern;
+    private final Pattern regex;
+    private final String glob;
+
+    private NetworkBlockRule(String type, String pattern, Pattern regex, String glob) {
+        this.type = type;
+        this.pattern = pattern;
+        this.regex = regex;
+        this.glob = glob;
+    }
+
+    /**
+     * Parses a rule written as {@code <type>=<pattern>}.
+     *
+     * @param rule the rule.
+     * @return the parsed rule.
+     * @throws IllegalArgumentException if the rule is malformed.
+     */
+    public static NetworkBlockRule parse(String rule) {
+        int separator = rule.indexOf('=');
+        if (separator <= 0 || separator == rule.length() - 1) {
+            throw new IllegalArgumentException("Block rule must be written as <type>=<pattern>: " + rule);
+        }
+        String type = rule.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+        String pattern = rule.substring(separator + 1).trim();
+        if (pattern.startsWith(REGEX_PREFIX)) {
+            return new NetworkBlockRule(type, pattern, Pattern.compile(pattern.substring(REGEX_PREFIX.length())), null);
+        }
+        String glob = pattern.startsWith(GLOB_PREFIX) ? pattern.substring(GLOB_PREFIX.length()) : pattern;
+        return new NetworkBlockRule(type, pattern, globToRegex(glob), glob);
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder("^");
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.append('$').toString());
+    }
+
+    /**
+     * @param url          the URL of the request.
+     * @param resourceType the resource type of the request, case-insensitive.
+     * @return whether the request is blocked by this rule.
+     */
+    public boolean matches(String url, String resourceType) {
+        return (type.equals(ANY_TYPE) || type.equalsIgnoreCase(resourceType)) && regex.matcher(url).find();
+    }
+
+    /**
+     * @return the resource type the rule applies to, lower case, or {@code *} for any type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the pattern the browser can pre-filter requests with before pausing them, using the same wildcards
+     * as a glob: the glob itself, or {@code *} for a regular expression.
+     *
+     * @return the wildcard URL pattern.
+     */
+    String getWildcardPattern() {
+        return glob != null ? glob : "*";
+    }
+
+    @Override
+    public String toString() {
+        return type + "=" + pattern;
+    }
+}
@@ -0,0 +1,461 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.BaseParameters;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.ContinueResponseParameters;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import org.openqa.selenium.bidi.network.UrlPattern;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks requests for resources the tests never look at, such as images, fonts, analytics and ads, so pages load
+ * faster.
+ * <p>
+ * Requests are matched against a list of {@link NetworkBlockRule}s and failed inside the browser:
+ * <ul>
+ *     <li>Chromium browsers (Chrome, Edge) through the CDP {@code Fetch} domain. The browser only pauses the requests
+ *     matching the resource types and glob patterns of the rules, so other requests are not slowed down.</li>
+ *     <li>Firefox through a WebDriver BiDi network intercept; {@link DriverOptionsFactory} enables BiDi when blocking
+ *     is on. BiDi does not report resource types, so they are inferred from the file extension of the URL. The
+ *     browser only pauses requests to the hosts named by the glob patterns of the rules; if a rule has no fixed host,
+ *     such as a regular expression or {@code image=glob:*}, every request is paused.</li>
+ * </ul>
+ * Other browsers are left unchanged.
+ * </p>
+ *
+ * <p>
+ * By default requests are blocked before they are sent. With {@code "stage": "response"} they are blocked when the
+ * response headers arrive instead: the request still reaches the server, but the body is not downloaded and its
+ * {@code Content-Length} is counted as bytes saved. Blocked requests per resource type and bytes saved are logged at
+ * JVM shutdown.
+ * </p>
+ *
+ * <p>
+ * Configured by the {@code networkBlocking} section of {@code config.json}:
+ * <pre>{@code
+ * "networkBlocking": {
+ *   "enabled": true,
+ *   "stage": "request",
+ *   "rules": ["image=glob:*", "font=glob:*", "*=regex:(google-analytics|googletagmanager|doubleclick)\\."]
+ * }
+ * }</pre>
+ * </p>
+ */
+public final class NetworkBlocker {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkBlocker.class);
+
+    // <scheme or *>://<host>[:<port>][/<anything>], with a host free of wildcards.
+    private static final Pattern FIXED_HOST_GLOB = Pattern.compile("^(\\*|[a-zA-Z][a-zA-Z0-9+.-]*)://([^/*?:]+)"
+            + "(?::(\\d+))?(?:/.*)?$");
+
+    private static volatile NetworkBlocker defaultBlocker;
+
+    private final boolean enabled;
+    private final boolean responseStage;
+    private final List<NetworkBlockRule> rules;
+    private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+
+    /**
+     * @param rules         the blocklist.
+     * @param responseStage whether to block when the response headers arrive instead of before the request is sent.
+     */
+    public NetworkBlocker(List<NetworkBlockRule> rules, boolean responseStage) {
+        this(!rules.isEmpty(), rules, responseStage);
+    }
+
+    private NetworkBlocker(boolean enabled, List<NetworkBlockRule> rules, boolean responseStage) {
+        this.enabled = enabled;
+        this.rules = List.copyOf(rules);
+        this.responseStage = responseStage;
+    }
+
+    /**
+     * Returns the blocker configured by the {@code networkBlocking} section of {@code config.json}, creating it on
+     * first use.
+     *
+     * @return the default blocker.
+     * @throws IllegalArgumentException if a configured rule or stage is malformed.
+     */
+    public static NetworkBlocker getDefault() {
+        NetworkBlocker blocker = defaultBlocker;
+        if (blocker == null) {
+            synchronized (NetworkBlocker.class) {
+                blocker = defaultBlocker;
+                if (blocker == null) {
+                    JsonConfig config = JsonFileReader.getConfig("config.json").getSection("networkBlocking");
+                    List<NetworkBlockRule> rules = new ArrayList<>();
+                    for (String rule : config.getStringList("rules")) {
+                        rules.add(NetworkBlockRule.parse(rule));
+                    }
+                    String stage = config.getString("stage", "request");
+                    if (!stage.equals("request") && !stage.equals("response")) {
+                        throw new IllegalArgumentException("networkBlocking.stage must be request or response: "
+                                + stage);
+                    }
+                    blocker = new NetworkBlocker(config.getBoolean("enabled", false) && !rules.isEmpty(), rules,
+                            stage.equals("response"));
+                    defaultBlocker = blocker;
+                }
+            }
+        }
+        return blocker;
+    }
+
+    /**
+     * @return whether the blocker has rules and is switched on.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts blocking the requests of the given session, if the blocker is enabled and the browser supports request
+     * interception. Decorated drivers are unwrapped first.
+     *
+     * @param driver the WebDriver instance of the session.
+     * @return whether requests of the session are now blocked.
+     */
+    public boolean attach(WebDriver driver) {
+        if (!enabled) {
+            return false;
+        }
+        WebDriver target = driver;
+        while (target instanceof WrapsDriver) {
+            target = ((WrapsDriver) target).getWrappedDriver();
+        }
+        try {
+            if (target instanceof HasBiDi && ((HasBiDi) target).maybeGetBiDi().isPresent()) {
+                attachBiDi(target);
+            } else if (target instanceof HasDevTools) {
+                attachDevTools(((HasDevTools) target).getDevTools());
+            } else {
+                logger.debug("{} does not support request interception; nothing is blocked",
+                        target.getClass().getSimpleName());
+                return false;
+            }
+        } catch (WebDriverException e) {
+            logger.warn("Failed to enable request blocking on {}", target.getClass().getSimpleName(), e);
+            return false;
+        }
+        if (shutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::logSummary, "network-blocker"));
+        }
+        return true;
+    }
+
+    private void attachDevTools(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        Event<Map<String, Object>> requestPaused = new Event<>("Fetch.requestPaused",
+                input -> input.read(Json.MAP_TYPE));
+        devTools.addListener(requestPaused, event -> {
+            String requestId = (String) event.get("requestId");
+            try {
+                Map<?, ?> request = (Map<?, ?>) event.get("request");
+                String type = String.valueOf(event.get("resourceType")).toLowerCase(Locale.ROOT);
+                if (isBlocked((String) request.get("url"), type)) {
+                    record(type, contentLength(event.get("responseHeaders")));
+                    devTools.send(new Command<>("Fetch.failRequest",
+                            Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Failed to evaluate paused request {}", requestId, e);
+            }
+            devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+        });
+
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        String stage = responseStage ? "Response" : "Request";
+        for (NetworkBlockRule rule : rules) {
+            Map<String, Object> pattern = new TreeMap<>();
+            pattern.put("urlPattern", rule.getWildcardPattern());
+            pattern.put("requestStage", stage);
+            if (!rule.getType().equals("*")) {
+                pattern.put("resourceType", cdpResourceType(rule.getType()));
+            }
+            patterns.add(pattern);
+        }
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+    }
+
+    private void attachBiDi(WebDriver driver) {
+        Network network = new Network(driver);
+        AddInterceptParameters intercept;
+        if (responseStage) {
+            network.onResponseStarted(event -> handleResponseStarted(network, event));
+            intercept = new AddInterceptParameters(InterceptPhase.RESPONSE_STARTED);
+        } else {
+            network.onBeforeRequestSent(event -> handleBeforeRequestSent(network, event));
+            intercept = new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT);
+        }
+        List<UrlPattern> patterns = urlPatterns(rules);
+        if (patterns != null) {
+            intercept.urlPatterns(patterns);
+        }
+        network.addIntercept(intercept);
+    }
+
+    /**
+     * Narrows the requests the browser pauses down to the hosts the rules block. The patterns may match more requests
+     * than the rules do; those are continued by the event handlers.
+     *
+     * @param rules the blocklist.
+     * @return the BiDi URL patterns matching every request blocked by the rules, or {@code null} if a rule has no
+     * fixed host and every request has to be paused.
+     */
+    static List<UrlPattern> urlPatterns(List<NetworkBlockRule> rules) {
+        List<UrlPattern> patterns = new ArrayList<>();
+        for (NetworkBlockRule rule : rules) {
+            Matcher glob = FIXED_HOST_GLOB.matcher(rule.getWildcardPattern());
+            if (!glob.matches()) {
+                return null;
+            }
+            UrlPattern pattern = new UrlPattern().hostname(glob.group(2));
+            if (!glob.group(1).equals("*")) {
+                pattern.protocol(glob.group(1));
+            }
+            if (glob.group(3) != null) {
+                pattern.port(glob.group(3));
+            }
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+
+    private void handleBeforeRequestSent(Network network, BaseParameters event) {
+        if (!event.isBlocked()) {
+            return;
+        }
+        String requestId = event.getRequest().getRequestId();
+        boolean failed = false;
+        try {
+            String url = event.getRequest().getUrl();
+            if (isBlocked(url)) {
+                record(typeOf(url), -1);
+                network.failRequest(requestId);
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Failed to evaluate paused request {}", requestId, e);
+        } finally {
+            // A paused request that is neither failed nor continued hangs the page load.
+            if (!failed) {
+                network.continueRequest(new ContinueRequestParameters(requestId));
+            }
+        }
+    }
+
+    private void handleResponseStarted(Network network, ResponseDetails event) {
+        if (!event.isBlocked()) {
+            return;
+        }
+        String requestId = event.getRequest().getRequestId();
+        boolean failed = false;
+        try {
+            String url = event.getRequest().getUrl();
+            if (isBlocked(url)) {
+                record(typeOf(url), contentLength(event.getResponseData().getHeaders()));
+                network.failRequest(requestId);
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Failed to evaluate paused response {}", requestId, e);
+        } finally {
+            if (!failed) {
+                network.continueResponse(new ContinueResponseParameters(requestId));
+            }
+        }
+    }
+
+    private boolean isBlocked(String url) {
+        return isBlocked(url, typeOf(url));
+    }
+
+    /**
+     * @param url          the URL of the request.
+     * @param resourceType the resource type of the request.
+     * @return whether any rule blocks the request.
+     */
+    public boolean isBlocked(String url, String resourceType) {
+        for (NetworkBlockRule rule : rules) {
+            if (rule.matches(url, resourceType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(String type, long contentLength) {
+        blockedByType.computeIfAbsent(type, key -> new LongAdder()).increment();
+        if (contentLength > 0) {
+            bytesSaved.add(contentLength);
+        }
+    }
+
+    /**
+     * Infers the resource type of a request from the file extension of its URL, for browsers that do not report it.
+     *
+     * @param url the URL of the request.
+     * @return the resource type, or {@code other} if the extension is not known.
+     */
+    static String typeOf(String url) {
+        String path = url;
+        int end = path.length();
+        for (char terminator : new char[]{'?', '#'}) {
+            int index = path.indexOf(terminator);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        path = path.substring(0, end).toLowerCase(Locale.ROOT);
+        String extension = path.substring(path.lastIndexOf('.') + 1);
+        switch (extension) {
+            case "png":
+            case "jpg":
+            case "jpeg":
+            case "gif":
+            case "webp":
+            case "avif":
+            case "svg":
+            case "ico":
+                return "image";
+            case "woff":
+            case "woff2":
+            case "ttf":
+            case "otf":
+            case "eot":
+                return "font";
+            case "css":
+                return "stylesheet";
+            case "js":
+            case "mjs":
+                return "script";
+            case "mp4":
+            case "webm":
+            case "ogg":
+            case "mp3":
+            case "wav":
+                return "media";
+            default:
+                return "other";
+        }
+    }
+
+    private static String cdpResourceType(String type) {
+        switch (type) {
+            case "xhr":
+                return "XHR";
+            case "texttrack":
+                return "TextTrack";
+            case "eventsource":
+                return "EventSource";
+            case "websocket":
+                return "WebSocket";
+            case "cspviolationreport":
+                return "CSPViolationReport";
+            case "signedexchange":
+                return "SignedExchange";
+            default:
+                return Character.toUpperCase(type.charAt(0)) + type.substring(1);
+        }
+    }
+
+    private static long contentLength(Object cdpHeaders) {
+        if (cdpHeaders instanceof List) {
+            for (Object header : (List<?>) cdpHeaders) {
+                Map<?, ?> entry = (Map<?, ?>) header;
+                if ("content-length".equalsIgnoreCase(String.valueOf(entry.get("name")))) {
+                    return parseLength(String.valueOf(entry.get("value")));
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long contentLength(List<Header> headers) {
+        for (Header header : headers) {
+            if ("content-length".equalsIgnoreCase(header.getName())) {
+                return parseLength(header.getValue().getValue());
+            }
+        }
+        return -1;
+    }
+
+    private static long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the number of blocked requests per resource type.
+     */
+    public Map<String, Long> getBlockedRequests() {
+        Map<String, Long> blocked = new TreeMap<>();
+        blockedByType.forEach((type, count) -> blocked.put(type, count.sum()));
+        return blocked;
+    }
+
+    /**
+     * @return the total number of blocked requests.
+     */
+    public long getTotalBlocked() {
+        long total = 0;
+        for (LongAdder count : blockedByType.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * @return the bytes of the bodies of the blocked responses; only known when blocking at the response stage.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Logs the blocked requests per resource type and the bytes saved.
+     */
+    public void logSummary() {
+        long total = getTotalBlocked();
+        if (total == 0) {
+            return;
+        }
+        logger.info("Blocked {} requests {}; {}", total, getBlockedRequests(), responseStage
+                ? String.format("%.1f KB of responses not downloaded", getBytesSaved() / 1024.0)
+                : "bytes saved are only measured with networkBlocking.stage = response");
+    }
+}
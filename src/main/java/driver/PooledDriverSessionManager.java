@@ -0,0 +1,96 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A {@link DriverSessionService} that borrows browser sessions from a {@link DriverSessionPool}
+ * instead of launching and quitting a browser for every test.
+ * <p>
+ * {@link #setDriver(DriverProvider)} acquires a warm session of the requested browser type and
+ * {@link #quitDriver(WebDriver)} hands it back to the pool, where it is reset for the next test.
+ * </p>
+ *
+ * <p>
+ * The pool launches local browsers by type through {@link DriverFactory}, so only providers that keep the default
+ * {@link DriverProvider#createDriver()}, such as {@link EnumDriverProvider}, can be served from it. Providers that
+ * create their sessions themselves, such as {@link RemoteDriverProvider}, are rejected rather than silently replaced
+ * by a local browser; use a plain {@link DriverSessionManager} for them.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * StandardDriverManager manager = new StandardDriverManager(new PooledDriverSessionManager());
+ * manager.setDriver(new EnumDriverProvider(DriverType.CHROME));
+ * manager.navigateTo("https://example.com");
+ * manager.quitDriver();
+ * }</pre>
+ * </p>
+ */
+public class PooledDriverSessionManager extends DriverSessionManager {
+
+    private final DriverSessionPool pool;
+
+    /**
+     * Initializes a PooledDriverSessionManager backed by the process-wide {@link DriverSessionPool#getDefault()} pool.
+     */
+    public PooledDriverSessionManager() {
+        this(DriverSessionPool.getDefault());
+    }
+
+    /**
+     * Initializes a PooledDriverSessionManager backed by the given pool.
+     *
+     * @param pool the pool to borrow sessions from.
+     */
+    public PooledDriverSessionManager(DriverSessionPool pool) {
+        super(null);
+        this.pool = pool;
+    }
+
+    /**
+     * Acquires a session of the browser type named by the given provider from the pool.
+     *
+     * @param driverProvider the {@link DriverProvider} implementation specifying the desired browser type.
+     * @return the acquired WebDriver instance.
+     * @throws IllegalArgumentException if the browser name does not match a {@link DriverType}, or if the provider
+     *                                  creates its sessions itself.
+     */
+    @Override
+    public WebDriver setDriver(DriverProvider driverProvider) {
+        if (!isPoolable(driverProvider)) {
+            throw new IllegalArgumentException("The driver session pool only launches local browsers, but "
+                    + driverProvider.getClass().getName() + " creates its own sessions; use a DriverSessionManager "
+                    + "(or \"virtualSessions\": {\"pooled\": false}) for it.");
+        }
+        DriverType type = DriverType.valueOf(driverProvider.getBrowserName().toUpperCase());
+        WebDriver driver = pool.acquire(type);
+        setDriverInstance(driver);
+        return driver;
+    }
+
+    /**
+     * Hands the session back to the pool instead of quitting the browser.
+     *
+     * @param driver the WebDriver instance to release. Can be {@code null}.
+     */
+    @Override
+    public void quitDriver(WebDriver driver) {
+        if (driver != null) {
+            pool.release(driver);
+            clearDriver();
+        }
+    }
+
+    /**
+     * Returns whether the pool can serve the provider, that is, whether the provider leaves the creation of its
+     * sessions to the default {@link DriverProvider#createDriver()}.
+     */
+    static boolean isPoolable(DriverProvider driverProvider) {
+        try {
+            return driverProvider.getClass().getMethod("createDriver").getDeclaringClass() == DriverProvider.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
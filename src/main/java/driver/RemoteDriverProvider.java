@@ -0,0 +1,297 @@
+package driver;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DriverProvider} that creates {@link RemoteWebDriver} sessions on one or more Selenium Grid hubs or nodes
+ * instead of starting a local browser.
+ * <p>
+ * Before each session the provider asks every node for its {@code /status} and picks the one with the most free
+ * slots for the browser; nodes with equally many free slots take turns. A node that does not report slots (a plain
+ * driver server) counts as one free slot while it is ready. When no node has a free slot, the session is still sent
+ * to a reachable node, since a hub queues it until a slot frees up.
+ * </p>
+ *
+ * <p>
+ * Each node has one HTTP client, shared by the status checks and by every session created on it, so connections are
+ * kept alive and reused instead of being opened for each session. Creating a session is retried with exponential
+ * backoff, choosing the node again on every attempt.
+ * </p>
+ *
+ * <p>
+ * {@link #fromConfig(DriverType)} reads the {@code remote} section of {@code config.json}:
+ * <pre>{@code
+ * "remote": {
+ *   "nodes": ["http://grid-a:4444", "http://grid-b:4444"],
+ *   "maxAttempts": 3,
+ *   "initialBackoff": "1s",
+ *   "connectTimeout": "10s",
+ *   "readTimeout": "3m"
+ * }
+ * }</pre>
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * driverManager.setDriver(RemoteDriverProvider.fromConfig(DriverType.FIREFOX));
+ * }</pre>
+ * </p>
+ */
+public class RemoteDriverProvider implements DriverProvider, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteDriverProvider.class);
+
+    private static final String CONFIG_FILE = "config.json";
+
+    private final DriverType type;
+    private final List<URL> nodes;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final ClientConfig clientConfig;
+    private final Map<URL, HttpClient> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNode = new AtomicInteger();
+
+    /**
+     * @param type           the browser type of the sessions.
+     * @param nodes          the URLs of the hubs or nodes, e.g. {@code http://grid:4444}.
+     * @param maxAttempts    how many times session creation is attempted before giving up.
+     * @param initialBackoff the pause after the first failed attempt; it doubles after every further failure.
+     * @param connectTimeout the timeout for opening a connection to a node.
+     * @param readTimeout    the timeout for a node to answer a command, including session creation.
+     */
+    public RemoteDriverProvider(DriverType type, List<URL> nodes, int maxAttempts, Duration initialBackoff,
+                                Duration connectTimeout, Duration readTimeout) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one remote node is required");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        this.type = type;
+        this.nodes = List.copyOf(nodes);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.clientConfig = ClientConfig.defaultConfig().connectionTimeout(connectTimeout).readTimeout(readTimeout);
+    }
+
+    /**
+     * Creates a provider for the given browser type from the {@code remote} section of {@code config.json}.
+     *
+     * @param type the browser type of the sessions.
+     * @return the provider.
+     * @throws IllegalStateException if no nodes are configured or a node URL is malformed.
+     */
+    public static RemoteDriverProvider fromConfig(DriverType type) {
+        JsonConfig config = JsonFileReader.getConfig(CONFIG_FILE).getSection("remote");
+        List<URL> nodes = new ArrayList<>();
+        for (String node : config.getStringList("nodes")) {
+            try {
+                nodes.add(URI.create(node).toURL());
+            } catch (MalformedURLException | IllegalArgumentException e) {
+                throw new IllegalStateException("Malformed remote node URL: " + node, e);
+            }
+        }
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("No remote nodes configured under remote.nodes in " + CONFIG_FILE);
+        }
+        return new RemoteDriverProvider(type, nodes, config.getInt("maxAttempts", 3),
+                config.getDuration("initialBackoff", Duration.ofSeconds(1)),
+                config.getDuration("connectTimeout", Duration.ofSeconds(10)),
+                config.getDuration("readTimeout", Duration.ofMinutes(3)));
+    }
+
+    @Override
+    public String getBrowserName() {
+        return type.name();
+    }
+
+    /**
+     * Creates a session on the node with the most free slots, retrying with backoff when it fails.
+     *
+     * @return the WebDriver instance of the remote session, instrumented by {@link CommandLatency}.
+     * @throws SessionNotCreatedException if no attempt succeeded.
+     */
+    @Override
+    public WebDriver createDriver() {
+        RuntimeException lastFailure = null;
+        Duration backoff = initialBackoff;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            URL node = selectNode();
+            if (node != null) {
+                try {
+                    WebDriver driver = new RemoteWebDriver(new HttpCommandExecutor(Map.of(),
+                            clientConfig.baseUrl(node), config -> new SharedHttpClient(clientFor(node))),
+                            DriverOptionsFactory.createOptions(type));
+                    return CommandLatency.instrument(driver, type);
+                } catch (WebDriverException | UncheckedIOException e) {
+                    lastFailure = e;
+                    logger.warn("Attempt {} of {} to create a {} session on {} failed: {}", attempt, maxAttempts,
+                            type, node, e.getMessage());
+                }
+            } else {
+                logger.warn("Attempt {} of {} to create a {} session failed: no remote node is reachable", attempt,
+                        maxAttempts, type);
+            }
+            if (attempt < maxAttempts) {
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SessionNotCreatedException("Interrupted while creating a " + type + " session");
+                }
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+        throw new SessionNotCreatedException("Failed to create a " + type + " session on " + nodes + " after "
+                + maxAttempts + " attempts", lastFailure);
+    }
+
+    /**
+     * Closes the HTTP clients of all nodes. Sessions still open on them can no longer be used.
+     */
+    @Override
+    public void close() {
+        clients.values().forEach(HttpClient::close);
+        clients.clear();
+    }
+
+    /**
+     * Returns the node with the most free slots for the browser, the first reachable node if none has a free slot,
+     * or {@code null} if no node is reachable.
+     */
+    private URL selectNode() {
+        int offset = Math.floorMod(nextNode.getAndIncrement(), nodes.size());
+        URL best = null;
+        URL reachable = null;
+        int bestFree = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            URL node = nodes.get((offset + i) % nodes.size());
+            int free = freeSlots(node);
+            if (free >= 0 && reachable == null) {
+                reachable = node;
+            }
+            if (free > bestFree) {
+                best = node;
+                bestFree = free;
+            }
+        }
+        return best != null ? best : reachable;
+    }
+
+    private int freeSlots(URL node) {
+        try {
+            HttpResponse response = clientFor(node).execute(new HttpRequest(HttpMethod.GET, "/status"));
+            if (response.getStatus() != 200) {
+                logger.debug("Status of {} answered {}", node, response.getStatus());
+                return -1;
+            }
+            return freeSlots(new JSONObject(Contents.string(response)), type.name());
+        } catch (WebDriverException | UncheckedIOException | JSONException e) {
+            logger.debug("Status of {} is unavailable: {}", node, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Counts the free slots for a browser in a {@code /status} response: the slots without a session of every node
+     * that is up, whose stereotype matches the browser.
+     *
+     * @param status      the {@code /status} response.
+     * @param browserName the browser name, case-insensitive.
+     * @return the number of free slots; {@code 1} or {@code 0} for a server that reports only whether it is ready.
+     */
+    static int freeSlots(JSONObject status, String browserName) {
+        JSONObject value = status.optJSONObject("value", new JSONObject());
+        JSONArray nodes = value.optJSONArray("nodes");
+        if (nodes == null && value.has("node")) {
+            nodes = new JSONArray().put(value.getJSONObject("node"));
+        }
+        if (nodes == null) {
+            return value.optBoolean("ready", false) ? 1 : 0;
+        }
+        int free = 0;
+        for (int i = 0; i < nodes.length(); i++) {
+            JSONObject node = nodes.getJSONObject(i);
+            if (!"UP".equalsIgnoreCase(node.optString("availability", "UP"))) {
+                continue;
+            }
+            JSONArray slots = node.optJSONArray("slots", new JSONArray());
+            for (int j = 0; j < slots.length(); j++) {
+                JSONObject slot = slots.getJSONObject(j);
+                String slotBrowser = slot.optJSONObject("stereotype", new JSONObject()).optString("browserName", "");
+                if (slot.isNull("session") && (slotBrowser.isEmpty() || slotBrowser.equalsIgnoreCase(browserName))) {
+                    free++;
+                }
+            }
+        }
+        return free;
+    }
+
+    private HttpClient clientFor(URL node) {
+        return clients.computeIfAbsent(node,
+                key -> HttpClient.Factory.createDefault().createClient(clientConfig.baseUrl(key)));
+    }
+
+    /**
+     * A view of a node's HTTP client that ignores {@link #close()}, which {@link HttpCommandExecutor} calls when its
+     * session quits.
+     */
+    private static final class SharedHttpClient implements HttpClient {
+        private final HttpClient client;
+
+        private SharedHttpClient(HttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return client.execute(request);
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return client.executeAsync(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return client.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // The client belongs to the provider and serves further sessions.
+        }
+    }
+}
@@ -34,6 +34,18 @@ public class StandardDriverManager extends DriverManager {
         this.driverSessionManager = new DriverSessionManager(null);
     }
 
+    /**
+     * Constructs a {@code StandardDriverManager} backed by the given session service.
+     *
+     * <p>Use this constructor to change how sessions are obtained, for example with a
+     * {@link PooledDriverSessionManager} that reuses warm browser sessions between tests.</p>
+     *
+     * @param driverSessionService the service responsible for creating and closing WebDriver sessions.
+     */
+    public StandardDriverManager(DriverSessionService driverSessionService) {
+        this.driverSessionManager = driverSessionService;
+    }
+
     /**
      * Retrieves the currently active WebDriver instance being used in this session.
      *
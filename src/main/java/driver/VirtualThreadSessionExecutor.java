@@ -0,0 +1,286 @@
+package driver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs browser sessions concurrently, each on its own virtual thread.
+ * <p>
+ * A session covers the whole life of one driver: acquiring it, registering it in {@link DriverStoreManager},
+ * running the test body and tearing it down. Sessions spend most of their time blocked on WebDriver HTTP calls,
+ * which park a virtual thread instead of holding a platform thread, so one JVM can drive many (remote) sessions.
+ * </p>
+ *
+ * <h2>Key Features:</h2>
+ * <ul>
+ *     <li>Each session's driver is registered under a thread-scoped key and set as the current driver of its
+ *     virtual thread, so {@link DriverStoreManager#getCurrentDriver()} works inside the session.</li>
+ *     <li>A semaphore caps the number of sessions that hold a driver at the same time, overall and per browser.</li>
+ *     <li>Every session is torn down, whether its body passed or failed; results are collected per session.</li>
+ * </ul>
+ *
+ * <p>
+ * The executor is configured by the {@code virtualSessions} section of {@code config.json}:
+ * <pre>
+ * "virtualSessions": {
+ *   "maxConcurrency": 50,
+ *   "pooled": true
+ * }
+ * </pre>
+ * With {@code pooled} set, sessions are borrowed from {@link DriverSessionPool#getDefault()} and at most
+ * {@code pool.maxTotal} sessions of a browser run at the same time, so the others wait for a free session here
+ * instead of timing out in the pool; otherwise every session launches and quits its own browser.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * VirtualThreadSessionExecutor.fromConfig().runAll(
+ *         List.of(new EnumDriverProvider(DriverType.CHROME), new EnumDriverProvider(DriverType.FIREFOX)),
+ *         manager -> manager.navigateTo("https://example.com"));
+ * }</pre>
+ * </p>
+ */
+public class VirtualThreadSessionExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadSessionExecutor.class);
+
+    private final Semaphore permits;
+    private final int maxPerBrowser;
+    private final Map<String, Semaphore> browserPermits = new ConcurrentHashMap<>();
+    private final Supplier<StandardDriverManager> managerFactory;
+
+    /**
+     * Constructs an executor without a limit per browser.
+     *
+     * @param maxConcurrency the maximum number of sessions holding a driver at the same time.
+     * @param managerFactory creates the driver manager of each session.
+     * @throws IllegalArgumentException if {@code maxConcurrency} is less than 1.
+     */
+    public VirtualThreadSessionExecutor(int maxConcurrency, Supplier<StandardDriverManager> managerFactory) {
+        this(maxConcurrency, maxConcurrency, managerFactory);
+    }
+
+    /**
+     * Constructs an executor.
+     *
+     * @param maxConcurrency the maximum number of sessions holding a driver at the same time.
+     * @param maxPerBrowser  the maximum number of sessions of one browser holding a driver at the same time, such
+     *                       as the {@link DriverPoolSettings#getMaxTotal()} of the pool the drivers come from.
+     * @param managerFactory creates the driver manager of each session.
+     * @throws IllegalArgumentException if {@code maxConcurrency} or {@code maxPerBrowser} is less than 1.
+     */
+    public VirtualThreadSessionExecutor(int maxConcurrency, int maxPerBrowser,
+                                        Supplier<StandardDriverManager> managerFactory) {
+        if (maxConcurrency < 1 || maxPerBrowser < 1) {
+            throw new IllegalArgumentException("maxConcurrency and maxPerBrowser must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxPerBrowser = maxPerBrowser;
+        this.managerFactory = managerFactory;
+    }
+
+    /**
+     * Creates an executor configured from the {@code virtualSessions} section of {@code config.json}. Pooled
+     * sessions are also limited per browser to the {@code maxTotal} of the {@code pool} section.
+     *
+     * @return the configured executor.
+     */
+    public static VirtualThreadSessionExecutor fromConfig() {
+        JsonConfig config = JsonFileReader.getConfig("config.json").getSection("virtualSessions");
+        int maxConcurrency = config.getInt("maxConcurrency", 50);
+        if (config.getBoolean("pooled", true)) {
+            return new VirtualThreadSessionExecutor(maxConcurrency, DriverPoolSettings.fromConfig().getMaxTotal(),
+                    () -> new StandardDriverManager(new PooledDriverSessionManager()));
+        }
+        return new VirtualThreadSessionExecutor(maxConcurrency, StandardDriverManager::new);
+    }
+
+    /**
+     * Runs one session per provider concurrently and waits until all of them have finished.
+     *
+     * @param providers the browser of each session.
+     * @param task      the body of each session.
+     * @return the result of each session, in the order of the providers.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the sessions.
+     */
+    public List<SessionResult> run(Collection<? extends DriverProvider> providers, SessionTask task)
+            throws InterruptedException {
+        List<Future<SessionResult>> futures = new ArrayList<>(providers.size());
+        // Commands sent by the sessions count towards the test that started them.
+        CommandLatency.TestTag test = CommandLatency.currentTest();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("driver-session-", 0).factory())) {
+            for (DriverProvider provider : providers) {
+                futures.add(executor.submit(() -> runSession(provider, task, test)));
+            }
+        }
+        List<SessionResult> results = new ArrayList<>(futures.size());
+        for (Future<SessionResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                // runSession catches everything the session throws; this is a bug in the executor itself.
+                throw new IllegalStateException("Session executor failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs one session per provider concurrently and fails if any of them failed.
+     *
+     * @param providers the browser of each session.
+     * @param task      the body of each session.
+     * @return the result of each session, in the order of the providers.
+     * @throws AssertionError       if at least one session failed; the session failures are attached as suppressed.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the sessions.
+     */
+    public List<SessionResult> runAll(Collection<? extends DriverProvider> providers, SessionTask task)
+            throws InterruptedException {
+        List<SessionResult> results = run(providers, task);
+        List<SessionResult> failed = results.stream().filter(result -> !result.isSuccessful()).toList();
+        if (!failed.isEmpty()) {
+            AssertionError error = new AssertionError(failed.size() + " of " + results.size() + " sessions failed");
+            failed.forEach(result -> error.addSuppressed(result.getFailure()));
+            throw error;
+        }
+        return results;
+    }
+
+    private SessionResult runSession(DriverProvider provider, SessionTask task, CommandLatency.TestTag test) {
+        CommandLatency.setCurrentTest(test);
+        String browserName = provider.getBrowserName();
+        long start = System.nanoTime();
+        StandardDriverManager manager = null;
+        String driverKey = null;
+        Semaphore browserPermit = browserPermits.computeIfAbsent(browserName.toLowerCase(Locale.ROOT),
+                name -> new Semaphore(maxPerBrowser, true));
+        boolean browserPermitAcquired = false;
+        boolean permitAcquired = false;
+        Throwable failure = null;
+        try {
+            // Wait for the browser first, so that a waiting session does not hold a slot other browsers could use
+            browserPermit.acquire();
+            browserPermitAcquired = true;
+            permits.acquire();
+            permitAcquired = true;
+            manager = managerFactory.get();
+            manager.setDriver(provider);
+            driverKey = DriverStoreManager.threadScopedKey(browserName.toLowerCase() + "Driver");
+            DriverStoreManager.registerDriver(driverKey, manager.getDriver());
+            DriverStoreManager.setCurrentDriver(manager.getDriver());
+            task.run(manager);
+        } catch (Throwable e) {
+            failure = e;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            try {
+                if (manager != null) {
+                    if (driverKey != null) {
+                        DriverStoreManager.unregisterDriver(driverKey, manager.getDriver());
+                    }
+                    DriverStoreManager.removeCurrentDriver();
+                    manager.quitDriver();
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to tear down {} session", browserName, e);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                if (permitAcquired) {
+                    permits.release();
+                }
+                if (browserPermitAcquired) {
+                    browserPermit.release();
+                }
+            }
+        }
+        return new SessionResult(browserName, Duration.ofNanos(System.nanoTime() - start), failure);
+    }
+
+    /**
+     * The body of one session.
+     */
+    @FunctionalInterface
+    public interface SessionTask {
+
+        /**
+         * Runs the session body against an initialized driver.
+         *
+         * @param driverManager the driver manager of the session.
+         * @throws Exception if the session fails.
+         */
+        void run(StandardDriverManager driverManager) throws Exception;
+    }
+
+    /**
+     * The outcome of one session.
+     */
+    public static final class SessionResult {
+        private final String browserName;
+        private final Duration duration;
+        private final Throwable failure;
+
+        private SessionResult(String browserName, Duration duration, Throwable failure) {
+            this.browserName = browserName;
+            this.duration = duration;
+            this.failure = failure;
+        }
+
+        /**
+         * @return the browser name of the session.
+         */
+        public String getBrowserName() {
+            return browserName;
+        }
+
+        /**
+         * @return the time from starting the session until its teardown finished, including time spent waiting
+         * for a free slot.
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return the failure of the session, or {@code null} if it passed.
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return true if the session passed.
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            return browserName + (failure == null ? " passed" : " failed") + " in " + duration.toMillis() + " ms";
+        }
+    }
+}
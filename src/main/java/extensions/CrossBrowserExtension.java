@@ -0,0 +1,258 @@
+package extensions;
+
+import driver.DriverSessionPool;
+import driver.DriverStoreManager;
+import driver.DriverType;
+import driver.EnumDriverProvider;
+import driver.PooledDriverSessionManager;
+import driver.StandardDriverManager;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * JUnit 5 extension behind {@link CrossBrowserTest}: provides one test invocation per browser type.
+ * <p>
+ * Each invocation:
+ * <ul>
+ *     <li>waits for a free slot of its browser type, so no more than the configured number of sessions of one
+ *     browser run at the same time;</li>
+ *     <li>resolves {@link StandardDriverManager} and {@link DriverType} parameters, acquiring a pooled session
+ *     from {@link DriverSessionPool#getDefault()} only when the test asks for a driver manager;</li>
+ *     <li>sets the session as the current driver of the test thread and hands it back to the pool afterwards.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * The per-browser concurrency cap is read from the {@code crossBrowser.maxConcurrency} section of
+ * {@code config.json} and defaults to the pool's maximum size:
+ * <pre>
+ * "crossBrowser": {
+ *   "maxConcurrency": { "chrome": 2, "edge": 2 }
+ * }
+ * </pre>
+ * Results are aggregated per browser and logged when the test class finishes.
+ * </p>
+ */
+public class CrossBrowserExtension implements TestTemplateInvocationContextProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrossBrowserExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(CrossBrowserExtension.class);
+
+    // Concurrency slots per browser type, shared by all cross-browser tests in the JVM.
+    private static final Map<DriverType, Semaphore> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Supports test methods annotated with {@link CrossBrowserTest}.
+     *
+     * @param context the extension context of the test method.
+     * @return true if the method is annotated with {@link CrossBrowserTest}.
+     */
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return context.getTestMethod().map(method -> method.isAnnotationPresent(CrossBrowserTest.class)).orElse(false);
+    }
+
+    /**
+     * Provides one invocation context per browser type listed in {@link CrossBrowserTest#value()}.
+     *
+     * @param context the extension context of the test method.
+     * @return the invocation contexts.
+     */
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        Optional<CrossBrowserTest> annotation = AnnotationSupport.findAnnotation(context.getTestMethod(),
+                CrossBrowserTest.class);
+        DriverType[] types = annotation.orElseThrow().value();
+        ExtensionContext classContext = context.getParent().orElse(context);
+        CrossBrowserResults results = classContext.getStore(NAMESPACE).getOrComputeIfAbsent(
+                CrossBrowserResults.class, key -> new CrossBrowserResults(classContext.getDisplayName()),
+                CrossBrowserResults.class);
+        return Arrays.stream(types).map(type -> new BrowserInvocationContext(type, results));
+    }
+
+    private static Semaphore slotsFor(DriverType type) {
+        return slots.computeIfAbsent(type, key -> {
+            int poolSize = DriverSessionPool.getDefault().getSettings().getMaxTotal();
+            JsonConfig config = JsonFileReader.getConfig("config.json").getSection("crossBrowser.maxConcurrency");
+            return new Semaphore(Math.max(1, config.getInt(key.name().toLowerCase(), poolSize)), true);
+        });
+    }
+
+    /**
+     * A single run of the test method against one browser type.
+     */
+    private static final class BrowserInvocationContext implements TestTemplateInvocationContext {
+        private final DriverType type;
+        private final CrossBrowserResults results;
+
+        private BrowserInvocationContext(DriverType type, CrossBrowserResults results) {
+            this.type = type;
+            this.results = results;
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return "[" + type.name() + "]";
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return List.of(new BrowserSession(type, results));
+        }
+    }
+
+    /**
+     * Manages the browser session of one invocation and records its outcome.
+     */
+    private static final class BrowserSession implements BeforeEachCallback, AfterEachCallback,
+            ParameterResolver, TestWatcher {
+
+        private final DriverType type;
+        private final CrossBrowserResults results;
+        private StandardDriverManager driverManager;
+        private boolean slotAcquired;
+        private long startNanos;
+
+        private BrowserSession(DriverType type, CrossBrowserResults results) {
+            this.type = type;
+            this.results = results;
+        }
+
+        @Override
+        public void beforeEach(ExtensionContext context) throws Exception {
+            slotsFor(type).acquire();
+            slotAcquired = true;
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            Class<?> parameterType = parameterContext.getParameter().getType();
+            return parameterType == StandardDriverManager.class || parameterType == DriverType.class;
+        }
+
+        @Override
+        public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            if (parameterContext.getParameter().getType() == DriverType.class) {
+                return type;
+            }
+            if (driverManager == null) {
+                StandardDriverManager manager = new StandardDriverManager(new PooledDriverSessionManager());
+                TimingExtension.measure(TestPhase.DRIVER_CREATION,
+                        () -> manager.setDriver(new EnumDriverProvider(type)));
+                DriverStoreManager.setCurrentDriver(manager.getDriver());
+                driverManager = manager;
+            }
+            return driverManager;
+        }
+
+        /**
+         * Releases the session unless the test already did, as {@code BaseTest.tearDown()} does, so a pooled
+         * session is handed back to the pool only once.
+         */
+        @Override
+        public void afterEach(ExtensionContext context) {
+            try {
+                if (driverManager != null && driverManager.isBrowserActive()) {
+                    DriverStoreManager.removeCurrentDriver();
+                    TimingExtension.measure(TestPhase.TEARDOWN, driverManager::quitDriver);
+                }
+            } finally {
+                if (slotAcquired) {
+                    slotsFor(type).release();
+                }
+            }
+        }
+
+        @Override
+        public void testSuccessful(ExtensionContext context) {
+            results.record(type, Outcome.PASSED, System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public void testFailed(ExtensionContext context, Throwable cause) {
+            results.record(type, Outcome.FAILED, System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public void testAborted(ExtensionContext context, Throwable cause) {
+            results.record(type, Outcome.ABORTED, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * The outcome of one invocation.
+     */
+    private enum Outcome {
+        PASSED, FAILED, ABORTED
+    }
+
+    /**
+     * Per-browser results of the cross-browser tests of one test class, logged when the class finishes.
+     */
+    private static final class CrossBrowserResults implements ExtensionContext.Store.CloseableResource {
+        private final String className;
+        private final Map<DriverType, BrowserStats> stats = new EnumMap<>(DriverType.class);
+
+        private CrossBrowserResults(String className) {
+            this.className = className;
+        }
+
+        private synchronized void record(DriverType type, Outcome outcome, long nanos) {
+            stats.computeIfAbsent(type, key -> new BrowserStats()).record(outcome, nanos);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (stats.isEmpty()) {
+                return;
+            }
+            StringBuilder summary = new StringBuilder("Cross-browser results for ").append(className).append(':');
+            stats.forEach((type, browserStats) -> summary.append(System.lineSeparator())
+                    .append(String.format("  %-8s passed=%d failed=%d aborted=%d total=%d ms max=%d ms",
+                            type, browserStats.counts[Outcome.PASSED.ordinal()],
+                            browserStats.counts[Outcome.FAILED.ordinal()],
+                            browserStats.counts[Outcome.ABORTED.ordinal()],
+                            browserStats.totalNanos / 1_000_000, browserStats.maxNanos / 1_000_000)));
+            logger.info(summary.toString());
+        }
+    }
+
+    /**
+     * Counters of one browser type, guarded by the owning {@link CrossBrowserResults}.
+     */
+    private static final class BrowserStats {
+        private final long[] counts = new long[Outcome.values().length];
+        private long totalNanos;
+        private long maxNanos;
+
+        private void record(Outcome outcome, long nanos) {
+            counts[outcome.ordinal()]++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+}
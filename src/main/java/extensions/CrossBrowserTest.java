@@ -0,0 +1,49 @@
+package extensions;
+
+import driver.DriverType;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated test method once per listed browser type, concurrently.
+ * <p>
+ * Each run gets its own {@link driver.StandardDriverManager} backed by a pooled session of its browser type;
+ * declare a {@code StandardDriverManager} and/or {@link DriverType} parameter to receive them. The runs are
+ * executed concurrently when JUnit parallel execution is enabled
+ * ({@code junit.jupiter.execution.parallel.enabled=true} in {@code junit-platform.properties}), so a matrix
+ * takes as long as its slowest browser instead of the sum of all of them.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * @CrossBrowserTest({DriverType.CHROME, DriverType.EDGE})
+ * public void testSearch(StandardDriverManager driverManager) {
+ *     driverManager.navigateTo("https://example.com");
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @see CrossBrowserExtension
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(CrossBrowserExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+public @interface CrossBrowserTest {
+
+    /**
+     * The browser types to run the test against.
+     *
+     * @return the browser types.
+     */
+    DriverType[] value();
+}
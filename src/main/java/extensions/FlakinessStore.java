@@ -0,0 +1,291 @@
+package extensions;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A small file store of how often each test turned out flaky, used by {@link RetryExtension} to quarantine
+ * chronically flaky tests.
+ * <p>
+ * For every test the store keeps the number of runs, of flaky runs (failed, then passed on a retry) and of failed
+ * runs, and the outcomes of the most recent runs. A test is quarantined when at least {@code quarantineThreshold} of
+ * its last {@code window} runs were flaky, and released again once enough of them passed. Quarantine decisions use
+ * the store as it was when the run started, so every test of a run, and every shard, sees the same decisions.
+ * Outcomes of the current run are written back when the JVM exits, or by {@link #save()}.
+ * </p>
+ *
+ * <p>
+ * The default store is configured by the {@code retry} section of {@code config.json}:
+ * <pre>{@code
+ * "retry": {"storeFile": "flakiness.json", "window": 10, "quarantineThreshold": 3}
+ * }</pre>
+ * File format, with the outcomes oldest first ({@code P} passed, {@code F} flaky, {@code X} failed):
+ * <pre>{@code
+ * {"updatedAt": "2026-10-16T08:00:00Z",
+ *  "tests": {"pages.LoginTest#testLogin()": {"runs": 12, "flaky": 3, "failed": 1, "recent": "PPFPXPFPPF"}}}
+ * }</pre>
+ * </p>
+ */
+public final class FlakinessStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessStore.class);
+
+    private static volatile FlakinessStore defaultStore;
+
+    /**
+     * The outcome of one run of a test.
+     */
+    public enum Outcome {
+        /**
+         * Passed on the first attempt.
+         */
+        PASSED('P'),
+        /**
+         * Failed, then passed on a retry.
+         */
+        FLAKY('F'),
+        /**
+         * Failed on every attempt.
+         */
+        FAILED('X');
+
+        private final char code;
+
+        Outcome(char code) {
+            this.code = code;
+        }
+    }
+
+    private final Path file;
+    private final int window;
+    private final int quarantineThreshold;
+    private final Map<String, Stats> stats;
+    private final Map<String, List<Outcome>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param file                the store file, or {@code null} to keep the statistics in memory only.
+     * @param window              the number of recent runs quarantine decisions look at.
+     * @param quarantineThreshold the number of flaky runs within the window that quarantine a test.
+     */
+    public FlakinessStore(Path file, int window, int quarantineThreshold) {
+        if (window < 1 || quarantineThreshold < 1) {
+            throw new IllegalArgumentException("window and quarantineThreshold must be positive");
+        }
+        this.file = file;
+        this.window = window;
+        this.quarantineThreshold = quarantineThreshold;
+        this.stats = file != null ? load(file) : new HashMap<>();
+    }
+
+    /**
+     * Returns the store configured by the {@code retry} section of {@code config.json}, creating it on first use.
+     * The outcomes it records are saved when the JVM exits.
+     *
+     * @return the default store.
+     */
+    public static FlakinessStore getDefault() {
+        FlakinessStore store = defaultStore;
+        if (store == null) {
+            synchronized (FlakinessStore.class) {
+                store = defaultStore;
+                if (store == null) {
+                    JsonConfig config = JsonFileReader.getConfig("config.json").getSection("retry");
+                    String storeFile = config.getString("storeFile", "flakiness.json");
+                    store = new FlakinessStore(storeFile.isEmpty() ? null : Paths.get(storeFile),
+                            config.getInt("window", 10), config.getInt("quarantineThreshold", 3));
+                    Runtime.getRuntime().addShutdownHook(new Thread(store::save, "flakiness-store"));
+                    defaultStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * @param key the history key of a test, as built by {@link TimingHistory}.
+     * @return whether the test was chronically flaky when the run started.
+     */
+    public boolean isQuarantined(String key) {
+        Stats testStats = stats.get(key);
+        return testStats != null && testStats.flakyWithin(window) >= quarantineThreshold;
+    }
+
+    /**
+     * Records the outcome of a run of a test.
+     *
+     * @param key     the history key of the test.
+     * @param outcome the outcome.
+     */
+    public void record(String key, Outcome outcome) {
+        pending.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(outcome);
+    }
+
+    /**
+     * Returns the statistics of a test, including the outcomes recorded in this run.
+     *
+     * @param key the history key of the test.
+     * @return the statistics; all zero for an unknown test.
+     */
+    public Stats getStats(String key) {
+        Stats merged = stats.getOrDefault(key, new Stats(0, 0, 0, ""));
+        List<Outcome> outcomes = pending.get(key);
+        if (outcomes != null) {
+            synchronized (outcomes) {
+                for (Outcome outcome : outcomes) {
+                    merged = merged.with(outcome, window);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Writes the outcomes recorded so far into the store file, merged with what other JVMs wrote meanwhile.
+     */
+    public void save() {
+        if (file == null || pending.isEmpty()) {
+            return;
+        }
+        Map<String, List<Outcome>> outcomes = new HashMap<>();
+        pending.keySet().forEach(key -> {
+            List<Outcome> recorded = pending.remove(key);
+            if (recorded != null) {
+                outcomes.put(key, new ArrayList<>(recorded));
+            }
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                // Released when the channel is closed.
+                channel.lock();
+                Map<String, Stats> merged = new TreeMap<>(load(file));
+                outcomes.forEach((key, recorded) -> {
+                    Stats testStats = merged.getOrDefault(key, new Stats(0, 0, 0, ""));
+                    for (Outcome outcome : recorded) {
+                        testStats = testStats.with(outcome, window);
+                    }
+                    merged.put(key, testStats);
+                });
+
+                JSONObject tests = new JSONObject();
+                merged.forEach((key, testStats) -> tests.put(key, testStats.toJson()));
+                JSONObject json = new JSONObject();
+                json.put("updatedAt", Instant.now().toString());
+                json.put("tests", tests);
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(temp, json.toString(2), StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to update the flakiness store {}", file, e);
+        }
+    }
+
+    private static Map<String, Stats> load(Path file) {
+        Map<String, Stats> loaded = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return loaded;
+        }
+        try {
+            JSONObject tests = new JSONObject(Files.readString(file, StandardCharsets.UTF_8)).optJSONObject("tests");
+            if (tests != null) {
+                for (String key : tests.keySet()) {
+                    JSONObject test = tests.getJSONObject(key);
+                    loaded.put(key, new Stats(test.optInt("runs"), test.optInt("flaky"), test.optInt("failed"),
+                            test.optString("recent", "")));
+                }
+            }
+        } catch (IOException | JSONException e) {
+            logger.warn("Ignoring unreadable flakiness store {}", file, e);
+        }
+        return loaded;
+    }
+
+    /**
+     * The flakiness statistics of one test.
+     */
+    public static final class Stats {
+        private final int runs;
+        private final int flaky;
+        private final int failed;
+        private final String recent;
+
+        private Stats(int runs, int flaky, int failed, String recent) {
+            this.runs = runs;
+            this.flaky = flaky;
+            this.failed = failed;
+            this.recent = recent;
+        }
+
+        private Stats with(Outcome outcome, int window) {
+            String outcomes = recent + outcome.code;
+            return new Stats(runs + 1, flaky + (outcome == Outcome.FLAKY ? 1 : 0),
+                    failed + (outcome == Outcome.FAILED ? 1 : 0),
+                    outcomes.substring(Math.max(0, outcomes.length() - window)));
+        }
+
+        private long flakyWithin(int window) {
+            return recent.substring(Math.max(0, recent.length() - window)).chars()
+                    .filter(code -> code == Outcome.FLAKY.code).count();
+        }
+
+        private JSONObject toJson() {
+            return new JSONObject().put("runs", runs).put("flaky", flaky).put("failed", failed).put("recent", recent);
+        }
+
+        /**
+         * @return the number of recorded runs.
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return the number of runs that failed, then passed on a retry.
+         */
+        public int getFlaky() {
+            return flaky;
+        }
+
+        /**
+         * @return the number of runs that failed on every attempt.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return the outcomes of the most recent runs, oldest first: {@code P} passed, {@code F} flaky, {@code X}
+         * failed.
+         */
+        public String getRecent() {
+            return recent;
+        }
+    }
+}
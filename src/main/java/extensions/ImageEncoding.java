@@ -0,0 +1,60 @@
+package extensions;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Encodes screenshots for {@link ScreenshotWriter} and {@link ScreenshotStore}, so that both write paths compress
+ * images with the same settings.
+ */
+final class ImageEncoding {
+
+    /**
+     * The compression quality giving the smallest PNG.
+     */
+    static final float PNG_MAX_COMPRESSION = 0.0f;
+
+    private ImageEncoding() {
+    }
+
+    /**
+     * Re-encodes the PNG at the highest compression level. Returns the original bytes if that is not smaller, or
+     * if they are not a readable image.
+     */
+    static byte[] recompressPng(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        byte[] written = write(image, "png", PNG_MAX_COMPRESSION);
+        return written.length < png.length ? written : png;
+    }
+
+    /**
+     * Encodes the image, at the given compression quality from 0 (smallest) to 1 (best), or the default if
+     * {@code null}.
+     */
+    static byte[] write(BufferedImage image, String formatName, Float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(formatName).next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (quality != null && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
@@ -1,23 +1,42 @@
 package extensions;
 
+import driver.CommandLatency;
+import driver.DriverSessionManager;
+import driver.DriverStoreManager;
 import org.junit.jupiter.api.extension.*;
+import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+
 /**
  * LoggerExtension class is a JUnit 5 extension for logging and handling test lifecycle events.
  * This class logs information about the lifecycle of tests but does not handle screenshots.
- *
+ * It also tags the WebDriver commands sent during each test, so {@link CommandLatency} can attribute their latency
+ * to the test.
+ * <p>
+ * The lifecycle events, with the browser and the result of every test, are recorded in the structured
+ * {@link TestEventLog}, which test threads hand off to a writer thread instead of writing themselves. Only failures
+ * are logged at info level or above; the rest of the lifecycle is logged at debug level.
+ * </p>
  *
  * @author Shevy Kossovsky
  */
 public class LoggerExtension implements BeforeAllCallback,
         BeforeEachCallback,
+        AfterTestExecutionCallback,
+        AfterEachCallback,
         AfterAllCallback,
         TestWatcher {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggerExtension.class);
 
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(LoggerExtension.class);
+    private static final String START_KEY = "startNanos";
+    private static final String BROWSER_KEY = "browser";
+
     /**
      * This method is called before all tests in the class.
      *
@@ -25,7 +44,12 @@ public class LoggerExtension implements BeforeAllCallback,
      */
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
-        logger.info("Before all tests in class: {}", context.getTestClass().orElseThrow().getName());
+        String className = context.getTestClass().orElseThrow().getName();
+        logger.debug("Before all tests in class: {}", className);
+        TestEventLog eventLog = TestEventLog.getDefault();
+        if (eventLog != null) {
+            eventLog.classStarted(className);
+        }
     }
 
     /**
@@ -35,8 +59,38 @@ public class LoggerExtension implements BeforeAllCallback,
      */
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
-        String testName = context.getDisplayName();
-        logger.info("Before each test: {}", testName);
+        String testName = testName(context);
+        logger.debug("Before each test: {}", context.getDisplayName());
+        CommandLatency.startTest(testName);
+        context.getStore(NAMESPACE).put(START_KEY, System.nanoTime());
+        TestEventLog eventLog = TestEventLog.getDefault();
+        if (eventLog != null) {
+            eventLog.testStarted(context.getUniqueId(), testName);
+        }
+    }
+
+    /**
+     * This method is called right after the test body, while the test's driver is still registered. It records the
+     * browser the test used for the {@link TestEventLog}.
+     *
+     * @param context The ExtensionContext for the current test
+     */
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        WebDriver driver = DriverStoreManager.getCurrentDriver();
+        if (driver != null) {
+            context.getStore(NAMESPACE).put(BROWSER_KEY, DriverSessionManager.browserNameOf(driver));
+        }
+    }
+
+    /**
+     * This method is called after each individual test.
+     *
+     * @param context The ExtensionContext for the current test
+     */
+    @Override
+    public void afterEach(ExtensionContext context) throws Exception {
+        CommandLatency.endTest();
     }
 
     /**
@@ -46,7 +100,23 @@ public class LoggerExtension implements BeforeAllCallback,
      */
     @Override
     public void afterAll(ExtensionContext context) throws Exception {
-        logger.info("After all tests in class: {}", context.getTestClass().orElseThrow().getName());
+        String className = context.getTestClass().orElseThrow().getName();
+        logger.debug("After all tests in class: {}", className);
+        TestEventLog eventLog = TestEventLog.getDefault();
+        if (eventLog != null) {
+            eventLog.classFinished(className);
+        }
+    }
+
+    /**
+     * This method is called when a test succeeds.
+     *
+     * @param context The ExtensionContext for the current test
+     */
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        logger.debug("Test successful: {}", context.getDisplayName());
+        recordResult(context, "successful", null);
     }
 
     /**
@@ -59,5 +129,46 @@ public class LoggerExtension implements BeforeAllCallback,
     public void testFailed(ExtensionContext context, Throwable cause) {
         String testName = context.getDisplayName();
         logger.error("Test failed: {}", testName, cause);
+        recordResult(context, "failed", cause);
+    }
+
+    /**
+     * This method is called when a test is aborted, for example by a failed assumption.
+     *
+     * @param context The ExtensionContext for the current test
+     * @param cause   The exception that aborted the test
+     */
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        logger.debug("Test aborted: {}", context.getDisplayName());
+        recordResult(context, "aborted", cause);
+    }
+
+    /**
+     * This method is called when a test is disabled.
+     *
+     * @param context The ExtensionContext for the current test
+     * @param reason  The reason the test is disabled
+     */
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        logger.debug("Test disabled: {}", context.getDisplayName());
+        recordResult(context, "disabled", null);
+    }
+
+    private static void recordResult(ExtensionContext context, String status, Throwable error) {
+        TestEventLog eventLog = TestEventLog.getDefault();
+        if (eventLog == null) {
+            return;
+        }
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        Long startNanos = store.get(START_KEY, Long.class);
+        long durationNanos = startNanos != null ? System.nanoTime() - startNanos : -1;
+        eventLog.testFinished(context.getUniqueId(), testName(context), store.get(BROWSER_KEY, String.class), status,
+                durationNanos, error);
+    }
+
+    private static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + " > " + context.getDisplayName();
     }
 }
@@ -0,0 +1,295 @@
+package extensions;
+
+import driver.BrowserState;
+import driver.DriverSessionReset;
+import driver.DriverStoreManager;
+import driver.LazyWebDriver;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.opentest4j.TestAbortedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RetryExtension is a JUnit 5 extension that retries tests failing for transient reasons, such as a stale element or
+ * a timeout, in the browser session they already have instead of starting a new one.
+ * <p>
+ * When the test method throws one of the configured transient exceptions, the extension soft-resets the session that
+ * was the current driver of the test thread in {@link driver.DriverStoreManager} before the method ran: it closes extra
+ * windows, clears cookies and storage, and restores the cookies and storage the session had when the first attempt
+ * failed, so {@code @BeforeEach} setup such as a login still applies. A session the test method started itself is not
+ * reset; the next attempt starts a new one, and {@code BaseTest.initializeDriver} quits the old one first. The test
+ * method then runs again on the same test instance, up to {@code maxRetries} times.
+ * Other failures, such as failed assertions, are not retried. Retried failures never reach
+ * {@link ScreenshotExtension}; a screenshot is only taken when the last attempt fails.
+ * </p>
+ *
+ * <p>
+ * The outcome of every test is recorded in the {@link FlakinessStore}, and tests that were chronically flaky when
+ * the run started are quarantined: they only run in the quarantine lane, selected by {@code -Dlane=quarantine}, where
+ * their failures are reported as aborted rather than failed, so the lane never breaks the build. The main lane skips
+ * them, and {@code -Dlane=all} runs every test.
+ * </p>
+ *
+ * <p>
+ * Configured by the {@code retry} section of {@code config.json}:
+ * <pre>{@code
+ * "retry": {
+ *   "maxRetries": 2,
+ *   "transientExceptions": ["org.openqa.selenium.StaleElementReferenceException",
+ *                           "org.openqa.selenium.TimeoutException"],
+ *   "storeFile": "flakiness.json",
+ *   "window": 10,
+ *   "quarantineThreshold": 3
+ * }
+ * }</pre>
+ * </p>
+ */
+public class RetryExtension implements InvocationInterceptor, ExecutionCondition {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryExtension.class);
+
+    private static final String LANE_PROPERTY = "lane";
+    private static final String MAIN_LANE = "main";
+    private static final String QUARANTINE_LANE = "quarantine";
+    private static final String ALL_LANES = "all";
+
+    private final int maxRetries;
+    private final List<Class<? extends Throwable>> transientTypes;
+    private final FlakinessStore store;
+    private final String lane;
+
+    /**
+     * Creates the extension from the {@code retry} section of {@code config.json}.
+     */
+    public RetryExtension() {
+        this(JsonFileReader.getConfig("config.json").getSection("retry"));
+    }
+
+    private RetryExtension(JsonConfig config) {
+        this(config.getInt("maxRetries", 2), transientTypes(config.getStringList("transientExceptions")),
+                FlakinessStore.getDefault(), System.getProperty(LANE_PROPERTY, MAIN_LANE));
+    }
+
+    /**
+     * @param maxRetries     how many times a test failing for a transient reason is retried.
+     * @param transientTypes the exceptions that mark a failure as transient, including subclasses and causes.
+     * @param store          the store recording the outcomes and deciding quarantine.
+     * @param lane           the lane to run: {@code main}, {@code quarantine} or {@code all}.
+     */
+    RetryExtension(int maxRetries, List<Class<? extends Throwable>> transientTypes, FlakinessStore store,
+                   String lane) {
+        if (!lane.equals(MAIN_LANE) && !lane.equals(QUARANTINE_LANE) && !lane.equals(ALL_LANES)) {
+            throw new IllegalArgumentException("Unknown lane, expected main, quarantine or all: " + lane);
+        }
+        this.maxRetries = maxRetries;
+        this.transientTypes = List.copyOf(transientTypes);
+        this.store = store;
+        this.lane = lane;
+    }
+
+    /**
+     * Skips quarantined tests in the main lane, and all other tests in the quarantine lane.
+     *
+     * @param context The ExtensionContext for the current test or container
+     * @return whether the test runs in the current lane.
+     */
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (context.getTestMethod().isEmpty() || lane.equals(ALL_LANES)) {
+            return ConditionEvaluationResult.enabled("Runs in every lane");
+        }
+        boolean quarantined = store.isQuarantined(keyOf(context));
+        if (quarantined == lane.equals(QUARANTINE_LANE)) {
+            return ConditionEvaluationResult.enabled("Runs in the " + lane + " lane");
+        }
+        return ConditionEvaluationResult.disabled(quarantined
+                ? "Quarantined as chronically flaky; runs with -D" + LANE_PROPERTY + "=" + QUARANTINE_LANE
+                : "Not quarantined; runs in the " + MAIN_LANE + " lane");
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        runWithRetries(invocation, invocationContext, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        runWithRetries(invocation, invocationContext, extensionContext);
+    }
+
+    private void runWithRetries(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                ExtensionContext extensionContext) throws Throwable {
+        String key = keyOf(extensionContext);
+        boolean quarantined = lane.equals(QUARANTINE_LANE) && store.isQuarantined(key);
+        // Only the session set up before the test method, e.g. in @BeforeEach, is reset and retried in; a session
+        // the method starts itself is replaced by the next attempt (see BaseTest.initializeDriver).
+        WebDriver setUpDriver = DriverStoreManager.getCurrentDriver();
+
+        Throwable failure;
+        try {
+            invocation.proceed();
+            store.record(key, FlakinessStore.Outcome.PASSED);
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+
+        List<Throwable> retriedFailures = new ArrayList<>();
+        StartingPoint start = null;
+        for (int retry = 1; retry <= maxRetries && isTransient(failure); retry++) {
+            logger.warn("Retrying {} ({} of {}) after a transient failure: {}", extensionContext.getDisplayName(),
+                    retry, maxRetries, failure.toString());
+            if (setUpDriver != null && setUpDriver == DriverStoreManager.getCurrentDriver()) {
+                if (start == null) {
+                    start = StartingPoint.capture(setUpDriver);
+                }
+                if (!softReset(setUpDriver, start, failure)) {
+                    break;
+                }
+            }
+            retriedFailures.add(failure);
+            try {
+                invokeAgain(invocationContext);
+                logger.warn("{} passed on retry {}: flaky", extensionContext.getDisplayName(), retry);
+                store.record(key, FlakinessStore.Outcome.FLAKY);
+                return;
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        store.record(key, FlakinessStore.Outcome.FAILED);
+        for (Throwable retried : retriedFailures) {
+            if (retried != failure) {
+                failure.addSuppressed(retried);
+            }
+        }
+        if (quarantined) {
+            throw new TestAbortedException("Quarantined test failed: " + failure, failure);
+        }
+        throw failure;
+    }
+
+    /**
+     * @param failure the failure of a test attempt.
+     * @return whether the failure, or one of its causes, is one of the transient exceptions.
+     */
+    boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> type : transientTypes) {
+                if (type.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Brings the session back to where the test started. Returns whether that succeeded; a session that cannot be
+     * reset is not retried in, and the original failure stands.
+     */
+    private static boolean softReset(WebDriver driver, StartingPoint start, Throwable failure) {
+        if (driver instanceof LazyWebDriver lazy && !lazy.isStarted()) {
+            // The browser was never launched, so there is nothing to reset.
+            return true;
+        }
+        try {
+            DriverSessionReset.reset(driver, start != null ? start.windowHandle : null);
+            if (start != null && start.state != null) {
+                start.state.restore(driver);
+            }
+            return true;
+        } catch (WebDriverException | IllegalArgumentException e) {
+            logger.warn("Soft reset failed, not retrying", e);
+            failure.addSuppressed(e);
+            return false;
+        }
+    }
+
+    /**
+     * Runs the test method again. The interceptors registered before this extension wrap all attempts; any registered
+     * after it would be skipped, which is why {@code BaseTest} registers it last.
+     */
+    private static void invokeAgain(ReflectiveInvocationContext<Method> invocationContext) throws Throwable {
+        Method method = invocationContext.getExecutable();
+        Object target = invocationContext.getTarget().orElse(null);
+        try {
+            method.setAccessible(true);
+            method.invoke(target, invocationContext.getArguments().toArray());
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static String keyOf(ExtensionContext context) {
+        return TimingHistory.keyOf(MethodSource.from(context.getRequiredTestClass(), context.getRequiredTestMethod()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends Throwable>> transientTypes(List<String> names) {
+        List<Class<? extends Throwable>> types = new ArrayList<>();
+        for (String name : names) {
+            try {
+                Class<?> type = Class.forName(name);
+                if (Throwable.class.isAssignableFrom(type)) {
+                    types.add((Class<? extends Throwable>) type);
+                } else {
+                    logger.warn("Ignoring transient exception {}: not a Throwable", name);
+                }
+            } catch (ClassNotFoundException e) {
+                logger.warn("Ignoring unknown transient exception {}", name);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * The window and browser state restored before each retry. It is captured when the first attempt fails, so tests
+     * that pass send no commands for it: the retries keep the window, cookies and storage the session had then, such
+     * as a login from {@code @BeforeEach}, and start on the page the first attempt failed on.
+     */
+    private static final class StartingPoint {
+        private final String windowHandle;
+        private final BrowserState state;
+
+        private StartingPoint(String windowHandle, BrowserState state) {
+            this.windowHandle = windowHandle;
+            this.state = state;
+        }
+
+        private static StartingPoint capture(WebDriver driver) {
+            if (driver instanceof LazyWebDriver lazy && !lazy.isStarted()) {
+                // Capturing would launch the browser; a retry starts from the deferred startup instead.
+                return null;
+            }
+            try {
+                String handle = driver.getWindowHandle();
+                String url = driver.getCurrentUrl();
+                // Pages without an origin, such as about:blank, have no cookies or storage to restore.
+                boolean hasOrigin = url != null && (url.startsWith("http://") || url.startsWith("https://"));
+                return new StartingPoint(handle, hasOrigin ? BrowserState.capture(driver) : null);
+            } catch (WebDriverException | IllegalArgumentException | ClassCastException e) {
+                logger.debug("Could not capture the state of the failed attempt; retries start from a blank page", e);
+                return null;
+            }
+        }
+    }
+}
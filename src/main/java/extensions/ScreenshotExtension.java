@@ -1,37 +1,34 @@
 package extensions;
 
 import driver.DriverStoreManager;
+import driver.LazyWebDriver;
 import org.junit.jupiter.api.extension.*;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import utils.JsonFileReader;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
 
 /**
  * This extension is particularly useful for debugging and identifying the state
- * of the application during test failures. Screenshots are saved with a timestamp
- * and the test name for easy identification.
+ * of the application during test failures. Screenshots are indexed by the test name
+ * for easy identification, and identical screenshots are stored only once.
  * </p>
  *
  * <h2>Key Features:</h2>
  * <ul>
  *     <li>Captures screenshots only for failed test cases.</li>
- *     <li>Saves screenshots with a timestamp and test name.</li>
+ *     <li>Captures the browser of the failing test's own thread, before {@code @AfterEach} closes it.</li>
+ *     <li>Saves every distinct screenshot once, indexed by test name (see {@link ScreenshotStore}).</li>
  *     <li>Ensures the output directory exists before saving the screenshot.</li>
+ *     <li>Writes screenshots on a background thread and flushes them after all tests in the class.</li>
  * </ul>
  *
  * @author Shevy Kossovsky
  */
-public class ScreenshotExtension implements TestWatcher {
+public class ScreenshotExtension implements TestExecutionExceptionHandler, TestWatcher, AfterAllCallback {
 
     /**
      * Logger instance for logging messages and errors related to screenshot capturing.
@@ -39,17 +36,63 @@ public class ScreenshotExtension implements TestWatcher {
     private static final Logger logger = LoggerFactory.getLogger(ScreenshotExtension.class);
 
     /**
-     * Called when a test fails. This method captures a screenshot of the current browser state.
+     * Key in the test's {@link ExtensionContext.Store} marking that a screenshot was already captured.
+     */
+    private static final String CAPTURED_KEY = "screenshotCaptured";
+
+    /**
+     * Namespace of this extension's entries in the {@link ExtensionContext.Store}.
+     */
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(ScreenshotExtension.class);
+
+    /**
+     * Maximum time {@link #afterAll(ExtensionContext)} waits for queued screenshots to be written.
+     */
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Called on the test thread when the test method throws, before {@code @AfterEach} methods close the
+     * browser. This method captures a screenshot of the current browser state and rethrows the exception.
+     *
+     * @param context   The {@link ExtensionContext} that provides information about the test execution.
+     * @param throwable The {@link Throwable} thrown by the test method.
+     * @throws Throwable the given throwable, so the test is still reported as failed.
+     */
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        captureCurrentDriver(context);
+        throw throwable;
+    }
+
+    /**
+     * Called when a test fails. This method captures a screenshot of the current browser state,
+     * unless one was already captured when the test method threw.
      *
      * @param context The {@link ExtensionContext} that provides information about the test execution.
      * @param cause   The {@link Throwable} that caused the test to fail.
      */
     @Override
     public void testFailed(ExtensionContext context, Throwable cause) {
+        if (!context.getStore(NAMESPACE).getOrDefault(CAPTURED_KEY, Boolean.class, false)) {
+            captureCurrentDriver(context);
+        }
+    }
+
+    /**
+     * Captures a screenshot of the driver that the test running on the calling thread registered
+     * in {@link DriverStoreManager}.
+     *
+     * @param context The {@link ExtensionContext} of the failed test.
+     */
+    private void captureCurrentDriver(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(CAPTURED_KEY, true);
         String testName = context.getDisplayName();
         WebDriver driver = DriverStoreManager.getCurrentDriver();
 
-        if (driver != null) {
+        if (driver instanceof LazyWebDriver lazy && !lazy.isStarted()) {
+            logger.info("The browser was never launched. No screenshot for test: {}", testName);
+        } else if (driver != null) {
             takeScreenshot(driver, testName);
         } else {
             logger.warn("WebDriver is not available. Cannot capture screenshot for test: {}", testName);
@@ -57,30 +100,43 @@ public class ScreenshotExtension implements TestWatcher {
     }
 
     /**
-     * Captures a screenshot using the provided WebDriver instance and saves it to a file.
+     * Called after all tests in the class. Waits for queued screenshots to be written and logs the writer metrics.
+     *
+     * @param context The {@link ExtensionContext} of the test class.
+     */
+    @Override
+    public void afterAll(ExtensionContext context) {
+        // The writer, its shutdown hook and the screenshot index are only created once a screenshot is captured
+        ScreenshotWriter writer = ScreenshotWriter.existingInstance();
+        if (writer == null || writer.getWrittenCount() == 0 && writer.getQueueDepth() == 0) {
+            return;
+        }
+        writer.flush(FLUSH_TIMEOUT);
+        logger.info("Screenshots written: {} ({} duplicates), failed: {}, max queue depth: {}, avg write: {} ms,"
+                        + " max write: {} ms, enqueue wait: {} ms",
+                writer.getWrittenCount(), writer.getDuplicateCount(), writer.getFailedCount(),
+                writer.getMaxQueueDepth(),
+                writer.getAverageWriteLatency().toMillis(), writer.getMaxWriteLatency().toMillis(),
+                writer.getEnqueueWaitTime().toMillis());
+    }
+
+    /**
+     * Captures a screenshot using the provided WebDriver instance and queues it for writing to a file.
+     * Only the capture happens on the test thread; the disk I/O is done by {@link ScreenshotWriter}.
      *
      * @param driver   The {@link WebDriver} instance used to capture the screenshot.
      * @param testName The name of the test, used in the screenshot filename.
      */
     private void takeScreenshot(WebDriver driver, String testName) {
         try {
-            // Capture the screenshot as a file
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-
-            // Format the current date and time for the screenshot filename
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
-            String formattedDate = LocalDateTime.now().format(formatter);
-
-            // Define the destination path for the screenshot
-            Path destinationPath = Paths.get("screenshots", testName + "_" + formattedDate + ".png");
-
-            // Ensure the destination directory exists
-            Files.createDirectories(destinationPath.getParent());
-
-            // Copy the screenshot file to the destination path
-            Files.copy(screenshot.toPath(), destinationPath);
+            // Capture the screenshot in memory, without a temporary file
+            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
 
-            logger.info("Screenshot saved at: {}", destinationPath.toAbsolutePath());
+            // Hand the bytes to the background writer
+            ScreenshotWriter.getInstance().submit(testName, screenshot);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while queuing screenshot for test: {}", testName, e);
         } catch (Exception e) {
             logger.error("Error capturing screenshot for test: {}", testName, e);
         }
@@ -0,0 +1,382 @@
+package extensions;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A content-addressed store for screenshots: every distinct image is kept once, however many tests captured it.
+ * <p>
+ * A screenshot is named by the SHA-256 hash of the captured PNG bytes and written to
+ * {@code <directory>/objects/<hash>.<ext>} only if no file with that hash exists yet. When a shared fixture breaks
+ * and hundreds of tests fail on the same page, the disk sees one image. Which test captured which image is recorded
+ * in {@code <directory>/index.json}, written by {@link #saveIndex()}:
+ * <pre>{@code
+ * {"updatedAt": "2026-10-16T08:00:00Z",
+ *  "screenshots": {"testLogin()": [{"hash": "9f86d0...", "file": "objects/9f86d0....jpg",
+ *                                   "capturedAt": "2026-10-16T07:59:58Z"}]}}
+ * }</pre>
+ * </p>
+ *
+ * <p>
+ * New images can be downscaled to a maximum width and re-encoded as JPEG, which is typically many times smaller than
+ * the PNG a browser captures. Index entries older than the retention period are dropped, and images no entry refers
+ * to anymore are deleted, once per JVM when the index is first saved; a run that stores no screenshot leaves the
+ * directory untouched. Several JVMs of the build may share the directory; the index is merged under a lock on
+ * {@code target/screenshot-index.lock}, which stays out of the directory.
+ * </p>
+ *
+ * <p>
+ * Configured by the {@code screenshots} section of {@code config.json}. The defaults keep the captured PNG at its
+ * full size:
+ * <pre>{@code
+ * "screenshots": {
+ *   "directory": "screenshots",
+ *   "deduplicate": true,
+ *   "format": "png",
+ *   "jpegQuality": 80,
+ *   "maxWidth": 0,
+ *   "retention": "7d"
+ * }
+ * }</pre>
+ * To store smaller, lossy images, set {@code "format": "jpeg"} and, for example, {@code "maxWidth": 1280}, or
+ * override them with {@code -Dconfig.screenshots.format=jpeg -Dconfig.screenshots.maxWidth=1280}.
+ * </p>
+ */
+public class ScreenshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+
+    private static final String OBJECTS = "objects";
+    private static final String INDEX = "index.json";
+    private static final Path LOCK_FILE = Paths.get("target", "screenshot-index.lock");
+
+    /**
+     * The encoding of the stored images.
+     */
+    public enum Format {
+        /**
+         * Lossless, as captured by the browser.
+         */
+        PNG("png"),
+        /**
+         * Lossy and much smaller; transparency is flattened onto white.
+         */
+        JPEG("jpg");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private final Path directory;
+    private final Format format;
+    private final int jpegQuality;
+    private final int maxWidth;
+    private final boolean recompress;
+    private final Duration retention;
+    private final Map<String, List<JSONObject>> pending = new TreeMap<>();
+    private final AtomicLong storedCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private boolean cleanedUp;
+
+    /**
+     * @param directory   the directory holding the images and the index.
+     * @param format      the encoding of new images.
+     * @param jpegQuality the JPEG quality from 1 to 100; ignored for PNG.
+     * @param maxWidth    the width new images are downscaled to if they are wider, or 0 to keep their size.
+     * @param recompress  whether PNG images are re-encoded at the highest compression level.
+     * @param retention   how long screenshots are kept, or {@code null} to keep them forever.
+     * @throws IllegalArgumentException if the quality or the width is out of range.
+     */
+    public ScreenshotStore(Path directory, Format format, int jpegQuality, int maxWidth, boolean recompress,
+                           Duration retention) {
+        if (jpegQuality < 1 || jpegQuality > 100 || maxWidth < 0) {
+            throw new IllegalArgumentException("Invalid screenshot settings: jpegQuality=" + jpegQuality
+                    + ", maxWidth=" + maxWidth);
+        }
+        this.directory = directory;
+        this.format = format;
+        this.jpegQuality = jpegQuality;
+        this.maxWidth = maxWidth;
+        this.recompress = recompress;
+        this.retention = retention;
+    }
+
+    /**
+     * Creates a store from the {@code screenshots} section of {@code config.json}.
+     *
+     * @param config the {@code screenshots} section.
+     * @return the configured store.
+     * @throws IllegalArgumentException if the format is neither {@code png} nor {@code jpeg}.
+     */
+    public static ScreenshotStore fromConfig(JsonConfig config) {
+        String format = config.getString("format", "png").trim().toUpperCase(Locale.ROOT);
+        return new ScreenshotStore(
+                Paths.get(config.getString("directory", "screenshots")),
+                Format.valueOf(format.equals("JPG") ? "JPEG" : format),
+                config.getInt("jpegQuality", 80),
+                config.getInt("maxWidth", 0),
+                config.getBoolean("recompress", false),
+                config.getDuration("retention", null));
+    }
+
+    /**
+     * Stores a screenshot, unless an identical one is stored already, and adds it to the index of the test.
+     *
+     * @param testName   the name of the test that captured the screenshot.
+     * @param capturedAt when the screenshot was captured.
+     * @param png        the PNG bytes captured by the browser.
+     * @return the file holding the image.
+     * @throws IOException if the image cannot be decoded or written.
+     */
+    public Path store(String testName, Instant capturedAt, byte[] png) throws IOException {
+        String hash = sha256(png);
+        Path file = directory.resolve(OBJECTS).resolve(hash + "." + format.extension);
+        if (Files.exists(file)) {
+            duplicateCount.incrementAndGet();
+            // Keep a reused image from looking unused to the retention cleanup of another JVM.
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } else {
+            byte[] encoded = encode(png);
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, encoded);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            storedCount.incrementAndGet();
+            storedBytes.addAndGet(encoded.length);
+        }
+
+        JSONObject entry = new JSONObject()
+                .put("hash", hash)
+                .put("file", OBJECTS + "/" + file.getFileName())
+                .put("capturedAt", capturedAt.toString());
+        synchronized (pending) {
+            pending.computeIfAbsent(testName, key -> new ArrayList<>()).add(entry);
+        }
+        return file;
+    }
+
+    /**
+     * Writes the screenshots stored since the last call into the index, merged with what other JVMs wrote meanwhile.
+     * The first call of a JVM that has screenshots to write also applies the retention period. Does nothing if no
+     * screenshot was stored since the last call.
+     */
+    public void saveIndex() {
+        Map<String, List<JSONObject>> added;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            added = new TreeMap<>(pending);
+            pending.clear();
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.createDirectories(LOCK_FILE.getParent());
+            try (FileChannel channel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                // Released when the channel is closed.
+                channel.lock();
+                JSONObject screenshots = loadIndex();
+                added.forEach((test, entries) -> {
+                    JSONArray list = screenshots.optJSONArray(test);
+                    if (list == null) {
+                        list = new JSONArray();
+                        screenshots.put(test, list);
+                    }
+                    entries.forEach(list::put);
+                });
+                synchronized (pending) {
+                    if (!cleanedUp && retention != null) {
+                        cleanUp(screenshots, Instant.now().minus(retention));
+                    }
+                    cleanedUp = true;
+                }
+
+                JSONObject index = new JSONObject();
+                index.put("updatedAt", Instant.now().toString());
+                index.put("screenshots", screenshots);
+                Path temp = directory.resolve(INDEX + ".tmp");
+                Files.writeString(temp, index.toString(2), StandardCharsets.UTF_8);
+                Files.move(temp, directory.resolve(INDEX), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to update the screenshot index in {}", directory, e);
+        }
+    }
+
+    /**
+     * @return the number of distinct images written by this store.
+     */
+    public long getStoredCount() {
+        return storedCount.get();
+    }
+
+    /**
+     * @return the number of screenshots that were identical to an image already stored.
+     */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    /**
+     * @return the number of bytes written for the distinct images.
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    private JSONObject loadIndex() {
+        Path file = directory.resolve(INDEX);
+        if (!Files.isRegularFile(file)) {
+            return new JSONObject();
+        }
+        try {
+            JSONObject screenshots = new JSONObject(Files.readString(file, StandardCharsets.UTF_8))
+                    .optJSONObject("screenshots");
+            return screenshots != null ? screenshots : new JSONObject();
+        } catch (IOException | JSONException e) {
+            logger.warn("Ignoring unreadable screenshot index {}", file, e);
+            return new JSONObject();
+        }
+    }
+
+    /**
+     * Drops index entries captured before the cutoff and deletes the images no entry refers to anymore. Images
+     * modified after the cutoff are kept even when unreferenced, since another JVM may not have indexed them yet.
+     */
+    private void cleanUp(JSONObject screenshots, Instant cutoff) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        for (String test : new ArrayList<>(screenshots.keySet())) {
+            JSONArray kept = new JSONArray();
+            for (Object item : screenshots.getJSONArray(test)) {
+                JSONObject entry = (JSONObject) item;
+                if (Instant.parse(entry.getString("capturedAt")).isAfter(cutoff)) {
+                    kept.put(entry);
+                    referenced.add(Paths.get(entry.getString("file")).getFileName().toString());
+                }
+            }
+            if (kept.isEmpty()) {
+                screenshots.remove(test);
+            } else {
+                screenshots.put(test, kept);
+            }
+        }
+
+        Path objects = directory.resolve(OBJECTS);
+        if (!Files.isDirectory(objects)) {
+            return;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(objects)) {
+            for (Path file : files) {
+                if (!referenced.contains(file.getFileName().toString())
+                        && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} screenshot(s) older than {}", deleted, retention);
+        }
+    }
+
+    private byte[] encode(byte[] png) throws IOException {
+        if (format == Format.PNG && maxWidth == 0 && !recompress) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("The screenshot is not a readable image.");
+        }
+        if (maxWidth > 0 && image.getWidth() > maxWidth) {
+            image = scale(image, maxWidth, Math.max(1, image.getHeight() * maxWidth / image.getWidth()));
+        }
+        if (format == Format.JPEG) {
+            return ImageEncoding.write(opaque(image), "jpeg", jpegQuality / 100f);
+        }
+        byte[] written = ImageEncoding.write(image, "png", recompress ? ImageEncoding.PNG_MAX_COMPRESSION : null);
+        return written.length < png.length || maxWidth > 0 ? written : png;
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height,
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * JPEG has no alpha channel, so transparent pixels are drawn onto white.
+     */
+    private static BufferedImage opaque(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
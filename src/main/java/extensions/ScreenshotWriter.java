@@ -0,0 +1,317 @@
+package extensions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes screenshots to disk on a background thread, so slow disks do not add to the duration of failing tests.
+ * <p>
+ * The test thread only captures the PNG bytes and hands them to {@link #submit(String, byte[])}. The writer thread
+ * hands them to a {@link ScreenshotStore}, which keeps every distinct image once, or, with deduplication turned off,
+ * writes one timestamped file per screenshot, optionally recompressed.
+ * </p>
+ *
+ * <h2>Key Features:</h2>
+ * <ul>
+ *     <li>Bounded queue: when it is full, {@link #submit(String, byte[])} blocks until the writer catches up.</li>
+ *     <li>{@link #flush(Duration)} waits for pending screenshots; it runs after each test class
+ *     and at JVM shutdown.</li>
+ *     <li>Metrics on queue depth, time spent waiting for queue space, write latency and duplicates.</li>
+ * </ul>
+ *
+ * <p>
+ * The writer is configured by the {@code screenshots} section of {@code config.json}:
+ * <pre>
+ * "screenshots": {
+ *   "directory": "screenshots",
+ *   "queueCapacity": 32,
+ *   "recompress": false,
+ *   "deduplicate": true
+ * }
+ * </pre>
+ * The format, downscaling and retention settings of the store are described in {@link ScreenshotStore}.
+ * </p>
+ */
+public class ScreenshotWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotWriter.class);
+
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private static volatile ScreenshotWriter instance;
+
+    private final Path directory;
+    private final boolean recompress;
+    private final ScreenshotStore store;
+    private final BlockingQueue<Screenshot> queue;
+    private final Object pendingLock = new Object();
+    private int pending;
+
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong enqueueWaitNanos = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalWriteNanos = new AtomicLong();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * Constructs a writer and starts its background thread.
+     *
+     * @param directory     the directory screenshots are written to.
+     * @param queueCapacity the number of screenshots that may wait for the writer before submitters block.
+     * @param recompress    whether PNG images are recompressed at the highest compression level before writing.
+     */
+    public ScreenshotWriter(Path directory, int queueCapacity, boolean recompress) {
+        this(directory, queueCapacity, recompress, null);
+    }
+
+    /**
+     * Constructs a writer that hands screenshots to a content-addressed store, and starts its background thread.
+     *
+     * @param store         the store screenshots are written to.
+     * @param queueCapacity the number of screenshots that may wait for the writer before submitters block.
+     */
+    public ScreenshotWriter(ScreenshotStore store, int queueCapacity) {
+        this(null, queueCapacity, false, store);
+    }
+
+    private ScreenshotWriter(Path directory, int queueCapacity, boolean recompress, ScreenshotStore store) {
+        this.directory = directory;
+        this.recompress = recompress;
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Thread writer = new Thread(this::writeLoop, "screenshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the shared writer configured from {@code config.json}. The writer is flushed at JVM shutdown.
+     *
+     * @return the shared writer.
+     */
+    public static ScreenshotWriter getInstance() {
+        if (instance == null) {
+            synchronized (ScreenshotWriter.class) {
+                if (instance == null) {
+                    JsonConfig config = JsonFileReader.getConfig("config.json").getSection("screenshots");
+                    ScreenshotWriter writer = config.getBoolean("deduplicate", true)
+                            ? new ScreenshotWriter(ScreenshotStore.fromConfig(config),
+                            config.getInt("queueCapacity", 32))
+                            : new ScreenshotWriter(
+                            Paths.get(config.getString("directory", "screenshots")),
+                            config.getInt("queueCapacity", 32),
+                            config.getBoolean("recompress", false));
+                    Runtime.getRuntime().addShutdownHook(new Thread(
+                            () -> writer.flush(Duration.ofSeconds(30)), "screenshot-writer-shutdown"));
+                    instance = writer;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return the shared writer, or {@code null} if {@link #getInstance()} was never called because no screenshot was
+     * captured.
+     */
+    static ScreenshotWriter existingInstance() {
+        return instance;
+    }
+
+    /**
+     * Queues a screenshot for writing. Blocks while the queue is full.
+     *
+     * @param testName the name of the test, used in the screenshot filename.
+     * @param png      the PNG bytes of the screenshot.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for queue space.
+     */
+    public void submit(String testName, byte[] png) throws InterruptedException {
+        Screenshot screenshot = new Screenshot(testName, LocalDateTime.now(), png);
+        synchronized (pendingLock) {
+            pending++;
+        }
+        long start = System.nanoTime();
+        try {
+            queue.put(screenshot);
+        } catch (InterruptedException e) {
+            completed();
+            throw e;
+        }
+        enqueueWaitNanos.addAndGet(System.nanoTime() - start);
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Waits until every submitted screenshot has been written, or the timeout expires, then updates the index of the
+     * store with what was written.
+     *
+     * @param timeout the maximum time to wait.
+     * @return true if all screenshots were written, false if the timeout expired first.
+     */
+    public boolean flush(Duration timeout) {
+        boolean written = awaitPending(timeout);
+        if (store != null) {
+            store.saveIndex();
+        }
+        return written;
+    }
+
+    private boolean awaitPending(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warn("{} screenshot(s) were not written within {} ms", pending, timeout.toMillis());
+                    return false;
+                }
+                try {
+                    pendingLock.wait(Math.max(1, remaining / 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of screenshots currently waiting in the queue.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the highest queue depth observed.
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the total time test threads spent waiting for queue space.
+     */
+    public Duration getEnqueueWaitTime() {
+        return Duration.ofNanos(enqueueWaitNanos.get());
+    }
+
+    /**
+     * @return the number of screenshots written.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * @return the number of screenshots that could not be written.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return the average time spent writing one screenshot, including recompression.
+     */
+    public Duration getAverageWriteLatency() {
+        long written = writtenCount.get();
+        return written == 0 ? Duration.ZERO : Duration.ofNanos(totalWriteNanos.get() / written);
+    }
+
+    /**
+     * @return the number of screenshots identical to one already stored, which were not written again.
+     */
+    public long getDuplicateCount() {
+        return store != null ? store.getDuplicateCount() : 0;
+    }
+
+    /**
+     * @return the longest time spent writing one screenshot.
+     */
+    public Duration getMaxWriteLatency() {
+        return Duration.ofNanos(maxWriteNanos.get());
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Screenshot screenshot;
+            try {
+                screenshot = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                Path destinationPath = write(screenshot);
+                long elapsed = System.nanoTime() - start;
+                writtenCount.incrementAndGet();
+                totalWriteNanos.addAndGet(elapsed);
+                maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+                logger.info("Screenshot saved at: {}", destinationPath.toAbsolutePath());
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                logger.error("Error writing screenshot for test: {}", screenshot.testName, e);
+            } finally {
+                completed();
+            }
+        }
+    }
+
+    private Path write(Screenshot screenshot) throws IOException {
+        if (store != null) {
+            return store.store(screenshot.testName, screenshot.capturedAt.atZone(ZoneId.systemDefault()).toInstant(),
+                    screenshot.png);
+        }
+
+        // Define the destination path for the screenshot
+        String formattedDate = screenshot.capturedAt.format(FILE_DATE_FORMAT);
+        Path destinationPath = directory.resolve(screenshot.testName + "_" + formattedDate + ".png");
+
+        // Ensure the destination directory exists
+        Files.createDirectories(destinationPath.getParent());
+
+        byte[] png = recompress ? ImageEncoding.recompressPng(screenshot.png) : screenshot.png;
+        Files.write(destinationPath, png);
+        return destinationPath;
+    }
+
+    private void completed() {
+        synchronized (pendingLock) {
+            pending--;
+            if (pending == 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * A captured screenshot waiting to be written.
+     */
+    private static final class Screenshot {
+        private final String testName;
+        private final LocalDateTime capturedAt;
+        private final byte[] png;
+
+        private Screenshot(String testName, LocalDateTime capturedAt, byte[] png) {
+            this.testName = testName;
+            this.capturedAt = capturedAt;
+            this.png = png;
+        }
+    }
+}
@@ -1,15 +1,194 @@
 package extensions;
 
+import driver.DriverProvider;
+import driver.DriverSessionManager;
+import driver.DriverSessionReset;
+import driver.DriverStoreManager;
+import driver.DriverType;
+import driver.EnumDriverProvider;
+import driver.StandardDriverManager;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public class SessionExtension implements BeforeAllCallback {
+import java.util.function.Function;
+
+/**
+ * Provides one browser session per test class, shared by all tests of the class. Registered by
+ * {@link SharedSession}.
+ * <p>
+ * The session is started in {@code beforeAll}, handed to the tests as a {@link StandardDriverManager} parameter and
+ * set as the current driver of the test thread in {@link DriverStoreManager}. Calling
+ * {@link StandardDriverManager#quitDriver()} on it, as {@code BaseTest.tearDown()} does, leaves the session open.
+ * After each test the session is reset with {@link DriverSessionReset}; if the reset fails, the browser is replaced
+ * before the next test. The session is quit in {@code afterAll}.
+ * </p>
+ *
+ * <p>
+ * Methods annotated with {@link CrossBrowserTest} keep their own sessions and are not given the shared one.
+ * </p>
+ */
+public class SessionExtension implements BeforeAllCallback,
+        BeforeEachCallback,
+        AfterEachCallback,
+        AfterAllCallback,
+        ParameterResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SessionExtension.class);
+    private static final String SESSION_KEY = "classSession";
+
+    private final Function<DriverType, DriverProvider> providers;
+
+    /**
+     * Creates a SessionExtension that starts local browsers through {@link EnumDriverProvider}.
+     */
+    public SessionExtension() {
+        this(EnumDriverProvider::new);
+    }
+
+    /**
+     * Creates a SessionExtension that starts its sessions through the given providers.
+     *
+     * @param providers the provider of the sessions of each browser type.
+     */
+    SessionExtension(Function<DriverType, DriverProvider> providers) {
+        this.providers = providers;
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        DriverType type = AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SharedSession.class)
+                .map(SharedSession::value)
+                .orElse(DriverType.CHROME);
+        ClassSession session = new ClassSession(type, providers.apply(type));
+        session.start();
+        context.getStore(NAMESPACE).put(SESSION_KEY, session);
+        logger.info("Started shared {} session for {}", type, context.getRequiredTestClass().getName());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ClassSession session = sessionOf(context);
+        if (!session.isStarted()) {
+            session.start();
+        }
+        DriverStoreManager.setCurrentDriver(session.manager.getDriver());
+    }
 
     @Override
-    public void beforeAll(ExtensionContext context) throws Exception {
-        WebDriver driver;
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == StandardDriverManager.class
+                && !parameterContext.getDeclaringExecutable().isAnnotationPresent(CrossBrowserTest.class);
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return sessionOf(extensionContext).manager;
+    }
+
+    /**
+     * Resets the session for the next test, or quits it if the reset fails.
+     *
+     * @param context The ExtensionContext for the current test
+     */
+    @Override
+    public void afterEach(ExtensionContext context) {
+        DriverStoreManager.removeCurrentDriver();
+        ClassSession session = sessionOf(context);
+        if (session.isStarted()) {
+            session.reset();
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        ClassSession session = context.getStore(NAMESPACE).remove(SESSION_KEY, ClassSession.class);
+        if (session != null) {
+            session.quit();
+        }
+    }
+
+    private static ClassSession sessionOf(ExtensionContext context) {
+        ClassSession session = context.getStore(NAMESPACE).get(SESSION_KEY, ClassSession.class);
+        if (session == null) {
+            throw new IllegalStateException("No shared session for " + context.getRequiredTestClass().getName()
+                    + "; annotate the class with @SharedSession.");
+        }
+        return session;
+    }
+
+    /**
+     * The browser session of one test class.
+     */
+    private static final class ClassSession {
+        private final DriverType type;
+        private final DriverProvider provider;
+        private final ClassSessionService service = new ClassSessionService();
+        private final StandardDriverManager manager = new StandardDriverManager(service);
+        private String primaryHandle;
+
+        private ClassSession(DriverType type, DriverProvider provider) {
+            this.type = type;
+            this.provider = provider;
+        }
+
+        private boolean isStarted() {
+            return service.isBrowserActive();
+        }
+
+        private void start() {
+            manager.setDriver(provider);
+            primaryHandle = manager.getDriver().getWindowHandle();
+        }
+
+        private void reset() {
+            WebDriver driver = manager.getDriver();
+            try {
+                DriverSessionReset.reset(driver, primaryHandle);
+            } catch (WebDriverException e) {
+                logger.warn("Failed to reset the shared {} session; it is replaced before the next test", type, e);
+                quit();
+            }
+        }
+
+        private void quit() {
+            try {
+                service.close();
+            } catch (WebDriverException e) {
+                logger.warn("Failed to quit the shared {} session", type, e);
+            }
+        }
+    }
+
+    /**
+     * A session service whose {@link #quitDriver(WebDriver)} keeps the browser open for the next test of the class.
+     */
+    private static final class ClassSessionService extends DriverSessionManager {
+
+        private ClassSessionService() {
+            super(null);
+        }
 
+        @Override
+        public void quitDriver(WebDriver driver) {
+            // The session belongs to the test class and is quit by afterAll.
+        }
 
+        private void close() {
+            // Forget the browser even if quitting it fails, so a new one is started.
+            super.quitDriver(clearDriver());
+        }
     }
 }
@@ -0,0 +1,88 @@
+package extensions;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Identifies one shard of a run split across several JVMs or machines.
+ * <p>
+ * A run is sharded by starting every shard with the same {@code -Dshard.total} and its own zero-based
+ * {@code -Dshard.index}, for example {@code mvn test -Dshard.index=1 -Dshard.total=3}. {@link ShardFilter} then keeps
+ * only the tests assigned to the shard. Every shard is a JVM of its own, so it starts its own driver session pool and
+ * writes its own reports.
+ * </p>
+ */
+public final class Shard {
+
+    private static final String INDEX_PROPERTY = "shard.index";
+    private static final String TOTAL_PROPERTY = "shard.total";
+
+    private final int index;
+    private final int total;
+
+    /**
+     * @param index the zero-based index of the shard.
+     * @param total the number of shards.
+     * @throws IllegalArgumentException if the index is not within {@code [0, total)}.
+     */
+    public Shard(int index, int total) {
+        if (total < 1 || index < 0 || index >= total) {
+            throw new IllegalArgumentException("Shard index must be within [0, " + total + "): " + index);
+        }
+        this.index = index;
+        this.total = total;
+    }
+
+    /**
+     * Returns the shard of this JVM, set by the {@code shard.index} and {@code shard.total} system properties.
+     *
+     * @return the shard, or empty if the run is not sharded.
+     * @throws IllegalArgumentException if the properties are malformed.
+     */
+    public static Optional<Shard> current() {
+        String total = System.getProperty(TOTAL_PROPERTY, "").trim();
+        if (total.isEmpty() || Integer.parseInt(total) <= 1) {
+            return Optional.empty();
+        }
+        String index = System.getProperty(INDEX_PROPERTY, "").trim();
+        if (index.isEmpty()) {
+            throw new IllegalArgumentException(TOTAL_PROPERTY + " is set but " + INDEX_PROPERTY + " is not");
+        }
+        return Optional.of(new Shard(Integer.parseInt(index), Integer.parseInt(total)));
+    }
+
+    /**
+     * @return the zero-based index of the shard.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the number of shards.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Derives the name of a per-shard output file, so shards on the same machine do not overwrite each other's
+     * files: {@code target/timing-report.json} becomes {@code target/timing-report.shard-1-of-3.json}.
+     *
+     * @param file the file of an unsharded run.
+     * @return the file of this shard.
+     */
+    public Path fileOf(Path file) {
+        String name = file.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String suffix = ".shard-" + index + "-of-" + total;
+        return file.resolveSibling(extension > 0
+                ? name.substring(0, extension) + suffix + name.substring(extension)
+                : name + suffix);
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index + " of " + total;
+    }
+}
@@ -0,0 +1,100 @@
+package extensions;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Keeps only the tests assigned to the current {@link Shard} when a run is split across several JVMs or machines.
+ * <p>
+ * The filter is registered with the JUnit Platform launcher through {@code META-INF/services}, so it applies to every
+ * run on a classpath with this framework; unsharded runs are left untouched. The tests of the {@link TimingHistory}
+ * are split with {@link ShardPlanner} by their recorded durations; tests without history are spread over the shards
+ * by a hash of their key.
+ * </p>
+ *
+ * <p>
+ * The shard of a test depends only on the history and the test itself, never on which other tests a discovery
+ * request contains. Build tools discover every test class on its own before discovering the whole run, and each
+ * discovery must agree. Every shard computes the same plan, so together the shards run every test exactly once,
+ * provided they start from the same history file.
+ * </p>
+ *
+ * <p>
+ * Example usage, one command per JVM or machine:
+ * <pre>
+ * mvn test -Dshard.index=0 -Dshard.total=3
+ * mvn test -Dshard.index=1 -Dshard.total=3
+ * mvn test -Dshard.index=2 -Dshard.total=3
+ * </pre>
+ * </p>
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardFilter.class);
+
+    private final Shard shard;
+    private final Map<String, Long> history;
+    private volatile Map<String, Integer> plan;
+
+    /**
+     * Creates the filter for the shard of this JVM, planning from the configured history file.
+     */
+    public ShardFilter() {
+        this(Shard.current().orElse(null), null);
+    }
+
+    /**
+     * @param shard   the shard to keep the tests of, or {@code null} to keep all tests.
+     * @param history the durations to plan from by test key, or {@code null} to read the configured history file.
+     */
+    ShardFilter(Shard shard, Map<String, Long> history) {
+        this.shard = shard;
+        this.history = history;
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (shard == null || descriptor.isRoot() || !descriptor.getChildren().isEmpty()) {
+            return FilterResult.included("Not sharded");
+        }
+        int assigned = shardOf(TimingHistory.keyOf(descriptor));
+        return assigned == shard.getIndex()
+                ? FilterResult.included("Assigned to " + shard)
+                : FilterResult.excluded("Assigned to shard " + assigned + " of " + shard.getTotal());
+    }
+
+    /**
+     * @param key the history key of a test.
+     * @return the zero-based index of the shard the test is assigned to.
+     */
+    int shardOf(String key) {
+        Integer assigned = plan().get(key);
+        return assigned != null ? assigned : Math.floorMod(key.hashCode(), shard.getTotal());
+    }
+
+    private Map<String, Integer> plan() {
+        Map<String, Integer> current = plan;
+        if (current == null) {
+            synchronized (this) {
+                current = plan;
+                if (current == null) {
+                    Map<String, Long> durations = history != null
+                            ? history
+                            : TimingHistory.load(TimingHistory.defaultFile());
+                    current = ShardPlanner.plan(durations, shard.getTotal());
+                    long[] loads = ShardPlanner.loads(durations, current, shard.getTotal());
+                    logger.info("Running {}: {} tests with timing history planned, estimated shard durations {} ms",
+                            shard, durations.size(), Arrays.toString(loads));
+                    plan = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,67 @@
+package extensions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Splits tests into shards of about equal total duration with the greedy longest-processing-time rule: tests are
+ * taken from the longest to the shortest, and each one goes to the shard with the least work so far.
+ * <p>
+ * The result depends only on the tests and their durations, with ties broken by test key and shard index, so every
+ * shard of a run computes the same plan on its own.
+ * </p>
+ */
+public final class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * Assigns every test to a shard.
+     *
+     * @param durations the expected duration of every test by test key, in any unit.
+     * @param shards    the number of shards.
+     * @return the zero-based shard index of every test by test key.
+     * @throws IllegalArgumentException if the number of shards is not positive.
+     */
+    public static Map<String, Integer> plan(Map<String, Long> durations, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("The number of shards must be positive: " + shards);
+        }
+        List<Map.Entry<String, Long>> tests = new ArrayList<>(durations.entrySet());
+        tests.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        // Each element is {load, shard index}; the least loaded shard comes first, the lowest index on ties.
+        PriorityQueue<long[]> loads = new PriorityQueue<>(Comparator.<long[]>comparingLong(load -> load[0])
+                .thenComparingLong(load -> load[1]));
+        for (int shard = 0; shard < shards; shard++) {
+            loads.add(new long[]{0, shard});
+        }
+        Map<String, Integer> assignment = new HashMap<>();
+        for (Map.Entry<String, Long> test : tests) {
+            long[] least = loads.poll();
+            assignment.put(test.getKey(), (int) least[1]);
+            least[0] += Math.max(0, test.getValue());
+            loads.add(least);
+        }
+        return assignment;
+    }
+
+    /**
+     * Sums the durations of the tests assigned to each shard.
+     *
+     * @param durations  the expected duration of every test by test key.
+     * @param assignment the shard index of every test, as returned by {@link #plan(Map, int)}.
+     * @param shards     the number of shards.
+     * @return the total duration of every shard, by shard index.
+     */
+    public static long[] loads(Map<String, Long> durations, Map<String, Integer> assignment, int shards) {
+        long[] loads = new long[shards];
+        assignment.forEach((test, shard) -> loads[shard] += Math.max(0, durations.getOrDefault(test, 0L)));
+        return loads;
+    }
+}
@@ -0,0 +1,54 @@
+package extensions;
+
+import driver.DriverType;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs all tests of the annotated class in one browser session, started before the first test and quit after the
+ * last one.
+ * <p>
+ * Declare a {@link driver.StandardDriverManager} parameter on a test, {@code @BeforeEach} or constructor to receive
+ * the shared session. Between tests the session is reset (extra windows closed, cookies and storage cleared, blank
+ * page loaded), but anything the application keeps on its server side survives, so use it for classes whose tests
+ * do not depend on each other's state, such as read-only checks. The tests of the class run one at a time.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * @SharedSession(DriverType.CHROME)
+ * public class ProductPageTest extends BaseTest {
+ *
+ *     @BeforeEach
+ *     public void setUp(StandardDriverManager driverManager) {
+ *         initializeDriver(driverManager);
+ *     }
+ *     ...
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @see SessionExtension
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@ExtendWith(SessionExtension.class)
+@Execution(ExecutionMode.SAME_THREAD)
+public @interface SharedSession {
+
+    /**
+     * The browser type of the shared session.
+     *
+     * @return the browser type.
+     */
+    DriverType value() default DriverType.CHROME;
+}
@@ -0,0 +1,424 @@
+package extensions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous, structured log of test lifecycle events, written as newline-delimited JSON.
+ * <p>
+ * Test threads never format or write anything: an event is copied into a preallocated slot of a ring buffer, which
+ * costs a few field writes and no lock, and a single writer thread turns the slots into JSON lines. When the ring is
+ * full, test threads wait for the writer rather than lose events.
+ * </p>
+ *
+ * <p>
+ * The writer holds back the events of every running test and writes them as one block when the test finishes, so the
+ * output of tests running in parallel is not interleaved: each test reads from its start to its result. Events of a
+ * test class are written as they come.
+ * </p>
+ *
+ * <p>
+ * Each line holds the event type, its time and thread, and, where they apply, the test id, the test name, the
+ * browser, the {@link TestPhase} with its duration, and the result (wrapped here for reading):
+ * <pre>{@code
+ * {"time":"2026-10-16T08:00:01.250Z","type":"testStarted","thread":"main","testId":"[engine:junit-jupiter]/...",
+ *  "test":"LoginTest > testLogin()"}
+ * {"time":"2026-10-16T08:00:03.960Z","type":"phase","thread":"main","testId":"[engine:junit-jupiter]/...",
+ *  "phase":"driverCreation","durationMs":1710}
+ * {"time":"2026-10-16T08:00:03.962Z","type":"testFinished","thread":"main","testId":"[engine:junit-jupiter]/...",
+ *  "test":"LoginTest > testLogin()","browser":"chrome","status":"successful","durationMs":2712}
+ * }</pre>
+ * </p>
+ *
+ * <p>
+ * The default log is configured by the {@code eventLog} section of {@code config.json}; in a sharded run the file
+ * name gets the suffix of the {@link Shard}:
+ * <pre>{@code
+ * "eventLog": {
+ *   "enabled": true,
+ *   "file": "target/test-events.ndjson",
+ *   "bufferSize": 4096
+ * }
+ * }</pre>
+ * </p>
+ */
+public final class TestEventLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestEventLog.class);
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    private static volatile TestEventLog defaultLog;
+
+    /**
+     * The kinds of events.
+     */
+    public enum Type {
+        /**
+         * The tests of a class start.
+         */
+        CLASS_STARTED("classStarted"),
+        /**
+         * A test starts.
+         */
+        TEST_STARTED("testStarted"),
+        /**
+         * A test spent time in a {@link TestPhase}.
+         */
+        PHASE("phase"),
+        /**
+         * A test finished, with its result.
+         */
+        TEST_FINISHED("testFinished"),
+        /**
+         * The tests of a class finished.
+         */
+        CLASS_FINISHED("classFinished");
+
+        private final String key;
+
+        Type(String key) {
+            this.key = key;
+        }
+    }
+
+    private final Writer output;
+    private final Event[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong fullWaits = new AtomicLong();
+    private final Thread writerThread;
+    private volatile long consumed;
+    private volatile long flushed;
+    private volatile boolean running = true;
+
+    // Touched by the writer thread only.
+    private final Map<String, StringBuilder> runningTests = new HashMap<>();
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Creates a log writing to the given output and starts its writer thread.
+     *
+     * @param output     where the JSON lines are written; closed by {@link #close()}.
+     * @param bufferSize the number of events the ring buffer holds, rounded up to a power of two.
+     * @throws IllegalArgumentException if the buffer size is not positive.
+     */
+    public TestEventLog(Writer output, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be positive: " + bufferSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) * 2 - 1);
+        this.output = output;
+        this.ring = new Event[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Event();
+        }
+        writerThread = new Thread(this::writeLoop, "test-event-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Returns the log configured by the {@code eventLog} section of {@code config.json}, creating it on first use.
+     * The log is closed when the JVM exits.
+     *
+     * @return the default log, or {@code null} if the event log is disabled or its file cannot be created.
+     */
+    public static TestEventLog getDefault() {
+        TestEventLog log = defaultLog;
+        if (log == null) {
+            synchronized (TestEventLog.class) {
+                log = defaultLog;
+                if (log == null) {
+                    JsonConfig config = JsonFileReader.getConfig("config.json").getSection("eventLog");
+                    if (!config.getBoolean("enabled", true)) {
+                        return null;
+                    }
+                    Path file = Paths.get(config.getString("file", "target/test-events.ndjson"));
+                    Shard shard = Shard.current().orElse(null);
+                    file = shard != null ? shard.fileOf(file) : file;
+                    try {
+                        Path parent = file.toAbsolutePath().getParent();
+                        if (parent != null) {
+                            Files.createDirectories(parent);
+                        }
+                        log = new TestEventLog(Files.newBufferedWriter(file, StandardCharsets.UTF_8),
+                                config.getInt("bufferSize", 4096));
+                    } catch (IOException e) {
+                        logger.warn("Failed to open the test event log {}; events are not recorded", file, e);
+                        return null;
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(log::close, "test-event-log-shutdown"));
+                    defaultLog = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Records that the tests of a class start.
+     *
+     * @param className the name of the test class.
+     */
+    public void classStarted(String className) {
+        publish(Type.CLASS_STARTED, null, className, null, null, -1, null, null);
+    }
+
+    /**
+     * Records that a test starts; its events are held back until {@link #testFinished} is recorded for it.
+     *
+     * @param testId the unique id of the test.
+     * @param test   the readable name of the test.
+     */
+    public void testStarted(String testId, String test) {
+        publish(Type.TEST_STARTED, testId, test, null, null, -1, null, null);
+    }
+
+    /**
+     * Records the time a test spent in a phase.
+     *
+     * @param testId        the unique id of the test.
+     * @param phase         the phase.
+     * @param durationNanos the time spent in the phase.
+     */
+    public void phase(String testId, TestPhase phase, long durationNanos) {
+        publish(Type.PHASE, testId, null, null, phase.getKey(), durationNanos, null, null);
+    }
+
+    /**
+     * Records the result of a test and writes its events.
+     *
+     * @param testId        the unique id of the test.
+     * @param test          the readable name of the test.
+     * @param browser       the browser the test used, or {@code null}.
+     * @param status        the result, such as {@code successful} or {@code failed}.
+     * @param durationNanos the duration of the test, or a negative value if it did not run.
+     * @param error         the failure, or {@code null}.
+     */
+    public void testFinished(String testId, String test, String browser, String status, long durationNanos,
+                             Throwable error) {
+        publish(Type.TEST_FINISHED, testId, test, browser, null, durationNanos, status, error);
+    }
+
+    /**
+     * Records that the tests of a class finished.
+     *
+     * @param className the name of the test class.
+     */
+    public void classFinished(String className) {
+        publish(Type.CLASS_FINISHED, null, className, null, null, -1, null, null);
+    }
+
+    /**
+     * Waits until every event recorded so far is written, or the timeout expires. Events of tests that are still
+     * running stay held back.
+     *
+     * @param timeout the maximum time to wait.
+     * @return true if the events were written, false if the timeout expired first.
+     */
+    public boolean flush(Duration timeout) {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (flushed < target) {
+            if (System.nanoTime() > deadline || !writerThread.isAlive()) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * @return how many times a test thread found the ring buffer full and waited for the writer.
+     */
+    public long getFullWaits() {
+        return fullWaits.get();
+    }
+
+    /**
+     * Writes the remaining events, including those of tests that did not finish, and closes the output.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(Duration.ofSeconds(10).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(Type type, String testId, String test, String browser, String phase, long durationNanos,
+                         String status, Throwable error) {
+        if (!running) {
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        if (sequence - consumed >= ring.length) {
+            fullWaits.incrementAndGet();
+            while (sequence - consumed >= ring.length) {
+                if (!writerThread.isAlive()) {
+                    return;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        Event event = ring[(int) (sequence & mask)];
+        event.type = type;
+        event.timeMillis = System.currentTimeMillis();
+        event.thread = Thread.currentThread().getName();
+        event.testId = testId;
+        event.test = test;
+        event.browser = browser;
+        event.phase = phase;
+        event.durationNanos = durationNanos;
+        event.status = status;
+        event.error = error;
+        // Publishes the fields above to the writer thread.
+        event.sequence = sequence;
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || consumed < claimed.get()) {
+                long start = consumed;
+                long next = start;
+                // Write at most one buffer of published events, then flush them, so that flush() returns while
+                // the test threads keep publishing.
+                for (Event event = ring[(int) (next & mask)]; event.sequence == next && next - start < ring.length;
+                     event = ring[(int) (next & mask)]) {
+                    write(event);
+                    event.clear();
+                    consumed = ++next;
+                }
+                if (flushed < next) {
+                    output.flush();
+                    flushed = next;
+                }
+                if (next == start) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            for (StringBuilder unfinished : runningTests.values()) {
+                output.append(unfinished);
+            }
+            runningTests.clear();
+            output.flush();
+            flushed = consumed;
+        } catch (IOException | RuntimeException e) {
+            logger.error("The test event log failed; further events are dropped", e);
+        } finally {
+            running = false;
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the test event log", e);
+            }
+        }
+    }
+
+    private void write(Event event) throws IOException {
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(event.timeMillis)).append('"');
+        field("type", event.type.key);
+        field("thread", event.thread);
+        field("testId", event.testId);
+        field("test", event.test);
+        field("browser", event.browser);
+        field("phase", event.phase);
+        field("status", event.status);
+        if (event.durationNanos >= 0) {
+            line.append(",\"durationMs\":").append(event.durationNanos / 1_000_000);
+        }
+        if (event.error != null) {
+            field("error", event.error.getClass().getName() + ": " + event.error.getMessage());
+        }
+        line.append('}').append('\n');
+
+        if (event.testId == null) {
+            output.append(line);
+        } else if (event.type == Type.TEST_STARTED) {
+            runningTests.put(event.testId, new StringBuilder(line));
+        } else {
+            StringBuilder block = runningTests.get(event.testId);
+            if (block == null) {
+                output.append(line);
+            } else if (event.type == Type.TEST_FINISHED) {
+                runningTests.remove(event.testId);
+                output.append(block).append(line);
+            } else {
+                block.append(line);
+            }
+        }
+    }
+
+    private void field(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * A slot of the ring buffer. The fields are written by one test thread, then published by writing
+     * {@link #sequence}, and read by the writer thread.
+     */
+    private static final class Event {
+        private volatile long sequence = -1;
+        private Type type;
+        private long timeMillis;
+        private String thread;
+        private String testId;
+        private String test;
+        private String browser;
+        private String phase;
+        private long durationNanos;
+        private String status;
+        private Throwable error;
+
+        private void clear() {
+            testId = null;
+            test = null;
+            browser = null;
+            phase = null;
+            status = null;
+            error = null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package extensions;
+
+/**
+ * The phases of a browser test measured by {@link TimingExtension}.
+ */
+public enum TestPhase {
+    /**
+     * Starting the browser session, or taking one from the pool.
+     */
+    DRIVER_CREATION("driverCreation"),
+    /**
+     * Maximizing the browser window.
+     */
+    MAXIMIZE_WINDOW("maximizeWindow"),
+    /**
+     * Navigating to the base URL before the test body runs.
+     */
+    FIRST_NAVIGATION("firstNavigation"),
+    /**
+     * The test method itself.
+     */
+    TEST_BODY("testBody"),
+    /**
+     * Quitting the browser session, or handing it back to the pool.
+     */
+    TEARDOWN("teardown");
+
+    private final String key;
+
+    TestPhase(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the name of the phase in the timing report.
+     */
+    public String getKey() {
+        return key;
+    }
+}
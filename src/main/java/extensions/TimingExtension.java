@@ -0,0 +1,321 @@
+package extensions;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * TimingExtension is a JUnit 5 extension that measures where the time of each test goes.
+ * <p>
+ * Every test is split into the phases of {@link TestPhase}: the test body is measured by the extension itself, the
+ * other phases by the framework code that runs them ({@code BaseTest}, {@link CrossBrowserExtension}) through
+ * {@link #measure(TestPhase, Runnable)}. Each phase counts only its own time: a phase measured while the test body or
+ * another phase runs is taken off that one, so the phases add up to at most the total. Time not spent in any phase is
+ * reported as {@code other}.
+ * </p>
+ *
+ * <p>
+ * After all tests of a class, the slowest tests of the class are logged as a table and the timings of every test
+ * finished so far are written as JSON to the file configured in the {@code timingReport} section of
+ * {@code config.json}, so the report of the last class covers the whole run. The test durations are also recorded in
+ * the {@link TimingHistory} that {@link ShardFilter} balances shards with. In a sharded run, the report file name
+ * gets the suffix of the {@link Shard}.
+ * </p>
+ *
+ * <h2>Report format:</h2>
+ * <pre>{@code
+ * {
+ *   "generatedAt": "2026-10-16T08:00:00Z",
+ *   "phaseTotalsMs": {"driverCreation": 5120, "maximizeWindow": 240, ...},
+ *   "tests": [
+ *     {"class": "SampleTest", "test": "testSample1()", "failed": false, "totalMs": 2380,
+ *      "phasesMs": {"driverCreation": 1710, ..., "other": 12}}
+ *   ],
+ *   "slowest": ["SampleTest > testSample1()", ...]
+ * }
+ * }</pre>
+ * Tests are listed slowest first.
+ */
+public class TimingExtension implements BeforeEachCallback,
+        BeforeTestExecutionCallback,
+        AfterTestExecutionCallback,
+        AfterEachCallback,
+        AfterAllCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingExtension.class);
+
+    private static final TestPhase[] PHASES = TestPhase.values();
+    private static final ThreadLocal<TestTiming> currentTest = new ThreadLocal<>();
+    private static final Queue<TestTiming> finishedTests = new ConcurrentLinkedQueue<>();
+    private static final Object reportLock = new Object();
+
+    /**
+     * Runs the given action and adds its duration to the given phase of the test running on the calling thread.
+     * Outside a test, the action just runs.
+     *
+     * @param phase  the phase the action belongs to.
+     * @param action the action to run.
+     */
+    public static void measure(TestPhase phase, Runnable action) {
+        measure(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given action and adds its duration to the given phase of the test running on the calling thread.
+     * Outside a test, the action just runs.
+     *
+     * @param phase  the phase the action belongs to.
+     * @param action the action to run.
+     * @param <T>    the type of the result.
+     * @return the result of the action.
+     */
+    public static <T> T measure(TestPhase phase, Supplier<T> action) {
+        TestTiming timing = currentTest.get();
+        if (timing == null) {
+            return action.get();
+        }
+        // A phase only gets its own time: phases measured inside it are taken off it, as they are off the test body.
+        long outerNestedNanos = timing.nestedNanos;
+        timing.nestedNanos = 0;
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timing.phaseNanos[phase.ordinal()] += elapsed - timing.nestedNanos;
+            timing.nestedNanos = outerNestedNanos + elapsed;
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        currentTest.set(new TestTiming(context.getRequiredTestClass().getName(), context.getDisplayName(),
+                TimingHistory.keyOf(MethodSource.from(context.getRequiredTestClass(),
+                        context.getRequiredTestMethod()))));
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        TestTiming timing = currentTest.get();
+        if (timing != null) {
+            timing.nestedNanos = 0;
+            timing.bodyStartNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        TestTiming timing = currentTest.get();
+        if (timing != null && timing.bodyStartNanos != 0) {
+            timing.phaseNanos[TestPhase.TEST_BODY.ordinal()] +=
+                    System.nanoTime() - timing.bodyStartNanos - timing.nestedNanos;
+            timing.bodyStartNanos = 0;
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        TestTiming timing = currentTest.get();
+        currentTest.remove();
+        if (timing != null) {
+            timing.totalNanos = System.nanoTime() - timing.startNanos;
+            timing.failed = context.getExecutionException().isPresent();
+            finishedTests.add(timing);
+            TestEventLog eventLog = TestEventLog.getDefault();
+            if (eventLog != null) {
+                for (TestPhase phase : PHASES) {
+                    long nanos = timing.phaseNanos[phase.ordinal()];
+                    if (nanos > 0) {
+                        eventLog.phase(context.getUniqueId(), phase, nanos);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Logs the slowest tests of the class, writes the timing report of the run so far and records the durations of
+     * the class's tests in the timing history.
+     *
+     * @param context The ExtensionContext for the current test class
+     */
+    @Override
+    public void afterAll(ExtensionContext context) {
+        JsonConfig config = JsonFileReader.getConfig("config.json").getSection("timingReport");
+        int top = config.getInt("top", 10);
+        String className = context.getRequiredTestClass().getName();
+
+        List<TestTiming> classTests = new ArrayList<>();
+        for (TestTiming timing : finishedTests) {
+            if (timing.className.equals(className)) {
+                classTests.add(timing);
+            }
+        }
+        if (classTests.isEmpty()) {
+            return;
+        }
+        classTests.sort(Comparator.comparingLong((TestTiming timing) -> timing.totalNanos).reversed());
+        logger.info(slowestTable("Slowest tests in " + className + ":", classTests, top));
+
+        Shard shard = Shard.current().orElse(null);
+        Path file = Paths.get(config.getString("file", "target/timing-report.json"));
+        synchronized (reportLock) {
+            writeReport(shard != null ? shard.fileOf(file) : file, top);
+        }
+        recordHistory(classTests, shard);
+    }
+
+    /**
+     * @param className the name of the test class.
+     * @param testName  the display name of the test.
+     * @return the timing of the given finished test as it appears in the report, or {@code null} if none finished.
+     * The test is taken out of the report.
+     */
+    static JSONObject takeFinishedTiming(String className, String testName) {
+        for (TestTiming timing : finishedTests) {
+            if (timing.className.equals(className) && timing.testName.equals(testName)
+                    && finishedTests.remove(timing)) {
+                return timing.toJson();
+            }
+        }
+        return null;
+    }
+
+    private static void recordHistory(List<TestTiming> tests, Shard shard) {
+        // Invocations of a parameterized or repeated test add up to one entry, which is dropped if any of them failed.
+        Map<String, Long> durations = new HashMap<>();
+        for (TestTiming timing : tests) {
+            durations.merge(timing.historyKey, timing.failed ? -1 : timing.totalNanos / 1_000_000,
+                    (sum, duration) -> sum < 0 || duration < 0 ? -1 : sum + duration);
+        }
+        durations.values().removeIf(duration -> duration < 0);
+        TimingHistory.record(TimingHistory.defaultFile(), shard, durations);
+    }
+
+    private static String slowestTable(String title, List<TestTiming> tests, int top) {
+        StringBuilder table = new StringBuilder(title);
+        table.append(System.lineSeparator()).append(String.format("  %-60s %9s", "test", "total ms"));
+        for (TestPhase phase : PHASES) {
+            table.append(String.format(" %16s", phase.getKey()));
+        }
+        for (TestTiming timing : tests.subList(0, Math.min(top, tests.size()))) {
+            table.append(System.lineSeparator())
+                    .append(String.format("  %-60s %9d", abbreviate(timing.getName(), 60),
+                            timing.totalNanos / 1_000_000));
+            for (TestPhase phase : PHASES) {
+                table.append(String.format(" %16d", timing.phaseNanos[phase.ordinal()] / 1_000_000));
+            }
+        }
+        return table.toString();
+    }
+
+    private static String abbreviate(String text, int width) {
+        return text.length() <= width ? text : text.substring(0, width - 3) + "...";
+    }
+
+    private static void writeReport(Path file, int top) {
+        List<TestTiming> tests = new ArrayList<>(finishedTests);
+        tests.sort(Comparator.comparingLong((TestTiming timing) -> timing.totalNanos).reversed());
+
+        long[] phaseTotals = new long[PHASES.length];
+        JSONArray testsJson = new JSONArray();
+        for (TestTiming timing : tests) {
+            for (TestPhase phase : PHASES) {
+                phaseTotals[phase.ordinal()] += timing.phaseNanos[phase.ordinal()];
+            }
+            testsJson.put(timing.toJson());
+        }
+        JSONObject totalsJson = new JSONObject();
+        for (TestPhase phase : PHASES) {
+            totalsJson.put(phase.getKey(), phaseTotals[phase.ordinal()] / 1_000_000);
+        }
+        JSONArray slowest = new JSONArray();
+        tests.subList(0, Math.min(top, tests.size())).forEach(timing -> slowest.put(timing.getName()));
+
+        JSONObject report = new JSONObject();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("phaseTotalsMs", totalsJson);
+        report.put("tests", testsJson);
+        report.put("slowest", slowest);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, report.toString(2), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write the timing report to {}", file, e);
+        }
+    }
+
+    /**
+     * The phase timings of one test. Only the test thread writes to it until the test finishes.
+     */
+    private static final class TestTiming {
+        private final String className;
+        private final String testName;
+        private final String historyKey;
+        private final long startNanos = System.nanoTime();
+        private final long[] phaseNanos = new long[PHASES.length];
+        private long bodyStartNanos;
+        private long nestedNanos;
+        private long totalNanos;
+        private boolean failed;
+
+        private TestTiming(String className, String testName, String historyKey) {
+            this.className = className;
+            this.testName = testName;
+            this.historyKey = historyKey;
+        }
+
+        private String getName() {
+            return className + " > " + testName;
+        }
+
+        private JSONObject toJson() {
+            JSONObject phases = new JSONObject();
+            long measured = 0;
+            for (TestPhase phase : PHASES) {
+                phases.put(phase.getKey(), phaseNanos[phase.ordinal()] / 1_000_000);
+                measured += phaseNanos[phase.ordinal()];
+            }
+            phases.put("other", Math.max(0, totalNanos - measured) / 1_000_000);
+
+            JSONObject json = new JSONObject();
+            json.put("class", className);
+            json.put("test", testName);
+            json.put("failed", failed);
+            json.put("totalMs", totalNanos / 1_000_000);
+            json.put("phasesMs", phases);
+            return json;
+        }
+    }
+}
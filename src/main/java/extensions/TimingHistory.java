@@ -0,0 +1,196 @@
+package extensions;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonFileReader;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * A small file store of how long each test took in past runs, used by {@link ShardFilter} to balance shards.
+ * <p>
+ * Tests are keyed by {@code <class>#<method>(<parameter types>)}; a parameterized or repeated test counts as one test
+ * with the summed duration of its invocations. The stored duration of a test is an exponential moving average that
+ * weighs the last run and the history before it equally, so one slow run does not reshuffle the shards. Only tests
+ * that passed are recorded.
+ * </p>
+ *
+ * <p>
+ * All shards of a run must plan from the same history, so sharded runs never rewrite the history file: each shard
+ * records into a file of its own ({@code timing-history.shard-1-of-3.json}, see {@link Shard#fileOf(Path)}). Those
+ * files are folded into the history by the next unsharded run, or by {@link #foldShardFiles(Path)} once all shards
+ * finished. Writers on the same machine are serialized by a lock file.
+ * </p>
+ *
+ * <p>
+ * The history file is configured by the {@code sharding} section of {@code config.json}:
+ * <pre>{@code
+ * "sharding": {"historyFile": "timing-history.json"}
+ * }</pre>
+ * The file belongs to the machine that runs the tests, not to the sources: it is git-ignored, and CI keeps it between
+ * runs in its cache. It is outside {@code target/} so {@code mvn clean} does not discard it.
+ * File format:
+ * <pre>{@code
+ * {"updatedAt": "2026-10-16T08:00:00Z", "testsMs": {"pages.LoginTest#testLogin()": 2380, ...}}
+ * }</pre>
+ * </p>
+ */
+public final class TimingHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingHistory.class);
+
+    private static final double LAST_RUN_WEIGHT = 0.5;
+
+    private TimingHistory() {
+    }
+
+    /**
+     * @return the history file configured by {@code sharding.historyFile}.
+     */
+    public static Path defaultFile() {
+        return Paths.get(JsonFileReader.getConfig("config.json").getSection("sharding")
+                .getString("historyFile", "timing-history.json"));
+    }
+
+    /**
+     * Returns the history key of a test descriptor: its method for method-based tests, its unique ID otherwise.
+     *
+     * @param descriptor the test descriptor.
+     * @return the key.
+     */
+    public static String keyOf(TestDescriptor descriptor) {
+        Optional<TestSource> source = descriptor.getSource();
+        if (source.isPresent() && source.get() instanceof MethodSource) {
+            return keyOf((MethodSource) source.get());
+        }
+        return descriptor.getUniqueId().toString();
+    }
+
+    /**
+     * @param source the source of a test method.
+     * @return the history key of the test.
+     */
+    public static String keyOf(MethodSource source) {
+        return source.getClassName() + "#" + source.getMethodName() + "(" + source.getMethodParameterTypes() + ")";
+    }
+
+    /**
+     * Reads the durations stored in a history file.
+     *
+     * @param file the history file.
+     * @return the durations in milliseconds by test key; empty if the file does not exist or cannot be read.
+     */
+    public static Map<String, Long> load(Path file) {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return durations;
+        }
+        try {
+            JSONObject tests = new JSONObject(Files.readString(file, StandardCharsets.UTF_8)).optJSONObject("testsMs");
+            if (tests != null) {
+                for (String key : tests.keySet()) {
+                    durations.put(key, tests.getLong(key));
+                }
+            }
+        } catch (IOException | JSONException e) {
+            logger.warn("Ignoring unreadable timing history {}", file, e);
+        }
+        return durations;
+    }
+
+    /**
+     * Records the durations of a run: into the shard's own file when the run is sharded, into the history file
+     * otherwise, after folding in the files left by sharded runs.
+     *
+     * @param file      the history file.
+     * @param shard     the shard of the run, or {@code null} if it is not sharded.
+     * @param durations the durations of the run in milliseconds by test key.
+     */
+    public static void record(Path file, Shard shard, Map<String, Long> durations) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        if (shard != null) {
+            update(shard.fileOf(file), durations);
+        } else {
+            foldShardFiles(file);
+            update(file, durations);
+        }
+    }
+
+    /**
+     * Folds the files recorded by the shards of sharded runs into the history file and deletes them.
+     *
+     * @param file the history file.
+     */
+    public static void foldShardFiles(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        String name = file.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String glob = (extension > 0 ? name.substring(0, extension) : name) + ".shard-*"
+                + (extension > 0 ? name.substring(extension) : "");
+        try (DirectoryStream<Path> shardFiles = Files.newDirectoryStream(directory, glob)) {
+            for (Path shardFile : shardFiles) {
+                update(file, load(shardFile));
+                Files.deleteIfExists(shardFile);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to fold the shard timing files into {}", file, e);
+        }
+    }
+
+    /**
+     * Merges durations into a history file as the last run, holding a lock so concurrent writers do not lose
+     * each other's updates.
+     */
+    private static void update(Path file, Map<String, Long> durations) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                // Released when the channel is closed.
+                channel.lock();
+                Map<String, Long> merged = new TreeMap<>(load(file));
+                durations.forEach((key, lastRun) -> merged.merge(key, lastRun, (history, run) ->
+                        Math.round(LAST_RUN_WEIGHT * run + (1 - LAST_RUN_WEIGHT) * history)));
+
+                JSONObject json = new JSONObject();
+                json.put("updatedAt", Instant.now().toString());
+                json.put("testsMs", merged);
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(temp, json.toString(2), StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to update the timing history {}", file, e);
+        }
+    }
+}
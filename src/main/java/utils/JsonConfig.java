@@ -0,0 +1,302 @@
+package utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable, already parsed view of a JSON configuration file with typed getters.
+ * <p>
+ * Keys may be dotted paths into nested objects, e.g. {@code "pool.maxTotal"}. A key that exists as is in the object,
+ * dots included, is matched exactly before it is read as a path, so keys such as {@code "app.url"} keep working.
+ * Every value can be overridden
+ * without editing the file:
+ * <ul>
+ *     <li>by a system property named {@code config.} followed by the path, e.g. {@code -Dconfig.pool.maxTotal=8};</li>
+ *     <li>by an environment variable named {@code CONFIG_} followed by the path in upper snake case,
+ *     e.g. {@code CONFIG_POOL_MAX_TOTAL=8}.</li>
+ * </ul>
+ * System properties take precedence over environment variables, which take precedence over the file.
+ * </p>
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>
+ * JsonConfig config = JsonFileReader.getConfig("config.json");
+ * int maxTotal = config.getInt("pool.maxTotal", 4);
+ * Duration idle = config.getDuration("pool.idleTimeout", Duration.ofMinutes(5));
+ * </pre>
+ */
+public final class JsonConfig {
+
+    private static final String PROPERTY_PREFIX = "config.";
+    private static final String ENV_PREFIX = "CONFIG_";
+
+    private final JsonObject root;
+    private final String path;
+    private final UnaryOperator<String> environment;
+
+    private JsonConfig(JsonObject root, String path, UnaryOperator<String> environment) {
+        this.root = root;
+        this.path = path;
+        this.environment = environment;
+    }
+
+    /**
+     * Parses the given JSON text into a configuration snapshot.
+     *
+     * @param content the JSON text; its top level must be an object.
+     * @return the parsed configuration.
+     * @throws com.google.gson.JsonParseException if the text is not valid JSON.
+     * @throws IllegalStateException              if the top level is not a JSON object.
+     */
+    public static JsonConfig parse(String content) {
+        return parse(content, System::getenv);
+    }
+
+    /**
+     * Parses the given JSON text, reading environment overrides from the given lookup instead of the process
+     * environment, which cannot be changed from inside the JVM.
+     *
+     * @param content     the JSON text; its top level must be an object.
+     * @param environment returns the value of an environment variable, or {@code null} if it is not set.
+     * @return the parsed configuration.
+     */
+    static JsonConfig parse(String content, UnaryOperator<String> environment) {
+        JsonObject root = JsonParser.parseString(content).getAsJsonObject();
+        return new JsonConfig(root.deepCopy(), "", environment);
+    }
+
+    /**
+     * Checks whether the key is set in the file or through an override.
+     *
+     * @param key the dotted key.
+     * @return true if the key has a non-null value.
+     */
+    public boolean has(String key) {
+        return override(key) != null || find(key) != null;
+    }
+
+    /**
+     * Returns the value of the key as a string.
+     *
+     * @param key the dotted key.
+     * @return the value as a string.
+     * @throws IllegalArgumentException if the key is not set.
+     */
+    public String getString(String key) {
+        String value = getString(key, null);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing configuration key: " + qualified(key));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of the key as a string, or the default when it is not set.
+     *
+     * @param key          the dotted key.
+     * @param defaultValue the value returned when the key is not set.
+     * @return the value as a string.
+     */
+    public String getString(String key, String defaultValue) {
+        String override = override(key);
+        if (override != null) {
+            return override;
+        }
+        JsonElement element = find(key);
+        return element == null ? defaultValue : element.getAsString();
+    }
+
+    /**
+     * Returns the value of the key as an int, or the default when it is not set.
+     *
+     * @param key          the dotted key.
+     * @param defaultValue the value returned when the key is not set.
+     * @return the value as an int.
+     * @throws NumberFormatException if the value is not a number.
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Returns the value of the key as a long, or the default when it is not set.
+     *
+     * @param key          the dotted key.
+     * @param defaultValue the value returned when the key is not set.
+     * @return the value as a long.
+     * @throws NumberFormatException if the value is not a number.
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * Returns the value of the key as a boolean, or the default when it is not set.
+     *
+     * @param key          the dotted key.
+     * @param defaultValue the value returned when the key is not set.
+     * @return the value as a boolean.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Returns the value of the key as a duration, or the default when it is not set.
+     * <p>
+     * Accepted formats are ISO-8601 ({@code "PT30S"}), a number with a unit suffix
+     * ({@code "500ms"}, {@code "30s"}, {@code "5m"}, {@code "1h"}, {@code "7d"}) and a plain number of milliseconds.
+     * </p>
+     *
+     * @param key          the dotted key.
+     * @param defaultValue the value returned when the key is not set.
+     * @return the value as a duration.
+     * @throws IllegalArgumentException if the value cannot be read as a duration.
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = getString(key, null);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return parseDuration(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid duration for " + qualified(key) + ": " + value, e);
+        }
+    }
+
+    /**
+     * Returns the value of the key as a list of strings. A single value is returned as a one-element list.
+     *
+     * @param key the dotted key.
+     * @return the values, or an empty list when the key is not set.
+     */
+    public List<String> getStringList(String key) {
+        String override = override(key);
+        if (override != null) {
+            List<String> values = new ArrayList<>();
+            for (String value : override.split(",")) {
+                if (!value.isBlank()) {
+                    values.add(value.trim());
+                }
+            }
+            return Collections.unmodifiableList(values);
+        }
+        JsonElement element = find(key);
+        if (element == null) {
+            return List.of();
+        }
+        if (!element.isJsonArray()) {
+            return List.of(element.getAsString());
+        }
+        List<String> values = new ArrayList<>();
+        for (JsonElement item : element.getAsJsonArray()) {
+            values.add(item.getAsString());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Returns the nested object under the key as its own configuration view.
+     * Overrides of the view use the full path, so {@code getSection("pool").getInt("maxTotal", 4)}
+     * honors {@code -Dconfig.pool.maxTotal}.
+     *
+     * @param key the dotted key of the nested object.
+     * @return the nested configuration, or an empty one when the key is not set or is not an object.
+     */
+    public JsonConfig getSection(String key) {
+        JsonElement element = find(key);
+        JsonObject section = element != null && element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        return new JsonConfig(section, qualified(key), environment);
+    }
+
+    /**
+     * Returns the keys defined directly in this object of the file.
+     *
+     * @return the top-level keys of this view.
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(root.keySet());
+    }
+
+    private JsonElement find(String key) {
+        JsonElement exact = root.get(key);
+        if (exact != null && !exact.isJsonNull()) {
+            return exact;
+        }
+        JsonElement current = root;
+        for (String part : key.split("\\.")) {
+            if (current == null || !current.isJsonObject()) {
+                return null;
+            }
+            current = current.getAsJsonObject().get(part);
+        }
+        return current == null || current.isJsonNull() ? null : current;
+    }
+
+    private String override(String key) {
+        String qualified = qualified(key);
+        String property = System.getProperty(PROPERTY_PREFIX + qualified);
+        if (property != null) {
+            return property;
+        }
+        return environment.apply(ENV_PREFIX + toEnvironmentName(qualified));
+    }
+
+    private String qualified(String key) {
+        return path.isEmpty() ? key : path + "." + key;
+    }
+
+    /**
+     * Converts a dotted camel-case path to upper snake case, e.g. {@code pool.maxTotal} to {@code POOL_MAX_TOTAL}.
+     */
+    static String toEnvironmentName(String path) {
+        StringBuilder name = new StringBuilder(path.length() + 8);
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '-') {
+                name.append('_');
+            } else if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(path.charAt(i - 1))) {
+                name.append('_').append(c);
+            } else {
+                name.append(Character.toUpperCase(c));
+            }
+        }
+        return name.toString();
+    }
+
+    static Duration parseDuration(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (lower.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2).trim()));
+        }
+        if (lower.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        }
+        if (lower.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        }
+        if (lower.endsWith("h")) {
+            return Duration.ofHours(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        }
+        if (lower.endsWith("d")) {
+            return Duration.ofDays(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        }
+        return Duration.ofMillis(Long.parseLong(lower));
+    }
+}
@@ -1,30 +1,57 @@
 package utils;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for reading values from JSON files.
- * This class provides a static method to retrieve a value from a JSON file located in the resources folder by its key.
+ * This class provides static methods to retrieve values from a JSON file located in the resources folder by key.
+ *
+ * <p>Each file is read and parsed only once per JVM; later calls are served from an immutable {@link JsonConfig}
+ * snapshot. Long-running runners can opt in to reloading the snapshot when the file changes on disk, either by
+ * calling {@link #watch(String)} or by starting the JVM with {@code -Dconfig.watch=true}.</p>
  *
  * <h3>Usage Example:</h3>
  * <pre>
  * String value = JsonFileReader.getValue("config.json", "driver");
  * System.out.println(value); // Prints the value of the "driver" key from the config.json file
+ *
+ * int maxTotal = JsonFileReader.getConfig("config.json").getInt("pool.maxTotal", 4);
  * </pre>
  *
  * @author Shevy Kossovsky
  */
 public class JsonFileReader {
 
+    private static final Logger logger = LoggerFactory.getLogger(JsonFileReader.class);
+
+    // Parsed snapshots, keyed by resource file name.
+    private static final Map<String, JsonConfig> snapshots = new ConcurrentHashMap<>();
+    // Resource files that are watched for changes.
+    private static final Set<String> watched = ConcurrentHashMap.newKeySet();
+
     /**
      * Retrieves the value associated with the specified key from the given JSON file located in the resources folder.
      *
-     * <p>This method uses the {@link ClassLoader#getResource(String)} method to locate the file and reads its content.
-     * It then parses the content into a {@link JsonObject} and retrieves the value associated with the provided key.</p>
+     * <p>The file is parsed on the first call and the value is then read from the cached {@link JsonConfig}
+     * snapshot. A key that exists as is in the file is matched exactly; otherwise it is read as a dotted path
+     * into nested objects. The value can be overridden by a system property or environment variable, as
+     * described in {@link JsonConfig}.</p>
      *
      * @param resourceFileName the name of the JSON file (e.g., "config.json"). The file must be located in the resources folder.
      * @param key              the key whose value is to be retrieved from the JSON file.
@@ -39,20 +66,128 @@ public class JsonFileReader {
      */
     public static String getValue(String resourceFileName, String key) {
         try {
-            // Get the file from resources using ClassLoader
-            String content = new String(Files.readAllBytes(
-                    Paths.get(JsonFileReader.class.getClassLoader().getResource(resourceFileName).toURI())
-            ));
-
-            // Parse the content of the JSON file into a JsonObject
-            JsonObject json = JsonParser.parseString(content).getAsJsonObject();
-
-            // Return the value associated with the specified key
-            return json.get(key).getAsString();
+            return getConfig(resourceFileName).getString(key);
         } catch (Exception e) {
             // Handle any exception that occurs during reading or parsing the JSON file
             throw new RuntimeException("Failed to read key '" + key + "' from JSON file: " + resourceFileName, e);
         }
     }
 
+    /**
+     * Retrieves the value of a key inside a nested object of the given JSON file located in the resources folder.
+     *
+     * <p>Unlike {@link #getValue(String, String)}, a missing object or key is not an error: this method
+     * returns {@code null} so callers can treat the setting as optional.</p>
+     *
+     * @param resourceFileName the name of the JSON file (e.g., "config.json"). The file must be located in the
+     *                         resources folder.
+     * @param objectKey        the key of the nested object (e.g., "driverPaths").
+     * @param key              the key whose value is to be retrieved from the nested object.
+     * @return the value associated with the key as a {@link String}, or {@code null} if it is not present.
+     * @throws RuntimeException if there is an error reading or parsing the file.
+     */
+    public static String getOptionalValue(String resourceFileName, String objectKey, String key) {
+        return getConfig(resourceFileName).getSection(objectKey).getString(key, null);
+    }
+
+    /**
+     * Returns the parsed configuration snapshot of the given JSON file located in the resources folder.
+     * The file is read and parsed on the first call only.
+     *
+     * @param resourceFileName the name of the JSON file (e.g., "config.json").
+     * @return the immutable configuration snapshot.
+     * @throws RuntimeException if there is an error reading the file or the file does not exist.
+     */
+    public static JsonConfig getConfig(String resourceFileName) {
+        JsonConfig config = snapshots.get(resourceFileName);
+        if (config != null) {
+            return config;
+        }
+        config = snapshots.computeIfAbsent(resourceFileName, JsonFileReader::load);
+        if (Boolean.getBoolean("config.watch")) {
+            watch(resourceFileName);
+        }
+        return config;
+    }
+
+    /**
+     * Re-reads the given JSON file and replaces its cached snapshot.
+     *
+     * @param resourceFileName the name of the JSON file (e.g., "config.json").
+     * @return the new configuration snapshot.
+     * @throws RuntimeException if there is an error reading or parsing the file.
+     */
+    public static JsonConfig reload(String resourceFileName) {
+        JsonConfig config = load(resourceFileName);
+        snapshots.put(resourceFileName, config);
+        return config;
+    }
+
+    /**
+     * Starts watching the given JSON file and reloads its snapshot whenever the file changes.
+     * <p>
+     * Only resources that are plain files on disk can be watched; resources packaged in a jar are skipped.
+     * Calling this method more than once for the same file has no effect.
+     * </p>
+     *
+     * @param resourceFileName the name of the JSON file (e.g., "config.json").
+     */
+    public static void watch(String resourceFileName) {
+        if (!watched.add(resourceFileName)) {
+            return;
+        }
+        URL resource = JsonFileReader.class.getClassLoader().getResource(resourceFileName);
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            logger.warn("Cannot watch {}: it is not a file on disk", resourceFileName);
+            return;
+        }
+        try {
+            Path file = Paths.get(resource.toURI());
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            Thread watcher = new Thread(() -> watchLoop(watchService, file, resourceFileName),
+                    "config-watch-" + resourceFileName);
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (Exception e) {
+            watched.remove(resourceFileName);
+            throw new RuntimeException("Failed to watch JSON file: " + resourceFileName, e);
+        }
+    }
+
+    private static void watchLoop(WatchService watchService, Path file, String resourceFileName) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        try {
+                            reload(resourceFileName);
+                            logger.info("Reloaded configuration file: {}", resourceFileName);
+                        } catch (RuntimeException e) {
+                            // Keep the previous snapshot when the file is being written or is invalid
+                            logger.warn("Failed to reload configuration file: {}", resourceFileName, e);
+                        }
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static JsonConfig load(String resourceFileName) {
+        // Get the file from resources using ClassLoader
+        try (InputStream stream = JsonFileReader.class.getClassLoader().getResourceAsStream(resourceFileName)) {
+            if (stream == null) {
+                throw new IOException("Resource not found: " + resourceFileName);
+            }
+            // Parse the content of the JSON file into an immutable snapshot
+            return JsonConfig.parse(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read JSON file: " + resourceFileName, e);
+        }
+    }
 }
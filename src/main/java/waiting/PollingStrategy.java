@@ -0,0 +1,114 @@
+package waiting;
+
+import utils.JsonConfig;
+import utils.JsonFileReader;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long {@link SmartWait} sleeps between two polls of a condition.
+ * <p>
+ * The first poll follows the initial interval, so conditions that are almost met are noticed quickly. Each
+ * further interval grows by the multiplier up to the maximum, so long waits do not flood the browser with
+ * commands. A random jitter spreads the polls of concurrent tests apart.
+ * </p>
+ *
+ * <p>
+ * The default strategy is configured by the {@code waits} section of {@code config.json}:
+ * <pre>
+ * "waits": {
+ *   "initialPoll": "50ms",
+ *   "maxPoll": "500ms",
+ *   "multiplier": 2,
+ *   "jitter": 0.2
+ * }
+ * </pre>
+ * </p>
+ */
+public final class PollingStrategy {
+
+    private final long initialNanos;
+    private final long maxNanos;
+    private final double multiplier;
+    private final double jitter;
+
+    /**
+     * Constructs a polling strategy.
+     *
+     * @param initialInterval the interval before the second poll.
+     * @param maxInterval     the upper bound of the interval.
+     * @param multiplier      the factor the interval grows by after every poll; at least 1.
+     * @param jitter          the fraction, between 0 and 1, by which each interval is randomly shortened or
+     *                        lengthened.
+     * @throws IllegalArgumentException if an argument is out of range.
+     */
+    public PollingStrategy(Duration initialInterval, Duration maxInterval, double multiplier, double jitter) {
+        if (initialInterval.isNegative() || initialInterval.isZero() || maxInterval.compareTo(initialInterval) < 0) {
+            throw new IllegalArgumentException("Intervals must be positive and maxInterval >= initialInterval");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("jitter must be in [0, 1)");
+        }
+        this.initialNanos = initialInterval.toNanos();
+        this.maxNanos = maxInterval.toNanos();
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Returns a strategy that polls at a fixed interval, like {@link org.openqa.selenium.support.ui.WebDriverWait}.
+     *
+     * @param interval the polling interval.
+     * @return the fixed strategy.
+     */
+    public static PollingStrategy fixed(Duration interval) {
+        return new PollingStrategy(interval, interval, 1, 0);
+    }
+
+    /**
+     * Reads the strategy from the {@code waits} section of {@code config.json}.
+     *
+     * @return the configured strategy.
+     */
+    public static PollingStrategy fromConfig() {
+        JsonConfig config = JsonFileReader.getConfig("config.json").getSection("waits");
+        return new PollingStrategy(
+                config.getDuration("initialPoll", Duration.ofMillis(50)),
+                config.getDuration("maxPoll", Duration.ofMillis(500)),
+                Double.parseDouble(config.getString("multiplier", "2")),
+                Double.parseDouble(config.getString("jitter", "0.2")));
+    }
+
+    /**
+     * Returns the interval to sleep before the next poll.
+     *
+     * @param poll the number of polls made so far, starting at 1.
+     * @return the interval, never longer than the maximum interval.
+     */
+    public Duration nextInterval(int poll) {
+        double base = initialNanos * Math.pow(multiplier, Math.max(0, poll - 1));
+        double capped = Math.min(base, maxNanos);
+        if (jitter > 0) {
+            capped *= 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        }
+        return Duration.ofNanos(Math.max(1, Math.min((long) capped, maxNanos)));
+    }
+
+    /**
+     * @return the interval before the second poll.
+     */
+    public Duration getInitialInterval() {
+        return Duration.ofNanos(initialNanos);
+    }
+
+    /**
+     * @return the upper bound of the interval.
+     */
+    public Duration getMaxInterval() {
+        return Duration.ofNanos(maxNanos);
+    }
+}
@@ -0,0 +1,230 @@
+package waiting;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A reusable wait engine with adaptive polling, replacing a new {@link org.openqa.selenium.support.ui.WebDriverWait}
+ * per call.
+ * <p>
+ * Instances are immutable and thread-safe; {@link #getDefault()} returns one shared instance configured from
+ * {@code config.json} (see {@link PollingStrategy}).
+ * </p>
+ *
+ * <h2>Key Features:</h2>
+ * <ul>
+ *     <li>{@link #until(WebDriver, Function, Duration)} polls a condition from the test, starting with a short
+ *     interval and backing off exponentially with jitter up to a cap. Like {@code WebDriverWait}, it ignores
+ *     {@link NotFoundException} and {@link StaleElementReferenceException} while polling.</li>
+ *     <li>{@link #untilInBrowser(WebDriver, String, Duration, Object...)} evaluates a JavaScript condition inside
+ *     the browser with a single asynchronous script call that returns once the condition holds, saving one
+ *     round-trip per poll.</li>
+ *     <li>The duration and poll count of every wait can be recorded per call site in {@link WaitStatistics}.</li>
+ * </ul>
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * WebElement button = SmartWait.getDefault().until(driver,
+ *         ExpectedConditions.elementToBeClickable(By.id("submit")), Duration.ofSeconds(10));
+ * SmartWait.getDefault().untilInBrowser(driver, "document.readyState === 'complete'", Duration.ofSeconds(30));
+ * }</pre>
+ * </p>
+ */
+public final class SmartWait {
+
+    /**
+     * Extra script timeout granted on top of the wait timeout, so the browser answers before the driver gives up.
+     */
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    private static final String IN_BROWSER_SCRIPT =
+            "var args = Array.prototype.slice.call(arguments, 0, arguments.length - 3);"
+                    + "var pollMs = arguments[arguments.length - 3];"
+                    + "var deadline = Date.now() + arguments[arguments.length - 2];"
+                    + "var done = arguments[arguments.length - 1];"
+                    + "var condition = function () { return (%s); };"
+                    + "(function check() {"
+                    + "  var result;"
+                    + "  try { result = condition.apply(null, args); } catch (e) { result = false; }"
+                    + "  if (result) { done(true); }"
+                    + "  else if (Date.now() >= deadline) { done(false); }"
+                    + "  else { setTimeout(check, pollMs); }"
+                    + "})();";
+
+    private static final String POLLED_SCRIPT = "return !!(function () { return (%s); }).apply(null, arguments);";
+
+    private static volatile SmartWait defaultInstance;
+
+    private final PollingStrategy strategy;
+
+    /**
+     * Constructs a wait engine.
+     *
+     * @param strategy decides the intervals between polls.
+     */
+    public SmartWait(PollingStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Returns the shared wait engine, using the polling strategy from {@code config.json}.
+     *
+     * @return the shared wait engine.
+     */
+    public static SmartWait getDefault() {
+        if (defaultInstance == null) {
+            synchronized (SmartWait.class) {
+                if (defaultInstance == null) {
+                    defaultInstance = new SmartWait(PollingStrategy.fromConfig());
+                }
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Polls the condition until it returns a value that is neither {@code null} nor {@code false}.
+     *
+     * @param driver    the WebDriver instance passed to the condition.
+     * @param condition the condition, e.g. one of {@link org.openqa.selenium.support.ui.ExpectedConditions}.
+     * @param timeout   the maximum time to wait.
+     * @param <T>       the type of the condition's result.
+     * @return the first result that is neither {@code null} nor {@code false}.
+     * @throws TimeoutException   if the condition was not met within the timeout.
+     * @throws WebDriverException if the waiting thread is interrupted.
+     */
+    public <T> T until(WebDriver driver, Function<? super WebDriver, T> condition, Duration timeout) {
+        long start = System.nanoTime();
+        return poll(driver, condition, start, start + timeout.toNanos(), 0);
+    }
+
+    /**
+     * Waits inside the browser until a JavaScript expression is truthy.
+     * <p>
+     * The expression is evaluated by one asynchronous script that polls in the page and calls back once the
+     * expression holds or the timeout expires. The arguments are available to the expression as
+     * {@code arguments[0]}, {@code arguments[1]}, and so on. If the script is interrupted, for example because the
+     * page navigates away, or the driver cannot run asynchronous scripts, the expression is polled from the test
+     * for the rest of the timeout instead.
+     * </p>
+     * <p>
+     * The wait takes one script call, plus one command to read the session's script timeout. If that timeout is
+     * shorter than the wait, it is raised for the wait and restored afterwards, so later asynchronous scripts of
+     * the test keep the timeout the session was configured with.
+     * </p>
+     *
+     * @param driver     the WebDriver instance; must implement {@link JavascriptExecutor}.
+     * @param expression the JavaScript expression, e.g. {@code "document.readyState === 'complete'"}.
+     * @param timeout    the maximum time to wait.
+     * @param args       the arguments of the expression, such as WebElements.
+     * @throws TimeoutException         if the expression did not become truthy within the timeout.
+     * @throws IllegalArgumentException if the driver cannot execute JavaScript.
+     */
+    public void untilInBrowser(WebDriver driver, String expression, Duration timeout, Object... args) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            throw new IllegalArgumentException("Driver does not support JavaScript: " + driver.getClass().getName());
+        }
+        JavascriptExecutor executor = (JavascriptExecutor) driver;
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+
+        Object[] scriptArgs = new Object[args.length + 2];
+        System.arraycopy(args, 0, scriptArgs, 0, args.length);
+        scriptArgs[args.length] = strategy.getInitialInterval().toMillis();
+        scriptArgs[args.length + 1] = timeout.toMillis();
+
+        Object result;
+        try {
+            result = withScriptTimeout(driver, timeout.plus(SCRIPT_TIMEOUT_MARGIN),
+                    () -> executor.executeAsyncScript(IN_BROWSER_SCRIPT.replace("%s", expression), scriptArgs));
+        } catch (ScriptTimeoutException e) {
+            throw timedOut(expression, start, 1, e);
+        } catch (JavascriptException | UnsupportedCommandException | UnsupportedOperationException e) {
+            // The page went away under the script, or the driver cannot wait asynchronously; keep waiting from the
+            // test for the time that is left.
+            String script = POLLED_SCRIPT.replace("%s", expression);
+            poll(driver, d -> Boolean.TRUE.equals(executor.executeScript(script, args)), start, deadline, 1);
+            return;
+        }
+        if (!Boolean.TRUE.equals(result)) {
+            throw timedOut(expression, start, 1, null);
+        }
+        WaitStatistics.record(Duration.ofNanos(System.nanoTime() - start), 1, false);
+    }
+
+    /**
+     * @return the polling strategy of this engine.
+     */
+    public PollingStrategy getStrategy() {
+        return strategy;
+    }
+
+    private <T> T poll(WebDriver driver, Function<? super WebDriver, T> condition, long start, long deadline,
+                       int previousPolls) {
+        int polls = previousPolls;
+        RuntimeException lastException = null;
+        while (true) {
+            polls++;
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    WaitStatistics.record(Duration.ofNanos(System.nanoTime() - start), polls, false);
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw timedOut(condition, start, polls, lastException);
+            }
+            try {
+                Thread.sleep(Duration.ofNanos(Math.min(strategy.nextInterval(polls).toNanos(), remaining)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting for " + condition, e);
+            }
+        }
+    }
+
+    private static TimeoutException timedOut(Object condition, long start, int polls, Throwable cause) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        WaitStatistics.record(elapsed, polls, true);
+        return new TimeoutException(String.format(
+                "Expected condition failed: waiting for %s (tried for %d ms, %d polls)",
+                condition, elapsed.toMillis(), polls), cause);
+    }
+
+    /**
+     * Runs the script with the session's script timeout raised to at least the given value, and restores the
+     * session's own timeout afterwards if it had to be raised.
+     */
+    private static Object withScriptTimeout(WebDriver driver, Duration required, Supplier<Object> script) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration configured = timeouts.getScriptTimeout();
+        if (configured != null && configured.compareTo(required) >= 0) {
+            return script.get();
+        }
+        timeouts.scriptTimeout(required);
+        try {
+            return script.get();
+        } finally {
+            if (configured != null) {
+                timeouts.scriptTimeout(configured);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package waiting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.JsonFileReader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the duration and poll count of every {@link SmartWait} per call site: the first caller outside
+ * {@link SmartWait} and {@link WaitingManager} (e.g. {@code pages.LoginPage.submit:42}).
+ * <p>
+ * The summary, slowest call sites first, is logged at JVM shutdown and can be read at any time through
+ * {@link #snapshot()}.
+ * </p>
+ *
+ * <p>
+ * Resolving the call site walks the stack, which costs more than a wait against a fast page, so statistics are
+ * collected only when {@code "statistics": true} is set in the {@code waits} section of {@code config.json}, or
+ * after {@link #setEnabled(boolean)}.
+ * </p>
+ */
+public final class WaitStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitStatistics.class);
+
+    // Classes of the wait engine itself, skipped when resolving the call site.
+    private static final List<String> ENGINE_CLASSES = List.of(
+            SmartWait.class.getName(), WaitingManager.class.getName(), WaitStatistics.class.getName());
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private static final Map<String, CallSiteStats> stats = new ConcurrentHashMap<>();
+    private static final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+    private static volatile boolean enabled =
+            JsonFileReader.getConfig("config.json").getBoolean("waits.statistics", false);
+
+    private WaitStatistics() {
+    }
+
+    /**
+     * Records one finished wait against the current call site.
+     *
+     * @param elapsed  the time the wait took.
+     * @param polls    the number of times the condition was evaluated.
+     * @param timedOut whether the wait ended with a timeout.
+     */
+    static void record(Duration elapsed, int polls, boolean timedOut) {
+        if (!enabled) {
+            return;
+        }
+        if (shutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(WaitStatistics::logSummary, "wait-statistics"));
+        }
+        stats.computeIfAbsent(callSite(), CallSiteStats::new).record(elapsed.toNanos(), polls, timedOut);
+    }
+
+    /**
+     * @return {@code true} if finished waits are recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the recording of finished waits on or off. Statistics collected so far are kept.
+     *
+     * @param enabled {@code true} to record waits.
+     */
+    public static void setEnabled(boolean enabled) {
+        WaitStatistics.enabled = enabled;
+    }
+
+    /**
+     * Returns the statistics of every call site, slowest total wait time first.
+     *
+     * @return a snapshot of the statistics.
+     */
+    public static List<CallSiteStats> snapshot() {
+        List<CallSiteStats> snapshot = new ArrayList<>(stats.values());
+        snapshot.sort(Comparator.comparingLong((CallSiteStats s) -> s.totalNanos.sum()).reversed());
+        return snapshot;
+    }
+
+    /**
+     * Returns the statistics of one call site.
+     *
+     * @param callSite the call site, formatted as {@code class.method:line}.
+     * @return the statistics, or empty if no wait was recorded there.
+     */
+    public static Optional<CallSiteStats> get(String callSite) {
+        return Optional.ofNullable(stats.get(callSite));
+    }
+
+    /**
+     * Discards all collected statistics.
+     */
+    public static void reset() {
+        stats.clear();
+    }
+
+    /**
+     * Logs the statistics of every call site, slowest total wait time first.
+     */
+    public static void logSummary() {
+        List<CallSiteStats> snapshot = snapshot();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder("Wait statistics per call site:");
+        for (CallSiteStats callSite : snapshot) {
+            summary.append(System.lineSeparator()).append("  ").append(callSite);
+        }
+        logger.info(summary.toString());
+    }
+
+    private static String callSite() {
+        return walker.walk(frames -> frames
+                .filter(frame -> !isEngineClass(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static boolean isEngineClass(String className) {
+        for (String engineClass : ENGINE_CLASSES) {
+            if (className.equals(engineClass) || className.startsWith(engineClass + "$")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The statistics of the waits made from one call site.
+     */
+    public static final class CallSiteStats {
+        private final String callSite;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder totalPolls = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        private CallSiteStats(String callSite) {
+            this.callSite = callSite;
+        }
+
+        private void record(long nanos, int polls, boolean timedOut) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            totalPolls.add(polls);
+            if (timedOut) {
+                timeouts.increment();
+            }
+        }
+
+        /**
+         * @return the call site, formatted as {@code class.method:line}.
+         */
+        public String getCallSite() {
+            return callSite;
+        }
+
+        /**
+         * @return the number of waits made.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return the total time spent waiting.
+         */
+        public Duration getTotalTime() {
+            return Duration.ofNanos(totalNanos.sum());
+        }
+
+        /**
+         * @return the longest single wait.
+         */
+        public Duration getMaxTime() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+
+        /**
+         * @return the total number of times conditions were evaluated.
+         */
+        public long getTotalPolls() {
+            return totalPolls.sum();
+        }
+
+        /**
+         * @return the number of waits that timed out.
+         */
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        @Override
+        public String toString() {
+            long waits = getCount();
+            return String.format("%s waits=%d total=%d ms avg=%.1f ms max=%d ms polls=%d timeouts=%d",
+                    callSite, waits, getTotalTime().toMillis(),
+                    waits == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / waits,
+                    getMaxTime().toMillis(), getTotalPolls(), getTimeouts());
+        }
+    }
+}
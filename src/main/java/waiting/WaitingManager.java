@@ -4,13 +4,16 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
  * This class provides static utility methods for managing implicit and explicit waits in Selenium WebDriver.
+ * <p>
+ * Explicit waits run on the shared {@link SmartWait} engine, which polls with adaptive intervals and records the
+ * duration and poll count of every wait per call site in {@link WaitStatistics}.
+ * </p>
  *
  * @author Shevy Kossovsky
  */
@@ -35,8 +38,8 @@ public class WaitingManager {
      * @param timeoutInSeconds the timeout in seconds to wait for the element to be visible.
      */
     public static void waitForElementToBeVisible(WebDriver driver, WebElement element, long timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        wait.until(ExpectedConditions.visibilityOf(element));
+        SmartWait.getDefault().until(driver, ExpectedConditions.visibilityOf(element),
+                Duration.ofSeconds(timeoutInSeconds));
     }
 
     /**
@@ -47,8 +50,8 @@ public class WaitingManager {
      * @param timeoutInSeconds the timeout in seconds to wait for the element to be clickable.
      */
     public static void waitForElementToBeClickable(WebDriver driver, WebElement element, long timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        SmartWait.getDefault().until(driver, ExpectedConditions.elementToBeClickable(element),
+                Duration.ofSeconds(timeoutInSeconds));
     }
 
     /**
@@ -59,19 +62,21 @@ public class WaitingManager {
      * @param timeoutInSeconds the timeout in seconds to wait for the element to be present.
      */
     public static void waitForElementToBePresent(WebDriver driver, By locator, long timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        SmartWait.getDefault().until(driver, ExpectedConditions.presenceOfElementLocated(locator),
+                Duration.ofSeconds(timeoutInSeconds));
     }
 
     /**
      * Waits for the page to fully load within the specified timeout.
+     * <p>
+     * The ready state is polled inside the browser, so the wait costs a single script call instead of one per poll.
+     * </p>
      *
      * @param driver           the WebDriver instance to use for waiting.
      * @param timeoutInSeconds the timeout in seconds to wait for the page to load.
      */
     public static void waitForPageToLoad(WebDriver driver, long timeoutInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        wait.until(d -> ((String) ((org.openqa.selenium.JavascriptExecutor) d)
-                .executeScript("return document.readyState")).equals("complete"));
+        SmartWait.getDefault().untilInBrowser(driver, "document.readyState === 'complete'",
+                Duration.ofSeconds(timeoutInSeconds));
     }
 }
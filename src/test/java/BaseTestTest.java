@@ -0,0 +1,77 @@
+import driver.DriverProvider;
+import driver.DriverStoreManager;
+import driver.FakeWebDriver;
+import driver.StandardDriverManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseTestTest {
+
+    private final List<FakeWebDriver> started = new ArrayList<>();
+
+    private final DriverProvider provider = new DriverProvider() {
+        @Override
+        public String getBrowserName() {
+            return "chrome";
+        }
+
+        @Override
+        public WebDriver createDriver() {
+            FakeWebDriver driver = new FakeWebDriver();
+            started.add(driver);
+            return driver;
+        }
+    };
+
+    @AfterEach
+    public void clearDrivers() {
+        DriverStoreManager.removeCurrentDriver();
+    }
+
+    @DisplayName("A retried attempt that starts a new session quits the session of the failed attempt first")
+    @Test
+    public void testRetriedAttemptQuitsEarlierSession() {
+        BaseTest test = new BaseTest();
+        StandardDriverManager manager = new StandardDriverManager();
+
+        test.initializeDriver(manager, provider);
+        test.driver.getWindowHandle();
+        int registered = DriverStoreManager.driversNoInMap();
+        test.initializeDriver(manager, provider);
+        test.driver.getWindowHandle();
+
+        assertEquals(2, started.size());
+        assertTrue(started.get(0).isQuit());
+        assertFalse(started.get(1).isQuit());
+        assertSame(test.driver, DriverStoreManager.getCurrentDriver());
+        assertEquals(registered, DriverStoreManager.driversNoInMap());
+
+        test.tearDown();
+        assertTrue(started.get(1).isQuit());
+        assertEquals(registered - 1, DriverStoreManager.driversNoInMap());
+    }
+
+    @DisplayName("A retried attempt given the same session again reuses it")
+    @Test
+    public void testRetriedAttemptReusesGivenSession() {
+        StandardDriverManager manager = new StandardDriverManager();
+        manager.setDriver(provider);
+        FakeWebDriver driver = started.get(0);
+        BaseTest test = new BaseTest();
+
+        test.initializeDriver(manager);
+        test.initializeDriver(manager);
+
+        assertFalse(driver.isQuit());
+        assertSame(driver, DriverStoreManager.getCurrentDriver());
+        test.tearDown();
+        assertTrue(driver.isQuit());
+    }
+}
@@ -1,5 +1,6 @@
 import actions.WebElementActions;
 import driver.*;
+import extensions.CrossBrowserTest;
 import org.junit.jupiter.api.*;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
@@ -10,10 +11,10 @@ import static org.junit.jupiter.api.Assertions.*;
 public class SampleTest extends BaseTest {
 
 
-    @DisplayName("Test01 - Verify Search Functionality in Chrome")
-    @Test
-    public void testSample1() {
-        initializeDriver(new StandardDriverManager(), new EnumDriverProvider(DriverType.CHROME));
+    @DisplayName("Test01 - Verify Search Functionality in Chrome and Microsoft Edge")
+    @CrossBrowserTest({DriverType.CHROME, DriverType.EDGE})
+    public void testSample1(StandardDriverManager driverManager) {
+        initializeDriver(driverManager);
 
         WebElement searchBox;
 
@@ -25,19 +26,4 @@ public class SampleTest extends BaseTest {
                 "URL does not contain the expected text.");
 
     }
-
-    @DisplayName("Test02 - Verify Search Functionality in Microsoft Edge")
-    @Test
-    public void testSample2() {
-        initializeDriver(new StandardDriverManager(), new EnumDriverProvider(DriverType.EDGE));
-
-        WebElement searchBox;
-
-        searchBox = driver.findElement(By.name("q"));
-
-        WebElementActions.sendKeys(driver, searchBox, "Testing Automation Framework");
-        WebElementActions.submit(driver, searchBox);
-        assertTrue(driverManager.getCurrentUrl().contains("Testing"),
-                "URL does not contain the expected text.");
-    }
 }
@@ -0,0 +1,125 @@
+package actions;
+
+import fixtures.FixtureBrowser;
+import fixtures.FixtureServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebElementActionsBatchTest {
+
+    private static FixtureServer server;
+    private static WebDriver browser;
+
+    private final AtomicInteger commands = new AtomicInteger();
+    private WebDriver driver;
+
+    @BeforeAll
+    public static void startBrowser() throws Exception {
+        server = FixtureServer.start();
+        browser = FixtureBrowser.start();
+    }
+
+    @AfterAll
+    public static void stopBrowser() {
+        if (browser != null) {
+            browser.quit();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @BeforeEach
+    public void openFixture() {
+        browser.get(server.url("orders.html"));
+        // Count every WebDriver and WebElement command sent to the browser.
+        driver = new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+                commands.incrementAndGet();
+            }
+
+            @Override
+            public void beforeAnyWebElementCall(WebElement element, Method method, Object[] args) {
+                commands.incrementAndGet();
+            }
+        }).decorate(browser);
+    }
+
+    @DisplayName("A 50-row table is read in one round-trip with the same results as per-element commands")
+    @Test
+    public void testReadAllMatchesPerElementReads() {
+        List<WebElement> rows = driver.findElements(By.cssSelector("#orders tbody tr"));
+        List<WebElement> totals = driver.findElements(By.cssSelector("#orders td.total"));
+        assertEquals(50, totals.size());
+
+        commands.set(0);
+        List<ElementSnapshot> rowSnapshots = WebElementActions.readAll(driver, rows,
+                ElementRead.TEXT, ElementRead.attribute("data-id"), ElementRead.DISPLAYED);
+        assertEquals(1, commands.get());
+
+        commands.set(0);
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(WebElementActions.getElementText(driver, rows.get(i)), rowSnapshots.get(i).getText());
+            assertEquals(rows.get(i).getDomAttribute("data-id"), rowSnapshots.get(i).getAttribute("data-id"));
+            assertEquals(WebElementActions.isElementDisplayed(driver, rows.get(i)), rowSnapshots.get(i).isDisplayed());
+        }
+        assertTrue(commands.get() >= 150, "Per-element reads took " + commands.get() + " commands.");
+
+        List<ElementSnapshot> totalSnapshots = WebElementActions.readAll(driver, totals, ElementRead.TEXT);
+        assertEquals("10.00", totalSnapshots.get(0).getText());
+        assertEquals("500.00", totalSnapshots.get(49).getText());
+        assertThrows(IllegalStateException.class, () -> totalSnapshots.get(0).getValue());
+    }
+
+    @DisplayName("Hidden elements read as not displayed with empty text, like WebElement#getText")
+    @Test
+    public void testHiddenElement() {
+        WebElement hidden = driver.findElement(By.id("hidden"));
+
+        ElementSnapshot snapshot = WebElementActions.read(driver, hidden, ElementRead.TEXT, ElementRead.DISPLAYED);
+
+        assertFalse(snapshot.isDisplayed());
+        assertEquals(hidden.getText(), snapshot.getText());
+    }
+
+    @DisplayName("A form is filled in one round-trip and its change listeners fire")
+    @Test
+    public void testFillForm() {
+        Map<WebElement, String> values = new LinkedHashMap<>();
+        values.put(driver.findElement(By.id("name")), "Ada Lovelace");
+        values.put(driver.findElement(By.id("email")), "ada@example.com");
+        values.put(driver.findElement(By.id("notes")), "Leave at the door");
+        values.put(driver.findElement(By.id("shipping")), "express");
+        values.put(driver.findElement(By.id("terms")), "true");
+
+        commands.set(0);
+        WebElementActions.fillForm(driver, values);
+        assertEquals(1, commands.get());
+
+        List<ElementSnapshot> snapshots = WebElementActions.readAll(driver, List.copyOf(values.keySet()),
+                ElementRead.VALUE);
+        assertEquals("Ada Lovelace", snapshots.get(0).getValue());
+        assertEquals("ada@example.com", snapshots.get(1).getValue());
+        assertEquals("Leave at the door", snapshots.get(2).getValue());
+        assertEquals("express", snapshots.get(3).getValue());
+        assertTrue(driver.findElement(By.id("terms")).isSelected());
+        assertEquals("5", driver.findElement(By.id("changes")).getText());
+    }
+}
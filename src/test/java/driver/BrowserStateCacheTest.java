@@ -0,0 +1,163 @@
+package driver;
+
+import fixtures.FixtureBrowser;
+import fixtures.FixtureServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BrowserStateCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @DisplayName("States expire after their time to live")
+    @Test
+    public void testTtlEviction() {
+        MutableClock clock = new MutableClock(NOW);
+        BrowserStateCache cache = new BrowserStateCache(Duration.ofMinutes(10), null, clock);
+        cache.put("user", state(NOW));
+        cache.put("admin", state(NOW.plus(Duration.ofMinutes(5))));
+
+        clock.now = NOW.plus(Duration.ofMinutes(9));
+        assertTrue(cache.get("user").isPresent());
+
+        clock.now = NOW.plus(Duration.ofMinutes(10));
+        assertTrue(cache.get("user").isEmpty());
+        assertTrue(cache.get("admin").isPresent());
+
+        clock.now = NOW.plus(Duration.ofMinutes(20));
+        cache.put("guest", state(clock.now));
+        assertEquals(1, cache.size());
+    }
+
+    @DisplayName("Looking up an expired state does not evict a state cached under the same name meanwhile")
+    @Test
+    public void testExpiryKeepsReplacedState(@TempDir Path directory) {
+        MutableClock clock = new MutableClock(NOW);
+        BrowserStateCache cache = new BrowserStateCache(Duration.ofMinutes(10), directory, clock);
+        cache.put("user", state(NOW));
+
+        BrowserState fresh = state(NOW.plus(Duration.ofMinutes(15)));
+        clock.now = NOW.plus(Duration.ofMinutes(15));
+        // Another test caches a fresh state while the lookup is checking the expired one.
+        clock.onInstant = () -> cache.put("user", fresh);
+        assertTrue(cache.get("user").isEmpty());
+
+        assertSame(fresh, cache.get("user").orElseThrow());
+        assertTrue(new BrowserStateCache(Duration.ofMinutes(10), directory, clock).get("user").isPresent());
+    }
+
+    @DisplayName("States written to the directory are read back by another cache")
+    @Test
+    public void testDiskRoundTrip(@TempDir Path directory) {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        new BrowserStateCache(Duration.ofHours(1), directory, clock).put("user/1", state(NOW));
+
+        BrowserState restored = new BrowserStateCache(Duration.ofHours(1), directory, clock).get("user/1")
+                .orElseThrow();
+
+        assertEquals("http://localhost:8080/account", restored.getUrl());
+        assertEquals(NOW, restored.getCapturedAt());
+        assertEquals(Map.of("theme", "dark"), restored.getLocalStorage());
+        assertEquals(Map.of("cart", "3"), restored.getSessionStorage());
+        Cookie cookie = restored.getCookies().get(0);
+        assertEquals("session", cookie.getName());
+        assertEquals("abc123", cookie.getValue());
+        assertEquals("/", cookie.getPath());
+        assertTrue(cookie.isHttpOnly());
+        assertEquals(new Date(1_800_000_000_000L), cookie.getExpiry());
+        assertTrue(new BrowserStateCache(Duration.ofHours(1), directory, Clock.fixed(NOW.plus(Duration.ofHours(2)),
+                ZoneOffset.UTC)).get("user/1").isEmpty());
+    }
+
+    @DisplayName("A login flow runs once; later sessions restore its state and land on the target page")
+    @Test
+    public void testRestoreSkipsSetup() throws Exception {
+        try (FixtureServer server = FixtureServer.start()) {
+            WebDriver driver = FixtureBrowser.start();
+            try {
+                BrowserStateCache cache = new BrowserStateCache(Duration.ofMinutes(5), null);
+                AtomicInteger setupRuns = new AtomicInteger();
+                String account = server.url("account.html");
+
+                cache.restoreOrCapture(driver, "user", session -> {
+                    setupRuns.incrementAndGet();
+                    session.get(server.url("login.html"));
+                    session.findElement(By.id("login")).click();
+                }, account);
+                assertEquals("Signed in", driver.findElement(By.id("status")).getText());
+
+                // Start over as a fresh session would.
+                DriverSessionReset.reset(driver, null);
+                driver.get(account);
+                assertEquals("Signed out", driver.findElement(By.id("status")).getText());
+
+                cache.restoreOrCapture(driver, "user", session -> setupRuns.incrementAndGet(), account);
+
+                assertEquals(1, setupRuns.get());
+                assertEquals(account, driver.getCurrentUrl());
+                assertEquals("Signed in", driver.findElement(By.id("status")).getText());
+                assertEquals("dark", driver.findElement(By.id("theme")).getText());
+                assertEquals("3", driver.findElement(By.id("cart")).getText());
+            } finally {
+                driver.quit();
+            }
+        }
+    }
+
+    private static BrowserState state(Instant capturedAt) {
+        Cookie cookie = new Cookie.Builder("session", "abc123")
+                .domain("localhost")
+                .path("/")
+                .expiresOn(new Date(1_800_000_000_000L))
+                .isHttpOnly(true)
+                .build();
+        return new BrowserState("http://localhost:8080/account", List.of(cookie), Map.of("theme", "dark"),
+                Map.of("cart", "3"), capturedAt);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+        private Runnable onInstant;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            Runnable action = onInstant;
+            onInstant = null;
+            if (action != null) {
+                action.run();
+            }
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandLatencyTest {
+
+    @BeforeEach
+    public void resetLatencies() {
+        CommandLatency.reset();
+    }
+
+    @AfterEach
+    public void endTest() {
+        CommandLatency.endTest();
+    }
+
+    @DisplayName("Commands of an instrumented driver and its elements are recorded per browser, command and test")
+    @Test
+    public void testCommandsAreRecorded() {
+        FakeWebDriver fake = new FakeWebDriver();
+        fake.setElementFinder(by -> new FakeWebElement("search"));
+        WebDriver driver = CommandLatency.instrument(fake, DriverType.CHROME);
+        CommandLatency.TestTag test = CommandLatency.startTest("CommandLatencyTest > recorded");
+
+        driver.get("https://example.com");
+        driver.findElement(By.name("q")).click();
+        driver.findElement(By.name("q")).click();
+        CommandLatency.endTest();
+        driver.get("https://example.com/untagged");
+
+        assertEquals(2, CommandLatency.getHistogram(DriverType.CHROME, CommandLatency.Command.GET).getCount());
+        assertEquals(2, CommandLatency.getHistogram(DriverType.CHROME, CommandLatency.Command.CLICK).getCount());
+        assertEquals(0, CommandLatency.getHistogram(DriverType.FIREFOX, CommandLatency.Command.CLICK).getCount());
+        assertEquals(1, test.getCount(DriverType.CHROME, CommandLatency.Command.GET));
+        assertEquals(2, test.getCount(DriverType.CHROME, CommandLatency.Command.FIND_ELEMENT));
+        assertEquals(5, test.getCount());
+        assertSame(test, CommandLatency.slowestTests().get(0));
+        // The browser of a decorated driver is the browser of the driver it wraps.
+        assertEquals("Chrome", new DriverSessionManager(driver).getCurrentBrowser());
+    }
+
+    @DisplayName("Failed commands are recorded as errors")
+    @Test
+    public void testFailedCommandsAreRecorded() {
+        WebDriver driver = CommandLatency.instrument(new FakeWebDriver(), DriverType.FIREFOX);
+
+        assertThrows(NoSuchElementException.class, () -> driver.findElement(By.id("missing")));
+
+        LatencyHistogram histogram = CommandLatency.getHistogram(DriverType.FIREFOX,
+                CommandLatency.Command.FIND_ELEMENT);
+        assertEquals(1, histogram.getCount());
+        assertEquals(1, histogram.getErrors());
+    }
+
+    @DisplayName("Percentiles are reported within the precision of the buckets")
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(Duration.ofMillis(millis).toNanos());
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(Duration.ofSeconds(1), histogram.getMax());
+        assertWithinPrecision(500, histogram.getPercentile(50));
+        assertWithinPrecision(990, histogram.getPercentile(99));
+        assertEquals(Duration.ofSeconds(1), histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+    }
+
+    @DisplayName("Every bucket reports the highest value it counts")
+    @Test
+    public void testBucketBoundaries() {
+        for (long micros = 0; micros < 1_000_000; micros++) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= micros);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < micros);
+        }
+    }
+
+    private static void assertWithinPrecision(long expectedMillis, Duration actual) {
+        double error = Math.abs(actual.toNanos() / 1_000_000.0 - expectedMillis) / expectedMillis;
+        assertTrue(error <= 0.125, "Expected about " + expectedMillis + " ms but was " + actual);
+    }
+}
@@ -0,0 +1,132 @@
+package driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverHealthMonitorTest {
+
+    private final List<FakeWebDriver> launched = new CopyOnWriteArrayList<>();
+    private final CountDownLatch hang = new CountDownLatch(1);
+    private DriverSessionPool pool;
+    private DriverHealthMonitor monitor;
+
+    @AfterEach
+    public void cleanUp() {
+        hang.countDown();
+        if (monitor != null) {
+            monitor.close();
+        }
+        if (pool != null) {
+            pool.close();
+        }
+        DriverStoreManager.clearDriversMap();
+    }
+
+    @DisplayName("A crashed pooled session is marked dead, evicted and replaced by a pre-launched session")
+    @Test
+    public void testCrashedSessionIsReplaced() throws InterruptedException {
+        pool = new DriverSessionPool(new DriverPoolSettings(0, 2, Duration.ofMinutes(5), Duration.ofMillis(200)),
+                type -> {
+                    FakeWebDriver driver = new FakeWebDriver();
+                    launched.add(driver);
+                    return driver;
+                }, driver -> driver.getWindowHandle() != null);
+        monitor = new DriverHealthMonitor(Duration.ofMinutes(1), Duration.ofMillis(500), 3);
+        FakeWebDriver crashed = (FakeWebDriver) pool.acquire(DriverType.CHROME);
+        FakeWebDriver healthy = (FakeWebDriver) pool.acquire(DriverType.CHROME);
+        DriverStoreManager.addDriverToDriversMap("chromeDriver#crashed", crashed);
+        DriverStoreManager.addDriverToDriversMap("chromeDriver#healthy", healthy);
+        crashed.quit();
+
+        assertEquals(1, monitor.checkNow());
+
+        assertTrue(DriverHealthMonitor.isMarkedDead(crashed));
+        assertFalse(DriverHealthMonitor.isMarkedDead(healthy));
+        assertFalse(new DriverSessionManager(crashed).isBrowserActive());
+        assertNull(DriverStoreManager.getDriverFromDriversMap("chromeDriver#crashed"));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (pool.idleCount(DriverType.CHROME) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.idleCount(DriverType.CHROME), "No replacement session was pre-launched.");
+        assertEquals(2, pool.totalCount(DriverType.CHROME));
+        assertEquals(3, launched.size());
+    }
+
+    @DisplayName("A hung session is dead only after missing the configured number of pings in a row")
+    @Test
+    public void testHungSessionIsDeadAfterThreshold() {
+        FakeWebDriver hung = new FakeWebDriver();
+        FakeWebDriver slow = new FakeWebDriver();
+        List<Boolean> slowAnswers = new CopyOnWriteArrayList<>(List.of(false, true, false, false));
+        monitor = new DriverHealthMonitor(Duration.ofMinutes(1), Duration.ofMillis(100), 2, driver -> {
+            if (driver == hung) {
+                try {
+                    hang.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return driver != slow || slowAnswers.remove(0);
+        });
+        DriverStoreManager.addDriverToDriversMap("firefoxDriver#hung", hung);
+        DriverStoreManager.addDriverToDriversMap("firefoxDriver#slow", slow);
+
+        assertEquals(0, monitor.checkNow());
+        assertFalse(DriverHealthMonitor.isMarkedDead(hung));
+        assertEquals(1, monitor.checkNow());
+        assertTrue(DriverHealthMonitor.isMarkedDead(hung));
+        assertEquals(0, monitor.checkNow(), "A session that answered again must start counting from zero.");
+        assertEquals(1, monitor.checkNow());
+
+        assertTrue(DriverHealthMonitor.isMarkedDead(slow));
+        assertEquals(0, DriverStoreManager.driversNoInMap());
+        WebDriver unregistered = new FakeWebDriver();
+        assertFalse(DriverHealthMonitor.isMarkedDead(unregistered));
+    }
+
+    @DisplayName("Missed pings of a session running a command of the test are not counted")
+    @Test
+    public void testBusySessionIsNotDeclaredHung() throws InterruptedException {
+        FakeWebDriver driver = new FakeWebDriver();
+        WebDriver instrumented = CommandLatency.instrument(driver, DriverType.CHROME);
+        CountDownLatch commandStarted = new CountDownLatch(1);
+        driver.setScriptHandler(script -> {
+            commandStarted.countDown();
+            try {
+                hang.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        monitor = new DriverHealthMonitor(Duration.ofMinutes(1), Duration.ofMillis(50), 2, session -> false);
+        DriverStoreManager.addDriverToDriversMap("chromeDriver#busy", instrumented);
+
+        Thread test = Thread.ofVirtual().start(() -> ((JavascriptExecutor) instrumented).executeScript("slow()"));
+        commandStarted.await();
+        assertTrue(CommandLatency.hasCommandInFlight(instrumented));
+        for (int round = 0; round < 3; round++) {
+            assertEquals(0, monitor.checkNow());
+        }
+        assertFalse(DriverHealthMonitor.isMarkedDead(instrumented));
+
+        hang.countDown();
+        test.join();
+        assertFalse(CommandLatency.hasCommandInFlight(instrumented));
+        assertEquals(0, monitor.checkNow());
+        assertEquals(1, monitor.checkNow());
+        assertTrue(DriverHealthMonitor.isMarkedDead(instrumented));
+    }
+}
@@ -0,0 +1,123 @@
+package driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverServicePoolTest {
+
+    private static final File EXECUTABLE = new File("geckodriver");
+
+    private final List<FakeService> built = new ArrayList<>();
+
+    @AfterEach
+    public void stopServices() {
+        DriverServicePool.shutdown();
+    }
+
+    private DriverService acquire(DriverType type) {
+        return DriverServicePool.acquire(type, EXECUTABLE, (browser, executable, release) -> {
+            FakeService service = new FakeService(release);
+            built.add(service);
+            return service;
+        });
+    }
+
+    @DisplayName("Sessions opened one after another reuse the same running driver service")
+    @Test
+    public void testSequentialSessionsShareService() {
+        int started = DriverServicePool.getServicesStarted();
+        DriverService first = acquire(DriverType.FIREFOX);
+        first.stop();
+        DriverService second = acquire(DriverType.FIREFOX);
+
+        assertSame(first, second);
+        assertEquals(1, built.size());
+        assertTrue(built.get(0).running);
+        assertEquals(started + 1, DriverServicePool.getServicesStarted());
+
+        DriverServicePool.shutdown();
+        assertFalse(built.get(0).running);
+    }
+
+    @DisplayName("Geckodriver serves one session at a time; chromedriver serves them all")
+    @Test
+    public void testServiceCapacity() {
+        DriverService firefox = acquire(DriverType.FIREFOX);
+        assertNotSame(firefox, acquire(DriverType.FIREFOX));
+        assertEquals(2, DriverServicePool.getServiceCount(DriverType.FIREFOX));
+
+        assertSame(acquire(DriverType.CHROME), acquire(DriverType.CHROME));
+        assertEquals(1, DriverServicePool.getServiceCount(DriverType.CHROME));
+    }
+
+    @DisplayName("A session that fails to start returns its service to the pool")
+    @Test
+    public void testFailedSessionReleasesService() {
+        DriverService service = acquire(DriverType.FIREFOX);
+        assertThrows(SessionNotCreatedException.class, () -> DriverFactory.startSession(service, () -> {
+            throw new SessionNotCreatedException("browser binary not found");
+        }));
+
+        assertSame(service, acquire(DriverType.FIREFOX));
+        assertEquals(1, built.size());
+    }
+
+    @DisplayName("An idle service whose process died is replaced")
+    @Test
+    public void testDeadServiceIsReplaced() {
+        DriverService first = acquire(DriverType.FIREFOX);
+        first.stop();
+        built.get(0).running = false;
+
+        assertNotSame(first, acquire(DriverType.FIREFOX));
+        assertTrue(built.get(0).terminated);
+        assertEquals(1, DriverServicePool.getServiceCount(DriverType.FIREFOX));
+    }
+
+    /**
+     * A shared service without a process.
+     */
+    private static final class FakeService extends DriverService implements DriverServicePool.SharedService {
+        private final Runnable release;
+        private boolean running;
+        private boolean terminated;
+
+        private FakeService(Runnable release) throws IOException {
+            super(EXECUTABLE, 4444, Duration.ofSeconds(1), List.of(), Map.of());
+            this.release = release;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void stop() {
+            release.run();
+        }
+
+        @Override
+        public void terminate() {
+            running = false;
+            terminated = true;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverSessionPoolTest {
+
+    private final List<FakeWebDriver> launched = new CopyOnWriteArrayList<>();
+    private DriverSessionPool pool;
+
+    private DriverSessionPool createPool(int minIdle, int maxTotal, Duration idleTimeout) {
+        DriverPoolSettings settings = new DriverPoolSettings(minIdle, maxTotal, idleTimeout, Duration.ofMillis(200));
+        pool = new DriverSessionPool(settings, type -> {
+            FakeWebDriver driver = new FakeWebDriver();
+            launched.add(driver);
+            return driver;
+        }, driver -> driver.getWindowHandle() != null);
+        return pool;
+    }
+
+    @AfterEach
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @DisplayName("A released session is reset and handed to the next test")
+    @Test
+    public void testReleasedSessionIsReused() {
+        createPool(0, 2, Duration.ofMinutes(5));
+
+        FakeWebDriver first = (FakeWebDriver) pool.acquire(DriverType.CHROME);
+        first.get("https://example.com");
+        first.manage().addCookie(new Cookie("session", "abc"));
+        first.openWindow();
+        pool.release(first);
+
+        WebDriver second = pool.acquire(DriverType.CHROME);
+        assertSame(first, second, "The pooled session was not reused.");
+        assertEquals(1, launched.size());
+        assertTrue(first.manage().getCookies().isEmpty(), "Cookies were not cleared.");
+        assertEquals(1, first.getWindowHandles().size(), "Extra windows were not closed.");
+        assertEquals("about:blank", first.getCurrentUrl());
+        assertTrue(first.getExecutedScripts().stream().anyMatch(script -> script.contains("localStorage.clear")));
+    }
+
+    @DisplayName("Sessions are pooled per browser type")
+    @Test
+    public void testSessionsArePooledPerType() {
+        createPool(0, 2, Duration.ofMinutes(5));
+
+        WebDriver chrome = pool.acquire(DriverType.CHROME);
+        pool.release(chrome);
+        WebDriver edge = pool.acquire(DriverType.EDGE);
+
+        assertNotSame(chrome, edge);
+        assertEquals(1, pool.idleCount(DriverType.CHROME));
+        assertEquals(1, pool.totalCount(DriverType.EDGE));
+    }
+
+    @DisplayName("Acquire times out when the pool is exhausted")
+    @Test
+    public void testAcquireTimesOutAtMaxSize() {
+        createPool(0, 1, Duration.ofMinutes(5));
+
+        pool.acquire(DriverType.CHROME);
+
+        assertThrows(IllegalStateException.class, () -> pool.acquire(DriverType.CHROME));
+        assertEquals(1, launched.size());
+    }
+
+    @DisplayName("Unhealthy idle sessions are quit and replaced")
+    @Test
+    public void testUnhealthySessionIsReplaced() {
+        createPool(0, 1, Duration.ofMinutes(5));
+
+        FakeWebDriver first = (FakeWebDriver) pool.acquire(DriverType.CHROME);
+        pool.release(first);
+        first.setUnresponsive(true);
+
+        WebDriver second = pool.acquire(DriverType.CHROME);
+        assertNotSame(first, second);
+        assertTrue(first.isQuit());
+        assertEquals(1, pool.totalCount(DriverType.CHROME));
+    }
+
+    @DisplayName("A launched session that does not answer is quit and its slot freed")
+    @Test
+    public void testUnresponsiveLaunchIsQuit() {
+        DriverPoolSettings settings = new DriverPoolSettings(0, 1, Duration.ofMinutes(5), Duration.ofMillis(200));
+        pool = new DriverSessionPool(settings, type -> {
+            FakeWebDriver driver = new FakeWebDriver();
+            driver.setUnresponsive(launched.isEmpty());
+            launched.add(driver);
+            return driver;
+        }, driver -> driver.getWindowHandle() != null);
+
+        assertThrows(RuntimeException.class, () -> pool.acquire(DriverType.CHROME));
+        assertTrue(launched.get(0).isQuit(), "The unresponsive browser was not quit.");
+        assertEquals(0, pool.totalCount(DriverType.CHROME));
+
+        assertNotSame(launched.get(0), pool.acquire(DriverType.CHROME));
+    }
+
+    @DisplayName("Idle sessions are evicted above the warm minimum")
+    @Test
+    public void testIdleSessionsAreEvicted() {
+        createPool(1, 3, Duration.ZERO);
+
+        WebDriver first = pool.acquire(DriverType.FIREFOX);
+        WebDriver second = pool.acquire(DriverType.FIREFOX);
+        pool.release(first);
+        pool.release(second);
+        pool.evictIdle();
+
+        assertEquals(1, pool.idleCount(DriverType.FIREFOX));
+        assertEquals(1, launched.stream().filter(FakeWebDriver::isQuit).count());
+    }
+
+    @DisplayName("Warm up pre-launches the minimum number of idle sessions")
+    @Test
+    public void testWarmUpPreLaunchesSessions() {
+        createPool(2, 3, Duration.ofMinutes(5));
+
+        pool.warmUp(DriverType.CHROME);
+
+        assertEquals(2, pool.idleCount(DriverType.CHROME));
+        assertEquals(2, launched.size());
+    }
+
+    @DisplayName("StandardDriverManager hands pooled sessions back on quit")
+    @Test
+    public void testDriverManagerReleasesToPool() {
+        createPool(0, 1, Duration.ofMinutes(5));
+        StandardDriverManager driverManager = new StandardDriverManager(new PooledDriverSessionManager(pool));
+
+        driverManager.setDriver(new EnumDriverProvider(DriverType.CHROME));
+        FakeWebDriver driver = (FakeWebDriver) driverManager.getDriver();
+        driverManager.quitDriver();
+        driverManager.quitDriver();
+
+        assertFalse(driver.isQuit());
+        assertEquals(1, pool.idleCount(DriverType.CHROME));
+    }
+
+    @DisplayName("A manager whose session was handed back reports no active browser")
+    @Test
+    public void testReleasedManagerIsInactive() {
+        createPool(0, 1, Duration.ofMinutes(5));
+        StandardDriverManager first = new StandardDriverManager(new PooledDriverSessionManager(pool));
+        first.setDriver(new EnumDriverProvider(DriverType.CHROME));
+        first.quitDriver();
+        assertFalse(first.isBrowserActive());
+
+        StandardDriverManager second = new StandardDriverManager(new PooledDriverSessionManager(pool));
+        second.setDriver(new EnumDriverProvider(DriverType.CHROME));
+        assertTrue(second.isBrowserActive());
+        assertEquals(0, pool.idleCount(DriverType.CHROME));
+    }
+
+    @DisplayName("A provider that creates its own sessions is rejected instead of getting a local browser")
+    @Test
+    public void testCustomProviderIsRejected() {
+        createPool(0, 1, Duration.ofMinutes(5));
+        StandardDriverManager driverManager = new StandardDriverManager(new PooledDriverSessionManager(pool));
+        DriverProvider remote = new DriverProvider() {
+            @Override
+            public String getBrowserName() {
+                return "chrome";
+            }
+
+            @Override
+            public WebDriver createDriver() {
+                return new FakeWebDriver();
+            }
+        };
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> driverManager.setDriver(remote));
+        assertTrue(error.getMessage().contains("creates its own sessions"), error.getMessage());
+        assertTrue(launched.isEmpty());
+
+        DriverProvider byName = () -> "chrome";
+        driverManager.setDriver(byName);
+        assertEquals(1, launched.size());
+    }
+}
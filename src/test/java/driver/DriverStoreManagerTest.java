@@ -0,0 +1,137 @@
+package driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverStoreManagerTest {
+
+    private static final int CONCURRENT_TESTS = 64;
+    private static final int ITERATIONS = 2_000;
+
+    @AfterEach
+    public void clearStore() {
+        DriverStoreManager.clearDriversMap();
+        DriverStoreManager.removeCurrentDriver();
+    }
+
+    @DisplayName("Concurrent tests only ever see their own current driver")
+    @Test
+    public void testNoCrossTalkBetweenThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_TESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_TESTS; i++) {
+                results.add(executor.submit(() -> {
+                    WebDriver own = new FakeWebDriver();
+                    String key = DriverStoreManager.threadScopedKey("chromeDriver");
+                    start.await();
+                    int mismatches = 0;
+                    for (int n = 0; n < ITERATIONS; n++) {
+                        DriverStoreManager.setCurrentDriver(own);
+                        assertTrue(DriverStoreManager.registerDriver(key, own));
+                        Thread.yield();
+                        if (DriverStoreManager.getCurrentDriver() != own
+                                || DriverStoreManager.getDriverFromDriversMap(key) != own) {
+                            mismatches++;
+                        }
+                        assertTrue(DriverStoreManager.unregisterDriver(key, own));
+                        DriverStoreManager.removeCurrentDriver();
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(60, TimeUnit.SECONDS), "A test observed another test's driver.");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, DriverStoreManager.driversNoInMap());
+    }
+
+    @DisplayName("Register and unregister are atomic per key")
+    @Test
+    public void testRegisterAndUnregisterAreConditional() {
+        WebDriver first = new FakeWebDriver();
+        WebDriver second = new FakeWebDriver();
+
+        assertTrue(DriverStoreManager.registerDriver("edgeDriver", first));
+        assertFalse(DriverStoreManager.registerDriver("edgeDriver", second));
+        assertFalse(DriverStoreManager.unregisterDriver("edgeDriver", second));
+        assertSame(first, DriverStoreManager.getDriverFromDriversMap("edgeDriver"));
+        assertTrue(DriverStoreManager.unregisterDriver("edgeDriver", first));
+        assertFalse(DriverStoreManager.containsDriverInDriversMap("edgeDriver"));
+    }
+
+    @DisplayName("Contended registration of one key lets exactly one driver win")
+    @Test
+    public void testSingleWinnerUnderContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_TESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_TESTS; i++) {
+                results.add(executor.submit(() -> {
+                    WebDriver driver = new FakeWebDriver();
+                    start.await();
+                    return DriverStoreManager.registerDriver("sharedDriver", driver);
+                }));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                winners += result.get(60, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("Plain names find the driver the calling thread registered under its thread-scoped key")
+    @Test
+    public void testPlainNameLookup() throws Exception {
+        WebDriver own = new FakeWebDriver();
+        DriverStoreManager.addDriverToDriversMap(DriverStoreManager.threadScopedKey("chromeDriver"), own);
+
+        assertSame(own, DriverStoreManager.getDriverFromDriversMap("chromeDriver"));
+        assertTrue(DriverStoreManager.containsDriverInDriversMap("chromeDriver"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNull(executor.submit(() -> DriverStoreManager.getDriverFromDriversMap("chromeDriver")).get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DriverStoreManager.removeDriverFromDriversMap("chromeDriver");
+        assertEquals(0, DriverStoreManager.driversNoInMap());
+
+        DriverStoreManager.addDriverToDriversMap("edgeDriver", own);
+        DriverStoreManager.addDriverToDriversMap("edgeDriver", null);
+        assertFalse(DriverStoreManager.containsDriverInDriversMap("edgeDriver"));
+    }
+
+    @DisplayName("The drivers view is read-only")
+    @Test
+    public void testAllDriversIsReadOnly() {
+        DriverStoreManager.addDriverToDriversMap("chromeDriver", new FakeWebDriver());
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> DriverStoreManager.getAllDrivers().remove("chromeDriver"));
+        assertEquals(1, DriverStoreManager.getAllDrivers().size());
+    }
+}
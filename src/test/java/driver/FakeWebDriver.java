@@ -0,0 +1,514 @@
+package driver;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.logging.Logs;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An in-memory stand-in for a browser session, used to test the framework without launching browsers.
+ * <p>
+ * The fake keeps track of windows, cookies, navigations, executed scripts and the number of commands sent to it,
+ * and can be switched to an unresponsive state to simulate a crashed or hung browser. It reports itself as a Chrome
+ * session.
+ * </p>
+ *
+ * <p>
+ * The benchmarks use the same fake through {@link #inMemory(int)}, which answers every command from memory without
+ * recording anything, so they measure the framework's own overhead rather than browser round-trips.
+ * </p>
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot, HasCapabilities {
+
+    private static final AtomicInteger sessionCounter = new AtomicInteger();
+
+    private final String sessionId = "fake-session-" + sessionCounter.incrementAndGet();
+    private final Set<String> windows = new CopyOnWriteArraySet<>();
+    private final Set<Cookie> cookies = new CopyOnWriteArraySet<>();
+    private final List<String> visitedUrls = new CopyOnWriteArrayList<>();
+    private final List<String> executedScripts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger windowCounter = new AtomicInteger();
+    private volatile String currentWindow;
+    private volatile String currentUrl = "about:blank";
+    private volatile boolean quit;
+    private volatile boolean unresponsive;
+    private volatile Function<String, Object> scriptHandler = script -> null;
+    private volatile Function<By, WebElement> elementFinder = by -> {
+        throw new org.openqa.selenium.NoSuchElementException("No element matches " + by);
+    };
+    private final AtomicInteger findElementCalls = new AtomicInteger();
+    private final AtomicInteger commands = new AtomicInteger();
+    private volatile Duration scriptTimeout = Duration.ofSeconds(30);
+    private volatile byte[] screenshot = {(byte) 0x89, 'P', 'N', 'G'};
+    private volatile boolean recording = true;
+
+    /**
+     * Creates a fake session with a single open window.
+     */
+    public FakeWebDriver() {
+        currentWindow = addWindow();
+    }
+
+    /**
+     * Creates a session for benchmarks: every locator resolves to one element, created on first lookup, scripts
+     * return {@code true}, screenshots are random bytes of the given size, and navigations and scripts are not
+     * recorded, so the fake can be called millions of times without growing.
+     *
+     * @param screenshotSize the size of a screenshot in bytes.
+     * @return the new session.
+     */
+    public static FakeWebDriver inMemory(int screenshotSize) {
+        FakeWebDriver driver = new FakeWebDriver();
+        byte[] screenshot = new byte[screenshotSize];
+        ThreadLocalRandom.current().nextBytes(screenshot);
+        Map<String, WebElement> elements = new ConcurrentHashMap<>();
+        driver.screenshot = screenshot;
+        driver.recording = false;
+        driver.scriptHandler = script -> Boolean.TRUE;
+        driver.elementFinder = by -> elements.computeIfAbsent(by.toString(), FakeWebElement::new);
+        return driver;
+    }
+
+    /**
+     * Opens an additional window without switching to it.
+     *
+     * @return the handle of the new window.
+     */
+    public String openWindow() {
+        return addWindow();
+    }
+
+    private String addWindow() {
+        String handle = sessionId + "-window-" + windowCounter.incrementAndGet();
+        windows.add(handle);
+        return handle;
+    }
+
+    /**
+     * Makes every following command fail, as a crashed browser would.
+     *
+     * @param unresponsive {@code true} to make the session fail its commands.
+     */
+    public void setUnresponsive(boolean unresponsive) {
+        this.unresponsive = unresponsive;
+    }
+
+    /**
+     * Sets the function that produces the results of {@link #executeScript(String, Object...)}.
+     *
+     * @param scriptHandler maps the script source to its result.
+     */
+    public void setScriptHandler(Function<String, Object> scriptHandler) {
+        this.scriptHandler = scriptHandler;
+    }
+
+    /**
+     * Sets the function that produces the results of {@link #findElement(By)}. By default no element is found.
+     *
+     * @param elementFinder maps the locator to the element, or throws
+     *                      {@link org.openqa.selenium.NoSuchElementException}.
+     */
+    public void setElementFinder(Function<By, WebElement> elementFinder) {
+        this.elementFinder = elementFinder;
+    }
+
+    /**
+     * @return the number of {@link #findElement(By)} calls.
+     */
+    public int getFindElementCalls() {
+        return findElementCalls.get();
+    }
+
+    /**
+     * @return the number of commands a real driver would send to the browser, such as navigations, lookups,
+     * scripts and timeout changes.
+     */
+    public int getCommandCount() {
+        return commands.get();
+    }
+
+    /**
+     * @return the script timeout of the session.
+     */
+    public Duration getScriptTimeout() {
+        return scriptTimeout;
+    }
+
+    /**
+     * @return {@code true} if {@link #quit()} was called.
+     */
+    public boolean isQuit() {
+        return quit;
+    }
+
+    /**
+     * @return the URLs passed to {@link #get(String)}, in order.
+     */
+    public List<String> getVisitedUrls() {
+        return visitedUrls;
+    }
+
+    /**
+     * @return the scripts passed to {@link #executeScript(String, Object...)}, in order.
+     */
+    public List<String> getExecutedScripts() {
+        return executedScripts;
+    }
+
+    /**
+     * @return the unique id of this fake session.
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    private void command() {
+        checkAlive();
+        commands.incrementAndGet();
+    }
+
+    private void checkAlive() {
+        if (quit) {
+            throw new NoSuchSessionException("Session " + sessionId + " was quit.");
+        }
+        if (unresponsive) {
+            throw new WebDriverException("Session " + sessionId + " is not responding.");
+        }
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return new ImmutableCapabilities("browserName", "chrome");
+    }
+
+    @Override
+    public void get(String url) {
+        command();
+        if (recording) {
+            visitedUrls.add(url);
+        }
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        command();
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        command();
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        command();
+        return List.of();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        command();
+        findElementCalls.incrementAndGet();
+        return elementFinder.apply(by);
+    }
+
+    @Override
+    public String getPageSource() {
+        command();
+        return "<html></html>";
+    }
+
+    @Override
+    public void close() {
+        command();
+        windows.remove(currentWindow);
+    }
+
+    @Override
+    public void quit() {
+        quit = true;
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        command();
+        return Set.copyOf(windows);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        command();
+        return currentWindow;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        checkAlive();
+        return new FakeTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate() {
+        checkAlive();
+        return new FakeNavigation();
+    }
+
+    @Override
+    public Options manage() {
+        checkAlive();
+        return new FakeOptions();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        command();
+        if (recording) {
+            executedScripts.add(script);
+        }
+        return scriptHandler.apply(script);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return executeScript(script, args);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        command();
+        return target.convertFromPngBytes(screenshot.clone());
+    }
+
+    private class FakeTargetLocator implements TargetLocator {
+        @Override
+        public WebDriver frame(int index) {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId) {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver parentFrame() {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            if (!windows.contains(nameOrHandle)) {
+                throw new org.openqa.selenium.NoSuchWindowException("No window " + nameOrHandle);
+            }
+            currentWindow = nameOrHandle;
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver newWindow(WindowType typeHint) {
+            currentWindow = addWindow();
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Alert alert() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class FakeNavigation implements Navigation {
+        @Override
+        public void back() {
+        }
+
+        @Override
+        public void forward() {
+        }
+
+        @Override
+        public void to(String url) {
+            get(url);
+        }
+
+        @Override
+        public void to(URL url) {
+            get(url.toString());
+        }
+
+        @Override
+        public void refresh() {
+            command();
+        }
+    }
+
+    private class FakeOptions implements Options {
+        @Override
+        public void addCookie(Cookie cookie) {
+            command();
+            cookies.add(cookie);
+        }
+
+        @Override
+        public void deleteCookieNamed(String name) {
+            command();
+            cookies.removeIf(cookie -> cookie.getName().equals(name));
+        }
+
+        @Override
+        public void deleteCookie(Cookie cookie) {
+            command();
+            cookies.remove(cookie);
+        }
+
+        @Override
+        public void deleteAllCookies() {
+            command();
+            cookies.clear();
+        }
+
+        @Override
+        public Set<Cookie> getCookies() {
+            command();
+            return Set.copyOf(cookies);
+        }
+
+        @Override
+        public Cookie getCookieNamed(String name) {
+            command();
+            return cookies.stream().filter(cookie -> cookie.getName().equals(name)).findFirst().orElse(null);
+        }
+
+        @Override
+        public Timeouts timeouts() {
+            return new FakeTimeouts();
+        }
+
+        @Override
+        public Window window() {
+            return new FakeWindow();
+        }
+
+        @Override
+        public Logs logs() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class FakeTimeouts implements Timeouts {
+        @Override
+        @SuppressWarnings("deprecation")
+        public Timeouts implicitlyWait(long time, TimeUnit unit) {
+            command();
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+            return scriptTimeout(Duration.ofMillis(unit.toMillis(time)));
+        }
+
+        @Override
+        public Timeouts scriptTimeout(Duration duration) {
+            command();
+            scriptTimeout = duration;
+            return this;
+        }
+
+        @Override
+        public Duration getScriptTimeout() {
+            command();
+            return scriptTimeout;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            command();
+            return this;
+        }
+    }
+
+    private class FakeWindow implements Window {
+        @Override
+        public Dimension getSize() {
+            command();
+            return new Dimension(1280, 720);
+        }
+
+        @Override
+        public void setSize(Dimension targetSize) {
+            command();
+        }
+
+        @Override
+        public Point getPosition() {
+            command();
+            return new Point(0, 0);
+        }
+
+        @Override
+        public void setPosition(Point targetPosition) {
+            command();
+        }
+
+        @Override
+        public void maximize() {
+            command();
+        }
+
+        @Override
+        public void minimize() {
+            command();
+        }
+
+        @Override
+        public void fullscreen() {
+            command();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package driver;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * An in-memory stand-in for an element, used with {@link FakeWebDriver}.
+ * <p>
+ * The element can be marked stale, after which every command fails as it would for an element removed from the
+ * page.
+ * </p>
+ */
+public class FakeWebElement implements WebElement {
+
+    private final String text;
+    private volatile boolean stale;
+    private volatile int clicks;
+
+    /**
+     * @param text the text of the element.
+     */
+    public FakeWebElement(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Makes every following command fail with {@link StaleElementReferenceException}.
+     */
+    public void makeStale() {
+        stale = true;
+    }
+
+    /**
+     * @return the number of clicks the element received.
+     */
+    public int getClicks() {
+        return clicks;
+    }
+
+    private void checkAttached() {
+        if (stale) {
+            throw new StaleElementReferenceException("Element '" + text + "' is no longer attached to the DOM");
+        }
+    }
+
+    @Override
+    public void click() {
+        checkAttached();
+        clicks++;
+    }
+
+    @Override
+    public void submit() {
+        checkAttached();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        checkAttached();
+    }
+
+    @Override
+    public void clear() {
+        checkAttached();
+    }
+
+    @Override
+    public String getTagName() {
+        checkAttached();
+        return "div";
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public String getAttribute(String name) {
+        checkAttached();
+        return null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        checkAttached();
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        checkAttached();
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        checkAttached();
+        return text;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        checkAttached();
+        return List.of();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        checkAttached();
+        throw new org.openqa.selenium.NoSuchElementException("No element matches " + by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        checkAttached();
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        checkAttached();
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        checkAttached();
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        checkAttached();
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        checkAttached();
+        return target.convertFromPngBytes(new byte[0]);
+    }
+}
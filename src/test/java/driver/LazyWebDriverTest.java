@@ -0,0 +1,86 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchSessionException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyWebDriverTest {
+
+    private final List<FakeWebDriver> launched = new CopyOnWriteArrayList<>();
+
+    private LazyWebDriver lazyDriver() {
+        return new LazyWebDriver("chrome", () -> {
+            FakeWebDriver driver = new FakeWebDriver();
+            launched.add(driver);
+            return driver;
+        });
+    }
+
+    @DisplayName("The browser is launched by the first command, never by setup or teardown alone")
+    @Test
+    public void testLaunchesOnFirstCommand() {
+        LazyWebDriver unused = lazyDriver();
+        DriverSessionManager manager = new DriverSessionManager(unused);
+
+        assertEquals("Chrome", manager.getCurrentBrowser());
+        assertTrue(manager.isBrowserActive());
+        manager.quitDriver(unused);
+        assertTrue(launched.isEmpty());
+        assertThrows(NoSuchSessionException.class, unused::getTitle);
+
+        LazyWebDriver used = lazyDriver();
+        used.getTitle();
+        used.getWindowHandle();
+        assertTrue(used.isStarted());
+        assertEquals(1, launched.size());
+        used.quit();
+        assertTrue(launched.get(0).isQuit());
+    }
+
+    @DisplayName("The deferred startup runs once, and the start page is skipped when the test opens a page first")
+    @Test
+    public void testDeferredStartup() {
+        List<String> startups = new CopyOnWriteArrayList<>();
+        LazyWebDriver direct = lazyDriver();
+        direct.deferStartup(started -> startups.add("maximize"), "https://example.com/");
+        direct.get("https://example.com/login");
+        direct.get("https://example.com/account");
+
+        assertEquals(List.of("https://example.com/login", "https://example.com/account"),
+                launched.get(0).getVisitedUrls());
+
+        LazyWebDriver browsing = lazyDriver();
+        browsing.deferStartup(started -> startups.add("maximize"), "https://example.com/");
+        browsing.findElements(By.name("q"));
+
+        assertEquals(List.of("https://example.com/"), launched.get(1).getVisitedUrls());
+        assertEquals(List.of("maximize", "maximize"), startups);
+        assertThrows(IllegalStateException.class, () -> browsing.deferStartup(null, null));
+    }
+
+    @DisplayName("A failed startup quits the launched browser, and the next command launches a new one")
+    @Test
+    public void testFailedStartupLeavesDriverUnstarted() {
+        LazyWebDriver driver = lazyDriver();
+        driver.deferStartup(started -> {
+            if (launched.size() == 1) {
+                throw new IllegalStateException("window could not be maximized");
+            }
+        }, "https://example.com/");
+
+        assertThrows(IllegalStateException.class, driver::getTitle);
+        assertFalse(driver.isStarted());
+        assertTrue(launched.get(0).isQuit());
+
+        driver.getTitle();
+        assertTrue(driver.isStarted());
+        assertSame(launched.get(1), driver.getWrappedDriver());
+        assertEquals(List.of("https://example.com/"), launched.get(1).getVisitedUrls());
+    }
+}
@@ -0,0 +1,139 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocatorCacheTest {
+
+    private static final By SEARCH = By.name("q");
+
+    @DisplayName("Repeated lookups of a locator are served from the cache")
+    @Test
+    public void testHitsAndMisses() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.setElementFinder(by -> new FakeWebElement(by.toString()));
+        LocatorCache cache = LocatorCache.forDriver(driver);
+
+        WebElement first = cache.find(SEARCH);
+        WebElement second = cache.find(SEARCH);
+        cache.find(By.id("submit"));
+
+        assertSame(first, second);
+        assertEquals(2, driver.getFindElementCalls());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals("By.name: q", first.getText());
+    }
+
+    @DisplayName("Navigating and refreshing clear the cache of the session")
+    @Test
+    public void testNavigationInvalidates() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.setElementFinder(by -> new FakeWebElement(by.toString()));
+        DriverSessionManager sessionManager = new DriverSessionManager(driver);
+        LocatorCache cache = LocatorCache.forDriver(driver);
+
+        cache.find(SEARCH);
+        sessionManager.navigateTo("https://example.com/next");
+        assertEquals(0, cache.size());
+
+        cache.find(SEARCH);
+        new DriverPageManager(driver).refreshPage();
+        assertEquals(0, cache.size());
+
+        cache.find(SEARCH);
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, cache.getInvalidations());
+
+        sessionManager.quitDriver(driver);
+        assertNotSame(cache, LocatorCache.forDriver(driver));
+    }
+
+    @DisplayName("A stale element locates itself again and the command is retried transparently")
+    @Test
+    public void testStaleElementIsRelocated() {
+        FakeWebDriver driver = new FakeWebDriver();
+        List<FakeWebElement> located = new ArrayList<>();
+        driver.setElementFinder(by -> {
+            FakeWebElement element = new FakeWebElement("search");
+            located.add(element);
+            return element;
+        });
+        LocatorCache cache = LocatorCache.forDriver(driver);
+        cache.find(By.id("other"));
+
+        WebElement search = cache.find(SEARCH);
+        search.click();
+        // The page re-renders: the element the cache holds is detached.
+        located.get(1).makeStale();
+        search.click();
+
+        assertEquals(1, located.get(1).getClicks());
+        assertEquals(1, located.get(2).getClicks());
+        assertSame(located.get(2), ((WrapsElement) search).getWrappedElement());
+        assertEquals(1, cache.getStaleRecoveries());
+        // The rest of the page is assumed to have changed too; only the re-located element stays cached.
+        assertEquals(1, cache.size());
+        assertSame(search, cache.find(SEARCH));
+    }
+
+    @DisplayName("A cached element keeps its hash code and map entry when it is located again")
+    @Test
+    public void testIdentitySurvivesRelocation() {
+        FakeWebDriver driver = new FakeWebDriver();
+        List<FakeWebElement> located = new ArrayList<>();
+        driver.setElementFinder(by -> {
+            FakeWebElement element = new FakeWebElement("search");
+            located.add(element);
+            return element;
+        });
+        LocatorCache cache = LocatorCache.forDriver(driver);
+        WebElement search = cache.find(SEARCH);
+        Map<WebElement, String> values = new HashMap<>();
+        values.put(search, "selenium");
+        int hash = search.hashCode();
+
+        located.get(0).makeStale();
+        search.click();
+        cache.invalidate();
+
+        assertEquals(hash, search.hashCode());
+        assertEquals("selenium", values.get(search));
+        assertEquals(search, cache.find(SEARCH));
+        assertNotEquals(search, cache.find(By.id("other")));
+        WebElement wrapped = ((CachedWebElement) search).getWrappedElement();
+        assertNotEquals(search, wrapped);
+        assertNotEquals(wrapped, search);
+        FakeWebDriver otherSession = new FakeWebDriver();
+        otherSession.setElementFinder(by -> new FakeWebElement("search"));
+        assertNotEquals(search, LocatorCache.forDriver(otherSession).find(SEARCH));
+    }
+
+    @DisplayName("A session quit outside the framework is not kept alive by its cache")
+    @Test
+    public void testCacheDoesNotRetainSession() throws InterruptedException {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.setElementFinder(by -> new FakeWebElement(by.toString()));
+        LocatorCache.forDriver(driver).find(SEARCH);
+        WeakReference<FakeWebDriver> reference = new WeakReference<>(driver);
+        driver = null;
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(reference.get(), "The locator cache kept the session reachable.");
+    }
+}
@@ -0,0 +1,105 @@
+package driver;
+
+import fixtures.FixtureBrowser;
+import fixtures.FixtureServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.network.UrlPattern;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NetworkBlockerTest {
+
+    private static final List<NetworkBlockRule> RULES = List.of(
+            NetworkBlockRule.parse("image=glob:*"),
+            NetworkBlockRule.parse("font=glob:*.woff2*"),
+            NetworkBlockRule.parse("*=regex:/analytics\\.js"));
+
+    @DisplayName("Rules match by resource type and glob or regular expression")
+    @Test
+    public void testRules() {
+        NetworkBlocker blocker = new NetworkBlocker(RULES, false);
+
+        assertTrue(blocker.isBlocked("https://shop.test/img/photo.png", "image"));
+        assertTrue(blocker.isBlocked("https://shop.test/fonts/a.woff2?v=2", "Font"));
+        assertFalse(blocker.isBlocked("https://shop.test/fonts/a.ttf", "font"));
+        assertTrue(blocker.isBlocked("https://cdn.test/analytics.js?id=1", "script"));
+        assertFalse(blocker.isBlocked("https://shop.test/app.js", "script"));
+        assertFalse(blocker.isBlocked("https://shop.test/index.html", "document"));
+        assertThrows(IllegalArgumentException.class, () -> NetworkBlockRule.parse("image"));
+        assertFalse(new NetworkBlocker(List.of(), false).isEnabled());
+    }
+
+    @DisplayName("BiDi intercepts are narrowed to the hosts of the rules when every rule names a fixed host")
+    @Test
+    public void testBiDiUrlPatterns() {
+        List<UrlPattern> patterns = NetworkBlocker.urlPatterns(List.of(
+                NetworkBlockRule.parse("*=glob:*://ads.example.com/*"),
+                NetworkBlockRule.parse("script=glob:https://cdn.example.com:8443/tag-*.js")));
+
+        assertNotNull(patterns);
+        assertEquals(Map.of("type", "pattern", "hostname", "ads.example.com"), patterns.get(0).toMap());
+        assertEquals(Map.of("type", "pattern", "protocol", "https", "hostname", "cdn.example.com", "port", "8443"),
+                patterns.get(1).toMap());
+        assertNull(NetworkBlocker.urlPatterns(RULES));
+        assertNull(NetworkBlocker.urlPatterns(List.of(NetworkBlockRule.parse("*=glob:*://*.example.com/*"))));
+    }
+
+    @DisplayName("Resource types are inferred from the file extension when the browser does not report them")
+    @Test
+    public void testTypeInference() {
+        assertEquals("image", NetworkBlocker.typeOf("https://shop.test/a/B.JPG?size=large#top"));
+        assertEquals("font", NetworkBlocker.typeOf("https://shop.test/f.woff2"));
+        assertEquals("stylesheet", NetworkBlocker.typeOf("https://shop.test/site.css?v=3"));
+        assertEquals("other", NetworkBlocker.typeOf("https://shop.test/api/items"));
+    }
+
+    @DisplayName("Blocked assets of a heavy page never reach the server and the page still loads")
+    @Test
+    public void testBlockBeforeRequest() throws Exception {
+        try (FixtureServer server = FixtureServer.start()) {
+            WebDriver driver = FixtureBrowser.start();
+            try {
+                NetworkBlocker blocker = new NetworkBlocker(RULES, false);
+                assertTrue(blocker.attach(driver), "The browser does not support request interception.");
+
+                driver.get(server.url("heavy.html"));
+
+                assertEquals("Loaded", driver.findElement(By.id("status")).getText());
+                for (int i = 1; i <= 4; i++) {
+                    assertEquals(0, server.requestCount("/generated/photo-" + i + ".png"));
+                }
+                assertEquals(0, server.requestCount("/generated/analytics.js"));
+                assertEquals(4, blocker.getBlockedRequests().get("image"));
+                assertTrue(blocker.getTotalBlocked() >= 5);
+            } finally {
+                driver.quit();
+            }
+        }
+    }
+
+    @DisplayName("Blocking at the response stage counts the bytes that were not downloaded")
+    @Test
+    public void testBytesSavedAtResponseStage() throws Exception {
+        try (FixtureServer server = FixtureServer.start()) {
+            WebDriver driver = FixtureBrowser.start();
+            try {
+                NetworkBlocker blocker = new NetworkBlocker(RULES, true);
+                assertTrue(blocker.attach(driver), "The browser does not support request interception.");
+
+                driver.get(server.url("heavy.html"));
+
+                assertEquals("Loaded", driver.findElement(By.id("status")).getText());
+                assertTrue(blocker.getBytesSaved() >= 4 * 250_000 + 60_000,
+                        "Only " + blocker.getBytesSaved() + " bytes saved.");
+            } finally {
+                driver.quit();
+            }
+        }
+    }
+}
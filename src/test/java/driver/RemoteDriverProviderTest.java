@@ -0,0 +1,117 @@
+package driver;
+
+import fixtures.FakeGridNode;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteDriverProviderTest {
+
+    @DisplayName("Free slots are counted from Grid, node and plain driver status responses")
+    @Test
+    public void testFreeSlots() {
+        String grid = "{\"value\":{\"ready\":true,\"nodes\":["
+                + "{\"availability\":\"UP\",\"slots\":["
+                + "{\"stereotype\":{\"browserName\":\"chrome\"},\"session\":null},"
+                + "{\"stereotype\":{\"browserName\":\"chrome\"},\"session\":{\"sessionId\":\"1\"}},"
+                + "{\"stereotype\":{\"browserName\":\"firefox\"},\"session\":null}]},"
+                + "{\"availability\":\"DRAINING\",\"slots\":["
+                + "{\"stereotype\":{\"browserName\":\"chrome\"},\"session\":null}]}]}}";
+        String node = "{\"value\":{\"ready\":true,\"node\":{\"slots\":["
+                + "{\"stereotype\":{\"browserName\":\"chrome\"},\"session\":null},"
+                + "{\"stereotype\":{\"browserName\":\"chrome\"},\"session\":null}]}}}";
+
+        assertEquals(1, RemoteDriverProvider.freeSlots(new JSONObject(grid), "CHROME"));
+        assertEquals(1, RemoteDriverProvider.freeSlots(new JSONObject(grid), "firefox"));
+        assertEquals(2, RemoteDriverProvider.freeSlots(new JSONObject(node), "chrome"));
+        assertEquals(1, RemoteDriverProvider.freeSlots(new JSONObject("{\"value\":{\"ready\":true}}"), "chrome"));
+        assertEquals(0, RemoteDriverProvider.freeSlots(new JSONObject("{\"value\":{\"ready\":false}}"), "chrome"));
+    }
+
+    @DisplayName("Sessions go to the node with the most free slots")
+    @Test
+    public void testLoadAwareSelection() throws Exception {
+        try (FakeGridNode small = FakeGridNode.start("chrome", 1);
+             FakeGridNode large = FakeGridNode.start("chrome", 2);
+             RemoteDriverProvider provider = provider(3, small.url(), large.url())) {
+            List<WebDriver> drivers = new ArrayList<>();
+            try {
+                for (int i = 0; i < 3; i++) {
+                    drivers.add(provider.createDriver());
+                }
+
+                assertEquals(1, small.openSessions());
+                assertEquals(2, large.openSessions());
+                assertEquals(3, small.sessionRequests() + large.sessionRequests());
+            } finally {
+                drivers.forEach(WebDriver::quit);
+            }
+            assertEquals(0, small.openSessions() + large.openSessions());
+        }
+    }
+
+    @DisplayName("Failed session requests are retried until the attempts run out")
+    @Test
+    public void testRetryWithBackoff() throws Exception {
+        try (FakeGridNode node = FakeGridNode.start("chrome", 1);
+             RemoteDriverProvider provider = provider(3, node.url())) {
+            node.failNextSessions(2);
+            WebDriver driver = provider.createDriver();
+            driver.quit();
+            assertEquals(3, node.sessionRequests());
+
+            node.failNextSessions(3);
+            assertThrows(SessionNotCreatedException.class, provider::createDriver);
+            assertEquals(6, node.sessionRequests());
+        }
+    }
+
+    @DisplayName("Sessions created one after another reuse the connection to their node")
+    @Test
+    public void testConnectionReuse() throws Exception {
+        try (FakeGridNode node = FakeGridNode.start("chrome", 1);
+             RemoteDriverProvider provider = provider(1, node.url())) {
+            for (int i = 0; i < 5; i++) {
+                WebDriver driver = provider.createDriver();
+                assertEquals("Fake page", driver.getTitle());
+                driver.quit();
+            }
+
+            assertEquals(5, node.sessionRequests());
+            assertEquals(1, node.connections());
+        }
+    }
+
+    @DisplayName("Remote sessions report the browser they run rather than their driver class")
+    @Test
+    public void testRemoteBrowserName() throws Exception {
+        try (FakeGridNode node = FakeGridNode.start("chrome", 1);
+             RemoteDriverProvider provider = provider(1, node.url())) {
+            WebDriver driver = provider.createDriver();
+            try {
+                String browser = new DriverSessionManager(driver).getCurrentBrowser();
+                assertEquals("Chrome", browser);
+                assertEquals(DriverType.CHROME, DriverType.fromBrowserName(browser));
+            } finally {
+                driver.quit();
+            }
+        }
+        assertEquals("Edge", DriverSessionManager.displayName("MicrosoftEdge"));
+        assertEquals(DriverType.IE, DriverType.fromBrowserName(DriverSessionManager.displayName("internet explorer")));
+        assertEquals("Firefox", DriverSessionManager.displayName("FIREFOX"));
+    }
+
+    private static RemoteDriverProvider provider(int maxAttempts, URL... nodes) {
+        return new RemoteDriverProvider(DriverType.CHROME, List.of(nodes), maxAttempts, Duration.ofMillis(10),
+                Duration.ofSeconds(5), Duration.ofSeconds(10));
+    }
+}
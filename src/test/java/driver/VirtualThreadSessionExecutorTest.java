@@ -0,0 +1,145 @@
+package driver;
+
+import driver.VirtualThreadSessionExecutor.SessionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadSessionExecutorTest {
+
+    private final List<FakeWebDriver> created = Collections.synchronizedList(new ArrayList<>());
+    private final Map<WebDriver, String> browserNames = new ConcurrentHashMap<>();
+
+    @AfterEach
+    public void clearStore() {
+        DriverStoreManager.clearDriversMap();
+    }
+
+    @DisplayName("Sessions run on virtual threads, each with its own current driver, and are torn down")
+    @Test
+    public void testSessionsRunConcurrentlyOnVirtualThreads() throws Exception {
+        int sessions = 200;
+        CountDownLatch allStarted = new CountDownLatch(sessions);
+        Set<WebDriver> seen = ConcurrentHashMap.newKeySet();
+        VirtualThreadSessionExecutor executor = new VirtualThreadSessionExecutor(sessions, this::newManager);
+
+        List<SessionResult> results = executor.runAll(providers("chrome", sessions), manager -> {
+            assertTrue(Thread.currentThread().isVirtual());
+            assertSame(manager.getDriver(), DriverStoreManager.getCurrentDriver());
+            assertTrue(DriverStoreManager.getAllDrivers().containsValue(manager.getDriver()));
+            seen.add(manager.getDriver());
+            // Every session must be running at the same time for the latch to open.
+            allStarted.countDown();
+            assertTrue(allStarted.await(30, TimeUnit.SECONDS));
+        });
+
+        assertEquals(sessions, results.size());
+        assertEquals(sessions, seen.size());
+        assertTrue(created.stream().allMatch(FakeWebDriver::isQuit));
+        assertEquals(0, DriverStoreManager.driversNoInMap());
+    }
+
+    @DisplayName("The number of sessions holding a driver at the same time is capped")
+    @Test
+    public void testConcurrencyIsCapped() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        VirtualThreadSessionExecutor executor = new VirtualThreadSessionExecutor(3, this::newManager);
+
+        executor.runAll(providers("firefox", 30), manager -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            active.decrementAndGet();
+        });
+
+        assertTrue(maxActive.get() <= 3, "Max concurrent sessions: " + maxActive.get());
+    }
+
+    @DisplayName("Pooled sessions beyond the pool's maxTotal wait for a free session instead of timing out")
+    @Test
+    public void testPooledSessionsAreCappedByPoolSize() throws Exception {
+        DriverSessionPool pool = new DriverSessionPool(
+                new DriverPoolSettings(0, 2, Duration.ofMinutes(5), Duration.ofMillis(200)),
+                type -> {
+                    FakeWebDriver fake = new FakeWebDriver();
+                    created.add(fake);
+                    return fake;
+                },
+                driver -> true);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        VirtualThreadSessionExecutor executor = new VirtualThreadSessionExecutor(50, pool.getSettings().getMaxTotal(),
+                () -> new StandardDriverManager(new PooledDriverSessionManager(pool)));
+        try {
+            // Ten sessions of 50 ms in turns of two take longer than the pool's acquire timeout.
+            executor.runAll(providers("chrome", 10), manager -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                active.decrementAndGet();
+            });
+        } finally {
+            pool.close();
+        }
+
+        assertTrue(maxActive.get() <= 2, "Max concurrent sessions: " + maxActive.get());
+        assertTrue(created.size() <= 2, "Sessions created: " + created.size());
+    }
+
+    @DisplayName("A failing session is reported and still torn down without affecting the others")
+    @Test
+    public void testFailuresAreCollected() throws Exception {
+        VirtualThreadSessionExecutor executor = new VirtualThreadSessionExecutor(4, this::newManager);
+        List<DriverProvider> providers = List.of(() -> "chrome", () -> "edge", () -> "firefox");
+
+        List<SessionResult> results = executor.run(providers, manager -> {
+            if (browserNames.get(manager.getDriver()).equals("edge")) {
+                throw new AssertionError("boom");
+            }
+        });
+
+        assertTrue(results.get(0).isSuccessful());
+        assertEquals("boom", results.get(1).getFailure().getMessage());
+        assertTrue(results.get(2).isSuccessful());
+        assertTrue(created.stream().allMatch(FakeWebDriver::isQuit));
+
+        AssertionError error = assertThrows(AssertionError.class, () -> executor.runAll(providers, manager -> {
+            throw new IllegalStateException("all fail");
+        }));
+        assertEquals(3, error.getSuppressed().length);
+    }
+
+    private StandardDriverManager newManager() {
+        return new StandardDriverManager(new DriverSessionManager(null) {
+            @Override
+            public WebDriver setDriver(DriverProvider driverProvider) {
+                FakeWebDriver fake = new FakeWebDriver();
+                created.add(fake);
+                browserNames.put(fake, driverProvider.getBrowserName());
+                setDriverInstance(fake);
+                return fake;
+            }
+        });
+    }
+
+    private static List<DriverProvider> providers(String browserName, int count) {
+        List<DriverProvider> providers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            providers.add(() -> browserName);
+        }
+        return providers;
+    }
+}
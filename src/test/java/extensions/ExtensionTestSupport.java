@@ -0,0 +1,126 @@
+package extensions;
+
+import driver.DriverType;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stand-ins for the JUnit objects an extension is called with, so extensions can be tested without running a test
+ * engine.
+ */
+final class ExtensionTestSupport {
+
+    private ExtensionTestSupport() {
+    }
+
+    /**
+     * Stands in for a test class with a single test method, {@link #check()}, sharing a Firefox session. Each call
+     * of {@link #check()} runs the given action, then throws the next of the given failures.
+     */
+    @SharedSession(DriverType.FIREFOX)
+    public static class Target {
+        private final Runnable action;
+        private final Throwable[] failures;
+        private int calls;
+
+        Target(Throwable... failures) {
+            this(() -> {
+            }, failures);
+        }
+
+        Target(Runnable action, Throwable... failures) {
+            this.action = action;
+            this.failures = failures;
+        }
+
+        public void check() throws Throwable {
+            calls++;
+            action.run();
+            if (calls <= failures.length) {
+                throw failures[calls - 1];
+            }
+        }
+
+        /**
+         * @return how many times {@link #check()} was called.
+         */
+        int getCalls() {
+            return calls;
+        }
+    }
+
+    /**
+     * @return the {@link Target#check()} method.
+     */
+    static Method targetMethod() {
+        try {
+            return Target.class.getMethod("check");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the context of a {@link Target#check()} run shown as {@code check()}.
+     */
+    static ExtensionContext extensionContext() {
+        return extensionContext("check()");
+    }
+
+    /**
+     * @param displayName the display name of the test.
+     * @return the context of a {@link Target#check()} run shown with the given name, with a store of its own.
+     * Methods the stand-in does not answer throw {@link UnsupportedOperationException}.
+     */
+    static ExtensionContext extensionContext(String displayName) {
+        ExtensionContext.Store store = store();
+        return (ExtensionContext) Proxy.newProxyInstance(ExtensionTestSupport.class.getClassLoader(),
+                new Class<?>[]{ExtensionContext.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getTestMethod" -> Optional.of(targetMethod());
+                    case "getRequiredTestMethod" -> targetMethod();
+                    case "getRequiredTestClass" -> Target.class;
+                    case "getDisplayName" -> displayName;
+                    case "getUniqueId" -> "[test:" + displayName + "]";
+                    case "getExecutionException" -> Optional.empty();
+                    case "getStore" -> store;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * @param target the test instance.
+     * @return the invocation of {@link Target#check()} on the given instance, without arguments.
+     */
+    @SuppressWarnings("unchecked")
+    static ReflectiveInvocationContext<Method> invocationContext(Target target) {
+        return (ReflectiveInvocationContext<Method>) Proxy.newProxyInstance(ExtensionTestSupport.class.getClassLoader(),
+                new Class<?>[]{ReflectiveInvocationContext.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getExecutable" -> targetMethod();
+                    case "getTarget" -> Optional.of(target);
+                    case "getArguments" -> List.of();
+                    case "getTargetClass" -> Target.class;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * @return a store backed by a map, answering {@code get}, {@code put} and {@code remove}.
+     */
+    static ExtensionContext.Store store() {
+        Map<Object, Object> values = new HashMap<>();
+        return (ExtensionContext.Store) Proxy.newProxyInstance(ExtensionTestSupport.class.getClassLoader(),
+                new Class<?>[]{ExtensionContext.Store.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "get" -> values.get(args[0]);
+                    case "put" -> values.put(args[0], args[1]);
+                    case "remove" -> values.remove(args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
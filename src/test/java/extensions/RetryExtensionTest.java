@@ -0,0 +1,136 @@
+package extensions;
+
+import driver.DriverStoreManager;
+import driver.FakeWebDriver;
+import extensions.ExtensionTestSupport.Target;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.opentest4j.TestAbortedException;
+import org.openqa.selenium.StaleElementReferenceException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryExtensionTest {
+
+    private static final String KEY =
+            TimingHistory.keyOf(MethodSource.from(Target.class, ExtensionTestSupport.targetMethod()));
+
+    @DisplayName("A transient failure is retried and recorded as flaky; other failures are not retried")
+    @Test
+    public void testRetriesTransientFailures() throws Throwable {
+        FlakinessStore store = new FlakinessStore(null, 10, 3);
+        RetryExtension extension = new RetryExtension(2, List.of(StaleElementReferenceException.class), store,
+                "main");
+
+        Target target = new Target(new StaleElementReferenceException("stale"));
+        intercept(extension, target);
+        assertEquals(2, target.getCalls());
+
+        Target failing = new Target(new AssertionError("wrong title"), new AssertionError("wrong title"));
+        assertThrows(AssertionError.class, () -> intercept(extension, failing));
+        assertEquals(1, failing.getCalls());
+
+        assertEquals(2, store.getStats(KEY).getRuns());
+        assertEquals(1, store.getStats(KEY).getFlaky());
+        assertEquals("FX", store.getStats(KEY).getRecent());
+        assertTrue(extension.isTransient(new IllegalStateException(new StaleElementReferenceException("stale"))));
+    }
+
+    @DisplayName("Chronically flaky tests are quarantined into their own lane, where failures do not fail the build")
+    @Test
+    public void testQuarantineLane(@TempDir Path directory) throws Throwable {
+        Path file = directory.resolve("flakiness.json");
+        FlakinessStore previous = new FlakinessStore(file, 5, 2);
+        previous.record(KEY, FlakinessStore.Outcome.FLAKY);
+        previous.record(KEY, FlakinessStore.Outcome.PASSED);
+        previous.record(KEY, FlakinessStore.Outcome.FLAKY);
+        previous.save();
+
+        FlakinessStore store = new FlakinessStore(file, 5, 2);
+        assertTrue(store.isQuarantined(KEY));
+        assertTrue(new RetryExtension(1, List.of(), store, "main")
+                .evaluateExecutionCondition(ExtensionTestSupport.extensionContext()).isDisabled());
+        assertFalse(new RetryExtension(1, List.of(), store, "all")
+                .evaluateExecutionCondition(ExtensionTestSupport.extensionContext()).isDisabled());
+
+        RetryExtension quarantine = new RetryExtension(1, List.of(), store, "quarantine");
+        assertFalse(quarantine.evaluateExecutionCondition(ExtensionTestSupport.extensionContext()).isDisabled());
+        Target failing = new Target(new AssertionError("still broken"));
+        assertThrows(TestAbortedException.class, () -> intercept(quarantine, failing));
+        store.save();
+
+        assertEquals("FPFX", new FlakinessStore(file, 5, 2).getStats(KEY).getRecent());
+        assertThrows(IllegalArgumentException.class, () -> new RetryExtension(1, List.of(), store, "nightly"));
+    }
+
+    @DisplayName("The session set up before the test is reset before a retry; passing tests send it no commands")
+    @Test
+    public void testResetsSetUpSession() throws Throwable {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.get("https://shop.test/cart");
+        driver.setScriptHandler(script -> Map.of());
+        DriverStoreManager.setCurrentDriver(driver);
+        try {
+            RetryExtension extension = new RetryExtension(2, List.of(StaleElementReferenceException.class),
+                    new FlakinessStore(null, 10, 3), "main");
+            int commands = driver.getCommandCount();
+            Target passing = new Target();
+            intercept(extension, passing);
+            assertEquals(commands, driver.getCommandCount());
+
+            Target flaky = new Target(driver::openWindow, new StaleElementReferenceException("stale"));
+            intercept(extension, flaky);
+
+            assertEquals(2, flaky.getCalls());
+            // The window opened by the failed attempt is closed; the one opened by the retry stays.
+            assertEquals(2, driver.getWindowHandles().size());
+            assertTrue(driver.getVisitedUrls().contains("about:blank"));
+            assertEquals("https://shop.test/cart", driver.getCurrentUrl());
+            assertFalse(driver.isQuit());
+        } finally {
+            DriverStoreManager.removeCurrentDriver();
+        }
+    }
+
+    @DisplayName("A session started by the failed attempt is not reset; the retry starts its own")
+    @Test
+    public void testSessionStartedByAttemptIsNotReset() throws Throwable {
+        List<FakeWebDriver> started = new ArrayList<>();
+        Runnable startSession = () -> {
+            FakeWebDriver driver = new FakeWebDriver();
+            started.add(driver);
+            DriverStoreManager.setCurrentDriver(driver);
+        };
+        try {
+            RetryExtension extension = new RetryExtension(2, List.of(StaleElementReferenceException.class),
+                    new FlakinessStore(null, 10, 3), "main");
+            Target flaky = new Target(startSession, new StaleElementReferenceException("stale"));
+            intercept(extension, flaky);
+
+            assertEquals(2, started.size());
+            assertEquals(0, started.get(0).getCommandCount());
+        } finally {
+            DriverStoreManager.removeCurrentDriver();
+        }
+    }
+
+    /**
+     * Runs the first attempt of {@link Target#check()} through the extension.
+     */
+    private static void intercept(InvocationInterceptor extension, Target target) throws Throwable {
+        InvocationInterceptor.Invocation<Void> firstAttempt = () -> {
+            target.check();
+            return null;
+        };
+        extension.interceptTestMethod(firstAttempt, ExtensionTestSupport.invocationContext(target),
+                ExtensionTestSupport.extensionContext());
+    }
+}
@@ -0,0 +1,108 @@
+package extensions;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScreenshotStoreTest {
+
+    @DisplayName("Identical screenshots are stored once, downscaled as JPEG, and indexed by test")
+    @Test
+    public void testIdenticalScreenshotsAreStoredOnce(@TempDir Path directory) throws IOException {
+        ScreenshotStore store = new ScreenshotStore(directory, ScreenshotStore.Format.JPEG, 80, 400, false, null);
+        byte[] brokenPage = png(800, 600, Color.RED);
+
+        Path first = store.store("testLogin()", Instant.now(), brokenPage);
+        Path second = store.store("testSearch()", Instant.now(), brokenPage);
+        Path other = store.store("testSearch()", Instant.now(), png(800, 600, Color.BLUE));
+        store.saveIndex();
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, store.getStoredCount());
+        assertEquals(1, store.getDuplicateCount());
+        assertEquals(2, objectCount(directory));
+        BufferedImage stored = ImageIO.read(first.toFile());
+        assertEquals(400, stored.getWidth());
+        assertEquals(300, stored.getHeight());
+
+        JSONObject screenshots = index(directory);
+        assertEquals(1, screenshots.getJSONArray("testLogin()").length());
+        assertEquals(2, screenshots.getJSONArray("testSearch()").length());
+        assertEquals("objects/" + first.getFileName(),
+                screenshots.getJSONArray("testLogin()").getJSONObject(0).getString("file"));
+    }
+
+    @DisplayName("Screenshots older than the retention period are dropped from the index and deleted")
+    @Test
+    public void testRetention(@TempDir Path directory) throws IOException {
+        ScreenshotStore previousRun = new ScreenshotStore(directory, ScreenshotStore.Format.PNG, 80, 0, false, null);
+        Path old = previousRun.store("testOld()", Instant.now().minus(Duration.ofDays(10)), png(10, 10, Color.RED));
+        Files.setLastModifiedTime(old, FileTime.from(Instant.now().minus(Duration.ofDays(10))));
+        Path recent = previousRun.store("testRecent()", Instant.now(), png(10, 10, Color.BLUE));
+        previousRun.saveIndex();
+
+        ScreenshotStore store = new ScreenshotStore(directory, ScreenshotStore.Format.PNG, 80, 0, false,
+                Duration.ofDays(7));
+        store.store("testNew()", Instant.now(), png(10, 10, Color.GREEN));
+        store.saveIndex();
+
+        assertFalse(Files.exists(old));
+        assertTrue(Files.exists(recent));
+        JSONObject screenshots = index(directory);
+        assertFalse(screenshots.has("testOld()"));
+        assertTrue(screenshots.has("testRecent()"));
+        assertTrue(screenshots.has("testNew()"));
+    }
+
+    @DisplayName("A run that stores no screenshot writes no index and applies no retention")
+    @Test
+    public void testNothingStoredLeavesDirectoryAlone(@TempDir Path directory) throws IOException {
+        Path screenshots = directory.resolve("screenshots");
+        ScreenshotStore store = new ScreenshotStore(screenshots, ScreenshotStore.Format.PNG, 80, 0, false,
+                Duration.ofDays(7));
+        store.saveIndex();
+
+        assertFalse(Files.exists(screenshots));
+        assertEquals(0, store.getStoredCount());
+    }
+
+    private static byte[] png(int width, int height, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private static long objectCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("objects"))) {
+            return files.count();
+        }
+    }
+
+    private static JSONObject index(Path directory) throws IOException {
+        return new JSONObject(Files.readString(directory.resolve("index.json"), StandardCharsets.UTF_8))
+                .getJSONObject("screenshots");
+    }
+}
@@ -0,0 +1,90 @@
+package extensions;
+
+import driver.DriverProvider;
+import driver.DriverStoreManager;
+import driver.DriverType;
+import driver.FakeWebDriver;
+import driver.StandardDriverManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionExtensionTest {
+
+    private final List<FakeWebDriver> started = new ArrayList<>();
+
+    private final DriverProvider provider = new DriverProvider() {
+        @Override
+        public String getBrowserName() {
+            return "firefox";
+        }
+
+        @Override
+        public WebDriver createDriver() {
+            FakeWebDriver driver = new FakeWebDriver();
+            started.add(driver);
+            return driver;
+        }
+    };
+
+    @DisplayName("The tests of a class share one session, which is reset between them and quit after the last one")
+    @Test
+    public void testSessionIsSharedByTheClass() {
+        List<DriverType> requested = new ArrayList<>();
+        SessionExtension extension = new SessionExtension(type -> {
+            requested.add(type);
+            return provider;
+        });
+        ExtensionContext context = ExtensionTestSupport.extensionContext();
+
+        extension.beforeAll(context);
+        assertEquals(List.of(DriverType.FIREFOX), requested);
+        assertEquals(1, started.size());
+        FakeWebDriver driver = started.get(0);
+
+        for (int test = 0; test < 3; test++) {
+            extension.beforeEach(context);
+            StandardDriverManager manager = (StandardDriverManager) extension.resolveParameter(null, context);
+            assertSame(driver, manager.getDriver());
+            assertSame(driver, DriverStoreManager.getCurrentDriver());
+            manager.navigateTo("https://example.com/" + test);
+            // As BaseTest.tearDown() does; the shared session stays open.
+            manager.quitDriver();
+            assertFalse(driver.isQuit());
+            extension.afterEach(context);
+            assertNull(DriverStoreManager.getCurrentDriver());
+            assertEquals("about:blank", driver.getCurrentUrl());
+        }
+
+        assertEquals(1, started.size());
+        extension.afterAll(context);
+        assertTrue(driver.isQuit());
+    }
+
+    @DisplayName("A session that cannot be reset is quit and replaced before the next test")
+    @Test
+    public void testFailedResetReplacesSession() {
+        SessionExtension extension = new SessionExtension(type -> provider);
+        ExtensionContext context = ExtensionTestSupport.extensionContext();
+
+        extension.beforeAll(context);
+        extension.beforeEach(context);
+        FakeWebDriver first = started.get(0);
+        first.setUnresponsive(true);
+        extension.afterEach(context);
+        assertTrue(first.isQuit());
+
+        extension.beforeEach(context);
+        assertEquals(2, started.size());
+        assertSame(started.get(1), DriverStoreManager.getCurrentDriver());
+        extension.afterEach(context);
+        extension.afterAll(context);
+        assertTrue(started.get(1).isQuit());
+    }
+}
@@ -0,0 +1,86 @@
+package extensions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardFilterTest {
+
+    @DisplayName("The longest tests are placed first, each on the least loaded shard")
+    @Test
+    public void testLongestProcessingTimePlan() {
+        Map<String, Long> durations = Map.of("a", 10L, "b", 9L, "c", 8L, "d", 2L, "e", 2L, "f", 1L);
+
+        Map<String, Integer> plan = ShardPlanner.plan(durations, 2);
+
+        assertEquals(Map.of("a", 0, "b", 1, "c", 1, "d", 0, "e", 0, "f", 0), plan);
+        assertArrayEquals(new long[]{15, 17}, ShardPlanner.loads(durations, plan, 2));
+        assertEquals(plan, ShardPlanner.plan(Map.copyOf(durations), 2));
+    }
+
+    @DisplayName("Every test is kept by exactly one shard, however many tests a discovery contains")
+    @Test
+    public void testShardsCoverEveryTestOnce() {
+        Map<String, Long> history = Map.of(
+                "shop.Checkout#pay()", 9000L,
+                "shop.Checkout#review()", 4000L,
+                "shop.Search#byName()", 5000L);
+        EngineDescriptor engine = new EngineDescriptor(UniqueId.forEngine("junit-jupiter"), "JUnit Jupiter");
+        List<TestDescriptor> tests = List.of(
+                test(engine, "shop.Checkout", "pay"), test(engine, "shop.Checkout", "review"),
+                test(engine, "shop.Checkout", "cancel"), test(engine, "shop.Search", "byName"),
+                test(engine, "shop.Search", "byPrice"), test(engine, "shop.Search", "empty"));
+        List<ShardFilter> shards = List.of(new ShardFilter(new Shard(0, 3), history),
+                new ShardFilter(new Shard(1, 3), history), new ShardFilter(new Shard(2, 3), history));
+
+        for (TestDescriptor test : tests) {
+            long keptBy = shards.stream().filter(shard -> shard.apply(test).included()).count();
+            assertEquals(1, keptBy, test.getDisplayName());
+        }
+        assertEquals(0, shards.get(0).shardOf("shop.Checkout#pay()"));
+        assertEquals(1, shards.get(0).shardOf("shop.Search#byName()"));
+        assertEquals(2, shards.get(0).shardOf("shop.Checkout#review()"));
+        assertTrue(shards.get(0).apply(engine).included());
+        assertTrue(new ShardFilter(null, history).apply(tests.get(1)).included());
+    }
+
+    @DisplayName("Sharded runs record into their own files, which the next unsharded run folds into the history")
+    @Test
+    public void testHistoryShardFiles(@TempDir Path directory) {
+        Path file = directory.resolve("timing-history.json");
+        TimingHistory.record(file, null, Map.of("a", 1000L));
+        TimingHistory.record(file, new Shard(1, 2), Map.of("a", 3000L, "b", 500L));
+
+        assertEquals(Map.of("a", 1000L), TimingHistory.load(file));
+        assertTrue(Files.exists(directory.resolve("timing-history.shard-1-of-2.json")));
+
+        TimingHistory.record(file, null, Map.of("c", 200L));
+
+        assertEquals(Map.of("a", 2000L, "b", 500L, "c", 200L), TimingHistory.load(file));
+        assertFalse(Files.exists(directory.resolve("timing-history.shard-1-of-2.json")));
+    }
+
+    private static TestDescriptor test(TestDescriptor parent, String className, String method) {
+        TestDescriptor test = new AbstractTestDescriptor(parent.getUniqueId().append("method", className + method),
+                className + "#" + method, MethodSource.from(className, method, "")) {
+            @Override
+            public Type getType() {
+                return Type.TEST;
+            }
+        };
+        parent.addChild(test);
+        return test;
+    }
+}
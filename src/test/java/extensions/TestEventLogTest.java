@@ -0,0 +1,128 @@
+package extensions;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEventLogTest {
+
+    @DisplayName("Events of tests running in parallel are written as one block per test, in order")
+    @Test
+    public void testEventsAreGroupedByTest() {
+        StringWriter output = new StringWriter();
+        TestEventLog log = new TestEventLog(output, 16);
+        log.classStarted("LoginTest");
+        log.testStarted("login", "LoginTest > testLogin()");
+        log.testStarted("logout", "LoginTest > testLogout()");
+        log.phase("logout", TestPhase.DRIVER_CREATION, 2_000_000);
+        log.phase("login", TestPhase.DRIVER_CREATION, 1_000_000);
+        log.testFinished("logout", "LoginTest > testLogout()", "Chrome", "successful", 5_000_000, null);
+        log.testFinished("login", "LoginTest > testLogin()", "Chrome", "failed", 7_000_000,
+                new AssertionError("expected \"Welcome\"\nbut was \"Error\""));
+        log.classFinished("LoginTest");
+        log.close();
+
+        List<JSONObject> events = lines(output);
+        assertEquals(8, events.size());
+        assertEquals(List.of("classStarted", "testStarted", "phase", "testFinished", "testStarted", "phase",
+                "testFinished", "classFinished"), events.stream().map(event -> event.getString("type")).toList());
+        assertEquals(List.of("logout", "logout", "logout", "login", "login", "login"),
+                events.subList(1, 7).stream().map(event -> event.getString("testId")).toList());
+        assertEquals("driverCreation", events.get(2).getString("phase"));
+        assertEquals(2, events.get(2).getLong("durationMs"));
+
+        JSONObject failed = events.get(6);
+        assertEquals("Chrome", failed.getString("browser"));
+        assertEquals("failed", failed.getString("status"));
+        assertEquals(7, failed.getLong("durationMs"));
+        assertEquals("java.lang.AssertionError: expected \"Welcome\"\nbut was \"Error\"", failed.getString("error"));
+        assertEquals(Thread.currentThread().getName(), failed.getString("thread"));
+    }
+
+    @DisplayName("Test threads wait for the writer when the ring buffer is full, and no event is lost")
+    @Test
+    public void testParallelProducers() throws Exception {
+        StringWriter output = new StringWriter();
+        TestEventLog log = new TestEventLog(output, 4);
+        int threads = 8;
+        int testsPerThread = 50;
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < testsPerThread; i++) {
+                        String testId = thread + "-" + i;
+                        log.testStarted(testId, "test" + testId);
+                        log.phase(testId, TestPhase.TEST_BODY, 1_000_000);
+                        log.testFinished(testId, "test" + testId, null, "successful", 1_000_000, null);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        assertTrue(log.flush(Duration.ofSeconds(10)));
+        log.close();
+
+        List<JSONObject> events = lines(output);
+        assertEquals(threads * testsPerThread * 3, events.size());
+        Set<String> finished = new HashSet<>();
+        for (int i = 0; i < events.size(); i += 3) {
+            String testId = events.get(i).getString("testId");
+            assertEquals("testStarted", events.get(i).getString("type"));
+            assertEquals(testId, events.get(i + 1).getString("testId"));
+            assertEquals(testId, events.get(i + 2).getString("testId"));
+            assertEquals("testFinished", events.get(i + 2).getString("type"));
+            finished.add(testId);
+        }
+        assertEquals(threads * testsPerThread, finished.size());
+    }
+
+    @DisplayName("A flush returns while other test threads keep publishing events")
+    @Test
+    public void testFlushWhileBusy() throws Exception {
+        TestEventLog log = new TestEventLog(new StringWriter(), 4);
+        AtomicBoolean publishing = new AtomicBoolean(true);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                while (publishing.get()) {
+                    log.classStarted("BusyTest");
+                }
+            }));
+        }
+        try {
+            log.classStarted("FlushedTest");
+            assertTrue(log.flush(Duration.ofSeconds(5)));
+        } finally {
+            publishing.set(false);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            log.close();
+        }
+    }
+
+    private static List<JSONObject> lines(StringWriter output) {
+        List<JSONObject> events = new ArrayList<>();
+        for (String line : output.toString().split("\n")) {
+            events.add(new JSONObject(line));
+        }
+        return events;
+    }
+}
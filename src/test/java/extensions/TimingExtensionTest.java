@@ -0,0 +1,63 @@
+package extensions;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingExtensionTest {
+
+    @DisplayName("Phases measured inside the test body or another phase are not counted twice")
+    @Test
+    public void testNestedPhasesAreNotCountedTwice() {
+        TimingExtension extension = new TimingExtension();
+        ExtensionContext context = ExtensionTestSupport.extensionContext("nested()");
+
+        extension.beforeEach(context);
+        extension.beforeTestExecution(context);
+        TimingExtension.measure(TestPhase.DRIVER_CREATION, () -> {
+            pause(40);
+            TimingExtension.measure(TestPhase.FIRST_NAVIGATION, () -> pause(40));
+        });
+        pause(40);
+        extension.afterTestExecution(context);
+        extension.afterEach(context);
+
+        JSONObject timing = TimingExtension.takeFinishedTiming(ExtensionTestSupport.Target.class.getName(), "nested()");
+        assertNotNull(timing);
+        JSONObject phases = timing.getJSONObject("phasesMs");
+        long total = timing.getLong("totalMs");
+        long driverCreation = phases.getLong(TestPhase.DRIVER_CREATION.getKey());
+        long firstNavigation = phases.getLong(TestPhase.FIRST_NAVIGATION.getKey());
+        long testBody = phases.getLong(TestPhase.TEST_BODY.getKey());
+
+        assertTrue(driverCreation >= 40, "driverCreation " + driverCreation);
+        assertTrue(firstNavigation >= 40, "firstNavigation " + firstNavigation);
+        assertTrue(testBody >= 40, "testBody " + testBody);
+        long measured = 0;
+        for (String key : phases.keySet()) {
+            measured += phases.getLong(key);
+        }
+        // Each phase is rounded down to whole milliseconds on its own.
+        assertTrue(measured <= total && measured >= total - phases.length(), measured + " of " + total);
+    }
+
+    @DisplayName("Outside a test, measure just runs the action")
+    @Test
+    public void testMeasureOutsideTest() {
+        int[] runs = new int[1];
+        TimingExtension.measure(TestPhase.TEARDOWN, () -> runs[0]++);
+        assertEquals(1, runs[0]);
+        assertEquals("result", TimingExtension.measure(TestPhase.TEARDOWN, () -> "result"));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-process stand-in for a Selenium Grid node, speaking just enough of the W3C WebDriver protocol to create,
+ * use and delete sessions without a browser.
+ * <p>
+ * The node reports its slots on {@code /status} like a Grid node does, refuses new sessions once all slots are taken
+ * and can be told to fail the next session requests. It records the client ports it was called from, so tests can
+ * check that connections are reused.
+ * </p>
+ */
+public final class FakeGridNode implements AutoCloseable {
+
+    private final HttpServer server;
+    private final String browserName;
+    private final int slots;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionRequests = new AtomicInteger();
+    private final AtomicInteger failuresToSimulate = new AtomicInteger();
+
+    private FakeGridNode(HttpServer server, String browserName, int slots) {
+        this.server = server;
+        this.browserName = browserName;
+        this.slots = slots;
+    }
+
+    /**
+     * Starts a node on a free port of the loopback interface.
+     *
+     * @param browserName the browser name of the node's slots, e.g. {@code "chrome"}.
+     * @param slots       the number of sessions the node accepts at a time.
+     * @return the running node.
+     * @throws IOException if the server cannot be started.
+     */
+    public static FakeGridNode start(String browserName, int slots) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        FakeGridNode node = new FakeGridNode(server, browserName, slots);
+        server.createContext("/", node::handle);
+        server.start();
+        return node;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+
+            if (method.equals("GET") && path[0].equals("status")) {
+                respond(exchange, 200, new JSONObject().put("ready", true).put("nodes", new JSONArray().put(status())));
+            } else if (method.equals("POST") && path.length == 1 && path[0].equals("session")) {
+                newSession(exchange);
+            } else if (method.equals("DELETE") && path.length == 2 && sessions.remove(path[1])) {
+                respond(exchange, 200, JSONObject.NULL);
+            } else if (path.length >= 2 && path[0].equals("session") && sessions.contains(path[1])) {
+                respond(exchange, 200, path.length == 3 && path[2].equals("title") ? "Fake page" : JSONObject.NULL);
+            } else {
+                respond(exchange, 404, new JSONObject().put("error", "unknown command")
+                        .put("message", method + " " + exchange.getRequestURI()).put("stacktrace", ""));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void newSession(HttpExchange exchange) throws IOException {
+        sessionRequests.incrementAndGet();
+        if (failuresToSimulate.getAndUpdate(count -> Math.max(0, count - 1)) > 0 || sessions.size() >= slots) {
+            respond(exchange, 500, new JSONObject().put("error", "session not created")
+                    .put("message", "No free slot").put("stacktrace", ""));
+            return;
+        }
+        String id = UUID.randomUUID().toString();
+        sessions.add(id);
+        respond(exchange, 200, new JSONObject().put("sessionId", id)
+                .put("capabilities", new JSONObject().put("browserName", browserName)));
+    }
+
+    private JSONObject status() {
+        JSONArray slotsStatus = new JSONArray();
+        int used = sessions.size();
+        for (int i = 0; i < slots; i++) {
+            slotsStatus.put(new JSONObject()
+                    .put("stereotype", new JSONObject().put("browserName", browserName))
+                    .put("session", i < used ? new JSONObject() : JSONObject.NULL));
+        }
+        return new JSONObject().put("availability", "UP").put("slots", slotsStatus);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object value) throws IOException {
+        byte[] body = new JSONObject().put("value", value).toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Makes the next session requests fail as if the node could not start a browser.
+     *
+     * @param count the number of session requests to fail.
+     */
+    public void failNextSessions(int count) {
+        failuresToSimulate.set(count);
+    }
+
+    /**
+     * @return the number of sessions currently open.
+     */
+    public int openSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * @return the number of new session requests received, including failed ones.
+     */
+    public int sessionRequests() {
+        return sessionRequests.get();
+    }
+
+    /**
+     * @return the number of distinct client ports the node was called from, i.e. of connections opened to it.
+     */
+    public int connections() {
+        return clientPorts.size();
+    }
+
+    /**
+     * @return the URL of the node.
+     */
+    public URL url() {
+        InetSocketAddress address = server.getAddress();
+        try {
+            return URI.create("http://" + address.getHostString() + ":" + address.getPort()).toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stops the node.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
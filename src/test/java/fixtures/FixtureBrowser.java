@@ -0,0 +1,35 @@
+package fixtures;
+
+import driver.DriverFactory;
+import org.junit.jupiter.api.Assumptions;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Starts a real browser for fixture-based tests, or aborts the test when no browser can be started on this machine.
+ * <p>
+ * The browser is chosen by {@code -Dfixture.browser} and defaults to Chrome. It is created through
+ * {@link DriverFactory}, so it uses the options of {@code config.json}; add
+ * {@code -Dconfig.options.default.headless=true} on machines without a display.
+ * </p>
+ */
+public final class FixtureBrowser {
+
+    private FixtureBrowser() {
+    }
+
+    /**
+     * Starts the browser.
+     *
+     * @return the WebDriver instance.
+     * @throws org.opentest4j.TestAbortedException if no browser could be started.
+     */
+    public static WebDriver start() {
+        String browser = System.getProperty("fixture.browser", "chrome");
+        try {
+            return DriverFactory.createDriver(browser);
+        } catch (RuntimeException | LinkageError e) {
+            Assumptions.abort("No " + browser + " browser available: " + e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package fixtures;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the HTML fixtures under {@code src/test/resources/fixtures} from an embedded HTTP server on a free local
+ * port, so browser tests do not depend on external sites.
+ *
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (FixtureServer server = FixtureServer.start()) {
+ *     driver.get(server.url("orders.html"));
+ * }
+ * }</pre>
+ * </p>
+ *
+ * <p>
+ * Heavy assets are generated on request: {@code /generated/<name>?bytes=<size>} answers with a body of the given
+ * size and the content type of the file extension, so fixtures can reference large images, fonts and scripts without
+ * storing them. The server counts the requests it receives per path.
+ * </p>
+ */
+public final class FixtureServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, AtomicInteger> requests;
+
+    private FixtureServer(HttpServer server, Map<String, AtomicInteger> requests) {
+        this.server = server;
+        this.requests = requests;
+    }
+
+    /**
+     * Starts a server on a free port of the loopback interface.
+     *
+     * @return the running server.
+     * @throws IOException if the server cannot be started.
+     */
+    public static FixtureServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+        server.createContext("/generated/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            try {
+                byte[] body = generate(path, exchange.getRequestURI().getQuery());
+                exchange.getResponseHeaders().set("Content-Type", contentType(path));
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            try (InputStream resource = FixtureServer.class.getResourceAsStream("/fixtures" + path)) {
+                if (resource == null || path.contains("..")) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] body = resource.readAllBytes();
+                exchange.getResponseHeaders().set("Content-Type", contentType(path));
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return new FixtureServer(server, requests);
+    }
+
+    private static byte[] generate(String path, String query) {
+        int size = 1024;
+        if (query != null && query.startsWith("bytes=")) {
+            size = Integer.parseInt(query.substring("bytes=".length()));
+        }
+        byte[] body = new byte[size];
+        if (path.endsWith(".js") || path.endsWith(".css")) {
+            // A comment of the requested size, so the asset is valid and does nothing.
+            Arrays.fill(body, (byte) ' ');
+            byte[] open = "/*".getBytes(StandardCharsets.US_ASCII);
+            byte[] close = "*/".getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(open, 0, body, 0, Math.min(open.length, size));
+            if (size >= open.length + close.length) {
+                System.arraycopy(close, 0, body, size - close.length, close.length);
+            }
+        } else {
+            Arrays.fill(body, (byte) 0x5a);
+        }
+        return body;
+    }
+
+    /**
+     * @param path the path of a request, e.g. {@code "/generated/photo-1.png"}.
+     * @return the number of requests the server received for the path.
+     */
+    public int requestCount(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @param fixture the file name of the fixture, e.g. {@code "orders.html"}.
+     * @return the URL the fixture is served at.
+     */
+    public String url(String fixture) {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/" + fixture;
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".html")) {
+            return "text/html; charset=utf-8";
+        }
+        if (path.endsWith(".js")) {
+            return "text/javascript; charset=utf-8";
+        }
+        if (path.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        }
+        if (path.endsWith(".png")) {
+            return "image/png";
+        }
+        if (path.endsWith(".woff2")) {
+            return "font/woff2";
+        }
+        return "application/octet-stream";
+    }
+}
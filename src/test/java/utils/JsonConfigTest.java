@@ -0,0 +1,97 @@
+package utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonConfigTest {
+
+    private static final String CONTENT = "{"
+            + "\"driver\": \"chrome\","
+            + "\"app.url\": \"https://flat.example\","
+            + "\"app\": {\"url\": \"https://nested.example\", \"retries\": 2},"
+            + "\"pool\": {\"maxTotal\": 4, \"idleTimeout\": \"5m\"},"
+            + "\"browsers\": [\"chrome\", \"edge\"]"
+            + "}";
+
+    private final Map<String, String> environment = new HashMap<>();
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty("config.pool.maxTotal");
+    }
+
+    private JsonConfig config() {
+        return JsonConfig.parse(CONTENT, environment::get);
+    }
+
+    @DisplayName("A system property overrides the environment, which overrides the file")
+    @Test
+    public void testOverridePrecedence() {
+        assertEquals(4, config().getInt("pool.maxTotal", 0));
+
+        environment.put("CONFIG_POOL_MAX_TOTAL", "6");
+        assertEquals(6, config().getInt("pool.maxTotal", 0));
+        assertEquals(6, config().getSection("pool").getInt("maxTotal", 0));
+
+        System.setProperty("config.pool.maxTotal", "8");
+        assertEquals(8, config().getInt("pool.maxTotal", 0));
+        assertEquals(8, config().getSection("pool").getInt("maxTotal", 0));
+    }
+
+    @DisplayName("Dotted camel-case paths map to upper snake case environment names")
+    @Test
+    public void testEnvironmentNames() {
+        assertEquals("POOL_MAX_TOTAL", JsonConfig.toEnvironmentName("pool.maxTotal"));
+        assertEquals("DRIVER", JsonConfig.toEnvironmentName("driver"));
+        assertEquals("SCREENSHOTS_MAX_WIDTH", JsonConfig.toEnvironmentName("screenshots.maxWidth"));
+        assertEquals("NETWORK_BLOCK_URLS", JsonConfig.toEnvironmentName("network.block-urls"));
+        assertEquals("DRIVER_PATHS_CHROME", JsonConfig.toEnvironmentName("driverPaths.chrome"));
+    }
+
+    @DisplayName("Durations accept unit suffixes, ISO-8601 and plain milliseconds")
+    @Test
+    public void testDurationFormats() {
+        assertEquals(Duration.ofMillis(500), JsonConfig.parseDuration("500ms"));
+        assertEquals(Duration.ofSeconds(30), JsonConfig.parseDuration("30s"));
+        assertEquals(Duration.ofMinutes(5), JsonConfig.parseDuration("5m"));
+        assertEquals(Duration.ofHours(1), JsonConfig.parseDuration("1h"));
+        assertEquals(Duration.ofDays(7), JsonConfig.parseDuration("7d"));
+        assertEquals(Duration.ofSeconds(90), JsonConfig.parseDuration("PT1M30S"));
+        assertEquals(Duration.ofMillis(250), JsonConfig.parseDuration("250"));
+
+        assertEquals(Duration.ofMinutes(5), config().getDuration("pool.idleTimeout", Duration.ZERO));
+        assertEquals(Duration.ofSeconds(1), config().getDuration("pool.missing", Duration.ofSeconds(1)));
+        environment.put("CONFIG_POOL_IDLE_TIMEOUT", "soon");
+        assertThrows(IllegalArgumentException.class, () -> config().getDuration("pool.idleTimeout", Duration.ZERO));
+    }
+
+    @DisplayName("A key containing dots is matched exactly before it is read as a path")
+    @Test
+    public void testExactKeyBeforePath() {
+        JsonConfig config = config();
+
+        assertEquals("https://flat.example", config.getString("app.url"));
+        assertEquals(2, config.getInt("app.retries", 0));
+        assertEquals("https://nested.example", config.getSection("app").getString("url"));
+        assertEquals("chrome", config.getString("driver"));
+        assertThrows(IllegalArgumentException.class, () -> config.getString("app.missing"));
+    }
+
+    @DisplayName("Lists are read from arrays, single values and comma-separated overrides")
+    @Test
+    public void testStringLists() {
+        assertEquals(List.of("chrome", "edge"), config().getStringList("browsers"));
+        assertEquals(List.of("chrome"), config().getStringList("driver"));
+
+        environment.put("CONFIG_BROWSERS", "firefox, safari");
+        assertEquals(List.of("firefox", "safari"), config().getStringList("browsers"));
+    }
+}
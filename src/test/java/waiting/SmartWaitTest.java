@@ -0,0 +1,163 @@
+package waiting;
+
+import driver.FakeWebDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmartWaitTest {
+
+    private final SmartWait wait = new SmartWait(
+            new PollingStrategy(Duration.ofMillis(1), Duration.ofMillis(8), 2, 0));
+
+    @BeforeEach
+    public void resetStatistics() {
+        WaitStatistics.reset();
+        WaitStatistics.setEnabled(true);
+    }
+
+    @AfterEach
+    public void disableStatistics() {
+        WaitStatistics.setEnabled(false);
+    }
+
+    @DisplayName("Poll intervals start short, grow exponentially and are capped")
+    @Test
+    public void testBackoff() {
+        PollingStrategy strategy = new PollingStrategy(Duration.ofMillis(50), Duration.ofMillis(500), 2, 0);
+        assertEquals(Duration.ofMillis(50), strategy.nextInterval(1));
+        assertEquals(Duration.ofMillis(100), strategy.nextInterval(2));
+        assertEquals(Duration.ofMillis(400), strategy.nextInterval(4));
+        assertEquals(Duration.ofMillis(500), strategy.nextInterval(10));
+
+        PollingStrategy jittered = new PollingStrategy(Duration.ofMillis(100), Duration.ofMillis(100), 1, 0.5);
+        for (int i = 0; i < 100; i++) {
+            long millis = jittered.nextInterval(1).toMillis();
+            assertTrue(millis >= 50 && millis <= 100, "Interval out of range: " + millis);
+        }
+    }
+
+    @DisplayName("A condition is polled until met, ignoring missing elements, and recorded per call site")
+    @Test
+    public void testUntilRecordsCallSite() {
+        AtomicInteger calls = new AtomicInteger();
+        String result = wait.until(new FakeWebDriver(), driver -> {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                throw new NoSuchElementException("not yet");
+            }
+            return call < 4 ? null : "done";
+        }, Duration.ofSeconds(5));
+
+        assertEquals("done", result);
+        WaitStatistics.CallSiteStats stats = WaitStatistics.snapshot().get(0);
+        assertTrue(stats.getCallSite().startsWith(SmartWaitTest.class.getName() + ".testUntilRecordsCallSite:"));
+        assertEquals(1, stats.getCount());
+        assertEquals(4, stats.getTotalPolls());
+        assertEquals(0, stats.getTimeouts());
+    }
+
+    @DisplayName("A condition that is never met times out and is recorded as a timeout")
+    @Test
+    public void testTimeout() {
+        TimeoutException exception = assertThrows(TimeoutException.class,
+                () -> wait.until(new FakeWebDriver(), driver -> false, Duration.ofMillis(50)));
+
+        assertTrue(exception.getMessage().contains("polls"));
+        WaitStatistics.CallSiteStats stats = WaitStatistics.snapshot().get(0);
+        assertEquals(1, stats.getTimeouts());
+        assertTrue(stats.getTotalPolls() > 1);
+    }
+
+    @DisplayName("In-browser waits take a single script call")
+    @Test
+    public void testInBrowserWaitIsOneRoundTrip() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.setScriptHandler(script -> true);
+
+        wait.untilInBrowser(driver, "document.readyState === 'complete'", Duration.ofSeconds(5));
+
+        // Reading the script timeout, then the script.
+        assertEquals(2, driver.getCommandCount());
+        assertEquals(1, driver.getExecutedScripts().size());
+        assertTrue(driver.getExecutedScripts().get(0).contains("(document.readyState === 'complete')"));
+        assertEquals(1, WaitStatistics.snapshot().get(0).getTotalPolls());
+    }
+
+    @DisplayName("A wait longer than the script timeout raises it for the wait and restores it afterwards")
+    @Test
+    public void testLongInBrowserWaitRestoresScriptTimeout() {
+        FakeWebDriver driver = new FakeWebDriver();
+        List<Duration> duringScript = new ArrayList<>();
+        driver.setScriptHandler(script -> duringScript.add(driver.getScriptTimeout()));
+
+        wait.untilInBrowser(driver, "window.ready", Duration.ofSeconds(30));
+        assertEquals(List.of(Duration.ofSeconds(35)), duringScript);
+        assertEquals(Duration.ofSeconds(30), driver.getScriptTimeout());
+
+        // A session configured with a shorter timeout is raised as well.
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(2));
+        wait.untilInBrowser(driver, "window.ready", Duration.ofSeconds(1));
+        assertEquals(Duration.ofSeconds(6), duringScript.get(1));
+        assertEquals(Duration.ofSeconds(2), driver.getScriptTimeout());
+
+        int commands = driver.getCommandCount();
+        driver.manage().timeouts().scriptTimeout(Duration.ofMinutes(1));
+        wait.untilInBrowser(driver, "window.ready", Duration.ofSeconds(10));
+        assertEquals(commands + 3, driver.getCommandCount());
+        assertEquals(Duration.ofSeconds(60), duringScript.get(2));
+    }
+
+    @DisplayName("Statistics are not recorded while disabled")
+    @Test
+    public void testDisabledStatistics() {
+        WaitStatistics.setEnabled(false);
+
+        wait.until(new FakeWebDriver(), driver -> true, Duration.ofSeconds(1));
+
+        assertTrue(WaitStatistics.snapshot().isEmpty());
+    }
+
+    @DisplayName("An in-browser wait on a lost session fails instead of polling")
+    @Test
+    public void testInBrowserWaitOnLostSessionFails() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.setScriptHandler(script -> {
+            throw new NoSuchSessionException("gone");
+        });
+
+        assertThrows(NoSuchSessionException.class,
+                () -> wait.untilInBrowser(driver, "window.ready", Duration.ofSeconds(5)));
+        assertEquals(1, driver.getExecutedScripts().size());
+    }
+
+    @DisplayName("An interrupted in-browser wait falls back to polling from the test")
+    @Test
+    public void testInBrowserWaitFallsBackToPolling() {
+        FakeWebDriver driver = new FakeWebDriver();
+        AtomicInteger polls = new AtomicInteger();
+        driver.setScriptHandler(script -> {
+            if (script.contains("setTimeout")) {
+                throw new JavascriptException("javascript error: document unloaded while waiting for result");
+            }
+            return polls.incrementAndGet() >= 3;
+        });
+
+        wait.untilInBrowser(driver, "window.ready", Duration.ofSeconds(5));
+
+        assertEquals(3, polls.get());
+        assertEquals(4, WaitStatistics.snapshot().get(0).getTotalPolls());
+    }
+}